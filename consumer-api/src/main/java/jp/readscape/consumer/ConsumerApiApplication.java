@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EntityScan(basePackages = "jp.readscape.consumer.domain")
 @EnableJpaRepositories(basePackages = "jp.readscape.consumer.domain")
+@EnableScheduling
 public class ConsumerApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,29 @@
+package jp.readscape.consumer.config;
+
+import jp.readscape.consumer.domain.orders.numbering.OrderNumberGenerator;
+import jp.readscape.consumer.domain.orders.numbering.SnowflakeOrderNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 注文番号採番の設定
+ * 複数インスタンスで稼働する場合は order.number.node-id にインスタンスごとに異なる値（0〜1023）を設定すること
+ * 本番環境（prod / production / docker）ではホスト名からの導出を許可せず、未設定の場合は起動に失敗する
+ */
+@Configuration
+@Slf4j
+public class OrderNumberConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OrderNumberGenerator.class)
+    public OrderNumberGenerator orderNumberGenerator(
+            @Value("${order.number.node-id:-1}") long nodeId,
+            @Value("${order.number.allow-derived-node-id:true}") boolean allowDerivedNodeId) {
+        SnowflakeOrderNumberGenerator generator = SnowflakeOrderNumberGenerator.configure(nodeId, allowDerivedNodeId);
+        log.info("Order number generator initialized with node id {}", generator.getNodeId());
+        return generator;
+    }
+}
@@ -0,0 +1,73 @@
+package jp.readscape.consumer.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jp.readscape.consumer.domain.users.model.User;
+import jp.readscape.consumer.services.ratelimit.RateLimitDecision;
+import jp.readscape.consumer.services.ratelimit.RateLimitGroup;
+import jp.readscape.consumer.services.ratelimit.RateLimitService;
+import jp.readscape.consumer.utils.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * レート制限インターセプター
+ * 認証済みユーザーはユーザーID、未認証はIPアドレスごとに制限し、X-RateLimit-* ヘッダーで残量を返す
+ * 認証はSpring Securityのフィルターで済んでいるため、トークンを再解析しない
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private static final String EXCEEDED_BODY =
+            "{\"error\":\"RATE_LIMIT_EXCEEDED\",\"message\":\"リクエスト制限を超過しました\"}";
+
+    private final RateLimitService rateLimitService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = authenticatedUserId();
+        String clientKey = userId != null ? "u:" + userId : "ip:" + SecurityUtils.getClientIpAddress(request);
+        RateLimitGroup group = RateLimitGroup.resolve(request);
+
+        RateLimitDecision decision = rateLimitService.tryConsume(clientKey, userId != null, group);
+        response.setHeader(LIMIT_HEADER, Long.toString(decision.getLimit()));
+        response.setHeader(REMAINING_HEADER, Long.toString(decision.getRemaining()));
+        response.setHeader(RESET_HEADER, Long.toString(decision.getResetSeconds()));
+        if (decision.isAllowed()) {
+            return true;
+        }
+
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(decision.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            response.getWriter().write(EXCEEDED_BODY);
+        } catch (IOException e) {
+            log.error("Error writing rate limit response", e);
+        }
+        return false;
+    }
+
+    // プライベートメソッド
+
+    private Long authenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
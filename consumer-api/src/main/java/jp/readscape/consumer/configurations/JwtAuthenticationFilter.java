@@ -4,9 +4,13 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jp.readscape.consumer.domain.users.model.User;
+import jp.readscape.consumer.domain.users.model.UserRole;
 import jp.readscape.consumer.services.JwtService;
-import lombok.RequiredArgsConstructor;
+import jp.readscape.consumer.services.security.UserStatusCache;
+import jp.readscape.consumer.services.security.VerifiedToken;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,12 +26,23 @@ import java.io.IOException;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @ConditionalOnProperty(name = "security.enabled", havingValue = "true", matchIfMissing = true)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final boolean stateless;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   UserStatusCache userStatusCache,
+                                   @Value("${spring.security.jwt.stateless:false}") boolean stateless) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.userStatusCache = userStatusCache;
+        this.stateless = stateless;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -38,6 +53,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final VerifiedToken verified;
         final String username;
 
         // Authorizationヘッダーのチェック
@@ -49,8 +65,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // JWTトークンの抽出
         jwt = authHeader.substring(7);
         
+        // 解析・署名検証はここで一度だけ行い、以降は検証済みクレームを使う
         try {
-            username = jwtService.extractUsername(jwt);
+            verified = jwtService.verify(jwt);
+            username = verified.getSubject();
         } catch (Exception e) {
             log.debug("JWT token extraction failed: {}", e.getMessage());
             filterChain.doFilter(request, response);
@@ -60,10 +78,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // ユーザー認証（スレッドセーフティ強化）
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // UserDetailsの取得をキャッシュして重複ロードを防ぐ
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // ステートレスモードでは検証済みクレームからプリンシパルを復元し、usersテーブルを引かない
+                // （ロック・無効化はユーザー状態キャッシュで確認する）
+                boolean fromClaims = canAuthenticateFromClaims(verified);
+                UserDetails userDetails = fromClaims
+                        ? toPrincipal(verified)
+                        : userDetailsService.loadUserByUsername(username);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(jwt, verified, userDetails)
+                        && (!fromClaims || userStatusCache.isAllowed(username))) {
                     // SecurityContextの重複チェック（ダブルチェック）
                     SecurityContext context = SecurityContextHolder.getContext();
                     if (context.getAuthentication() == null) {
@@ -87,4 +110,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // プライベートメソッド
+
+    private boolean canAuthenticateFromClaims(VerifiedToken verified) {
+        // ユーザーIDを含まない旧形式のトークンは従来どおりDBから読み込む
+        return stateless && verified.getUserId() != null && !verified.getRoles().isEmpty();
+    }
+
+    /**
+     * クレームからプリンシパルを復元（コントローラーが参照するID・ユーザー名・ロールのみを持つ非永続のUser）
+     */
+    private User toPrincipal(VerifiedToken verified) {
+        return User.builder()
+                .id(verified.getUserId())
+                .username(verified.getSubject())
+                .role(UserRole.valueOf(verified.getRoles().get(0)))
+                .build();
+    }
+}
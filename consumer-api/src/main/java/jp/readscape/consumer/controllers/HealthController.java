@@ -59,7 +59,8 @@ public class HealthController implements HealthIndicator {
             TokenBlacklistService.BlacklistStats stats = tokenBlacklistService.getStats();
             health.put("tokenBlacklistService", Map.of(
                 "status", "UP",
-                "active_blacklisted_tokens", stats.getActiveTokens()
+                "active_blacklisted_tokens", stats.getActiveTokens(),
+                "redis_available", stats.isRedisAvailable()
             ));
             
             // 総合ステータス
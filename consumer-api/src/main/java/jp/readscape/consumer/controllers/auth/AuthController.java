@@ -13,11 +13,13 @@ import jp.readscape.consumer.dto.auth.LoginRequest;
 import jp.readscape.consumer.dto.auth.LoginResponse;
 import jp.readscape.consumer.dto.auth.RefreshTokenRequest;
 import jp.readscape.consumer.dto.auth.RefreshTokenResponse;
+import jp.readscape.consumer.exceptions.PasswordHashingOverloadedException;
 import jp.readscape.consumer.services.JwtService;
 import jp.readscape.consumer.services.UserService;
 import jp.readscape.consumer.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -44,7 +46,8 @@ public class AuthController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "ログイン成功"),
         @ApiResponse(responseCode = "401", description = "認証失敗",
-            content = @Content(schema = @Schema(implementation = jp.readscape.consumer.dto.ApiResponse.class)))
+            content = @Content(schema = @Schema(implementation = jp.readscape.consumer.dto.ApiResponse.class))),
+        @ApiResponse(responseCode = "503", description = "ログインが集中しているため受付不可（Retry-After秒後に再試行）")
     })
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
@@ -79,6 +82,10 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(jp.readscape.consumer.dto.ApiResponse.error("ユーザー名またはパスワードが正しくありません"));
             }
+        } catch (PasswordHashingOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(jp.readscape.consumer.dto.ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Login error for user {}: {}", SecurityUtils.maskUserIdentifier(request.getUsernameOrEmail()), e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
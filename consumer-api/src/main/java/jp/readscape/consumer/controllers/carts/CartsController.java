@@ -5,6 +5,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jp.readscape.consumer.dto.ApiResponse;
 import jp.readscape.consumer.dto.carts.AddToCartRequest;
+import jp.readscape.consumer.dto.carts.BatchCartRequest;
+import jp.readscape.consumer.dto.carts.BatchCartResponse;
 import jp.readscape.consumer.dto.carts.CartResponse;
 import jp.readscape.consumer.dto.carts.UpdateCartQuantityRequest;
 import jp.readscape.consumer.services.CartService;
@@ -51,6 +53,19 @@ public class CartsController {
         return ResponseEntity.ok(ApiResponse.success("商品をカートに追加しました"));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "カート一括更新", description = "複数の追加・数量変更・削除操作を1トランザクションで適用し、操作ごとの結果と更新後のカートを返します")
+    @PreAuthorize("hasRole('CONSUMER')")
+    public ResponseEntity<BatchCartResponse> applyCartOperations(
+            @Valid @RequestBody BatchCartRequest request,
+            Authentication auth
+    ) {
+        String username = auth.getName();
+        BatchCartResponse response = cartService.applyCartOperations(username, request.getOperations());
+
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{bookId}")
     @Operation(summary = "カート内商品の数量を変更", description = "カート内の指定された書籍の数量を変更します")
     @PreAuthorize("hasRole('CONSUMER')")
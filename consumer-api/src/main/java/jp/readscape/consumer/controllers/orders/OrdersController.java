@@ -13,16 +13,29 @@ import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.dto.orders.CreateOrderRequest;
 import jp.readscape.consumer.dto.orders.CreateOrderResponse;
 import jp.readscape.consumer.dto.orders.OrderDetail;
+import jp.readscape.consumer.dto.orders.OrderTicket;
 import jp.readscape.consumer.dto.users.OrderSummary;
+import jp.readscape.consumer.exceptions.CheckoutQueueFullException;
+import jp.readscape.consumer.exceptions.IdempotencyKeyReuseException;
+import jp.readscape.consumer.exceptions.IdempotentRequestInProgressException;
 import jp.readscape.consumer.services.OrderService;
+import jp.readscape.consumer.services.StockAvailabilityService;
+import jp.readscape.consumer.services.checkout.CheckoutQueueService;
+import jp.readscape.consumer.services.idempotency.IdempotencyService;
+import jp.readscape.consumer.services.idempotency.IdempotentResult;
+import jp.readscape.consumer.utils.ValidationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -34,25 +47,38 @@ import java.util.List;
 public class OrdersController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final CheckoutQueueService checkoutQueueService;
+    private final StockAvailabilityService stockAvailabilityService;
 
     @Operation(
         summary = "注文作成",
-        description = "カート内容から注文を作成します。在庫チェックと減算を行い、トランザクション内で処理されます。",
+        description = "カート内容から注文を作成します。在庫チェックと減算を行い、トランザクション内で処理されます。" +
+                "Idempotency-Keyヘッダーを指定した場合、同じキーでの再送には最初のレスポンスを返します。" +
+                "Prefer: respond-async ヘッダーを指定した場合は注文を受付キューに積んで202とチケットを返します。",
         security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "注文作成成功"),
+        @ApiResponse(responseCode = "202", description = "注文受付（非同期）。Locationヘッダーのチケットで結果を取得します"),
         @ApiResponse(responseCode = "400", description = "バリデーションエラーまたはビジネスルールエラー",
             content = @Content(schema = @Schema(implementation = jp.readscape.consumer.dto.ApiResponse.class))),
         @ApiResponse(responseCode = "401", description = "認証が必要です"),
-        @ApiResponse(responseCode = "409", description = "在庫不足エラー",
+        @ApiResponse(responseCode = "409", description = "在庫不足エラー、または同じIdempotency-Keyのリクエストを処理中",
+            content = @Content(schema = @Schema(implementation = jp.readscape.consumer.dto.ApiResponse.class))),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Keyが異なるリクエスト内容で使用済み",
+            content = @Content(schema = @Schema(implementation = jp.readscape.consumer.dto.ApiResponse.class))),
+        @ApiResponse(responseCode = "503", description = "注文受付キューが満杯（Retry-Afterヘッダーの秒数後に再試行）",
             content = @Content(schema = @Schema(implementation = jp.readscape.consumer.dto.ApiResponse.class)))
     })
     @PostMapping
     @PreAuthorize("hasRole('CONSUMER') or hasRole('ADMIN')")
-    @Transactional
     public ResponseEntity<?> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
+            @Parameter(description = "再送時の重複注文を防ぐための一意なキー")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Parameter(description = "respond-async を指定すると非同期で受け付けます")
+            @RequestHeader(value = CheckoutQueueService.PREFER_HEADER, required = false) String prefer,
             Authentication auth
     ) {
         String username = (auth != null && auth.getName() != null) ? auth.getName() : "unknown";
@@ -65,11 +91,50 @@ public class OrdersController {
             }
 
             User user = (User) auth.getPrincipal();
-            CreateOrderResponse response = orderService.createOrderFromCart(user.getId(), request);
+            if (checkoutQueueService.isAsyncRequested(prefer)) {
+                OrderTicket ticket = checkoutQueueService.submit(user.getId(), request, idempotencyKey);
+
+                log.info("Order queued: ticket {} for user: {}", ticket.getTicketId(), user.getUsername());
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .header(HttpHeaders.LOCATION, "/api/orders/tickets/" + ticket.getTicketId())
+                        .body(ticket);
+            }
+
+            if (idempotencyKey == null) {
+                // 空のカートや明らかな在庫切れはトランザクションを開始する前に拒否する
+                stockAvailabilityService.precheckCheckout(user.getId());
+                CreateOrderResponse response = orderService.createOrderFromCart(user.getId(), request);
+
+                log.info("Order created successfully: {} for user: {}", response.getOrderNumber(), user.getUsername());
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            }
+
+            // 再送は保存済みレスポンスを返すため、事前チェックは初回の実行時のみ行う（注文済みでカートが空になっているため）
+            IdempotentResult<CreateOrderResponse> result = idempotencyService.execute(
+                    user.getId(), idempotencyKey, request, CreateOrderResponse.class,
+                    () -> {
+                        stockAvailabilityService.precheckCheckout(user.getId());
+                        return orderService.createOrderFromCart(user.getId(), request);
+                    });
 
-            log.info("Order created successfully: {} for user: {}", response.getOrderNumber(), user.getUsername());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            log.info("Order {}: {} for user: {}", result.isReplayed() ? "replayed" : "created successfully",
+                    result.getResponse().getOrderNumber(), user.getUsername());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.isReplayed()))
+                    .body(result.getResponse());
 
+        } catch (CheckoutQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(jp.readscape.consumer.dto.ApiResponse.error(e.getMessage()));
+        } catch (IdempotencyKeyReuseException e) {
+            log.warn("Idempotency key reused with a different payload by user {}", username);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(jp.readscape.consumer.dto.ApiResponse.error(e.getMessage()));
+        } catch (IdempotentRequestInProgressException e) {
+            log.warn("Duplicate order request still in progress for user {}", username);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(jp.readscape.consumer.dto.ApiResponse.error(e.getMessage()));
         } catch (IllegalArgumentException e) {
             log.warn("Order creation failed for user {}: {}", username, e.getMessage());
             return ResponseEntity.badRequest()
@@ -85,6 +150,61 @@ public class OrdersController {
         }
     }
 
+    @Operation(
+        summary = "注文受付チケット取得",
+        description = "非同期で受け付けた注文の処理状態を取得します。COMPLETEDの場合は作成された注文を含みます。",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "チケット取得成功"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "404", description = "チケットが見つかりません（期限切れを含む）")
+    })
+    @GetMapping("/tickets/{ticketId}")
+    @PreAuthorize("hasRole('CONSUMER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getOrderTicket(
+            @Parameter(description = "チケットID", required = true)
+            @PathVariable String ticketId,
+            Authentication auth
+    ) {
+        if (auth == null || auth.getPrincipal() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(jp.readscape.consumer.dto.ApiResponse.error("認証が必要です"));
+        }
+
+        User user = (User) auth.getPrincipal();
+        return checkoutQueueService.getTicket(ticketId, user.getId())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "注文受付チケット購読",
+        description = "非同期で受け付けた注文の処理状態をServer-Sent Eventsで受信します。完了または失敗の通知後にストリームを閉じます。",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "購読開始"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "404", description = "チケットが見つかりません（期限切れを含む）")
+    })
+    @GetMapping(value = "/tickets/{ticketId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('CONSUMER') or hasRole('ADMIN')")
+    public ResponseEntity<SseEmitter> subscribeOrderTicket(
+            @Parameter(description = "チケットID", required = true)
+            @PathVariable String ticketId,
+            Authentication auth
+    ) {
+        if (auth == null || auth.getPrincipal() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        User user = (User) auth.getPrincipal();
+        return checkoutQueueService.subscribe(ticketId, user.getId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @Operation(
         summary = "注文履歴取得",
         description = "認証済みユーザーの注文履歴を取得します。新しい注文順で並びます。",
@@ -111,6 +231,41 @@ public class OrdersController {
         return ResponseEntity.ok(orders);
     }
 
+    @Operation(
+        summary = "注文履歴取得（ページング）",
+        description = "認証済みユーザーの注文履歴をページ単位で取得します。新しい注文順で並びます。",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "注文履歴取得成功"),
+        @ApiResponse(responseCode = "400", description = "ページングパラメータが不正です"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です")
+    })
+    @GetMapping("/history")
+    @PreAuthorize("hasRole('CONSUMER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getOrderHistory(
+            @Parameter(description = "ページ番号（0から開始）", example = "0")
+            @RequestParam(defaultValue = "0") Integer page,
+            @Parameter(description = "ページサイズ", example = "10")
+            @RequestParam(defaultValue = "10") Integer size,
+            Authentication auth
+    ) {
+        String username = (auth != null && auth.getName() != null) ? auth.getName() : "unknown";
+        log.info("GET /api/orders/history?page={}&size={} - user: {}", page, size, username);
+
+        if (auth == null || auth.getPrincipal() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(jp.readscape.consumer.dto.ApiResponse.error("認証が必要です"));
+        }
+
+        ValidationUtils.validatePagingParameters(page, size);
+
+        User user = (User) auth.getPrincipal();
+        Page<OrderSummary> history = orderService.getUserOrderHistory(user.getId(), page, size);
+
+        return ResponseEntity.ok(history);
+    }
+
     @Operation(
         summary = "注文詳細取得",
         description = "指定された注文IDの詳細情報を取得します。本人の注文のみアクセス可能です。",
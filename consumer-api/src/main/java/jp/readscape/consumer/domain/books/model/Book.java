@@ -42,6 +42,13 @@ public class Book {
     @Builder.Default
     private Integer stockQuantity = 0;
 
+    /**
+     * 在庫ストライプ数（0の場合はストライプ無効）
+     */
+    @Column(name = "stock_stripe_count", nullable = false)
+    @Builder.Default
+    private Integer stockStripeCount = 0;
+
     @Column(name = "average_rating", precision = 2, scale = 1)
     @Builder.Default
     private BigDecimal averageRating = BigDecimal.ZERO;
@@ -75,6 +82,10 @@ public class Book {
         return stockQuantity != null && stockQuantity > 0;
     }
 
+    public boolean isStockStriped() {
+        return stockStripeCount != null && stockStripeCount > 0;
+    }
+
     public boolean hasReviews() {
         return reviewCount != null && reviewCount > 0;
     }
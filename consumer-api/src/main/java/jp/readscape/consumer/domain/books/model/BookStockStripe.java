@@ -0,0 +1,47 @@
+package jp.readscape.consumer.domain.books.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 書籍の在庫ストライプ
+ * ホットSKUの在庫を複数行に分散し、同時購入時の行ロック競合を緩和する
+ */
+@Entity
+@Table(name = "book_stock_stripes", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"book_id", "stripe_no"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookStockStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "stripe_no", nullable = false)
+    private Integer stripeNo;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer quantity = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -4,10 +4,13 @@ import jp.readscape.consumer.domain.books.model.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -78,4 +81,46 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      */
     @Query("SELECT b FROM Book b WHERE b.stockQuantity > :minStock ORDER BY b.stockQuantity ASC")
     List<Book> findBooksWithMinimumStock(@Param("minStock") Integer minStock);
-}
\ No newline at end of file
+
+    /**
+     * 在庫を条件付きで減算（在庫が足りる場合のみ更新）
+     * 更新件数が0の場合は在庫不足を意味する（ストライプ有効な書籍は StripedStockService で減算する）
+     */
+    @Modifying
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity - :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :bookId AND b.stockStripeCount = 0 AND b.stockQuantity >= :quantity")
+    int decrementStock(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+
+    /**
+     * 在庫をアトミックに加算（キャンセル時の在庫復元）
+     * 更新件数が0の場合はストライプ有効な書籍（StripedStockService で加算する）または存在しない書籍
+     */
+    @Modifying
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity + :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :bookId AND b.stockStripeCount = 0")
+    int incrementStock(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+
+    /**
+     * 書籍行をロックして在庫数を取得（仮押さえの判定と登録を書籍ごとに直列化する）
+     */
+    @Query(value = "SELECT stock_quantity FROM books WHERE id = :bookId FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockStockQuantity(@Param("bookId") Long bookId);
+
+    /**
+     * 書籍ID別の在庫数を取得（[書籍ID, 在庫数]の配列）
+     */
+    @Query("SELECT b.id, b.stockQuantity FROM Book b WHERE b.id IN :bookIds")
+    List<Object[]> findStockQuantitiesByIds(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * 全書籍の在庫数を取得（[書籍ID, 在庫数, ストライプ数]の配列、在庫スナップショットの全件読み込み用）
+     */
+    @Query("SELECT b.id, b.stockQuantity, b.stockStripeCount FROM Book b")
+    List<Object[]> findAllStockLevels();
+
+    /**
+     * 指定日時以降に更新された書籍の在庫数を取得（[書籍ID, 在庫数, ストライプ数]の配列、在庫スナップショットの差分読み込み用）
+     */
+    @Query("SELECT b.id, b.stockQuantity, b.stockStripeCount FROM Book b WHERE b.updatedAt >= :since")
+    List<Object[]> findStockLevelsUpdatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,50 @@
+package jp.readscape.consumer.domain.books.repository;
+
+import jakarta.persistence.LockModeType;
+import jp.readscape.consumer.domain.books.model.BookStockStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookStockStripeRepository extends JpaRepository<BookStockStripe, Long> {
+
+    /**
+     * ストライプ在庫を条件付きで減算（在庫不足の場合は更新件数0）
+     */
+    @Modifying
+    @Query("UPDATE BookStockStripe s SET s.quantity = s.quantity - :quantity, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.bookId = :bookId AND s.stripeNo = :stripeNo AND s.quantity >= :quantity")
+    int decrementStripe(@Param("bookId") Long bookId,
+                        @Param("stripeNo") int stripeNo,
+                        @Param("quantity") int quantity);
+
+    /**
+     * ストライプ在庫を加算
+     */
+    @Modifying
+    @Query("UPDATE BookStockStripe s SET s.quantity = s.quantity + :quantity, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.bookId = :bookId AND s.stripeNo = :stripeNo")
+    int incrementStripe(@Param("bookId") Long bookId,
+                        @Param("stripeNo") int stripeNo,
+                        @Param("quantity") int quantity);
+
+    /**
+     * 書籍の全ストライプをロックして取得（ストライプ番号順）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookStockStripe s WHERE s.bookId = :bookId ORDER BY s.stripeNo")
+    List<BookStockStripe> findByBookIdForUpdate(@Param("bookId") Long bookId);
+
+    /**
+     * 複数書籍のストライプ在庫合計（書籍ID, 合計）
+     */
+    @Query("SELECT s.bookId, SUM(s.quantity) FROM BookStockStripe s WHERE s.bookId IN :bookIds GROUP BY s.bookId")
+    List<Object[]> sumQuantitiesByBookIds(@Param("bookIds") Collection<Long> bookIds);
+}
@@ -141,6 +141,14 @@ public class Cart {
         return findItemByBookId(bookId) != null;
     }
 
+    /**
+     * 指定書籍のカート内数量を取得
+     */
+    public int getItemQuantity(Long bookId) {
+        CartItem item = findItemByBookId(bookId);
+        return item != null ? item.getQuantity() : 0;
+    }
+
     /**
      * 合計金額の表示用フォーマット
      */
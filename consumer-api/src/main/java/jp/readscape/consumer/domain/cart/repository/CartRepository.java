@@ -29,6 +29,12 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
      */
     boolean existsByUserId(Long userId);
 
+    /**
+     * ユーザーのカートの書籍別数量を取得（[書籍ID, 数量]の配列、カートのエンティティグラフは読み込まない）
+     */
+    @Query("SELECT ci.book.id, ci.quantity FROM Cart c JOIN c.items ci WHERE c.user.id = :userId")
+    List<Object[]> findItemQuantitiesByUserId(@Param("userId") Long userId);
+
     /**
      * 空のカートを検索
      */
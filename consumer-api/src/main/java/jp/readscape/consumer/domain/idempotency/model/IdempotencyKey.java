@@ -0,0 +1,78 @@
+package jp.readscape.consumer.domain.idempotency.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 冪等キー
+ * 処理中マーカーと完了済みレスポンスを保持し、同一キーでの再送をリプレイする
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "idempotency_key"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // ビジネスロジック
+
+    /**
+     * 冪等キーが期限切れかチェック
+     */
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
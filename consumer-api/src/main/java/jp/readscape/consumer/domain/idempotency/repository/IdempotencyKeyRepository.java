@@ -0,0 +1,61 @@
+package jp.readscape.consumer.domain.idempotency.repository;
+
+import jp.readscape.consumer.domain.idempotency.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    /**
+     * ユーザーと冪等キーで検索
+     */
+    Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * 処理結果を記録して完了済みにする
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = jp.readscape.consumer.domain.idempotency.model.IdempotencyKey.Status.COMPLETED, " +
+           "k.responseBody = :responseBody, k.expiresAt = :expiresAt, k.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE k.userId = :userId AND k.idempotencyKey = :idempotencyKey")
+    int markCompleted(@Param("userId") Long userId,
+                      @Param("idempotencyKey") String idempotencyKey,
+                      @Param("responseBody") String responseBody,
+                      @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * ユーザーの冪等キーを削除
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :idempotencyKey")
+    int deleteByUserIdAndIdempotencyKey(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * ユーザーの冪等キーが期限切れの場合のみ削除
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :idempotencyKey " +
+           "AND k.expiresAt <= :now")
+    int deleteExpiredByUserIdAndIdempotencyKey(@Param("userId") Long userId,
+                                               @Param("idempotencyKey") String idempotencyKey,
+                                               @Param("now") LocalDateTime now);
+
+    /**
+     * 期限切れの冪等キーを削除
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,6 +2,7 @@ package jp.readscape.consumer.domain.orders.model;
 
 import jakarta.persistence.*;
 import jp.readscape.consumer.constants.OrderConstants;
+import jp.readscape.consumer.domain.orders.numbering.SnowflakeOrderNumberGenerator;
 import jp.readscape.consumer.domain.users.model.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -94,10 +95,10 @@ public class Order {
     // ビジネスロジック
 
     /**
-     * 注文番号を生成
+     * 注文番号を生成（通常はOrderServiceが採番済みのため、直接保存された場合のみ使用）
      */
     private String generateOrderNumber() {
-        return OrderConstants.ORDER_NUMBER_PREFIX + System.currentTimeMillis();
+        return SnowflakeOrderNumberGenerator.shared().nextOrderNumber();
     }
 
     /**
@@ -0,0 +1,63 @@
+package jp.readscape.consumer.domain.orders.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * ユーザー別・注文日別の注文統計（顧客分析の期間集計用）
+ * 注文の作成・キャンセル時に UserOrderDailyStatsRepository の条件付き更新で維持する
+ * 注文数・総額はキャンセル分を除く
+ */
+@Entity
+@Table(name = "user_order_daily_stats")
+@IdClass(UserOrderDailyStats.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderDailyStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "order_date")
+    private LocalDate orderDate;
+
+    @Builder.Default
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount = 0;
+
+    @Builder.Default
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 複合主キー（ユーザーID + 注文日）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate orderDate;
+    }
+}
@@ -0,0 +1,45 @@
+package jp.readscape.consumer.domain.orders.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ユーザー別注文統計
+ * 注文作成時に UserOrderStatsRepository のアトミックな更新で維持する
+ * 注文数・総額・初回/最終注文日時はキャンセルされた注文も含む（キャンセルを除く期間集計は注文日別の統計を使う）
+ */
+@Entity
+@Table(name = "user_order_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Builder.Default
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount = 0;
+
+    @Builder.Default
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "first_order_date")
+    private LocalDateTime firstOrderDate;
+
+    @Column(name = "last_order_date")
+    private LocalDateTime lastOrderDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,13 @@
+package jp.readscape.consumer.domain.orders.numbering;
+
+/**
+ * 注文番号ジェネレーター
+ * 別の採番方式に差し替える場合はこのインターフェースを実装したBeanを登録する
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * 一意な注文番号を生成
+     */
+    String nextOrderNumber();
+}
@@ -0,0 +1,171 @@
+package jp.readscape.consumer.domain.orders.numbering;
+
+import jp.readscape.consumer.constants.OrderConstants;
+
+import java.net.InetAddress;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake方式の注文番号ジェネレーター
+ * 時刻（41bit）+ ノードID（10bit）+ シーケンス（12bit）の64bit IDをCASで採番し、DBアクセスなしで一意な番号を生成する
+ * 注文番号は「ORD-yyyyMMdd-XXXXX-XXXXX」形式（日付はJST、後半は日内ミリ秒・ノード・シーケンスのCrockford Base32）で、文字列順が採番順と一致する
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    /**
+     * 採番の基準時刻（2024-01-01T00:00:00+09:00）
+     */
+    static final long EPOCH_MILLIS = 1704034800000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long NODE_AND_SEQUENCE_MASK = (1L << (NODE_BITS + SEQUENCE_BITS)) - 1;
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long JST_OFFSET_MILLIS = TimeUnit.HOURS.toMillis(9);
+    private static final int SUFFIX_LENGTH = 10;
+    private static final char[] CROCKFORD_BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static volatile SnowflakeOrderNumberGenerator shared;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    /**
+     * 直近に払い出した（基準時刻からの経過ミリ秒 << SEQUENCE_BITS | シーケンス）
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    private volatile DatePrefix datePrefix = new DatePrefix(Long.MIN_VALUE, "");
+
+    public SnowflakeOrderNumberGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("ノードIDは0〜" + MAX_NODE_ID + "の範囲で指定してください: " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * 設定されたノードIDでプロセス共通のインスタンスを作成（直接保存された注文の採番もこのインスタンスで行う）
+     * ノードIDが負の場合はホスト名から導出するが、ホスト名のハッシュは10bitのためインスタンス間で衝突しうる
+     * 導出を許可しない場合（本番環境）は起動を失敗させる
+     *
+     * @throws IllegalStateException ノードIDが未設定で、導出が許可されていない場合
+     */
+    public static SnowflakeOrderNumberGenerator configure(long nodeId, boolean allowDerivedNodeId) {
+        if (nodeId < 0 && !allowDerivedNodeId) {
+            throw new IllegalStateException(
+                    "order.number.node-id（ORDER_NODE_ID）にインスタンスごとに一意なノードID（0〜" + MAX_NODE_ID + "）を設定してください");
+        }
+        synchronized (SnowflakeOrderNumberGenerator.class) {
+            // 同じノードIDのインスタンスは採番状態ごと使い続ける（作り直すと同一ミリ秒で重複しうる）
+            if (nodeId >= 0 && (shared == null || shared.nodeId != nodeId)) {
+                shared = new SnowflakeOrderNumberGenerator(nodeId);
+            }
+            return shared();
+        }
+    }
+
+    /**
+     * プロセス共通のインスタンスを取得（未設定の場合はホスト名から導出したノードIDで作成）
+     */
+    public static SnowflakeOrderNumberGenerator shared() {
+        SnowflakeOrderNumberGenerator instance = shared;
+        if (instance == null) {
+            synchronized (SnowflakeOrderNumberGenerator.class) {
+                instance = shared;
+                if (instance == null) {
+                    instance = new SnowflakeOrderNumberGenerator(deriveNodeId());
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * ホスト名のハッシュからノードIDを導出（取得できない場合は乱数）
+     */
+    public static long deriveNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode() & MAX_NODE_ID;
+        } catch (Exception e) {
+            return new SecureRandom().nextInt(MAX_NODE_ID + 1);
+        }
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return format(nextId());
+    }
+
+    /**
+     * 64bitの一意なIDを採番
+     * 同一ミリ秒内はシーケンスを進め、4096件を超えた場合や時計が巻き戻った場合は論理時刻を先に進めて単調増加を保つ
+     */
+    public long nextId() {
+        while (true) {
+            long current = lastState.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next = now > (current >>> SEQUENCE_BITS)
+                    ? now << SEQUENCE_BITS
+                    : current + 1;
+            if (lastState.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    /**
+     * IDを注文番号文字列に変換
+     */
+    public String format(long id) {
+        long localMillis = (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS + JST_OFFSET_MILLIS;
+        long epochDay = Math.floorDiv(localMillis, DAY_MILLIS);
+        long millisOfDay = Math.floorMod(localMillis, DAY_MILLIS);
+        long suffix = (millisOfDay << (NODE_BITS + SEQUENCE_BITS)) | (id & NODE_AND_SEQUENCE_MASK);
+
+        char[] encoded = new char[SUFFIX_LENGTH + 1];
+        for (int i = SUFFIX_LENGTH; i >= 0; i--) {
+            if (i == SUFFIX_LENGTH / 2) {
+                encoded[i] = '-';
+                continue;
+            }
+            encoded[i] = CROCKFORD_BASE32[(int) (suffix & 0x1F)];
+            suffix >>>= 5;
+        }
+
+        return datePrefix(epochDay) + new String(encoded);
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    private String datePrefix(long epochDay) {
+        DatePrefix cached = datePrefix;
+        if (cached.epochDay() != epochDay) {
+            cached = new DatePrefix(epochDay, OrderConstants.ORDER_NUMBER_PREFIX
+                    + LocalDate.ofEpochDay(epochDay).format(DateTimeFormatter.BASIC_ISO_DATE) + "-");
+            datePrefix = cached;
+        }
+        return cached.text();
+    }
+
+    private record DatePrefix(long epochDay, String text) {
+    }
+}
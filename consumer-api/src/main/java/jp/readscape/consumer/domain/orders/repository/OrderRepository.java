@@ -1,15 +1,19 @@
 package jp.readscape.consumer.domain.orders.repository;
 
+import jakarta.persistence.LockModeType;
 import jp.readscape.consumer.domain.orders.model.Order;
 import jp.readscape.consumer.domain.users.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,11 +35,34 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByUserOrderByOrderDateDesc(User user, Pageable pageable);
 
+    /**
+     * ユーザーIDで注文履歴を取得（ページング、並び順は Pageable で指定）
+     * 一覧表示の項目は注文行のみで賄えるため（商品数は item_count 列）、明細は読み込まない
+     */
+    Page<Order> findByUserId(Long userId, Pageable pageable);
+
     /**
      * ユーザーIDと注文IDで検索（認可チェック用）
+     * 注文詳細の表示用に明細を同じSQLで取得する（書籍IDは明細の外部キーから取得できるため書籍は結合しない）
      */
+    @EntityGraph(attributePaths = "items")
     Optional<Order> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * ユーザーIDと注文IDで検索（行ロック付き、キャンセルの二重実行防止用）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id AND o.user.id = :userId")
+    Optional<Order> findByIdAndUserIdForUpdate(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * 注文の書籍別数量を書籍ID昇順で取得（[書籍ID, 数量]の配列、書籍エンティティは読み込まない）
+     */
+    @Query("SELECT i.book.id, SUM(i.quantity) FROM OrderItem i " +
+           "WHERE i.order.id IN :orderIds AND i.book IS NOT NULL " +
+           "GROUP BY i.book.id ORDER BY i.book.id")
+    List<Object[]> sumItemQuantitiesByBook(@Param("orderIds") Collection<Long> orderIds);
+
     /**
      * 注文ステータスで検索
      */
@@ -0,0 +1,44 @@
+package jp.readscape.consumer.domain.orders.repository;
+
+import jp.readscape.consumer.domain.orders.model.UserOrderDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserOrderDailyStatsRepository extends JpaRepository<UserOrderDailyStats, UserOrderDailyStats.Key> {
+
+    /**
+     * 注文作成を注文日の統計に加算（行がない場合は0件、呼び出し元で作成する）
+     */
+    @Modifying
+    @Query("UPDATE UserOrderDailyStats d SET " +
+           "d.orderCount = d.orderCount + 1, " +
+           "d.totalAmount = d.totalAmount + :amount, " +
+           "d.updatedAt = :now " +
+           "WHERE d.userId = :userId AND d.orderDate = :orderDate")
+    int incrementOrder(@Param("userId") Long userId,
+                       @Param("orderDate") LocalDate orderDate,
+                       @Param("amount") BigDecimal amount,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * 注文キャンセルを注文日の統計から減算
+     */
+    @Modifying
+    @Query("UPDATE UserOrderDailyStats d SET " +
+           "d.orderCount = greatest(d.orderCount - 1, 0), " +
+           "d.totalAmount = greatest(d.totalAmount - :amount, 0), " +
+           "d.updatedAt = :now " +
+           "WHERE d.userId = :userId AND d.orderDate = :orderDate")
+    int decrementOrder(@Param("userId") Long userId,
+                       @Param("orderDate") LocalDate orderDate,
+                       @Param("amount") BigDecimal amount,
+                       @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,31 @@
+package jp.readscape.consumer.domain.orders.repository;
+
+import jp.readscape.consumer.domain.orders.model.UserOrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserOrderStatsRepository extends JpaRepository<UserOrderStats, Long> {
+
+    /**
+     * 注文作成を累計の統計に加算（行がない場合は0件、呼び出し元で作成する）
+     */
+    @Modifying
+    @Query("UPDATE UserOrderStats s SET " +
+           "s.orderCount = s.orderCount + 1, " +
+           "s.totalAmount = s.totalAmount + :amount, " +
+           "s.firstOrderDate = least(coalesce(s.firstOrderDate, :orderDate), :orderDate), " +
+           "s.lastOrderDate = greatest(coalesce(s.lastOrderDate, :orderDate), :orderDate), " +
+           "s.updatedAt = :now " +
+           "WHERE s.userId = :userId")
+    int incrementOrder(@Param("userId") Long userId,
+                       @Param("amount") BigDecimal amount,
+                       @Param("orderDate") LocalDateTime orderDate,
+                       @Param("now") LocalDateTime now);
+}
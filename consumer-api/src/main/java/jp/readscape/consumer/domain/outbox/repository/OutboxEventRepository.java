@@ -0,0 +1,16 @@
+package jp.readscape.consumer.domain.outbox.repository;
+
+import jp.readscape.consumer.domain.outbox.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * 集約の発行済みイベントを取得（発行順）
+     */
+    List<OutboxEvent> findByAggregateTypeAndAggregateIdOrderByIdAsc(String aggregateType, Long aggregateId);
+}
@@ -0,0 +1,74 @@
+package jp.readscape.consumer.domain.reservations.repository;
+
+import jp.readscape.consumer.domain.reservations.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * ユーザーと書籍で仮押さえを検索
+     */
+    Optional<StockReservation> findByUserIdAndBookId(Long userId, Long bookId);
+
+    /**
+     * ユーザーの仮押さえ一覧を取得
+     */
+    List<StockReservation> findByUserId(Long userId);
+
+    /**
+     * 書籍の有効な仮押さえ数量合計
+     */
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r " +
+           "WHERE r.bookId = :bookId AND r.expiresAt > :now")
+    Long sumActiveQuantityByBookId(@Param("bookId") Long bookId, @Param("now") LocalDateTime now);
+
+    /**
+     * 指定ユーザー以外による書籍の有効な仮押さえ数量合計
+     */
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r " +
+           "WHERE r.bookId = :bookId AND r.userId <> :userId AND r.expiresAt > :now")
+    Long sumActiveQuantityByBookIdExcludingUser(@Param("bookId") Long bookId,
+                                                @Param("userId") Long userId,
+                                                @Param("now") LocalDateTime now);
+
+    /**
+     * 指定ユーザー以外による複数書籍の有効な仮押さえ数量合計（書籍ID, 合計）
+     */
+    @Query("SELECT r.bookId, SUM(r.quantity) FROM StockReservation r " +
+           "WHERE r.bookId IN :bookIds AND r.userId <> :userId AND r.expiresAt > :now " +
+           "GROUP BY r.bookId")
+    List<Object[]> sumActiveQuantitiesByBookIdsExcludingUser(@Param("bookIds") Collection<Long> bookIds,
+                                                             @Param("userId") Long userId,
+                                                             @Param("now") LocalDateTime now);
+
+    /**
+     * ユーザーの書籍仮押さえを削除
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.userId = :userId AND r.bookId = :bookId")
+    int deleteByUserIdAndBookId(@Param("userId") Long userId, @Param("bookId") Long bookId);
+
+    /**
+     * ユーザーの仮押さえをすべて削除
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * 期限切れの仮押さえを削除
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -29,6 +29,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.username = :usernameOrEmail OR u.email = :usernameOrEmail")
     Optional<User> findByUsernameOrEmail(@Param("usernameOrEmail") String usernameOrEmail);
 
+    /**
+     * 認証状態の取得（[email, isActive] のみ。ステートレス認証のユーザー状態キャッシュ用）
+     */
+    @Query("SELECT u.email, u.isActive FROM User u WHERE u.username = :username")
+    List<Object[]> findStatusByUsername(@Param("username") String username);
+
     /**
      * ユーザー名の存在チェック
      */
@@ -42,6 +42,10 @@ public class BookDetail {
     @JsonProperty("stock_quantity")
     private Integer stockQuantity;
 
+    @Schema(description = "購入可能数（在庫数からカートの仮押さえ分を除いた数）", example = "20")
+    @JsonProperty("available_quantity")
+    private Integer availableQuantity;
+
     @Schema(description = "平均評価", example = "4.5")
     @JsonProperty("average_rating")
     private BigDecimal averageRating;
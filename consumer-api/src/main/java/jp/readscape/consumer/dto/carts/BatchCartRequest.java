@@ -0,0 +1,25 @@
+package jp.readscape.consumer.dto.carts;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "カート一括更新リクエスト")
+public class BatchCartRequest {
+
+    @NotEmpty(message = "操作は1件以上指定してください")
+    @Size(max = 100, message = "一度に指定できる操作は100件までです")
+    @Schema(description = "適用する操作の一覧（指定順に適用）")
+    private List<@Valid CartOperation> operations;
+}
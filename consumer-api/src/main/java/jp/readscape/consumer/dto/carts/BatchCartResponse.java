@@ -0,0 +1,29 @@
+package jp.readscape.consumer.dto.carts;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "カート一括更新レスポンス")
+public class BatchCartResponse {
+
+    @Schema(description = "操作適用後のカート情報")
+    private CartResponse cart;
+
+    @Schema(description = "操作ごとの結果（リクエスト順）")
+    private List<CartOperationResult> results;
+
+    @Schema(description = "成功した操作数", example = "3")
+    private int succeededCount;
+
+    @Schema(description = "失敗した操作数", example = "1")
+    private int failedCount;
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -48,6 +49,12 @@ public class CartItemResponse {
     @Schema(description = "在庫数", example = "10")
     private Integer stockQuantity;
 
+    @Schema(description = "購入可能数（在庫数から他ユーザーの仮押さえを除いた数）", example = "8")
+    private Integer availableQuantity;
+
+    @Schema(description = "在庫仮押さえの有効期限", example = "2024-01-15T10:45:00")
+    private LocalDateTime reservedUntil;
+
     @Schema(description = "在庫が十分にあるか", example = "true")
     private boolean stockAvailable;
 }
\ No newline at end of file
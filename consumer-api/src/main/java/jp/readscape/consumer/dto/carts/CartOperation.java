@@ -0,0 +1,35 @@
+package jp.readscape.consumer.dto.carts;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "カート一括更新の個別操作")
+public class CartOperation {
+
+    @NotNull(message = "操作種別は必須です")
+    @Schema(description = "操作種別", example = "ADD")
+    private OperationType type;
+
+    @NotNull(message = "書籍IDは必須です")
+    @Schema(description = "書籍ID", example = "1")
+    private Long bookId;
+
+    @Min(value = 1, message = "数量は1以上である必要があります")
+    @Schema(description = "数量（ADD: 追加数量, UPDATE: 更新後の数量, REMOVE: 不要）", example = "1")
+    private Integer quantity;
+
+    public enum OperationType {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+}
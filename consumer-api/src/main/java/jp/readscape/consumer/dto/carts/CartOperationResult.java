@@ -0,0 +1,49 @@
+package jp.readscape.consumer.dto.carts;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "カート一括更新の個別操作結果")
+public class CartOperationResult {
+
+    @Schema(description = "リクエスト内の操作インデックス", example = "0")
+    private int index;
+
+    @Schema(description = "操作種別", example = "ADD")
+    private CartOperation.OperationType type;
+
+    @Schema(description = "書籍ID", example = "1")
+    private Long bookId;
+
+    @Schema(description = "操作が成功したか", example = "true")
+    private boolean success;
+
+    @Schema(description = "エラーメッセージ（失敗時のみ）", example = "書籍「Spring Boot入門」の在庫が不足しています。")
+    private String errorMessage;
+
+    public static CartOperationResult success(int index, CartOperation operation) {
+        return CartOperationResult.builder()
+                .index(index)
+                .type(operation.getType())
+                .bookId(operation.getBookId())
+                .success(true)
+                .build();
+    }
+
+    public static CartOperationResult failure(int index, CartOperation operation, String errorMessage) {
+        return CartOperationResult.builder()
+                .index(index)
+                .type(operation.getType())
+                .bookId(operation.getBookId())
+                .success(false)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
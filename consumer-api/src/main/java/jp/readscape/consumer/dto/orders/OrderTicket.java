@@ -0,0 +1,59 @@
+package jp.readscape.consumer.dto.orders;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 非同期注文受付のチケット
+ * 状態が変わるたびに新しいインスタンスに置き換える（不変）
+ */
+@Value
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "注文受付チケット")
+public class OrderTicket {
+
+    @Schema(description = "チケットID", example = "0f8fad5b-d9cb-469f-a165-70867728950e")
+    String ticketId;
+
+    @Schema(description = "処理状態", example = "QUEUED")
+    Status status;
+
+    @Schema(description = "作成された注文（COMPLETED の場合）")
+    CreateOrderResponse order;
+
+    @Schema(description = "失敗理由（FAILED の場合）", example = "在庫が不足しています")
+    String errorMessage;
+
+    @Schema(description = "失敗時のHTTPステータス相当（FAILED の場合）", example = "409")
+    Integer errorStatus;
+
+    @Schema(description = "受付日時")
+    LocalDateTime acceptedAt;
+
+    @Schema(description = "最終更新日時")
+    LocalDateTime updatedAt;
+
+    @JsonIgnore
+    Long userId;
+
+    public enum Status {
+        QUEUED,       // 受付済み（処理待ち）
+        PROCESSING,   // 処理中
+        COMPLETED,    // 注文作成完了
+        FAILED;       // 注文作成失敗
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    public boolean isTerminal() {
+        return status != null && status.isTerminal();
+    }
+}
@@ -0,0 +1,18 @@
+package jp.readscape.consumer.exceptions;
+
+/**
+ * 注文受付キューが満杯の場合の例外（503 Service Unavailable + Retry-After）
+ */
+public class CheckoutQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CheckoutQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package jp.readscape.consumer.exceptions;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+    
+    public IdempotencyKeyReuseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package jp.readscape.consumer.exceptions;
+
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+    
+    public IdempotentRequestInProgressException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
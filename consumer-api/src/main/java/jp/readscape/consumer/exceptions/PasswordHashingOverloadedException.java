@@ -0,0 +1,18 @@
+package jp.readscape.consumer.exceptions;
+
+/**
+ * パスワードハッシュ処理の受付上限を超えた場合の例外（503 Service Unavailable + Retry-After）
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -35,14 +35,17 @@ public class BookService {
     private final BookRepository bookRepository;
     private final ReviewRepository reviewRepository;
     private final MeterRegistry meterRegistry;
+    private final StockReservationService stockReservationService;
     
     private final Counter bookSearchCounter;
     private final Counter bookDetailCounter;
     
-    public BookService(BookRepository bookRepository, ReviewRepository reviewRepository, MeterRegistry meterRegistry) {
+    public BookService(BookRepository bookRepository, ReviewRepository reviewRepository, MeterRegistry meterRegistry,
+                       StockReservationService stockReservationService) {
         this.bookRepository = bookRepository;
         this.reviewRepository = reviewRepository;
         this.meterRegistry = meterRegistry;
+        this.stockReservationService = stockReservationService;
         this.bookSearchCounter = Counter.builder("readscape.book.search")
                 .description("Book search requests")
                 .register(meterRegistry);
@@ -227,6 +230,7 @@ public class BookService {
                 .description(book.getDescription())
                 .category(book.getCategory())
                 .stockQuantity(book.getStockQuantity())
+                .availableQuantity(stockReservationService.getAvailableQuantity(book))
                 .averageRating(book.getAverageRating())
                 .reviewCount(book.getReviewCount())
                 .imageUrl(book.getImageUrl())
@@ -7,7 +7,10 @@ import jp.readscape.consumer.domain.cart.model.CartItem;
 import jp.readscape.consumer.domain.cart.repository.CartRepository;
 import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.domain.users.repository.UserRepository;
+import jp.readscape.consumer.dto.carts.BatchCartResponse;
 import jp.readscape.consumer.dto.carts.CartItemResponse;
+import jp.readscape.consumer.dto.carts.CartOperation;
+import jp.readscape.consumer.dto.carts.CartOperationResult;
 import jp.readscape.consumer.dto.carts.CartResponse;
 import jp.readscape.consumer.exceptions.BookNotFoundException;
 import jp.readscape.consumer.exceptions.CartNotFoundException;
@@ -18,7 +21,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +40,8 @@ public class CartService {
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
+    private final StockReservationService stockReservationService;
+    private final StockAvailabilityService stockAvailabilityService;
 
     /**
      * ユーザー名でカートを取得
@@ -41,7 +53,7 @@ public class CartService {
         User user = findUserByUsername(username);
         Cart cart = findOrCreateCart(user);
         
-        return buildCartResponse(cart);
+        return buildCartResponse(user, cart);
     }
 
     /**
@@ -49,13 +61,16 @@ public class CartService {
      */
     public void addToCart(String username, Long bookId, Integer quantity) {
         log.debug("Adding book {} with quantity {} to cart for user: {}", bookId, quantity, username);
+
+        // 明らかな在庫切れはユーザー・書籍・カートを読み込む前に拒否する
+        stockAvailabilityService.precheck(bookId, quantity);
         
         User user = findUserByUsername(username);
         Book book = findBookById(bookId);
         Cart cart = findOrCreateCart(user);
         
-        // 在庫チェック
-        validateStock(book, quantity);
+        // 在庫仮押さえ（カート内の既存数量を含めて確保）
+        stockReservationService.hold(user.getId(), book, cart.getItemQuantity(bookId) + quantity);
         
         // カートアイテムを作成・追加
         CartItem cartItem = CartItem.builder()
@@ -79,9 +94,11 @@ public class CartService {
         User user = findUserByUsername(username);
         Cart cart = findCartByUser(user);
         
-        // 書籍の在庫チェック
+        // 書籍の在庫仮押さえを更新
         Book book = findBookById(bookId);
-        validateStock(book, newQuantity);
+        if (cart.containsBook(bookId)) {
+            stockReservationService.hold(user.getId(), book, newQuantity);
+        }
         
         // 数量更新
         cart.updateItemQuantity(bookId, newQuantity);
@@ -109,6 +126,7 @@ public class CartService {
 
         cart.removeItem(bookId);
         cartRepository.save(cart);
+        stockReservationService.release(user.getId(), bookId);
 
         log.info("Removed book {} from cart for user: {}", bookId, username);
     }
@@ -124,10 +142,61 @@ public class CartService {
         
         cart.clear();
         cartRepository.save(cart);
+        stockReservationService.releaseAll(user.getId());
         
         log.info("Cleared cart for user: {}", username);
     }
 
+    /**
+     * カートに複数の追加・数量変更・削除操作を1トランザクションで適用
+     * 失敗した操作は結果にエラー内容を記録し、残りの操作は続行する
+     */
+    public BatchCartResponse applyCartOperations(String username, List<CartOperation> operations) {
+        log.debug("Applying {} cart operations for user: {}", operations.size(), username);
+
+        User user = findUserByUsername(username);
+        Cart cart = findOrCreateCart(user);
+
+        // 対象書籍の行をロックしてから在庫数と他ユーザーの仮押さえを一括取得
+        // （ロック前の値で判定すると同時の一括更新で在庫を超えて仮押さえしてしまう）
+        Set<Long> bookIds = operations.stream()
+                .map(CartOperation::getBookId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Book> books = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        Map<Long, Integer> onHand = stockReservationService.lockStockQuantities(books.values());
+        Map<Long, Integer> reservedByOthers =
+                stockReservationService.getReservedQuantitiesByOthers(user.getId(), bookIds);
+
+        List<CartOperationResult> results = new ArrayList<>();
+        Map<Long, Integer> touchedQuantities = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            CartOperation operation = operations.get(i);
+            try {
+                applyCartOperation(cart, operation, books, onHand, reservedByOthers);
+                touchedQuantities.put(operation.getBookId(), cart.getItemQuantity(operation.getBookId()));
+                results.add(CartOperationResult.success(i, operation));
+            } catch (IllegalArgumentException | InsufficientStockException e) {
+                log.debug("Cart operation {} failed for user {}: {}", i, username, e.getMessage());
+                results.add(CartOperationResult.failure(i, operation, e.getMessage()));
+            }
+        }
+
+        cartRepository.save(cart);
+        stockReservationService.syncHolds(user.getId(), touchedQuantities);
+
+        int succeeded = (int) results.stream().filter(CartOperationResult::isSuccess).count();
+        log.info("Applied cart operations for user: {} (succeeded: {}, failed: {})",
+                username, succeeded, results.size() - succeeded);
+
+        return BatchCartResponse.builder()
+                .cart(buildCartResponse(user, cart))
+                .results(results)
+                .succeededCount(succeeded)
+                .failedCount(results.size() - succeeded)
+                .build();
+    }
+
     /**
      * ユーザーIDでカートを取得（注文処理で使用）
      */
@@ -165,18 +234,80 @@ public class CartService {
                 });
     }
 
-    private void validateStock(Book book, Integer requestedQuantity) {
-        if (book.getStockQuantity() == null || book.getStockQuantity() < requestedQuantity) {
+    private void applyCartOperation(Cart cart, CartOperation operation, Map<Long, Book> books,
+                                    Map<Long, Integer> onHand, Map<Long, Integer> reservedByOthers) {
+        Long bookId = operation.getBookId();
+
+        switch (operation.getType()) {
+            case ADD -> {
+                Book book = requireBook(books, bookId);
+                int quantity = requireQuantity(operation);
+                validateAvailableStock(book, cart.getItemQuantity(bookId) + quantity, onHand, reservedByOthers);
+                cart.addItem(CartItem.builder()
+                        .book(book)
+                        .quantity(quantity)
+                        .unitPrice(book.getPrice())
+                        .build());
+            }
+            case UPDATE -> {
+                Book book = requireBook(books, bookId);
+                int quantity = requireQuantity(operation);
+                requireCartItem(cart, bookId);
+                validateAvailableStock(book, quantity, onHand, reservedByOthers);
+                cart.updateItemQuantity(bookId, quantity);
+            }
+            case REMOVE -> {
+                requireCartItem(cart, bookId);
+                cart.removeItem(bookId);
+            }
+        }
+    }
+
+    private Book requireBook(Map<Long, Book> books, Long bookId) {
+        Book book = books.get(bookId);
+        if (book == null) {
+            throw new IllegalArgumentException("指定された書籍が見つかりません: " + bookId);
+        }
+        return book;
+    }
+
+    private int requireQuantity(CartOperation operation) {
+        if (operation.getQuantity() == null || operation.getQuantity() < 1) {
+            throw new IllegalArgumentException("数量は1以上である必要があります");
+        }
+        return operation.getQuantity();
+    }
+
+    private void requireCartItem(Cart cart, Long bookId) {
+        if (!cart.containsBook(bookId)) {
+            throw new IllegalArgumentException("指定された商品がカートに存在しません");
+        }
+    }
+
+    private void validateAvailableStock(Book book, int requestedQuantity,
+                                        Map<Long, Integer> onHand, Map<Long, Integer> reservedByOthers) {
+        int available = Math.max(0, onHand.getOrDefault(book.getId(), 0)
+                - reservedByOthers.getOrDefault(book.getId(), 0));
+        if (requestedQuantity > available) {
             throw new InsufficientStockException(
-                String.format("書籍「%s」の在庫が不足しています。要求数量: %d, 在庫数: %d", 
-                    book.getTitle(), requestedQuantity, book.getStockQuantity())
+                String.format("書籍「%s」の在庫が不足しています。要求数量: %d, 購入可能数: %d",
+                    book.getTitle(), requestedQuantity, available)
             );
         }
     }
 
-    private CartResponse buildCartResponse(Cart cart) {
+    private CartResponse buildCartResponse(User user, Cart cart) {
+        List<Long> bookIds = cart.getItems().stream()
+                .map(item -> item.getBook().getId())
+                .collect(Collectors.toList());
+        Map<Long, Integer> reservedByOthers =
+                stockReservationService.getReservedQuantitiesByOthers(user.getId(), bookIds);
+        Map<Long, LocalDateTime> holdExpirations = stockReservationService.getHoldExpirations(user.getId());
+
         List<CartItemResponse> itemResponses = cart.getItems().stream()
-                .map(this::buildCartItemResponse)
+                .map(item -> buildCartItemResponse(item,
+                        reservedByOthers.getOrDefault(item.getBook().getId(), 0),
+                        holdExpirations.get(item.getBook().getId())))
                 .collect(Collectors.toList());
 
         return CartResponse.builder()
@@ -189,8 +320,10 @@ public class CartService {
                 .build();
     }
 
-    private CartItemResponse buildCartItemResponse(CartItem item) {
+    private CartItemResponse buildCartItemResponse(CartItem item, int reservedByOthers, LocalDateTime reservedUntil) {
         Book book = item.getBook();
+        int onHand = book.getStockQuantity() != null ? book.getStockQuantity() : 0;
+        int availableQuantity = Math.max(0, onHand - reservedByOthers);
         
         return CartItemResponse.builder()
                 .cartItemId(item.getId())
@@ -204,7 +337,9 @@ public class CartService {
                 .subtotal(item.getSubtotal())
                 .formattedSubtotal(item.getFormattedSubtotal())
                 .stockQuantity(book.getStockQuantity())
-                .stockAvailable(item.isQuantityAvailable())
+                .availableQuantity(availableQuantity)
+                .reservedUntil(reservedUntil)
+                .stockAvailable(item.getQuantity() <= availableQuantity)
                 .build();
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package jp.readscape.consumer.services;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -9,12 +10,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
+import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.services.security.TokenBlacklistService;
+import jp.readscape.consumer.services.security.VerifiedToken;
+import jp.readscape.consumer.services.security.VerifiedTokenCache;
 import jp.readscape.consumer.exceptions.JwtException;
 import jp.readscape.consumer.constants.SecurityConstants;
 import lombok.RequiredArgsConstructor;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Collections;
@@ -23,7 +28,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -42,6 +46,14 @@ public class JwtService {
     
     @Value("${spring.security.jwt.refresh-expiration:2592000000}") // 30日間（ミリ秒）
     private Long refreshExpiration;
+
+    @Value("${spring.security.jwt.verified-cache-size:10000}") // 検証済みトークンのキャッシュ上限（0で無効）
+    private int verifiedCacheSize = 10000;
+
+    // 署名鍵・パーサー・検証済みキャッシュは設定の検証後に一度だけ構築する
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+    private volatile VerifiedTokenCache verifiedTokenCache;
     
     // レガシー：メモリベースのトークン無効化（TokenBlacklistServiceに移行済み）
     private final Set<String> invalidatedTokens = ConcurrentHashMap.newKeySet();
@@ -66,30 +78,45 @@ public class JwtService {
             log.warn("JWT secret appears to be weak. Consider using a cryptographically secure random key.");
         }
         
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokenCache = new VerifiedTokenCache(verifiedCacheSize);
+
         log.info("JWT service initialized with secure secret key (length: {} characters)", secret.length());
     }
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * トークンを検証
+     * 検証済みキャッシュにあればそれを返し、なければ一度だけ解析・署名検証してキャッシュする
+     * ブラックリストは判定しない（失効を即時に反映するため毎回 isTokenValid で確認する）
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = toVerifiedToken(extractAllClaims(token));
+        verifiedTokenCache.put(token, verified);
+        return verified;
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
     
     public List<String> extractRoles(String token) {
-        return extractClaim(token, claims -> {
-            Object roles = claims.get("roles");
-            if (roles instanceof List) {
-                return (List<String>) roles;
-            }
-            return Collections.emptyList();
-        });
+        return verify(token).getRoles();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token).getClaims());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -100,6 +127,10 @@ public class JwtService {
                 .toList();
         claims.put("roles", roles);
         claims.put("type", "access");
+        // ステートレス認証でDBを引かずにプリンシパルを復元するためのユーザーID
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put("uid", user.getId());
+        }
         
         return generateToken(claims, userDetails);
     }
@@ -133,34 +164,54 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token) && !isTokenInvalidated(token);
+        try {
+            return isTokenValid(token, verify(token), userDetails);
+        } catch (JwtException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 検証済みトークンの有効性チェック（フィルターで解析済みのクレームを再利用する）
+     */
+    public boolean isTokenValid(String token, VerifiedToken verified, UserDetails userDetails) {
+        return verified.getSubject() != null
+                && verified.getSubject().equals(userDetails.getUsername())
+                && !verified.isExpired(Instant.now())
+                && !isTokenInvalidated(token);
     }
     
     public boolean isRefreshTokenValid(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            String type = (String) claims.get("type");
-            return "refresh".equals(type) && !isTokenExpired(token) && !isTokenInvalidated(token);
+            VerifiedToken verified = verify(token);
+            return verified.isRefreshToken() && !verified.isExpired(Instant.now()) && !isTokenInvalidated(token);
         } catch (Exception e) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Date extractExpiration(String token) {
+        return Date.from(verify(token).getExpiresAt());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    @SuppressWarnings("unchecked")
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Object roles = claims.get("roles");
+        Object userId = claims.get("uid");
+        Date expiration = claims.getExpiration();
+        return VerifiedToken.builder()
+                .subject(claims.getSubject())
+                .userId(userId instanceof Number number ? number.longValue() : null)
+                .roles(roles instanceof List ? List.copyOf((List<String>) roles) : Collections.emptyList())
+                .type(claims.get("type", String.class))
+                .expiresAt(expiration != null ? expiration.toInstant() : null)
+                .claims(claims)
+                .build();
     }
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts
-                    .parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return jwtParser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (io.jsonwebtoken.security.SecurityException e) {
@@ -190,6 +241,7 @@ public class JwtService {
             
             // レガシーサポートのためメモリベースも併用
             invalidatedTokens.add(token);
+            verifiedTokenCache.invalidate(token);
             
             log.debug("Token invalidated successfully");
         } catch (Exception e) {
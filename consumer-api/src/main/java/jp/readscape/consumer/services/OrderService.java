@@ -7,22 +7,36 @@ import jp.readscape.consumer.domain.cart.model.CartItem;
 import jp.readscape.consumer.domain.cart.repository.CartRepository;
 import jp.readscape.consumer.domain.orders.model.Order;
 import jp.readscape.consumer.domain.orders.model.OrderItem;
+import jp.readscape.consumer.domain.orders.model.UserOrderDailyStats;
+import jp.readscape.consumer.domain.orders.model.UserOrderStats;
+import jp.readscape.consumer.domain.orders.numbering.OrderNumberGenerator;
 import jp.readscape.consumer.domain.orders.repository.OrderRepository;
+import jp.readscape.consumer.domain.orders.repository.UserOrderDailyStatsRepository;
+import jp.readscape.consumer.domain.orders.repository.UserOrderStatsRepository;
 import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.dto.orders.CreateOrderRequest;
 import jp.readscape.consumer.dto.orders.CreateOrderResponse;
 import jp.readscape.consumer.dto.orders.OrderDetail;
 import jp.readscape.consumer.dto.users.OrderSummary;
+import jp.readscape.consumer.services.outbox.OrderEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,11 +48,18 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
     private final BookRepository bookRepository;
+    private final StockReservationService stockReservationService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final StripedStockService stripedStockService;
+    private final OrderEventPublisher orderEventPublisher;
+    private final UserOrderStatsRepository userOrderStatsRepository;
+    private final UserOrderDailyStatsRepository userOrderDailyStatsRepository;
 
     /**
      * カートから注文を作成
+     * 在庫は書籍ID順の条件付きUPDATEで減算するため、SERIALIZABLEを使わずに同時購入を安全に処理できる
      */
-    @Transactional(isolation = Isolation.SERIALIZABLE, timeout = 30)
+    @Transactional(isolation = Isolation.READ_COMMITTED, timeout = 30)
     public CreateOrderResponse createOrderFromCart(Long userId, CreateOrderRequest request) {
         log.debug("Creating order from cart for user: {}", userId);
 
@@ -51,15 +72,26 @@ public class OrderService {
         }
 
         // 在庫チェックと予約
-        validateAndReserveStock(cart);
+        validateAndReserveStock(userId, cart);
+
+        // 在庫を減算（在庫不足の場合はトランザクション全体をロールバック）
+        decrementBookStock(cart);
 
         try {
             // 注文を作成
             Order order = createOrderFromCart(cart, request);
             Order savedOrder = orderRepository.save(order);
 
-            // 在庫を減算
-            updateBookStock(cart);
+            // ユーザー別注文統計（累計・注文日別）を更新
+            recordOrderPlaced(userId, savedOrder);
+
+            // 在庫変動イベントを同一トランザクションでアウトボックスに記録
+            List<Book> books = cart.getItems().stream().map(CartItem::getBook).collect(Collectors.toList());
+            orderEventPublisher.publishOrderCreated(savedOrder, readStockLevels(
+                    books.stream().map(Book::getId).collect(Collectors.toList()), books));
+
+            // 仮押さえを確定分として解放
+            stockReservationService.releaseAll(userId);
 
             // カートをクリア
             cart.clear();
@@ -100,6 +132,16 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * ユーザーの注文履歴をページ単位で取得（新しい注文順）
+     */
+    public Page<OrderSummary> getUserOrderHistory(Long userId, int page, int size) {
+        log.debug("Getting order history for user: {} (page: {}, size: {})", userId, page, size);
+
+        return orderRepository.findByUserId(userId, PageRequest.of(page, size, Sort.by("orderDate").descending()))
+                .map(OrderSummary::from);
+    }
+
     /**
      * 最近の注文を取得
      */
@@ -126,9 +168,14 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("注文が見つかりません"));
 
+        Order.OrderStatus oldStatus = order.getStatus();
         order.updateStatus(newStatus);
         orderRepository.save(order);
 
+        if (newStatus == Order.OrderStatus.CANCELLED && oldStatus != Order.OrderStatus.CANCELLED) {
+            recordCancellation(order);
+        }
+
         log.info("Order status updated: {} -> {}", orderId, newStatus);
     }
 
@@ -139,7 +186,8 @@ public class OrderService {
     public void cancelOrder(Long orderId, Long userId) {
         log.debug("Cancelling order: {} for user: {}", orderId, userId);
 
-        Order order = orderRepository.findByIdAndUserId(orderId, userId)
+        // 注文行をロックし、同じ注文の二重キャンセルによる在庫の二重復元を防ぐ
+        Order order = orderRepository.findByIdAndUserIdForUpdate(orderId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("注文が見つかりません"));
 
         if (!order.isCancellable()) {
@@ -147,11 +195,16 @@ public class OrderService {
         }
 
         // 在庫を復元
-        restoreBookStock(order);
+        Map<Long, Integer> quantities = sumQuantitiesByBook(order);
+        List<Book> stripedBooks = restoreBookStock(quantities);
 
         // 注文をキャンセル状態に更新
         order.updateStatus(Order.OrderStatus.CANCELLED);
         orderRepository.save(order);
+        recordCancellation(order);
+
+        // 在庫変動イベントを同一トランザクションでアウトボックスに記録
+        orderEventPublisher.publishOrderCancelled(order, readStockLevels(quantities.keySet(), stripedBooks));
 
         log.info("Order cancelled successfully: {} for user: {}", orderId, userId);
     }
@@ -165,6 +218,7 @@ public class OrderService {
         User user = cart.getUser();
 
         Order order = Order.builder()
+                .orderNumber(orderNumberGenerator.nextOrderNumber())
                 .user(user)
                 .status(Order.OrderStatus.PENDING)
                 .shippingAddress(request.getShippingAddress())
@@ -204,84 +258,193 @@ public class OrderService {
 
     /**
      * 在庫チェックと予約
+     * 他ユーザーの有効な仮押さえ分は購入可能数から除外する
      */
-    private void validateAndReserveStock(Cart cart) {
+    private void validateAndReserveStock(Long userId, Cart cart) {
+        List<Long> bookIds = cart.getItems().stream()
+                .map(item -> item.getBook().getId())
+                .collect(Collectors.toList());
+        Map<Long, Integer> reservedByOthers = stockReservationService.getReservedQuantitiesByOthers(userId, bookIds);
+        Map<Long, Integer> stripedStock = stripedStockService.getStripedStockQuantities(
+                cart.getItems().stream().map(CartItem::getBook).collect(Collectors.toList()));
+
         for (CartItem item : cart.getItems()) {
             Book book = item.getBook();
             Integer requiredQuantity = item.getQuantity();
+            int reserved = reservedByOthers.getOrDefault(book.getId(), 0);
+            Integer onHand = book.isStockStriped()
+                    ? stripedStock.getOrDefault(book.getId(), 0)
+                    : book.getStockQuantity();
 
-            if (book.getStockQuantity() == null || book.getStockQuantity() < requiredQuantity) {
+            if (onHand == null || onHand - reserved < requiredQuantity) {
                 throw new IllegalStateException(
                     String.format("「%s」の在庫が不足しています。（必要: %d, 在庫: %d）", 
-                        book.getTitle(), requiredQuantity, book.getStockQuantity())
+                        book.getTitle(), requiredQuantity, onHand)
                 );
             }
         }
     }
 
     /**
-     * 書籍在庫を更新（減算）
-     * パフォーマンス向上のためバッチで処理
+     * 書籍在庫を減算
+     * 書籍ID順に条件付きUPDATEを発行し、行ロックの取得順を揃えてデッドロックを防ぐ
+     * ストライプ有効な書籍はストライプ行から減算する
+     * 更新件数0（在庫不足）の場合は例外を投げてロールバックする
      */
-    private void updateBookStock(Cart cart) {
-        List<Book> booksToUpdate = new ArrayList<>();
-        
-        for (CartItem item : cart.getItems()) {
+    private void decrementBookStock(Cart cart) {
+        List<CartItem> items = new ArrayList<>(cart.getItems());
+        items.sort(Comparator.comparing(item -> item.getBook().getId()));
+
+        for (CartItem item : items) {
             Book book = item.getBook();
-            Integer oldStock = book.getStockQuantity();
-            Integer newStock = book.getStockQuantity() - item.getQuantity();
-            book.setStockQuantity(Math.max(0, newStock));
-            booksToUpdate.add(book);
-            
-            log.debug("Prepared stock update for book {}: {} -> {}", 
-                book.getId(), oldStock, newStock);
+            boolean decremented = book.isStockStriped()
+                    ? stripedStockService.tryDecrement(book, item.getQuantity())
+                    : bookRepository.decrementStock(book.getId(), item.getQuantity()) > 0;
+            if (!decremented) {
+                throw new IllegalStateException(
+                    String.format("「%s」の在庫が不足しています。（必要: %d）", book.getTitle(), item.getQuantity())
+                );
+            }
+            log.debug("Decremented stock for book {} by {}", book.getId(), item.getQuantity());
         }
-        
-        // バッチで一括保存
-        if (!booksToUpdate.isEmpty()) {
-            bookRepository.saveAll(booksToUpdate);
+    }
+
+    /**
+     * 注文の書籍別数量を書籍ID昇順で取得（書籍エンティティは読み込まない）
+     */
+    private Map<Long, Integer> sumQuantitiesByBook(Order order) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (Object[] row : orderRepository.sumItemQuantitiesByBook(List.of(order.getId()))) {
+            quantities.put((Long) row[0], ((Number) row[1]).intValue());
         }
+        return quantities;
     }
 
     /**
      * 書籍在庫を復元（キャンセル時）
+     * 書籍ID昇順にアトミックな加算UPDATEを発行し、重なる書籍を含む同時キャンセルでもデッドロックや加算の消失が起きないようにする
+     * 加算できなかった書籍（ストライプ有効）はストライプに戻す
+     * @return ストライプに戻した書籍
      */
-    private void restoreBookStock(Order order) {
-        for (OrderItem item : order.getItems()) {
-            Book book = item.getBook();
-            if (book != null) {
-                Integer restoredStock = book.getStockQuantity() + item.getQuantity();
-                book.setStockQuantity(restoredStock);
-                bookRepository.save(book);
-                
-                log.debug("Restored stock for book {}: {} -> {}", 
-                    book.getId(), book.getStockQuantity() - item.getQuantity(), restoredStock);
+    private List<Book> restoreBookStock(Map<Long, Integer> quantities) {
+        List<Long> unmatchedBookIds = new ArrayList<>();
+        quantities.forEach((bookId, quantity) -> {
+            if (bookRepository.incrementStock(bookId, quantity) == 0) {
+                unmatchedBookIds.add(bookId);
+            }
+        });
+        if (unmatchedBookIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Book> stripedBooks = new ArrayList<>(bookRepository.findAllById(unmatchedBookIds));
+        stripedBooks.sort(Comparator.comparing(Book::getId));
+        for (Book book : stripedBooks) {
+            int quantity = quantities.get(book.getId());
+            boolean restored = book.isStockStriped() && stripedStockService.restore(book, quantity);
+            // ストライプが無効化された直後の場合は書籍行に加算する
+            if (!restored && bookRepository.incrementStock(book.getId(), quantity) == 0) {
+                log.warn("Failed to restore stock for book {} (quantity: {})", book.getId(), quantity);
             }
         }
+        return stripedBooks;
+    }
+
+    /**
+     * 注文作成をユーザー別注文統計（累計・注文日別）に反映
+     * 既存の行は条件付きUPDATEで加算し（行ロックで同時注文の更新を直列化）、行がない場合のみ作成する
+     * H2（開発環境）でも動作するよう、PostgreSQL 固有の UPSERT は使わない
+     */
+    private void recordOrderPlaced(Long userId, Order order) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime orderDate = order.getOrderDate() != null ? order.getOrderDate() : now;
+        BigDecimal amount = order.getTotalAmount();
+
+        if (userOrderStatsRepository.incrementOrder(userId, amount, orderDate, now) == 0) {
+            userOrderStatsRepository.save(UserOrderStats.builder()
+                    .userId(userId)
+                    .orderCount(1)
+                    .totalAmount(amount)
+                    .firstOrderDate(orderDate)
+                    .lastOrderDate(orderDate)
+                    .updatedAt(now)
+                    .build());
+        }
+        if (userOrderDailyStatsRepository.incrementOrder(userId, orderDate.toLocalDate(), amount, now) == 0) {
+            userOrderDailyStatsRepository.save(UserOrderDailyStats.builder()
+                    .userId(userId)
+                    .orderDate(orderDate.toLocalDate())
+                    .orderCount(1)
+                    .totalAmount(amount)
+                    .build());
+        }
+    }
+
+    /**
+     * キャンセルを注文日別の注文統計に反映（累計の注文統計はキャンセルされた注文も含むため更新しない）
+     */
+    private void recordCancellation(Order order) {
+        if (order.getUser() != null && order.getTotalAmount() != null && order.getOrderDate() != null) {
+            userOrderDailyStatsRepository.decrementOrder(order.getUser().getId(),
+                    order.getOrderDate().toLocalDate(), order.getTotalAmount(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 在庫変動後の在庫数を書籍ID別に取得（アウトボックスイベント用）
+     * 条件付きUPDATEで行ロックを保持しているため、ストライプ無効な書籍は自トランザクションの変動直後の値となる
+     * ストライプ有効な書籍はストライプ合計で上書きする
+     */
+    private Map<Long, Integer> readStockLevels(Collection<Long> bookIds, Collection<Book> stripedCandidates) {
+        Map<Long, Integer> levels = new HashMap<>();
+        if (bookIds.isEmpty()) {
+            return levels;
+        }
+
+        for (Object[] row : bookRepository.findStockQuantitiesByIds(bookIds)) {
+            levels.put((Long) row[0], (Integer) row[1]);
+        }
+        levels.putAll(stripedStockService.getStripedStockQuantities(stripedCandidates));
+        return levels;
     }
 
     /**
      * 注文統計を取得
+     * 注文作成時に更新されるユーザー別注文統計から取得する（キャンセルされた注文も含む）
      */
     public OrderStatistics getOrderStatistics(Long userId) {
-        Long orderCount = orderRepository.countOrdersByUserId(userId);
-        Double totalAmount = orderRepository.getTotalAmountByUserId(userId);
-        
-        return new OrderStatistics(orderCount, BigDecimal.valueOf(totalAmount != null ? totalAmount : 0.0));
+        return userOrderStatsRepository.findById(userId)
+                .map(stats -> new OrderStatistics(
+                        stats.getOrderCount().longValue(),
+                        stats.getTotalAmount(),
+                        stats.getFirstOrderDate(),
+                        stats.getLastOrderDate()))
+                .orElseGet(() -> new OrderStatistics(0L, BigDecimal.ZERO));
     }
 
     // 内部クラス
     public static class OrderStatistics {
         private final Long orderCount;
         private final BigDecimal totalAmount;
+        private final LocalDateTime firstOrderDate;
+        private final LocalDateTime lastOrderDate;
 
         public OrderStatistics(Long orderCount, BigDecimal totalAmount) {
+            this(orderCount, totalAmount, null, null);
+        }
+
+        public OrderStatistics(Long orderCount, BigDecimal totalAmount,
+                               LocalDateTime firstOrderDate, LocalDateTime lastOrderDate) {
             this.orderCount = orderCount;
             this.totalAmount = totalAmount;
+            this.firstOrderDate = firstOrderDate;
+            this.lastOrderDate = lastOrderDate;
         }
 
         public Long getOrderCount() { return orderCount; }
         public BigDecimal getTotalAmount() { return totalAmount; }
+        public LocalDateTime getFirstOrderDate() { return firstOrderDate; }
+        public LocalDateTime getLastOrderDate() { return lastOrderDate; }
         public String getFormattedTotalAmount() {
             return String.format("¥%,.0f", totalAmount);
         }
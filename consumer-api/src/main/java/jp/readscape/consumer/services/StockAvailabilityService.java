@@ -0,0 +1,180 @@
+package jp.readscape.consumer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.readscape.consumer.domain.books.repository.BookRepository;
+import jp.readscape.consumer.domain.cart.repository.CartRepository;
+import jp.readscape.consumer.exceptions.InsufficientStockException;
+import jp.readscape.consumer.utils.LongIntHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 在庫の可用性スナップショット
+ * 書籍ID→在庫数をメモリ上のプリミティブマップに保持し、明らかに在庫がない商品をDBに触れる前に拒否する
+ * スナップショットは短い間隔の差分ポーリングで更新する結果整合なビューであり、最終的な減算の判定は常にDBで行う
+ * 在庫以下の要求や、スナップショットが古い・未知の書籍は判定せずに通す（誤って拒否しない側に倒す）
+ */
+@Slf4j
+@Service
+public class StockAvailabilityService {
+
+    // ストライプ有効な書籍は books.stock_quantity がスナップショットのため判定対象外
+    private static final int UNTRACKED = -1;
+
+    private final BookRepository bookRepository;
+    private final CartRepository cartRepository;
+    private final Duration overlap;
+    private final Duration maxStaleness;
+
+    // 読み取りはロックなし（更新は複製したマップに反映して参照を差し替える）
+    private volatile LongIntHashMap stockByBookId = new LongIntHashMap();
+    private volatile LocalDateTime lastRefreshedAt;
+    private volatile long lastRefreshedNanos;
+    private LocalDateTime nextDeltaSince;
+
+    private final Counter rejectedCounter;
+
+    public StockAvailabilityService(BookRepository bookRepository,
+                                    CartRepository cartRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${stock.snapshot.overlap:PT30S}") Duration overlap,
+                                    @Value("${stock.snapshot.max-staleness:PT10S}") Duration maxStaleness) {
+        this.bookRepository = bookRepository;
+        this.cartRepository = cartRepository;
+        this.overlap = overlap;
+        this.maxStaleness = maxStaleness;
+
+        this.rejectedCounter = Counter.builder("readscape.stock.snapshot.rejected")
+                .description("Requests rejected by the in-memory stock snapshot before touching the database")
+                .register(meterRegistry);
+        Gauge.builder("readscape.stock.snapshot.books", this, service -> service.stockByBookId.size())
+                .description("Books held in the in-memory stock snapshot")
+                .register(meterRegistry);
+        Gauge.builder("readscape.stock.snapshot.age.seconds", this, StockAvailabilityService::ageSeconds)
+                .description("Age of the in-memory stock snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 明らかに在庫が足りないかどうか
+     * スナップショット上の在庫が要求数量に満たない場合のみ true（仮押さえは考慮しない）
+     */
+    public boolean isClearlyUnavailable(Long bookId, int quantity) {
+        if (bookId == null || !isFresh()) {
+            return false;
+        }
+        int stock = stockByBookId.get(bookId, UNTRACKED);
+        return stock != UNTRACKED && stock < quantity;
+    }
+
+    /**
+     * カート追加前の事前チェック
+     */
+    public void precheck(Long bookId, int quantity) {
+        if (isClearlyUnavailable(bookId, quantity)) {
+            rejectedCounter.increment();
+            throw new InsufficientStockException(String.format(
+                    "在庫が不足しています。要求数量: %d, 購入可能数: %d", quantity, stockByBookId.get(bookId, 0)));
+        }
+    }
+
+    /**
+     * 注文確定前の事前チェック
+     * カートの書籍別数量のみを取得し、トランザクションを開始する前に空のカートや在庫切れの商品を拒否する
+     */
+    public void precheckCheckout(Long userId) {
+        List<Object[]> items = cartRepository.findItemQuantitiesByUserId(userId);
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("カートが空です");
+        }
+
+        for (Object[] item : items) {
+            Long bookId = (Long) item[0];
+            int quantity = ((Number) item[1]).intValue();
+            if (isClearlyUnavailable(bookId, quantity)) {
+                rejectedCounter.increment();
+                throw new IllegalStateException(String.format(
+                        "在庫が不足している商品があります。（書籍ID: %d, 必要: %d, 在庫: %d）",
+                        bookId, quantity, stockByBookId.get(bookId, 0)));
+            }
+        }
+    }
+
+    /**
+     * 差分の読み込み
+     * 前回の読み込み時刻から overlap だけ遡って更新された書籍を読み込み、コミットが遅れたトランザクションの更新も取りこぼさない
+     */
+    @Scheduled(fixedDelayString = "${stock.snapshot.refresh-interval-ms:1000}",
+               initialDelayString = "${stock.snapshot.initial-delay-ms:0}")
+    public synchronized void refresh() {
+        if (nextDeltaSince == null) {
+            reload();
+            return;
+        }
+
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<Object[]> rows = bookRepository.findStockLevelsUpdatedSince(nextDeltaSince);
+            if (!rows.isEmpty()) {
+                LongIntHashMap updated = stockByBookId.copy();
+                apply(updated, rows);
+                stockByBookId = updated;
+            }
+            markRefreshed(startedAt);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh stock snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 全件の読み込み（起動時と定期的な再同期。削除された書籍もここで消える）
+     */
+    @Scheduled(fixedDelayString = "${stock.snapshot.reload-interval-ms:300000}",
+               initialDelayString = "${stock.snapshot.reload-interval-ms:300000}")
+    public synchronized void reload() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<Object[]> rows = bookRepository.findAllStockLevels();
+            LongIntHashMap loaded = new LongIntHashMap(rows.size());
+            apply(loaded, rows);
+            stockByBookId = loaded;
+            markRefreshed(startedAt);
+            log.debug("Stock snapshot reloaded: {} books", loaded.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to reload stock snapshot: {}", e.getMessage());
+        }
+    }
+
+    // プライベートメソッド
+
+    private void apply(LongIntHashMap target, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Integer stock = (Integer) row[1];
+            Integer stripeCount = (Integer) row[2];
+            boolean striped = stripeCount != null && stripeCount > 0;
+            target.put((Long) row[0], striped || stock == null ? UNTRACKED : stock);
+        }
+    }
+
+    private void markRefreshed(LocalDateTime startedAt) {
+        lastRefreshedAt = startedAt;
+        lastRefreshedNanos = System.nanoTime();
+        nextDeltaSince = startedAt.minus(overlap);
+    }
+
+    private boolean isFresh() {
+        return lastRefreshedAt != null && System.nanoTime() - lastRefreshedNanos <= maxStaleness.toNanos();
+    }
+
+    private double ageSeconds() {
+        return lastRefreshedAt == null ? -1 : (System.nanoTime() - lastRefreshedNanos) / 1_000_000_000.0;
+    }
+}
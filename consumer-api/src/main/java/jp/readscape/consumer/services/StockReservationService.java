@@ -0,0 +1,213 @@
+package jp.readscape.consumer.services;
+
+import jp.readscape.consumer.domain.books.model.Book;
+import jp.readscape.consumer.domain.books.repository.BookRepository;
+import jp.readscape.consumer.domain.reservations.model.StockReservation;
+import jp.readscape.consumer.domain.reservations.repository.StockReservationRepository;
+import jp.readscape.consumer.exceptions.InsufficientStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * カート在庫仮押さえサービス
+ * カート投入時に有効期限付きで在庫を仮押さえし、購入可能数 = 在庫数 - 他ユーザーの有効な仮押さえ として扱う
+ * 仮押さえの判定と登録は書籍行のロックで書籍ごとに直列化し、同時のカート投入で在庫を超えて仮押さえしないようにする
+ * ストライプ有効な書籍は書籍行の在庫数を使わないため、書籍行をロックせずストライプ合計で判定する
+ * （購入時のストライプ減算が在庫の最終判定となる）
+ */
+@Slf4j
+@Service
+@Transactional
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final BookRepository bookRepository;
+    private final StripedStockService stripedStockService;
+    private final Duration reservationTtl;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   BookRepository bookRepository,
+                                   StripedStockService stripedStockService,
+                                   @Value("${cart.reservation.ttl:PT15M}") Duration reservationTtl) {
+        this.reservationRepository = reservationRepository;
+        this.bookRepository = bookRepository;
+        this.stripedStockService = stripedStockService;
+        this.reservationTtl = reservationTtl;
+    }
+
+    /**
+     * 在庫を仮押さえ（カート内の数量で上書きし、有効期限を延長）
+     * 書籍行のロックはトランザクション終了まで保持するため、同じ書籍の仮押さえは他ユーザーの登録後の合計で判定される
+     */
+    public StockReservation hold(Long userId, Book book, int quantity) {
+        int onHand = lockStockQuantities(List.of(book)).getOrDefault(book.getId(), 0);
+
+        LocalDateTime now = LocalDateTime.now();
+        long reservedByOthers = reservationRepository
+                .sumActiveQuantityByBookIdExcludingUser(book.getId(), userId, now);
+        int available = (int) Math.max(0, onHand - reservedByOthers);
+
+        if (quantity > available) {
+            throw new InsufficientStockException(
+                String.format("書籍「%s」の在庫が不足しています。要求数量: %d, 購入可能数: %d",
+                    book.getTitle(), quantity, available)
+            );
+        }
+
+        StockReservation reservation = reservationRepository.findByUserIdAndBookId(userId, book.getId())
+                .orElseGet(() -> StockReservation.builder()
+                        .userId(userId)
+                        .bookId(book.getId())
+                        .build());
+        reservation.setQuantity(quantity);
+        reservation.setExpiresAt(now.plus(reservationTtl));
+
+        log.debug("Held {} of book {} for user {} until {}", quantity, book.getId(), userId, reservation.getExpiresAt());
+        return reservationRepository.save(reservation);
+    }
+
+    /**
+     * 書籍行を書籍ID昇順でロックし、在庫数を書籍ID別に取得
+     * 複数書籍の仮押さえを判定する前に呼び出し、判定と登録をトランザクション終了まで書籍ごとに直列化する
+     * ロック順を昇順に揃えて、同じ書籍を含む一括更新同士のデッドロックを避ける
+     * ストライプ有効な書籍はロックせず、ストライプ合計を在庫数とする
+     */
+    public Map<Long, Integer> lockStockQuantities(Collection<Book> books) {
+        Map<Long, Integer> onHand = new HashMap<>(stripedStockService.getStripedStockQuantities(books));
+        books.stream()
+                .filter(book -> !book.isStockStriped())
+                .sorted(Comparator.comparing(Book::getId))
+                .forEach(book -> onHand.put(book.getId(), bookRepository.lockStockQuantity(book.getId())
+                        .orElseGet(() -> book.getStockQuantity() != null ? book.getStockQuantity() : 0)));
+        return onHand;
+    }
+
+    /**
+     * 複数書籍の仮押さえをまとめて同期（数量0以下は解放）
+     * 購入可能数のチェックは呼び出し側で lockStockQuantities によるロック取得後に行うこと
+     */
+    public void syncHolds(Long userId, Map<Long, Integer> quantitiesByBookId) {
+        if (quantitiesByBookId.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationTtl);
+        Map<Long, StockReservation> existing = reservationRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(StockReservation::getBookId, Function.identity()));
+
+        List<StockReservation> toSave = new ArrayList<>();
+        List<StockReservation> toDelete = new ArrayList<>();
+        quantitiesByBookId.forEach((bookId, quantity) -> {
+            StockReservation reservation = existing.get(bookId);
+            if (quantity == null || quantity <= 0) {
+                if (reservation != null) {
+                    toDelete.add(reservation);
+                }
+                return;
+            }
+            if (reservation == null) {
+                reservation = StockReservation.builder()
+                        .userId(userId)
+                        .bookId(bookId)
+                        .build();
+            }
+            reservation.setQuantity(quantity);
+            reservation.setExpiresAt(expiresAt);
+            toSave.add(reservation);
+        });
+
+        if (!toDelete.isEmpty()) {
+            reservationRepository.deleteAllInBatch(toDelete);
+        }
+        if (!toSave.isEmpty()) {
+            reservationRepository.saveAll(toSave);
+        }
+        log.debug("Synced holds for user {}: {} saved, {} released", userId, toSave.size(), toDelete.size());
+    }
+
+    /**
+     * 書籍の仮押さえを解放
+     */
+    public void release(Long userId, Long bookId) {
+        reservationRepository.deleteByUserIdAndBookId(userId, bookId);
+        log.debug("Released hold of book {} for user {}", bookId, userId);
+    }
+
+    /**
+     * ユーザーの仮押さえをすべて解放（カートクリア・注文確定時）
+     */
+    public void releaseAll(Long userId) {
+        int released = reservationRepository.deleteByUserId(userId);
+        log.debug("Released {} holds for user {}", released, userId);
+    }
+
+    /**
+     * 購入可能数を取得（在庫数 - 有効な仮押さえ合計）
+     */
+    @Transactional(readOnly = true)
+    public int getAvailableQuantity(Book book) {
+        long reserved = reservationRepository.sumActiveQuantityByBookId(book.getId(), LocalDateTime.now());
+        return availableQuantity(book, reserved);
+    }
+
+    /**
+     * 指定ユーザー以外による仮押さえ数量を書籍ID別に取得
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getReservedQuantitiesByOthers(Long userId, Collection<Long> bookIds) {
+        if (bookIds == null || bookIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Object[]> rows = reservationRepository
+                .sumActiveQuantitiesByBookIdsExcludingUser(bookIds, userId, LocalDateTime.now());
+
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (Object[] row : rows) {
+            reserved.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return reserved;
+    }
+
+    /**
+     * ユーザーの有効な仮押さえの期限を書籍ID別に取得
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, LocalDateTime> getHoldExpirations(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return reservationRepository.findByUserId(userId).stream()
+                .filter(reservation -> !reservation.isExpired(now))
+                .collect(Collectors.toMap(StockReservation::getBookId, StockReservation::getExpiresAt));
+    }
+
+    /**
+     * 期限切れの仮押さえを回収
+     */
+    @Scheduled(fixedDelayString = "${cart.reservation.sweep-interval-ms:60000}")
+    public void purgeExpiredReservations() {
+        int purged = reservationRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired stock reservations", purged);
+        }
+    }
+
+    private int availableQuantity(Book book, long reserved) {
+        int onHand = book.getStockQuantity() != null ? book.getStockQuantity() : 0;
+        return (int) Math.max(0, onHand - reserved);
+    }
+}
@@ -0,0 +1,112 @@
+package jp.readscape.consumer.services;
+
+import jp.readscape.consumer.domain.books.model.Book;
+import jp.readscape.consumer.domain.books.model.BookStockStripe;
+import jp.readscape.consumer.domain.books.repository.BookStockStripeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * ストライプ在庫サービス
+ * ホットSKUの在庫はストライプ行に分散されており、購入時はランダムなストライプから減算して行ロック競合を避ける
+ * ストライプの有効化・無効化・再分配は在庫管理APIが行う
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StripedStockService {
+
+    private final BookStockStripeRepository stripeRepository;
+
+    /**
+     * ストライプ在庫を減算
+     * ランダムなストライプから順に条件付きUPDATEを試し、単独で足りない場合のみ全ストライプをロックして振り分ける
+     */
+    public boolean tryDecrement(Book book, int quantity) {
+        int stripeCount = book.getStockStripeCount();
+        int start = ThreadLocalRandom.current().nextInt(stripeCount);
+
+        for (int i = 0; i < stripeCount; i++) {
+            int stripeNo = (start + i) % stripeCount;
+            if (stripeRepository.decrementStripe(book.getId(), stripeNo, quantity) > 0) {
+                log.debug("Decremented stripe {} of book {} by {}", stripeNo, book.getId(), quantity);
+                return true;
+            }
+        }
+
+        return drainAcrossStripes(book.getId(), quantity);
+    }
+
+    /**
+     * ストライプ在庫を戻す（キャンセル時）
+     * ストライプが存在しない（ストライプ無効化済み）場合はfalseを返す
+     */
+    public boolean restore(Book book, int quantity) {
+        int stripeNo = ThreadLocalRandom.current().nextInt(book.getStockStripeCount());
+        boolean restored = stripeRepository.incrementStripe(book.getId(), stripeNo, quantity) > 0;
+        if (restored) {
+            log.debug("Restored {} to stripe {} of book {}", quantity, stripeNo, book.getId());
+        }
+        return restored;
+    }
+
+    /**
+     * ストライプ有効な書籍の在庫（ストライプ合計）を書籍ID別に取得
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getStripedStockQuantities(Collection<Book> books) {
+        List<Long> stripedBookIds = books.stream()
+                .filter(Book::isStockStriped)
+                .map(Book::getId)
+                .collect(Collectors.toList());
+        if (stripedBookIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Object[] row : stripeRepository.sumQuantitiesByBookIds(stripedBookIds)) {
+            quantities.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return quantities;
+    }
+
+    // プライベートメソッド
+
+    /**
+     * 全ストライプをロックし、在庫の多いストライプから順に減算
+     */
+    private boolean drainAcrossStripes(Long bookId, int quantity) {
+        List<BookStockStripe> stripes = stripeRepository.findByBookIdForUpdate(bookId);
+        int total = stripes.stream().mapToInt(BookStockStripe::getQuantity).sum();
+        if (total < quantity) {
+            return false;
+        }
+
+        int remaining = quantity;
+        stripes.sort(Comparator.comparing(BookStockStripe::getQuantity).reversed());
+        for (BookStockStripe stripe : stripes) {
+            int taken = Math.min(stripe.getQuantity(), remaining);
+            stripe.setQuantity(stripe.getQuantity() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        stripeRepository.saveAll(stripes);
+
+        log.debug("Drained {} of book {} across {} stripes", quantity, bookId, stripes.size());
+        return true;
+    }
+}
@@ -10,13 +10,16 @@ import jp.readscape.consumer.dto.users.OrderSummary;
 import jp.readscape.consumer.dto.users.RegisterUserRequest;
 import jp.readscape.consumer.dto.users.UpdateProfileRequest;
 import jp.readscape.consumer.dto.users.UserProfile;
+import jp.readscape.consumer.services.security.AccountStatusChangedEvent;
 import jp.readscape.consumer.services.security.LoginAttemptService;
+import jp.readscape.consumer.exceptions.PasswordHashingOverloadedException;
 import jp.readscape.consumer.services.security.PasswordSecurityService;
 import jp.readscape.consumer.services.security.SecurityAuditService;
 import jp.readscape.consumer.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -40,6 +43,7 @@ public class UserService implements UserDetailsService {
     private final LoginAttemptService loginAttemptService;
     private final PasswordSecurityService passwordSecurityService;
     private final SecurityAuditService securityAuditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -139,8 +143,8 @@ public class UserService implements UserDetailsService {
      * アカウントロック状態をチェック
      */
     private boolean isAccountLocked(String usernameOrEmail, String ipAddress) {
-        if (loginAttemptService.isBlocked(usernameOrEmail)) {
-            long remainingTime = loginAttemptService.getRemainingLockTime(usernameOrEmail);
+        if (loginAttemptService.isBlocked(usernameOrEmail, ipAddress)) {
+            long remainingTime = loginAttemptService.getRemainingLockTime(usernameOrEmail, ipAddress);
             securityAuditService.logFailedLogin(usernameOrEmail, ipAddress, 
                 "Account locked due to too many failed attempts. Remaining time: " + remainingTime + " minutes");
             log.warn("Account locked for excessive login attempts: {}", SecurityUtils.maskUserIdentifier(usernameOrEmail));
@@ -158,6 +162,7 @@ public class UserService implements UserDetailsService {
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             if (user.isEnabled() && passwordSecurityService.matches(rawPassword, user.getPassword())) {
+                rehashIfNeeded(user, rawPassword);
                 return Optional.of(user);
             }
         }
@@ -165,6 +170,23 @@ public class UserService implements UserDetailsService {
         return Optional.empty();
     }
     
+    /**
+     * コスト係数の変更前に保存されたハッシュを、平文を持っているログイン成功時に再ハッシュ
+     * ハッシュ処理が混雑している場合は見送り、次回のログインで再ハッシュする
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordSecurityService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordSecurityService.encodePassword(rawPassword));
+            userRepository.save(user);
+            log.info("Rehashed password with the current cost factor for user id: {}", user.getId());
+        } catch (PasswordHashingOverloadedException e) {
+            log.debug("Skipped password rehash for user id {}: hashing is overloaded", user.getId());
+        }
+    }
+
     /**
      * 認証成功時の処理
      */
@@ -179,7 +201,7 @@ public class UserService implements UserDetailsService {
      */
     private void handleFailedAuthentication(String usernameOrEmail, String ipAddress) {
         log.debug("User authentication failed: {}", SecurityUtils.maskUserIdentifier(usernameOrEmail));
-        loginAttemptService.recordFailedLogin(usernameOrEmail);
+        loginAttemptService.recordFailedLogin(usernameOrEmail, ipAddress);
         securityAuditService.logFailedLogin(usernameOrEmail, ipAddress, "Invalid credentials");
         
         // ログイン試行回数が上限に達した場合のログ
@@ -210,6 +232,7 @@ public class UserService implements UserDetailsService {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("ユーザーが見つかりません: " + userId));
+        String previousUsername = user.getUsername();
 
         // ユーザー名の重複チェック（自分以外）
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
@@ -242,6 +265,8 @@ public class UserService implements UserDetailsService {
         }
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new AccountStatusChangedEvent(
+                previousUsername, AccountStatusChangedEvent.Reason.PROFILE_UPDATED));
         log.info("User profile updated successfully: {}", updatedUser.getUsername());
 
         return UserProfile.from(updatedUser);
@@ -316,6 +341,8 @@ public class UserService implements UserDetailsService {
 
         user.setIsActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new AccountStatusChangedEvent(
+                user.getUsername(), AccountStatusChangedEvent.Reason.DEACTIVATED));
         
         log.info("User deactivated successfully: {}", user.getUsername());
     }
@@ -0,0 +1,323 @@
+package jp.readscape.consumer.services.checkout;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jp.readscape.consumer.dto.orders.CreateOrderRequest;
+import jp.readscape.consumer.dto.orders.CreateOrderResponse;
+import jp.readscape.consumer.dto.orders.OrderTicket;
+import jp.readscape.consumer.exceptions.CheckoutQueueFullException;
+import jp.readscape.consumer.exceptions.IdempotencyKeyReuseException;
+import jp.readscape.consumer.exceptions.IdempotentRequestInProgressException;
+import jp.readscape.consumer.exceptions.InsufficientStockException;
+import jp.readscape.consumer.services.OrderService;
+import jp.readscape.consumer.services.StockAvailabilityService;
+import jp.readscape.consumer.services.idempotency.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * 非同期注文受付キュー
+ * 注文リクエストをインスタンスごとの有界キューに積み、DBが処理できる並列度（ワーカー数）で注文を作成する
+ * キューが満杯の場合は待たせずに CheckoutQueueFullException で即座に拒否する
+ * チケットはインスタンスのメモリに保持するため、複数インスタンス構成ではチケット照会を受付インスタンスに振り分けること
+ * （完了した注文は通常の注文履歴APIからも参照できる）
+ */
+@Slf4j
+@Service
+public class CheckoutQueueService {
+
+    public static final String PREFER_HEADER = "Prefer";
+    public static final String RESPOND_ASYNC = "respond-async";
+
+    private static final String EVENT_NAME = "ticket";
+
+    private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final StockAvailabilityService stockAvailabilityService;
+    private final ThreadPoolExecutor executor;
+    private final int workers;
+    private final boolean asyncByDefault;
+    private final Duration ticketTtl;
+    private final Duration sseTimeout;
+    private final long minRetryAfterSeconds;
+    private final long maxRetryAfterSeconds;
+
+    private final ConcurrentMap<String, OrderTicket> tickets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final Timer processingTimer;
+    private final Timer queueWaitTimer;
+
+    public CheckoutQueueService(OrderService orderService,
+                                IdempotencyService idempotencyService,
+                                StockAvailabilityService stockAvailabilityService,
+                                MeterRegistry meterRegistry,
+                                @Value("${order.checkout.queue-capacity:500}") int queueCapacity,
+                                @Value("${order.checkout.workers:4}") int workers,
+                                @Value("${order.checkout.async-by-default:false}") boolean asyncByDefault,
+                                @Value("${order.checkout.ticket-ttl:PT15M}") Duration ticketTtl,
+                                @Value("${order.checkout.sse-timeout:PT60S}") Duration sseTimeout,
+                                @Value("${order.checkout.min-retry-after-seconds:1}") long minRetryAfterSeconds,
+                                @Value("${order.checkout.max-retry-after-seconds:30}") long maxRetryAfterSeconds) {
+        this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.stockAvailabilityService = stockAvailabilityService;
+        this.workers = workers;
+        this.asyncByDefault = asyncByDefault;
+        this.ticketTtl = ticketTtl;
+        this.sseTimeout = sseTimeout;
+        this.minRetryAfterSeconds = minRetryAfterSeconds;
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "checkout-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.acceptedCounter = Counter.builder("readscape.checkout.accepted")
+                .description("Orders accepted into the checkout queue")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("readscape.checkout.rejected")
+                .description("Orders rejected because the checkout queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("readscape.checkout.failed")
+                .description("Queued orders that failed to be created")
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("readscape.checkout.processing")
+                .description("Time to create a queued order")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("readscape.checkout.queue.wait")
+                .description("Time a queued order waited for a worker")
+                .register(meterRegistry);
+        Gauge.builder("readscape.checkout.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Orders waiting in the checkout queue")
+                .register(meterRegistry);
+        Gauge.builder("readscape.checkout.tickets", tickets, ConcurrentMap::size)
+                .description("Checkout tickets held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 非同期受付にするかどうか
+     * Prefer: respond-async ヘッダー（RFC 7240）が指定された場合、または async-by-default が有効な場合
+     */
+    public boolean isAsyncRequested(String prefer) {
+        return asyncByDefault || (prefer != null && prefer.toLowerCase().contains(RESPOND_ASYNC));
+    }
+
+    /**
+     * 注文リクエストを受け付けてキューに積む
+     * カートが空の場合や明らかな在庫切れなど、DBを更新せずに判定できるエラーはここで返す
+     * 冪等キー付きの場合は完了済みの再送（カートは空）を拒否しないよう、ワーカーで保存済みレスポンスを確認してから判定する
+     */
+    public OrderTicket submit(Long userId, CreateOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            stockAvailabilityService.precheckCheckout(userId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderTicket ticket = OrderTicket.builder()
+                .ticketId(UUID.randomUUID().toString())
+                .status(OrderTicket.Status.QUEUED)
+                .userId(userId)
+                .acceptedAt(now)
+                .updatedAt(now)
+                .build();
+        tickets.put(ticket.getTicketId(), ticket);
+
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> process(ticket.getTicketId(), userId, request, idempotencyKey, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            tickets.remove(ticket.getTicketId());
+            rejectedCounter.increment();
+            long retryAfter = estimateRetryAfterSeconds();
+            log.warn("Checkout queue full ({} waiting), rejecting order of user {} (retry after {}s)",
+                    executor.getQueue().size(), userId, retryAfter);
+            throw new CheckoutQueueFullException("注文が混み合っています。しばらくしてから再度お試しください", retryAfter);
+        }
+
+        acceptedCounter.increment();
+        log.debug("Order of user {} queued as ticket {}", userId, ticket.getTicketId());
+        return ticket;
+    }
+
+    /**
+     * チケットを取得（本人のチケットのみ）
+     */
+    public Optional<OrderTicket> getTicket(String ticketId, Long userId) {
+        return Optional.ofNullable(tickets.get(ticketId))
+                .filter(ticket -> ticket.getUserId().equals(userId));
+    }
+
+    /**
+     * チケットの状態変化をSSEで購読
+     * 購読時点の状態を即座に送信し、完了または失敗を送信した時点でストリームを閉じる
+     */
+    public Optional<SseEmitter> subscribe(String ticketId, Long userId) {
+        if (getTicket(ticketId, userId).isEmpty()) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        List<SseEmitter> subscribers = emitters.computeIfAbsent(ticketId, id -> new CopyOnWriteArrayList<>());
+        subscribers.add(emitter);
+        emitter.onCompletion(() -> removeEmitter(ticketId, emitter));
+        emitter.onTimeout(() -> removeEmitter(ticketId, emitter));
+        emitter.onError(error -> removeEmitter(ticketId, emitter));
+
+        // 登録後に現在の状態を送ることで、登録と状態遷移が競合しても最終状態を取りこぼさない
+        send(emitter, tickets.get(ticketId));
+        return Optional.of(emitter);
+    }
+
+    /**
+     * 保持期間を過ぎた完了済みチケットを削除
+     */
+    @Scheduled(fixedDelayString = "${order.checkout.sweep-interval-ms:60000}")
+    public void purgeExpiredTickets() {
+        LocalDateTime threshold = LocalDateTime.now().minus(ticketTtl);
+        int before = tickets.size();
+        tickets.values().removeIf(ticket -> ticket.isTerminal() && ticket.getUpdatedAt().isBefore(threshold));
+        int purged = before - tickets.size();
+        if (purged > 0) {
+            log.debug("Purged {} expired checkout tickets", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Checkout queue did not drain within 30s, {} orders left unprocessed", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    // プライベートメソッド
+
+    private void process(String ticketId, Long userId, CreateOrderRequest request, String idempotencyKey, long enqueuedAt) {
+        queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        update(ticketId, ticket -> ticket.toBuilder().status(OrderTicket.Status.PROCESSING));
+
+        try {
+            CreateOrderResponse response = processingTimer.recordCallable(() -> idempotencyKey == null
+                    ? orderService.createOrderFromCart(userId, request)
+                    : idempotencyService.execute(userId, idempotencyKey, request, CreateOrderResponse.class,
+                            () -> {
+                                stockAvailabilityService.precheckCheckout(userId);
+                                return orderService.createOrderFromCart(userId, request);
+                            }).getResponse());
+
+            update(ticketId, ticket -> ticket.toBuilder().status(OrderTicket.Status.COMPLETED).order(response));
+            log.info("Queued order created: {} for user: {} (ticket {})", response.getOrderNumber(), userId, ticketId);
+        } catch (Exception e) {
+            failedCounter.increment();
+            HttpStatus status = toHttpStatus(e);
+            String message = status.is5xxServerError() ? "注文処理中にエラーが発生しました" : e.getMessage();
+            if (status.is5xxServerError()) {
+                log.error("Queued order failed for user {} (ticket {}): {}", userId, ticketId, e.getMessage(), e);
+            } else {
+                log.warn("Queued order rejected for user {} (ticket {}): {}", userId, ticketId, e.getMessage());
+            }
+            update(ticketId, ticket -> ticket.toBuilder()
+                    .status(OrderTicket.Status.FAILED)
+                    .errorMessage(message)
+                    .errorStatus(status.value()));
+        }
+    }
+
+    /**
+     * 同期APIと同じ基準で失敗をHTTPステータスに対応付ける
+     */
+    private HttpStatus toHttpStatus(Exception e) {
+        if (e instanceof IdempotencyKeyReuseException) {
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        if (e instanceof IdempotentRequestInProgressException
+                || e instanceof InsufficientStockException
+                || e instanceof IllegalStateException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private void update(String ticketId, UnaryOperator<OrderTicket.OrderTicketBuilder> change) {
+        OrderTicket updated = tickets.computeIfPresent(ticketId,
+                (id, ticket) -> change.apply(ticket.toBuilder()).updatedAt(LocalDateTime.now()).build());
+        if (updated == null) {
+            return;
+        }
+
+        List<SseEmitter> subscribers = emitters.get(ticketId);
+        if (subscribers != null) {
+            subscribers.forEach(emitter -> send(emitter, updated));
+        }
+    }
+
+    private void send(SseEmitter emitter, OrderTicket ticket) {
+        if (ticket == null) {
+            emitter.complete();
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(ticket));
+            if (ticket.isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // クライアント切断済み
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void removeEmitter(String ticketId, SseEmitter emitter) {
+        emitters.computeIfPresent(ticketId, (id, subscribers) -> {
+            subscribers.remove(emitter);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    /**
+     * キューが捌けるまでの目安時間（待ち件数 × 平均処理時間 ÷ ワーカー数）
+     */
+    private long estimateRetryAfterSeconds() {
+        double meanMillis = processingTimer.mean(TimeUnit.MILLISECONDS);
+        long estimate = (long) Math.ceil(executor.getQueue().size() * meanMillis / workers / 1000.0);
+        return Math.max(minRetryAfterSeconds, Math.min(maxRetryAfterSeconds, estimate));
+    }
+}
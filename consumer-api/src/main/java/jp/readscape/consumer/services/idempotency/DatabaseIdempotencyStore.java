@@ -0,0 +1,99 @@
+package jp.readscape.consumer.services.idempotency;
+
+import jp.readscape.consumer.domain.idempotency.model.IdempotencyKey;
+import jp.readscape.consumer.domain.idempotency.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * PostgreSQLによる冪等キーの保存先
+ * 一意制約で処理中マーカーの登録競合を判定する
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Override
+    public Optional<IdempotencyEntry> putIfAbsent(Long userId, String key, String requestHash, Duration inFlightTtl) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key);
+        if (existing.isPresent()) {
+            if (!existing.get().isExpired(now)) {
+                return existing.map(this::toEntry);
+            }
+            idempotencyKeyRepository.deleteExpiredByUserIdAndIdempotencyKey(userId, key, now);
+        }
+
+        try {
+            idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                    .userId(userId)
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .status(IdempotencyKey.Status.IN_PROGRESS)
+                    .expiresAt(now.plus(inFlightTtl))
+                    .build());
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            // 同時に登録した別リクエストが先行している
+            return Optional.of(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key)
+                    .map(this::toEntry)
+                    .orElseGet(() -> IdempotencyEntry.inProgress(requestHash)));
+        }
+    }
+
+    @Override
+    public void complete(Long userId, String key, String requestHash, String responseBody, Duration ttl) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        int updated = idempotencyKeyRepository.markCompleted(userId, key, responseBody, expiresAt);
+        if (updated > 0) {
+            return;
+        }
+
+        // 処理中マーカーが期限切れで回収されていた場合は完了済みとして登録し直す
+        log.warn("In-flight idempotency marker for user {} was gone before completion, re-inserting", userId);
+        try {
+            idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                    .userId(userId)
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .status(IdempotencyKey.Status.COMPLETED)
+                    .responseBody(responseBody)
+                    .expiresAt(expiresAt)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Idempotency key for user {} was re-acquired by another request", userId);
+        }
+    }
+
+    @Override
+    public void remove(Long userId, String key) {
+        idempotencyKeyRepository.deleteByUserIdAndIdempotencyKey(userId, key);
+    }
+
+    /**
+     * 期限切れの冪等キーを回収
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.sweep-interval-ms:300000}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private IdempotencyEntry toEntry(IdempotencyKey idempotencyKey) {
+        return idempotencyKey.getStatus() == IdempotencyKey.Status.COMPLETED
+                ? IdempotencyEntry.completed(idempotencyKey.getRequestHash(), idempotencyKey.getResponseBody())
+                : IdempotencyEntry.inProgress(idempotencyKey.getRequestHash());
+    }
+}
@@ -0,0 +1,31 @@
+package jp.readscape.consumer.services.idempotency;
+
+import lombok.Value;
+
+/**
+ * 冪等キーに紐づく処理状態
+ */
+@Value
+public class IdempotencyEntry {
+
+    Status status;
+    String requestHash;
+    String responseBody;
+
+    public static IdempotencyEntry inProgress(String requestHash) {
+        return new IdempotencyEntry(Status.IN_PROGRESS, requestHash, null);
+    }
+
+    public static IdempotencyEntry completed(String requestHash, String responseBody) {
+        return new IdempotencyEntry(Status.COMPLETED, requestHash, responseBody);
+    }
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -0,0 +1,234 @@
+package jp.readscape.consumer.services.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.readscape.consumer.exceptions.IdempotencyKeyReuseException;
+import jp.readscape.consumer.exceptions.IdempotentRequestInProgressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 冪等キーによる重複実行防止サービス
+ * 同一キーの再送は保存済みレスポンスをリプレイし、処理中の重複は先行リクエストの完了を待って結果を共有する
+ * Redis対応（PostgreSQLへのフォールバックあり）
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long INITIAL_BACKOFF_MILLIS = 25;
+    private static final long MAX_BACKOFF_MILLIS = 500;
+    private static final String IN_PROGRESS_MESSAGE = "同じリクエストを処理中です。しばらくしてから再試行してください";
+
+    private final DatabaseIdempotencyStore databaseStore;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Duration waitTimeout;
+
+    @Autowired(required = false)
+    private RedisIdempotencyStore redisStore;
+
+    // 同一インスタンス内で処理中のリクエスト（重複リクエストは完了を待って結果を共有）
+    private final ConcurrentMap<String, LocalExecution> localExecutions = new ConcurrentHashMap<>();
+
+    public IdempotencyService(DatabaseIdempotencyStore databaseStore,
+                              ObjectMapper objectMapper,
+                              @Value("${order.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${order.idempotency.in-flight-timeout:PT60S}") Duration inFlightTimeout,
+                              @Value("${order.idempotency.wait-timeout:PT10S}") Duration waitTimeout) {
+        this.databaseStore = databaseStore;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * 冪等キー付きで処理を実行
+     * 処理が失敗した場合はキーを解放し、同じキーでの再試行を許可する
+     */
+    public <T> IdempotentResult<T> execute(Long userId, String key, Object request,
+                                           Class<T> responseType, Supplier<T> action) {
+        validateKey(key);
+        String requestHash = hashRequest(request);
+        String scope = userId + ":" + key;
+
+        LocalExecution execution = new LocalExecution(requestHash);
+        LocalExecution running = localExecutions.putIfAbsent(scope, execution);
+        if (running != null) {
+            return joinLocalExecution(running, requestHash, responseType);
+        }
+
+        try {
+            IdempotentResult<T> result = executeWithStore(userId, key, requestHash, responseType, action);
+            execution.response.complete(result.getResponse());
+            return result;
+        } catch (RuntimeException e) {
+            execution.response.completeExceptionally(e);
+            throw e;
+        } finally {
+            localExecutions.remove(scope, execution);
+        }
+    }
+
+    // プライベートメソッド
+
+    private <T> IdempotentResult<T> executeWithStore(Long userId, String key, String requestHash,
+                                                     Class<T> responseType, Supplier<T> action) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+
+        while (true) {
+            Optional<IdempotencyEntry> existing = withStore(
+                    store -> store.putIfAbsent(userId, key, requestHash, inFlightTimeout));
+            if (existing.isEmpty()) {
+                return runAndRecord(userId, key, requestHash, action);
+            }
+
+            IdempotencyEntry entry = existing.get();
+            ensureSameRequest(entry.getRequestHash(), requestHash);
+            if (entry.isCompleted()) {
+                log.info("Replaying stored response for idempotency key of user {}", userId);
+                return IdempotentResult.replayed(deserialize(entry.getResponseBody(), responseType));
+            }
+
+            // 他インスタンスで処理中のため完了を待つ
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis) > deadline) {
+                throw new IdempotentRequestInProgressException(IN_PROGRESS_MESSAGE);
+            }
+            sleep(backoffMillis);
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private <T> IdempotentResult<T> runAndRecord(Long userId, String key, String requestHash, Supplier<T> action) {
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            try {
+                useStore(store -> store.remove(userId, key));
+            } catch (RuntimeException removeFailure) {
+                log.warn("Failed to release idempotency key for user {}: {}", userId, removeFailure.getMessage());
+            }
+            throw e;
+        }
+
+        try {
+            String responseBody = objectMapper.writeValueAsString(response);
+            useStore(store -> store.complete(userId, key, requestHash, responseBody, ttl));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // 処理自体は成功しているため、記録に失敗してもレスポンスは返す
+            log.warn("Failed to record idempotent response for user {}: {}", userId, e.getMessage());
+        }
+        return IdempotentResult.executed(response);
+    }
+
+    private <T> IdempotentResult<T> joinLocalExecution(LocalExecution running, String requestHash, Class<T> responseType) {
+        ensureSameRequest(running.requestHash, requestHash);
+        try {
+            Object response = running.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return IdempotentResult.replayed(responseType.cast(response));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException(IN_PROGRESS_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException(IN_PROGRESS_MESSAGE);
+        }
+    }
+
+    private <R> R withStore(Function<IdempotencyStore, R> operation) {
+        if (redisStore != null) {
+            try {
+                return operation.apply(redisStore);
+            } catch (DataAccessException e) {
+                log.warn("Redis unavailable for idempotency keys, falling back to database: {}", e.getMessage());
+            }
+        }
+        return operation.apply(databaseStore);
+    }
+
+    private void useStore(Consumer<IdempotencyStore> operation) {
+        withStore(store -> {
+            operation.accept(store);
+            return null;
+        });
+    }
+
+    private void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_HEADER + "は1〜" + MAX_KEY_LENGTH + "文字で指定してください");
+        }
+    }
+
+    private void ensureSameRequest(String storedHash, String requestHash) {
+        if (!requestHash.equals(storedHash)) {
+            throw new IdempotencyKeyReuseException("この" + IDEMPOTENCY_KEY_HEADER + "は異なるリクエスト内容で使用済みです");
+        }
+    }
+
+    private String hashRequest(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("リクエストのハッシュ計算に失敗しました", e);
+        }
+    }
+
+    private <T> T deserialize(String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("保存済みレスポンスの復元に失敗しました", e);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException(IN_PROGRESS_MESSAGE);
+        }
+    }
+
+    private static class LocalExecution {
+        private final String requestHash;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private LocalExecution(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package jp.readscape.consumer.services.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 冪等キーの保存先
+ */
+public interface IdempotencyStore {
+
+    /**
+     * 処理中マーカーを登録
+     * 既に有効なエントリが存在する場合は登録せずにそのエントリを返す（空の場合は登録に成功）
+     */
+    Optional<IdempotencyEntry> putIfAbsent(Long userId, String key, String requestHash, Duration inFlightTtl);
+
+    /**
+     * 処理結果を記録して完了済みにする
+     */
+    void complete(Long userId, String key, String requestHash, String responseBody, Duration ttl);
+
+    /**
+     * 冪等キーを削除（処理失敗時に再試行を許可する）
+     */
+    void remove(Long userId, String key);
+}
@@ -0,0 +1,25 @@
+package jp.readscape.consumer.services.idempotency;
+
+import lombok.Value;
+
+/**
+ * 冪等実行の結果
+ */
+@Value
+public class IdempotentResult<T> {
+
+    T response;
+
+    /**
+     * 保存済みレスポンスのリプレイかどうか
+     */
+    boolean replayed;
+
+    public static <T> IdempotentResult<T> executed(T response) {
+        return new IdempotentResult<>(response, false);
+    }
+
+    public static <T> IdempotentResult<T> replayed(T response) {
+        return new IdempotentResult<>(response, true);
+    }
+}
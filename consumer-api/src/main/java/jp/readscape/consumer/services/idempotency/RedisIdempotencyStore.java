@@ -0,0 +1,66 @@
+package jp.readscape.consumer.services.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Redisによる冪等キーの保存先
+ * SET NXで処理中マーカーを登録し、有効期限はRedisのTTLに任せる
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.data.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String REDIS_KEY_PREFIX = "idempotency:order:";
+    private static final String FIELD_SEPARATOR = "|";
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+
+    @Override
+    public Optional<IdempotencyEntry> putIfAbsent(Long userId, String key, String requestHash, Duration inFlightTtl) {
+        String redisKey = redisKey(userId, key);
+        Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(redisKey, encode(IdempotencyEntry.inProgress(requestHash)), inFlightTtl);
+        if (Boolean.TRUE.equals(acquired)) {
+            return Optional.empty();
+        }
+
+        String raw = stringRedisTemplate.opsForValue().get(redisKey);
+        // 取得までの間に期限切れ・削除された場合は処理中として扱い、呼び出し側で再試行させる
+        return Optional.of(raw != null ? decode(raw) : IdempotencyEntry.inProgress(requestHash));
+    }
+
+    @Override
+    public void complete(Long userId, String key, String requestHash, String responseBody, Duration ttl) {
+        stringRedisTemplate.opsForValue()
+                .set(redisKey(userId, key), encode(IdempotencyEntry.completed(requestHash, responseBody)), ttl);
+    }
+
+    @Override
+    public void remove(Long userId, String key) {
+        stringRedisTemplate.delete(redisKey(userId, key));
+    }
+
+    private String redisKey(Long userId, String key) {
+        return REDIS_KEY_PREFIX + userId + ":" + key;
+    }
+
+    private String encode(IdempotencyEntry entry) {
+        return entry.getStatus().name() + FIELD_SEPARATOR + entry.getRequestHash() + FIELD_SEPARATOR
+                + (entry.getResponseBody() != null ? entry.getResponseBody() : "");
+    }
+
+    private IdempotencyEntry decode(String raw) {
+        String[] fields = raw.split("\\" + FIELD_SEPARATOR, 3);
+        IdempotencyEntry.Status status = IdempotencyEntry.Status.valueOf(fields[0]);
+        return status == IdempotencyEntry.Status.COMPLETED
+                ? IdempotencyEntry.completed(fields[1], fields.length > 2 ? fields[2] : "")
+                : IdempotencyEntry.inProgress(fields[1]);
+    }
+}
@@ -0,0 +1,87 @@
+package jp.readscape.consumer.services.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.readscape.consumer.domain.orders.model.Order;
+import jp.readscape.consumer.domain.orders.model.OrderItem;
+import jp.readscape.consumer.domain.outbox.model.OutboxEvent;
+import jp.readscape.consumer.domain.outbox.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 注文イベントのアウトボックス発行サービス
+ * 呼び出し元のトランザクション内でイベントを記録するため、注文の確定とイベントの発行が必ず一致する
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 注文作成イベントを記録
+     */
+    public void publishOrderCreated(Order order, Map<Long, Integer> stockAfter) {
+        publish(OutboxEvent.ORDER_CREATED, order, stockAfter);
+    }
+
+    /**
+     * 注文キャンセルイベントを記録
+     */
+    public void publishOrderCancelled(Order order, Map<Long, Integer> stockAfter) {
+        publish(OutboxEvent.ORDER_CANCELLED, order, stockAfter);
+    }
+
+    // プライベートメソッド
+
+    private void publish(String eventType, Order order, Map<Long, Integer> stockAfter) {
+        OrderStockEvent event = OrderStockEvent.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUser() != null ? order.getUser().getId() : null)
+                .occurredAt(LocalDateTime.now())
+                .items(toEventItems(order.getItems(), stockAfter))
+                .build();
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(OutboxEvent.AGGREGATE_ORDER)
+                .aggregateId(order.getId())
+                .eventType(eventType)
+                .payload(serialize(event))
+                .build());
+
+        log.debug("Outbox event {} recorded for order {}", eventType, order.getOrderNumber());
+    }
+
+    private List<OrderStockEvent.Item> toEventItems(List<OrderItem> items, Map<Long, Integer> stockAfter) {
+        return items.stream()
+                .filter(item -> item.getBook() != null)
+                .map(item -> OrderStockEvent.Item.builder()
+                        .bookId(item.getBook().getId())
+                        .quantity(item.getQuantity())
+                        .stockAfter(stockAfter.get(item.getBook().getId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private String serialize(OrderStockEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // 例外によって注文のトランザクションもロールバックされる
+            throw new IllegalStateException("アウトボックスイベントのシリアライズに失敗しました", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package jp.readscape.consumer.services.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 注文に伴う在庫変動イベント（アウトボックスのペイロード）
+ * 在庫管理APIはこの内容から在庫履歴を記録する
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStockEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private LocalDateTime occurredAt;
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long bookId;
+        private Integer quantity;
+        // 変動後の在庫数（ストライプ有効な書籍はストライプ合計の概算）
+        private Integer stockAfter;
+    }
+}
@@ -0,0 +1,24 @@
+package jp.readscape.consumer.services.ratelimit;
+
+import lombok.Value;
+
+/**
+ * レート制限の判定結果（X-RateLimit-* ヘッダーの値）
+ */
+@Value
+public class RateLimitDecision {
+
+    boolean allowed;
+
+    /** バケットの容量（ウィンドウあたりのトークン数） */
+    long limit;
+
+    /** 残りトークン数 */
+    long remaining;
+
+    /** バケットが満杯に戻るまでの秒数 */
+    long resetSeconds;
+
+    /** 拒否時、再試行できるまでの秒数（許可時は0） */
+    long retryAfterSeconds;
+}
@@ -0,0 +1,57 @@
+package jp.readscape.consumer.services.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * レート制限のエンドポイントグループ
+ * グループごとに1リクエストで消費するトークン数（コスト）を変え、検索などの軽い処理と
+ * ログイン・注文確定などの重い処理を同じバケットで公平に制限する
+ * パスはハンドラーのマッピングパターン（コントローラーの @RequestMapping のパス。コンテキストパス /api は含まない）
+ */
+public enum RateLimitGroup {
+
+    /** 書籍の一覧・検索・詳細 */
+    SEARCH,
+    /** ログイン・トークン更新・会員登録 */
+    AUTH,
+    /** 注文確定 */
+    CHECKOUT,
+    /** その他 */
+    DEFAULT;
+
+    /**
+     * リクエストからグループを判定
+     * ハンドラーが決まっている場合はそのマッピングパターン、決まっていない場合はコンテキストパスを除いたパスで判定する
+     */
+    public static RateLimitGroup resolve(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern instanceof String matched
+                ? matched
+                : request.getRequestURI().substring(request.getContextPath().length());
+        return resolve(request.getMethod(), path);
+    }
+
+    /**
+     * HTTPメソッドとパスからグループを判定（正規表現を使わない前方一致・完全一致のみ）
+     */
+    public static RateLimitGroup resolve(String method, String path) {
+        if (path == null) {
+            return DEFAULT;
+        }
+        if ("GET".equals(method)) {
+            return path.equals("/books") || path.startsWith("/books/") ? SEARCH : DEFAULT;
+        }
+        if ("POST".equals(method)) {
+            switch (path) {
+                case "/api/auth/login", "/api/auth/refresh", "/api/users/login", "/api/users/register":
+                    return AUTH;
+                case "/api/orders", "/api/orders/":
+                    return CHECKOUT;
+                default:
+                    return DEFAULT;
+            }
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,255 @@
+package jp.readscape.consumer.services.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.local.SynchronizationStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.readscape.consumer.services.redis.RedisCircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * レート制限サービス
+ * クライアント（認証済みユーザーIDまたはIPアドレス）ごとのトークンバケットで、エンドポイントグループごとのコストを消費する
+ * 判定はノード内のバケット（ロックフリー）だけで行い、I/Oを伴わない
+ * Redisが有効な場合は消費したトークン数を一定間隔でまとめて共有バケットに反映し、
+ * クラスタ全体で上限を超えたクライアントは全ノードで拒否する（超過は最大で1同期間隔分）
+ * バケットは件数上限つきで、補充し終えた（新規と同じ状態の）バケットは掃除で破棄する
+ */
+@Slf4j
+@Service
+public class RateLimitService {
+
+    // 上限超過時に一度に調べるエントリ数（近似LRU）
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final long anonymousLimit;
+    private final long authenticatedLimit;
+    private final Duration window;
+    private final long windowNanos;
+    private final int maxTrackedKeys;
+    private final Map<RateLimitGroup, Long> costs = new EnumMap<>(RateLimitGroup.class);
+    private final ConcurrentHashMap<String, ClientBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Map<RateLimitGroup, Counter> rejectedCounters = new EnumMap<>(RateLimitGroup.class);
+    private final Counter sizeEvictions;
+    private final Counter idleEvictions;
+
+    @Autowired(required = false)
+    private RedisRateLimitStore redisStore;
+
+    public RateLimitService(RedisCircuitBreaker redisCircuitBreaker,
+                            MeterRegistry meterRegistry,
+                            @Value("${rate.limit.anonymous:100}") long anonymousLimit,
+                            @Value("${rate.limit.authenticated:1000}") long authenticatedLimit,
+                            @Value("${rate.limit.window:3600}") long windowSeconds,
+                            @Value("${rate.limit.max-tracked-keys:100000}") int maxTrackedKeys,
+                            @Value("${rate.limit.cost.search:1}") long searchCost,
+                            @Value("${rate.limit.cost.auth:5}") long authCost,
+                            @Value("${rate.limit.cost.checkout:10}") long checkoutCost,
+                            @Value("${rate.limit.cost.default:1}") long defaultCost) {
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.anonymousLimit = anonymousLimit;
+        this.authenticatedLimit = authenticatedLimit;
+        this.window = Duration.ofSeconds(windowSeconds);
+        this.windowNanos = window.toNanos();
+        this.maxTrackedKeys = maxTrackedKeys;
+        costs.put(RateLimitGroup.SEARCH, searchCost);
+        costs.put(RateLimitGroup.AUTH, authCost);
+        costs.put(RateLimitGroup.CHECKOUT, checkoutCost);
+        costs.put(RateLimitGroup.DEFAULT, defaultCost);
+
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            rejectedCounters.put(group, Counter.builder("readscape.ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("group", group.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.sizeEvictions = Counter.builder("readscape.ratelimit.evicted")
+                .description("Rate limit buckets dropped from the local cache")
+                .tag("reason", "size")
+                .register(meterRegistry);
+        this.idleEvictions = Counter.builder("readscape.ratelimit.evicted")
+                .description("Rate limit buckets dropped from the local cache")
+                .tag("reason", "idle")
+                .register(meterRegistry);
+        Gauge.builder("readscape.ratelimit.tracked", buckets, Map::size)
+                .description("Rate limit buckets held in the local cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * トークンを消費して許可・拒否を判定
+     *
+     * @param clientKey     クライアントの識別子（"u:{ユーザーID}" または "ip:{IPアドレス}"）
+     * @param authenticated 認証済みかどうか（バケットの容量が変わる）
+     */
+    public RateLimitDecision tryConsume(String clientKey, boolean authenticated, RateLimitGroup group) {
+        long now = System.nanoTime();
+        ClientBucket bucket = bucketFor(clientKey, authenticated, now);
+        bucket.lastAccessNanos = now;
+        long cost = costs.get(group);
+
+        long blockedFor = bucket.blockedUntilNanos - now;
+        if (blockedFor > 0) {
+            rejectedCounters.get(group).increment();
+            return new RateLimitDecision(false, bucket.capacity, 0,
+                    resetSeconds(bucket.capacity, 0), toSeconds(blockedFor));
+        }
+
+        ConsumptionProbe probe = bucket.local.tryConsumeAndReturnRemaining(cost);
+        if (!probe.isConsumed()) {
+            rejectedCounters.get(group).increment();
+            log.debug("Rate limit exceeded: client={}, group={}", clientKey, group);
+            return new RateLimitDecision(false, bucket.capacity, probe.getRemainingTokens(),
+                    resetSeconds(bucket.capacity, probe.getRemainingTokens()),
+                    toSeconds(probe.getNanosToWaitForRefill()));
+        }
+
+        if (redisStore != null) {
+            bucket.pendingTokens.addAndGet(cost);
+        }
+        long remaining = Math.max(0, Math.min(probe.getRemainingTokens(), bucket.sharedRemaining));
+        return new RateLimitDecision(true, bucket.capacity, remaining, resetSeconds(bucket.capacity, remaining), 0);
+    }
+
+    /**
+     * ローカルで消費したトークン数を共有バケットに反映
+     * クラスタ全体で使い切ったクライアントは、共有バケットが1トークン以上に戻るまでこのノードでも拒否する
+     */
+    @Scheduled(fixedDelayString = "${rate.limit.sync-interval-ms:200}")
+    public void syncSharedBuckets() {
+        if (redisStore == null) {
+            return;
+        }
+
+        long periodMillis = window.toMillis();
+        for (Map.Entry<String, ClientBucket> entry : buckets.entrySet()) {
+            ClientBucket bucket = entry.getValue();
+            long pending = bucket.pendingTokens.getAndSet(0);
+            if (pending == 0) {
+                continue;
+            }
+            // Redis障害中はノード内のバケットだけで制限する（未反映分は破棄）
+            RedisRateLimitStore.SharedBucketState state = redisCircuitBreaker.execute(
+                    () -> redisStore.consume(entry.getKey(), pending, bucket.capacity, periodMillis,
+                            System.currentTimeMillis()),
+                    null);
+            if (state == null) {
+                continue;
+            }
+            bucket.sharedRemaining = state.remaining();
+            if (state.waitMillis() > 0) {
+                bucket.blockedUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(state.waitMillis());
+            }
+        }
+    }
+
+    /**
+     * 補充し終えたバケットの破棄
+     * 最後のアクセスから1ウィンドウ以上経過したバケットは満杯に戻っており、新規作成と区別できない
+     */
+    @Scheduled(fixedDelayString = "${rate.limit.sweep-interval-ms:60000}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Iterator<ClientBucket> it = buckets.values().iterator(); it.hasNext(); ) {
+            ClientBucket bucket = it.next();
+            if (now - bucket.lastAccessNanos >= windowNanos && bucket.pendingTokens.get() == 0) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            idleEvictions.increment(removed);
+            log.debug("Swept {} idle rate limit buckets", removed);
+        }
+    }
+
+    public int trackedKeys() {
+        return buckets.size();
+    }
+
+    // プライベートメソッド
+
+    private ClientBucket bucketFor(String clientKey, boolean authenticated, long now) {
+        ClientBucket bucket = buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxTrackedKeys) {
+            evictLeastRecentlyUsed();
+        }
+        return buckets.computeIfAbsent(clientKey,
+                key -> new ClientBucket(authenticated ? authenticatedLimit : anonymousLimit, window, now));
+    }
+
+    /**
+     * 先頭から数件を調べ、最も長くアクセスされていないバケットを破棄する
+     */
+    private void evictLeastRecentlyUsed() {
+        String victim = null;
+        long oldest = Long.MAX_VALUE;
+        int sampled = 0;
+        for (Map.Entry<String, ClientBucket> entry : buckets.entrySet()) {
+            if (entry.getValue().lastAccessNanos < oldest) {
+                oldest = entry.getValue().lastAccessNanos;
+                victim = entry.getKey();
+            }
+            if (++sampled >= EVICTION_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        if (victim != null && buckets.remove(victim) != null) {
+            sizeEvictions.increment();
+        }
+    }
+
+    private long resetSeconds(long capacity, long remaining) {
+        long missing = capacity - Math.max(0, remaining);
+        return missing <= 0 ? 0 : (missing * window.getSeconds() + capacity - 1) / capacity;
+    }
+
+    private long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999) / 1_000_000_000);
+    }
+
+    /**
+     * クライアントごとのバケット
+     */
+    private static final class ClientBucket {
+
+        final long capacity;
+        final Bucket local;
+        final AtomicLong pendingTokens = new AtomicLong();
+        volatile long lastAccessNanos;
+        volatile long sharedRemaining = Long.MAX_VALUE;
+        volatile long blockedUntilNanos;
+
+        ClientBucket(long capacity, Duration window, long now) {
+            this.capacity = capacity;
+            this.local = Bucket.builder()
+                    .addLimit(Bandwidth.classic(capacity, Refill.greedy(capacity, window)))
+                    .withSynchronizationStrategy(SynchronizationStrategy.LOCK_FREE)
+                    .build();
+            this.lastAccessNanos = now;
+            this.blockedUntilNanos = now;
+        }
+    }
+}
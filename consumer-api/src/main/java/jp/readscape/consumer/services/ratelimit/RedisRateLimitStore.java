@@ -0,0 +1,69 @@
+package jp.readscape.consumer.services.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * レート制限の共有バケット（Redis）
+ * 各ノードがローカルで消費したトークン数をまとめて差し引き、クラスタ全体の残量を返す
+ * ローカルで既に許可したリクエストの分のため、残量は負（借り）になりうる。借りを返し終えるまで全ノードで拒否される
+ * 補充・消費・有効期限の設定はLuaスクリプトで原子的に行う
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.data.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisRateLimitStore {
+
+    private static final String REDIS_KEY_PREFIX = "ratelimit:";
+
+    /**
+     * トークンの消費
+     * KEYS[1]: ハッシュ / ARGV: 容量, 補充期間（ミリ秒）, 現在時刻（ミリ秒）, 消費数
+     * 戻り値: {消費後の残量（切り捨て）, 1トークン以上に戻るまでのミリ秒}
+     */
+    private static final RedisScript<List> CONSUME = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local period = tonumber(ARGV[2])
+            local now = tonumber(ARGV[3])
+            local cost = tonumber(ARGV[4])
+            local data = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(data[1]) or capacity
+            local ts = tonumber(data[2]) or now
+            if now > ts then
+              tokens = math.min(capacity, tokens + (now - ts) * capacity / period)
+              ts = now
+            end
+            tokens = tokens - cost
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', ts)
+            local wait = 0
+            if tokens < 1 then
+              wait = math.ceil((1 - tokens) * period / capacity)
+            end
+            redis.call('PEXPIRE', KEYS[1], period + wait)
+            return {math.floor(tokens), wait}
+            """, List.class);
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+
+    public SharedBucketState consume(String key, long tokens, long capacity, long periodMillis, long nowMillis) {
+        List<?> result = stringRedisTemplate.execute(CONSUME, List.of(REDIS_KEY_PREFIX + key),
+                Long.toString(capacity), Long.toString(periodMillis),
+                Long.toString(nowMillis), Long.toString(tokens));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("レート制限の共有バケットの結果が不正です");
+        }
+        return new SharedBucketState(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue());
+    }
+
+    /**
+     * 共有バケットの状態
+     */
+    public record SharedBucketState(long remaining, long waitMillis) {
+    }
+}
@@ -0,0 +1,111 @@
+package jp.readscape.consumer.services.redis;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Redisの可用性を表すサーキットブレーカー
+ * 呼び出しごとにPINGする代わりに、実際の操作の成否から状態を保持する
+ * 連続失敗が閾値に達すると一定時間OPENとなり、その間はRedisに触れずにフォールバックする
+ * OPEN期間の経過後は1件だけ試行を通し（HALF_OPEN）、成功すればCLOSEDに戻る
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAtNanos = new AtomicLong();
+    private volatile State state = State.CLOSED;
+
+    public RedisCircuitBreaker(MeterRegistry meterRegistry,
+                               @Value("${redis.circuit-breaker.failure-threshold:3}") int failureThreshold,
+                               @Value("${redis.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+
+        Gauge.builder("readscape.redis.circuit.open", this, breaker -> breaker.state == State.CLOSED ? 0 : 1)
+                .description("Whether Redis calls are currently short-circuited")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Redisを呼び出してよいか
+     * OPEN期間を過ぎていれば1件だけ試行を許可する
+     */
+    public boolean allowRequest() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        // HALF_OPEN の試行結果が記録されないまま期間が過ぎた場合も次の試行を許可する
+        if (current == State.OPEN || current == State.HALF_OPEN) {
+            long openedAt = openedAtNanos.get();
+            if (System.nanoTime() - openedAt >= openNanos
+                    && openedAtNanos.compareAndSet(openedAt, System.nanoTime())) {
+                state = State.HALF_OPEN;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Redis操作を実行し、失敗またはOPENの場合は fallback を返す
+     */
+    public <T> T execute(Supplier<T> operation, T fallback) {
+        if (!allowRequest()) {
+            return fallback;
+        }
+        try {
+            T result = operation.get();
+            recordSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            recordFailure(e);
+            return fallback;
+        }
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("Redis circuit closed");
+        }
+    }
+
+    public void recordFailure(RuntimeException e) {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos.set(System.nanoTime());
+            if (state != State.OPEN) {
+                state = State.OPEN;
+                log.warn("Redis circuit opened: {}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isAvailable() {
+        return state == State.CLOSED;
+    }
+
+    public State getState() {
+        return state;
+    }
+}
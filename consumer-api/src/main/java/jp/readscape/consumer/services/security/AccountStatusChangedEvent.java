@@ -0,0 +1,21 @@
+package jp.readscape.consumer.services.security;
+
+import lombok.Value;
+
+/**
+ * アカウント状態の変更イベント
+ * ログイン試行超過によるロック、プロフィール更新、無効化の際に発行し、ユーザー状態キャッシュを破棄させる
+ * identifier はユーザー名またはメールアドレス
+ */
+@Value
+public class AccountStatusChangedEvent {
+
+    public enum Reason {
+        LOCKED,
+        PROFILE_UPDATED,
+        DEACTIVATED
+    }
+
+    String identifier;
+    Reason reason;
+}
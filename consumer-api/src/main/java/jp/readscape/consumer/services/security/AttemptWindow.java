@@ -0,0 +1,30 @@
+package jp.readscape.consumer.services.security;
+
+import lombok.Value;
+
+/**
+ * ログイン試行のスライディングウィンドウの状態
+ * attempts は直前ウィンドウの件数を経過割合で按分した推定値
+ */
+@Value
+public class AttemptWindow {
+
+    public static final AttemptWindow EMPTY = new AttemptWindow(0, 0, false);
+
+    int attempts;
+    long lockedUntilMillis;
+    // この記録でロックされた場合のみ true
+    boolean newlyLocked;
+
+    public boolean isLocked(long nowMillis) {
+        return lockedUntilMillis > nowMillis;
+    }
+
+    /**
+     * 固定長ウィンドウ2つ（直前・現在）による試行回数の推定
+     */
+    static int estimate(long previousCount, long currentCount, long windowStartMillis, long windowMillis, long nowMillis) {
+        double remaining = Math.max(0, windowMillis - (nowMillis - windowStartMillis)) / (double) windowMillis;
+        return (int) (currentCount + (long) Math.floor(previousCount * remaining));
+    }
+}
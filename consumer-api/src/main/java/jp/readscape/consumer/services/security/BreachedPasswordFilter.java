@@ -0,0 +1,97 @@
+package jp.readscape.consumer.services.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jp.readscape.consumer.utils.MappedBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * 漏洩パスワードの判定
+ * BreachedPasswordFilterBuilder で作成したBloomフィルターのファイルを読み取り専用でメモリマップし、
+ * 数回のビット参照だけで判定する（ヒープは消費しない。偽陽性の場合は強いパスワードを拒否しうる）
+ * ファイルの更新日時とサイズを定期的に確認し、置き換えられていれば新しいファイルをマップして参照を差し替える
+ * ファイルは一時ファイルからの rename で置き換えること（マップ中のファイルを直接上書きしない）
+ * パスが未設定の場合は判定しない
+ */
+@Slf4j
+@Component
+public class BreachedPasswordFilter {
+
+    private final Path path;
+    private final Counter reloadCounter;
+
+    private volatile MappedBloomFilter filter;
+    private FileTime loadedModifiedTime;
+    private long loadedSize;
+
+    public BreachedPasswordFilter(MeterRegistry meterRegistry,
+                                  @Value("${security.password.breached-filter.path:}") String path) {
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+        this.reloadCounter = Counter.builder("readscape.password.breached.filter.reloads")
+                .description("Times the breached-password filter file was mapped")
+                .register(meterRegistry);
+        Gauge.builder("readscape.password.breached.filter.entries", this,
+                        breachedFilter -> breachedFilter.filter != null ? breachedFilter.filter.getEntryCount() : 0)
+                .description("Passwords in the mapped breached-password filter")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (path == null) {
+            log.info("Breached password filter is not configured");
+            return;
+        }
+        reloadIfChanged();
+    }
+
+    /**
+     * 漏洩パスワードに含まれている可能性があるか
+     */
+    public boolean mightContain(String password) {
+        MappedBloomFilter current = filter;
+        return current != null && password != null && current.mightContain(password);
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    /**
+     * ファイルが置き換えられていれば再マップする（失敗した場合は現在のフィルターを使い続ける）
+     */
+    @Scheduled(fixedDelayString = "${security.password.breached-filter.reload-interval-ms:60000}")
+    public synchronized void reloadIfChanged() {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (attributes.lastModifiedTime().equals(loadedModifiedTime) && attributes.size() == loadedSize) {
+                return;
+            }
+
+            MappedBloomFilter loaded = MappedBloomFilter.open(path);
+            filter = loaded;
+            loadedModifiedTime = attributes.lastModifiedTime();
+            loadedSize = attributes.size();
+            reloadCounter.increment();
+            log.info("Breached password filter mapped from {}: {} passwords, {} bytes, {} hashes",
+                    path, loaded.getEntryCount(), loaded.sizeBytes(), loaded.getHashCount());
+        } catch (IOException e) {
+            log.warn("Failed to map breached password filter {}: {}", path, e.getMessage());
+        }
+    }
+}
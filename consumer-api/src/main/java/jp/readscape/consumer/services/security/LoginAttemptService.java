@@ -1,14 +1,30 @@
 package jp.readscape.consumer.services.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jp.readscape.consumer.constants.SecurityConstants;
+import jp.readscape.consumer.services.redis.RedisCircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * ログイン試行制限サービス
+ * 識別子（ユーザー名・メールアドレス）とIPアドレスごとに、独立したスライディングウィンドウで失敗回数を数える
+ * ノード内の層は件数上限つき・期限切れで破棄されるため、大量の識別子を試す攻撃でもメモリが増え続けない
+ * Redisが有効な場合は共有層（Luaスクリプト）を正とし、ロックをクラスタ全体に適用する
+ * Redisが利用できない間はノード内の層だけで判定する
+ */
 @Slf4j
 @Service
 public class LoginAttemptService {
@@ -18,53 +34,98 @@ public class LoginAttemptService {
     private static final long LOCK_TIME_DURATION = SecurityConstants.LOGIN_LOCK_DURATION_MINUTES;
     private static final long ATTEMPT_RESET_TIME = SecurityConstants.LOGIN_ATTEMPT_RESET_MINUTES;
 
-    // 試行情報を保存するマップ（本番環境では Redis 等を使用）
-    private final ConcurrentMap<String, AttemptInfo> attemptCache = new ConcurrentHashMap<>();
+    private static final String IDENTIFIER_SCOPE = "identifier";
+    private static final String IP_SCOPE = "ip";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final SlidingWindowAttemptTracker identifierTracker;
+    private final SlidingWindowAttemptTracker ipTracker;
+    private final long windowMillis = Duration.ofMinutes(ATTEMPT_RESET_TIME).toMillis();
+    private final long identifierLockMillis = Duration.ofMinutes(LOCK_TIME_DURATION).toMillis();
+    private final int ipMaxAttempts;
+    private final long ipLockMillis;
+
+    @Autowired(required = false)
+    private RedisLoginAttemptStore redisStore;
+
+    private Clock clock = Clock.systemUTC();
+
+    public LoginAttemptService(ApplicationEventPublisher eventPublisher,
+                               RedisCircuitBreaker redisCircuitBreaker,
+                               MeterRegistry meterRegistry,
+                               @Value("${spring.security.login-attempts.max-tracked-keys:100000}") int maxTrackedKeys,
+                               @Value("${spring.security.login-attempts.ip-max-attempts:50}") int ipMaxAttempts,
+                               @Value("${spring.security.login-attempts.ip-lock-duration:PT15M}") Duration ipLockDuration) {
+        this.eventPublisher = eventPublisher;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.ipMaxAttempts = ipMaxAttempts;
+        this.ipLockMillis = ipLockDuration.toMillis();
+        this.identifierTracker = new SlidingWindowAttemptTracker(
+                IDENTIFIER_SCOPE, windowMillis, MAX_ATTEMPT, identifierLockMillis, maxTrackedKeys, meterRegistry);
+        this.ipTracker = new SlidingWindowAttemptTracker(
+                IP_SCOPE, windowMillis, ipMaxAttempts, ipLockMillis, maxTrackedKeys, meterRegistry);
+    }
 
     /**
      * ログイン成功を記録します
+     * 識別子のウィンドウのみリセットする（IPのウィンドウは成功でリセットしない）
      */
     public void recordSuccessfulLogin(String identifier) {
         log.debug("Recording successful login for: {}", identifier);
-        attemptCache.remove(identifier);
+        resetIdentifier(identifier);
     }
 
     /**
      * ログイン失敗を記録します
      */
     public void recordFailedLogin(String identifier) {
+        recordFailedLogin(identifier, null);
+    }
+
+    /**
+     * ログイン失敗を記録します（IPアドレス付き）
+     */
+    public void recordFailedLogin(String identifier, String ipAddress) {
         log.debug("Recording failed login for: {}", identifier);
-        
-        AttemptInfo info = attemptCache.computeIfAbsent(identifier, k -> new AttemptInfo());
-        info.incrementAttempts();
-        
+        long now = clock.millis();
+
+        AttemptWindow window = record(identifierTracker, IDENTIFIER_SCOPE, identifier, now, MAX_ATTEMPT, identifierLockMillis);
         log.warn("Failed login attempt for {}: attempt {}/{}", 
-                identifier, info.getAttempts(), MAX_ATTEMPT);
+                identifier, window.getAttempts(), MAX_ATTEMPT);
+
+        // ロックされた時点で発行し、発行済みトークンによる認証も止める
+        if (window.isNewlyLocked()) {
+            eventPublisher.publishEvent(new AccountStatusChangedEvent(
+                    identifier, AccountStatusChangedEvent.Reason.LOCKED));
+        }
+
+        if (isTrackableIp(ipAddress)) {
+            AttemptWindow ipWindow = record(ipTracker, IP_SCOPE, ipAddress, now, ipMaxAttempts, ipLockMillis);
+            if (ipWindow.isNewlyLocked()) {
+                log.warn("IP address locked after {} failed login attempts", ipWindow.getAttempts());
+            }
+        }
     }
 
     /**
      * アカウントがブロックされているかチェックします
      */
     public boolean isBlocked(String identifier) {
-        AttemptInfo info = attemptCache.get(identifier);
-        if (info == null) {
-            return false;
-        }
-
-        // 試行回数がリセット時間を超えている場合はリセット
-        if (info.shouldResetAttempts()) {
-            log.debug("Resetting login attempts for: {}", identifier);
-            attemptCache.remove(identifier);
-            return false;
-        }
+        return isBlocked(identifier, null);
+    }
 
-        boolean blocked = info.isBlocked();
+    /**
+     * アカウントまたはIPアドレスがブロックされているかチェックします
+     */
+    public boolean isBlocked(String identifier, String ipAddress) {
+        long now = clock.millis();
+        boolean blocked = window(identifierTracker, IDENTIFIER_SCOPE, identifier, now).isLocked(now)
+                || (isTrackableIp(ipAddress) && window(ipTracker, IP_SCOPE, ipAddress, now).isLocked(now));
         if (blocked) {
-            long remainingTime = info.getRemainingLockTime();
             log.debug("Account {} is blocked. Remaining time: {} minutes", 
-                    identifier, remainingTime);
+                    identifier, getRemainingLockTime(identifier, ipAddress));
         }
-
         return blocked;
     }
 
@@ -72,16 +133,27 @@ public class LoginAttemptService {
      * 残りロック時間（分）を取得します
      */
     public long getRemainingLockTime(String identifier) {
-        AttemptInfo info = attemptCache.get(identifier);
-        return info != null ? info.getRemainingLockTime() : 0;
+        return getRemainingLockTime(identifier, null);
+    }
+
+    /**
+     * 識別子とIPアドレスのうち長い方の残りロック時間（分）を取得します
+     */
+    public long getRemainingLockTime(String identifier, String ipAddress) {
+        long now = clock.millis();
+        long lockedUntil = window(identifierTracker, IDENTIFIER_SCOPE, identifier, now).getLockedUntilMillis();
+        if (isTrackableIp(ipAddress)) {
+            lockedUntil = Math.max(lockedUntil, window(ipTracker, IP_SCOPE, ipAddress, now).getLockedUntilMillis());
+        }
+        long remainingMillis = lockedUntil - now;
+        return remainingMillis > 0 ? (remainingMillis + 59_999) / 60_000 : 0;
     }
 
     /**
      * 試行回数を取得します
      */
     public int getAttempts(String identifier) {
-        AttemptInfo info = attemptCache.get(identifier);
-        return info != null ? info.getAttempts() : 0;
+        return window(identifierTracker, IDENTIFIER_SCOPE, identifier, clock.millis()).getAttempts();
     }
 
     /**
@@ -89,61 +161,18 @@ public class LoginAttemptService {
      */
     public void clearLoginAttempts(String identifier) {
         log.info("Manually clearing login attempts for: {}", identifier);
-        attemptCache.remove(identifier);
+        resetIdentifier(identifier);
     }
 
     /**
-     * 試行情報を表すクラス
+     * ウィンドウとロックが切れたエントリの掃除
      */
-    private static class AttemptInfo {
-        private int attempts;
-        private LocalDateTime firstAttempt;
-        private LocalDateTime lastAttempt;
-
-        public AttemptInfo() {
-            this.attempts = 0;
-            this.firstAttempt = LocalDateTime.now();
-            this.lastAttempt = LocalDateTime.now();
-        }
-
-        public void incrementAttempts() {
-            this.attempts++;
-            this.lastAttempt = LocalDateTime.now();
-            if (this.firstAttempt == null) {
-                this.firstAttempt = LocalDateTime.now();
-            }
-        }
-
-        public boolean isBlocked() {
-            if (attempts < MAX_ATTEMPT) {
-                return false;
-            }
-
-            // ロック時間を超えている場合は自動的にブロック解除
-            LocalDateTime unlockTime = lastAttempt.plus(LOCK_TIME_DURATION, ChronoUnit.MINUTES);
-            return LocalDateTime.now().isBefore(unlockTime);
-        }
-
-        public boolean shouldResetAttempts() {
-            if (firstAttempt == null) {
-                return false;
-            }
-
-            LocalDateTime resetTime = firstAttempt.plus(ATTEMPT_RESET_TIME, ChronoUnit.MINUTES);
-            return LocalDateTime.now().isAfter(resetTime);
-        }
-
-        public long getRemainingLockTime() {
-            if (attempts < MAX_ATTEMPT) {
-                return 0;
-            }
-
-            LocalDateTime unlockTime = lastAttempt.plus(LOCK_TIME_DURATION, ChronoUnit.MINUTES);
-            return ChronoUnit.MINUTES.between(LocalDateTime.now(), unlockTime);
-        }
-
-        public int getAttempts() {
-            return attempts;
+    @Scheduled(fixedDelayString = "${spring.security.login-attempts.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = clock.millis();
+        int removed = identifierTracker.sweep(now) + ipTracker.sweep(now);
+        if (removed > 0) {
+            log.debug("Swept {} expired login attempt windows", removed);
         }
     }
 
@@ -188,14 +217,81 @@ public class LoginAttemptService {
      * ログイン試行状況を取得します
      */
     public LoginAttemptStatus getLoginAttemptStatus(String identifier) {
-        AttemptInfo info = attemptCache.get(identifier);
-        if (info == null) {
-            return new LoginAttemptStatus(false, 0, MAX_ATTEMPT, 0);
+        long now = clock.millis();
+        AttemptWindow window = window(identifierTracker, IDENTIFIER_SCOPE, identifier, now);
+        boolean blocked = window.isLocked(now);
+        long remainingTime = blocked ? getRemainingLockTime(identifier) : 0;
+
+        return new LoginAttemptStatus(blocked, window.getAttempts(), MAX_ATTEMPT, remainingTime);
+    }
+
+    // プライベートメソッド
+
+    /**
+     * 失敗の記録（共有層を正とし、ローカル層にも反映する。共有層が使えない場合はローカル層の結果）
+     */
+    private AttemptWindow record(SlidingWindowAttemptTracker tracker, String scope, String key,
+                                 long now, int maxAttempts, long lockMillis) {
+        AttemptWindow local = tracker.recordFailure(key, now);
+        if (redisStore == null) {
+            return local;
+        }
+
+        AttemptWindow shared = redisCircuitBreaker.execute(
+                () -> redisStore.recordFailure(scope, hash(key), now, windowMillis, maxAttempts, lockMillis), null);
+        if (shared == null) {
+            return local;
+        }
+        if (shared.isLocked(now)) {
+            tracker.markLocked(key, shared.getLockedUntilMillis());
         }
+        // ロックの発行は共有層の判定に従う（他ノードで既にロック済みなら重複して発行しない）
+        return shared;
+    }
+
+    /**
+     * 現在の状態（ローカル層でロック中ならI/Oなし）
+     */
+    private AttemptWindow window(SlidingWindowAttemptTracker tracker, String scope, String key, long now) {
+        AttemptWindow local = tracker.get(key, now);
+        if (local.isLocked(now) || redisStore == null) {
+            return local;
+        }
+
+        AttemptWindow shared = redisCircuitBreaker.execute(
+                () -> redisStore.get(scope, hash(key), now, windowMillis), null);
+        if (shared == null) {
+            return local;
+        }
+        if (shared.isLocked(now)) {
+            tracker.markLocked(key, shared.getLockedUntilMillis());
+        }
+        return shared;
+    }
 
-        boolean blocked = isBlocked(identifier);
-        long remainingTime = blocked ? info.getRemainingLockTime() : 0;
-        
-        return new LoginAttemptStatus(blocked, info.getAttempts(), MAX_ATTEMPT, remainingTime);
+    private void resetIdentifier(String identifier) {
+        identifierTracker.reset(identifier);
+        if (redisStore != null) {
+            redisCircuitBreaker.execute(() -> {
+                redisStore.reset(IDENTIFIER_SCOPE, hash(identifier));
+                return null;
+            }, null);
+        }
+    }
+
+    private boolean isTrackableIp(String ipAddress) {
+        return ipAddress != null && !ipAddress.isBlank() && !"unknown".equals(ipAddress);
+    }
+
+    /**
+     * Redisのキーにはメールアドレス等を平文で載せない
+     */
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("キーのハッシュ計算に失敗しました", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package jp.readscape.consumer.services.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jp.readscape.consumer.exceptions.PasswordHashingOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * パスワードハッシュ専用の実行基盤
+ * BCryptの計算をCPUコア数に合わせたスレッドで行い、ログインや会員登録が集中しても
+ * リクエストスレッドがハッシュ計算でCPUを占有して書籍閲覧などが止まらないようにする
+ * 待ち行列は有界で、満杯・待ち時間超過の場合は待たせずに PasswordHashingOverloadedException で拒否する
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${security.password.hashing.threads:0}") int threads,
+                                   @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${security.password.hashing.max-wait:PT5S}") Duration maxWait,
+                                   @Value("${security.password.hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("readscape.password.hash.duration")
+                .description("Time spent computing a password hash")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("readscape.password.hash.duration")
+                .description("Time spent computing a password hash")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.queueTimer = Timer.builder("readscape.password.hash.queue.time")
+                .description("Time a password hash waited for a hashing thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("readscape.password.hash.rejected")
+                .description("Password hashes shed because the hashing queue was full or too slow")
+                .register(meterRegistry);
+        Gauge.builder("readscape.password.hash.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+
+        log.info("Password hashing executor started: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * ハッシュの生成
+     */
+    public String encode(Supplier<String> operation) {
+        return execute(operation, encodeTimer);
+    }
+
+    /**
+     * ハッシュの照合
+     */
+    public boolean matches(Supplier<Boolean> operation) {
+        return execute(operation, matchesTimer);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // プライベートメソッド
+
+    private <T> T execute(Supplier<T> operation, Timer timer) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(operation);
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw overloaded("Password hashing did not complete within the wait limit");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("パスワードの処理が中断されました", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("パスワードの処理に失敗しました", e.getCause());
+        }
+    }
+
+    private PasswordHashingOverloadedException overloaded(String reason) {
+        rejectedCounter.increment();
+        log.warn("{}: {} queued", reason, executor.getQueue().size());
+        return new PasswordHashingOverloadedException(
+                "アクセスが集中しています。しばらくしてから再度お試しください", retryAfterSeconds);
+    }
+}
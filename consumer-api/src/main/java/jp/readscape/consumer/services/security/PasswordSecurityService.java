@@ -14,6 +14,8 @@ import java.util.regex.Pattern;
 public class PasswordSecurityService {
 
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final BreachedPasswordFilter breachedPasswordFilter;
 
     // 定数をSecurityConstantsから取得
     private static final int MIN_PASSWORD_LENGTH = SecurityConstants.MIN_PASSWORD_LENGTH;
@@ -109,26 +111,35 @@ public class PasswordSecurityService {
     }
 
     /**
-     * パスワードを暗号化します
+     * パスワードを暗号化します（ハッシュ専用スレッドで実行）
      */
     public String encodePassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return hashingExecutor.encode(() -> passwordEncoder.encode(rawPassword));
     }
 
     /**
-     * パスワードが一致するかチェックします
+     * パスワードが一致するかチェックします（ハッシュ専用スレッドで実行）
      */
     public boolean matches(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return hashingExecutor.matches(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 保存済みのハッシュが現在のコスト係数より弱いかどうか（ログイン成功時に再ハッシュする）
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && !encodedPassword.isEmpty()
+                && passwordEncoder.upgradeEncoding(encodedPassword);
     }
 
     /**
      * よくあるパスワードかどうかをチェックします
+     * 代表的なパスワードに加え、漏洩パスワードのBloomフィルター（設定されている場合）も参照します
      */
     public boolean isCommonPassword(String password) {
         if (password == null) return false;
         
-        // よくあるパスワードのリスト（実際の運用では外部ファイルから読み込むべき）
+        // よくあるパスワードのリスト（大規模な漏洩データは BreachedPasswordFilter で判定）
         String[] commonPasswords = {
             "12345678", "password", "123456789", "12345678", "qwerty",
             "abc123", "password123", "admin", "letmein", "welcome",
@@ -142,7 +153,7 @@ public class PasswordSecurityService {
             }
         }
 
-        return false;
+        return breachedPasswordFilter.mightContain(password);
     }
 
     /**
@@ -0,0 +1,107 @@
+package jp.readscape.consumer.services.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ログイン試行の共有層（Redis）
+ * キーごとのハッシュに直前・現在ウィンドウの件数とロック期限を保持し、
+ * 記録・ロック判定・有効期限の設定をLuaスクリプトで原子的に行うため、全ノードで同じ上限が適用される
+ * 時刻は呼び出し側のミリ秒を渡す（ノード間の時計のずれはウィンドウ長に比べて十分小さい前提）
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.data.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisLoginAttemptStore {
+
+    private static final String REDIS_KEY_PREFIX = "login:attempts:";
+
+    /**
+     * 失敗の記録
+     * KEYS[1]: ハッシュ / ARGV: 現在時刻, ウィンドウ長, 上限回数, ロック時間（すべてミリ秒）
+     * 戻り値: {推定試行回数, ロック期限, 今回ロックしたか(0/1)}
+     */
+    private static final RedisScript<List> RECORD_FAILURE = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local max = tonumber(ARGV[3])
+            local lockMs = tonumber(ARGV[4])
+            local start = now - (now % window)
+            local data = redis.call('HMGET', KEYS[1], 'ws', 'cur', 'prev', 'lock')
+            local ws = tonumber(data[1]) or start
+            local cur = tonumber(data[2]) or 0
+            local prev = tonumber(data[3]) or 0
+            local lock = tonumber(data[4]) or 0
+            if ws ~= start then
+              if ws == start - window then prev = cur else prev = 0 end
+              cur = 0
+            end
+            cur = cur + 1
+            local attempts = cur + math.floor(prev * (window - (now - start)) / window)
+            local locked = 0
+            if attempts >= max and lock <= now then
+              lock = now + lockMs
+              locked = 1
+            end
+            redis.call('HSET', KEYS[1], 'ws', start, 'cur', cur, 'prev', prev, 'lock', lock)
+            redis.call('PEXPIRE', KEYS[1], math.max(2 * window, lock - now))
+            return {attempts, lock, locked}
+            """, List.class);
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+
+    public AttemptWindow recordFailure(String scope, String keyHash, long nowMillis,
+                                       long windowMillis, int maxAttempts, long lockMillis) {
+        List<?> result = stringRedisTemplate.execute(RECORD_FAILURE, List.of(redisKey(scope, keyHash)),
+                Long.toString(nowMillis), Long.toString(windowMillis),
+                Integer.toString(maxAttempts), Long.toString(lockMillis));
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("ログイン試行の記録結果が不正です");
+        }
+        return new AttemptWindow(
+                ((Number) result.get(0)).intValue(),
+                ((Number) result.get(1)).longValue(),
+                ((Number) result.get(2)).intValue() == 1);
+    }
+
+    /**
+     * 現在の状態を取得（読み取りのみのため HMGET 1回）
+     */
+    public AttemptWindow get(String scope, String keyHash, long nowMillis, long windowMillis) {
+        List<Object> data = stringRedisTemplate.opsForHash()
+                .multiGet(redisKey(scope, keyHash), List.of("ws", "cur", "prev", "lock"));
+        if (data == null || data.get(0) == null) {
+            return AttemptWindow.EMPTY;
+        }
+
+        long start = nowMillis - Math.floorMod(nowMillis, windowMillis);
+        long windowStart = parse(data.get(0));
+        long current = parse(data.get(1));
+        long previous = parse(data.get(2));
+        long lockedUntil = parse(data.get(3));
+        if (windowStart != start) {
+            previous = windowStart == start - windowMillis ? current : 0;
+            current = 0;
+        }
+        return new AttemptWindow(
+                AttemptWindow.estimate(previous, current, start, windowMillis, nowMillis), lockedUntil, false);
+    }
+
+    public void reset(String scope, String keyHash) {
+        stringRedisTemplate.delete(redisKey(scope, keyHash));
+    }
+
+    private String redisKey(String scope, String keyHash) {
+        return REDIS_KEY_PREFIX + scope + ":" + keyHash;
+    }
+
+    private long parse(Object value) {
+        return value != null ? Long.parseLong(value.toString()) : 0;
+    }
+}
@@ -0,0 +1,154 @@
+package jp.readscape.consumer.services.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ログイン試行のローカル追跡（ノード内の層）
+ * キーごとに直前・現在の固定長ウィンドウの件数とロック期限だけを保持するスライディングウィンドウカウンター
+ * 件数の上限を超えた場合は最も長く参照されていないキーから破棄し、ウィンドウとロックが切れたキーは掃除で破棄する
+ * クラスタ全体の正確な状態は共有層（Redis）が持ち、この層はI/Oなしでの判定とRedis障害時のフォールバックに使う
+ */
+class SlidingWindowAttemptTracker {
+
+    // キー文字列とエントリ、LinkedHashMapのノードを含めた1キーあたりの概算サイズ
+    private static final long ESTIMATED_ENTRY_BYTES = 200;
+
+    private final long windowMillis;
+    private final int maxAttempts;
+    private final long lockMillis;
+    private final int maxKeys;
+    private final Map<String, Entry> entries;
+
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    SlidingWindowAttemptTracker(String scope, long windowMillis, int maxAttempts, long lockMillis, int maxKeys,
+                                MeterRegistry meterRegistry) {
+        this.windowMillis = windowMillis;
+        this.maxAttempts = maxAttempts;
+        this.lockMillis = lockMillis;
+        this.maxKeys = maxKeys;
+        this.sizeEvictions = Counter.builder("readscape.login.attempts.evicted")
+                .description("Login attempt windows dropped from the local tier")
+                .tag("scope", scope)
+                .tag("reason", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("readscape.login.attempts.evicted")
+                .description("Login attempt windows dropped from the local tier")
+                .tag("scope", scope)
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > SlidingWindowAttemptTracker.this.maxKeys) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        Gauge.builder("readscape.login.attempts.tracked", this, SlidingWindowAttemptTracker::size)
+                .description("Keys held in the local login attempt tier")
+                .tag("scope", scope)
+                .register(meterRegistry);
+        Gauge.builder("readscape.login.attempts.memory.bytes", this, tracker -> tracker.size() * ESTIMATED_ENTRY_BYTES)
+                .description("Estimated memory held by the local login attempt tier")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    synchronized AttemptWindow recordFailure(String key, long nowMillis) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        entry.roll(windowStart(nowMillis), windowMillis);
+        entry.currentCount++;
+
+        int attempts = entry.estimate(windowMillis, nowMillis);
+        boolean newlyLocked = false;
+        if (attempts >= maxAttempts && entry.lockedUntilMillis <= nowMillis) {
+            entry.lockedUntilMillis = nowMillis + lockMillis;
+            newlyLocked = true;
+        }
+        return new AttemptWindow(attempts, entry.lockedUntilMillis, newlyLocked);
+    }
+
+    synchronized AttemptWindow get(String key, long nowMillis) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return AttemptWindow.EMPTY;
+        }
+        if (entry.isExpired(windowStart(nowMillis), windowMillis, nowMillis)) {
+            entries.remove(key);
+            expiredEvictions.increment();
+            return AttemptWindow.EMPTY;
+        }
+        entry.roll(windowStart(nowMillis), windowMillis);
+        return new AttemptWindow(entry.estimate(windowMillis, nowMillis), entry.lockedUntilMillis, false);
+    }
+
+    /**
+     * 共有層で判明したロックを取り込み、以降の判定をI/Oなしで行えるようにする
+     */
+    synchronized void markLocked(String key, long lockedUntilMillis) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        entry.lockedUntilMillis = Math.max(entry.lockedUntilMillis, lockedUntilMillis);
+    }
+
+    synchronized void reset(String key) {
+        entries.remove(key);
+    }
+
+    synchronized int sweep(long nowMillis) {
+        long windowStart = windowStart(nowMillis);
+        int removed = 0;
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().isExpired(windowStart, windowMillis, nowMillis)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            expiredEvictions.increment(removed);
+        }
+        return removed;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private long windowStart(long nowMillis) {
+        return Math.floorDiv(nowMillis, windowMillis) * windowMillis;
+    }
+
+    private static class Entry {
+        private long windowStartMillis;
+        private int previousCount;
+        private int currentCount;
+        private long lockedUntilMillis;
+
+        void roll(long windowStart, long windowMillis) {
+            if (windowStartMillis == windowStart) {
+                return;
+            }
+            previousCount = windowStartMillis == windowStart - windowMillis ? currentCount : 0;
+            currentCount = 0;
+            windowStartMillis = windowStart;
+        }
+
+        int estimate(long windowMillis, long nowMillis) {
+            return AttemptWindow.estimate(previousCount, currentCount, windowStartMillis, windowMillis, nowMillis);
+        }
+
+        boolean isExpired(long windowStart, long windowMillis, long nowMillis) {
+            return windowStartMillis < windowStart - windowMillis && lockedUntilMillis <= nowMillis;
+        }
+    }
+}
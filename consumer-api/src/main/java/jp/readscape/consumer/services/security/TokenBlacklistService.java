@@ -1,118 +1,218 @@
 package jp.readscape.consumer.services.security;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.readscape.consumer.services.redis.RedisCircuitBreaker;
+import jp.readscape.consumer.utils.RotatingBloomFilter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * トークンブラックリスト管理サービス
- * Redis対応（フォールバックあり）
+ * トークンは128ビットのダイジェストで管理し、トークン本体はメモリにもRedisにも保持しない
+ * ノードローカルのBloomフィルターで「失効していない」ことをI/Oなしで判定し、陽性の場合のみ確定させる
+ * 失効はRedisに保存したうえでPub/Subで全ノードに配信し、取りこぼしは定期的な再同期で補う
+ * Redisの可用性はサーキットブレーカーの状態で判断し、呼び出しごとのPINGは行わない
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class TokenBlacklistService {
-    
-    @Autowired(required = false)
-    private final RedisTemplate<String, String> stringRedisTemplate;
-    
-    // Redisが利用できない場合のフォールバック
-    private final ConcurrentMap<String, TokenInfo> blacklistedTokens = new ConcurrentHashMap<>();
-    
+
+    public static final String REVOCATION_CHANNEL = "blacklist:revocations";
+
     private static final String REDIS_KEY_PREFIX = "blacklist:token:";
+    private static final String FIELD_SEPARATOR = "|";
     private static final Duration DEFAULT_TTL = Duration.ofHours(24);
+    private static final int RESYNC_BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final RotatingBloomFilter bloomFilter;
+
+    // 失効済みトークンのダイジェスト → 有効期限（エポックミリ秒）。Bloomフィルターの陽性を確定させる
+    private final ConcurrentMap<String, Long> revokedUntil = new ConcurrentHashMap<>();
+
+    private final Counter bloomNegativeCounter;
+    private final Counter redisLookupCounter;
+
+    public TokenBlacklistService(ObjectProvider<RedisTemplate<String, String>> stringRedisTemplate,
+                                 RedisCircuitBreaker redisCircuitBreaker,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.security.jwt.blacklist.slot:PT6H}") Duration slot,
+                                 @Value("${spring.security.jwt.blacklist.expected-per-slot:100000}") int expectedPerSlot,
+                                 @Value("${spring.security.jwt.blacklist.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.stringRedisTemplate = stringRedisTemplate.getIfAvailable();
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.bloomFilter = new RotatingBloomFilter(slot.toMillis(), expectedPerSlot, falsePositiveRate);
+
+        this.bloomNegativeCounter = Counter.builder("readscape.blacklist.bloom.negative")
+                .description("Blacklist checks answered by the local Bloom filter without I/O")
+                .register(meterRegistry);
+        this.redisLookupCounter = Counter.builder("readscape.blacklist.redis.lookups")
+                .description("Blacklist checks that had to be confirmed in Redis")
+                .register(meterRegistry);
+        Gauge.builder("readscape.blacklist.tokens", revokedUntil, ConcurrentMap::size)
+                .description("Revoked tokens known to this node")
+                .register(meterRegistry);
+        Gauge.builder("readscape.blacklist.bloom.generations", bloomFilter, RotatingBloomFilter::generationCount)
+                .description("Live generations of the rotating Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("readscape.blacklist.bloom.memory.bytes", bloomFilter, RotatingBloomFilter::memoryBytes)
+                .description("Memory held by the rotating Bloom filter")
+                .register(meterRegistry);
+    }
     
     /**
-     * トークンをブラックリストに追加（Redis対応）
+     * トークンをブラックリストに追加
+     * ローカルに反映したうえでRedisに保存し、他ノードに配信する
      */
     public void blacklistToken(String token, LocalDateTime expiration) {
         if (token == null || token.isEmpty()) {
             return;
         }
-        
-        String maskedToken = token.substring(0, Math.min(10, token.length())) + "...";
-        Duration ttl = expiration != null ? 
-            Duration.between(LocalDateTime.now(), expiration) : DEFAULT_TTL;
-        
-        try {
-            // Redisを試す
-            if (stringRedisTemplate != null && isRedisAvailable()) {
-                String key = REDIS_KEY_PREFIX + Integer.toString(token.hashCode());
-                stringRedisTemplate.opsForValue().set(key, "blacklisted", ttl);
-                log.debug("Token blacklisted in Redis: {} (TTL: {})", maskedToken, ttl);
-                return;
-            }
-        } catch (Exception e) {
-            log.warn("Redis unavailable, using memory storage for token: {}", maskedToken, e);
+
+        long now = System.currentTimeMillis();
+        long expiresAt = expiration != null
+                ? expiration.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : now + DEFAULT_TTL.toMillis();
+        TokenDigest digest = TokenDigest.of(token);
+        addLocal(digest, expiresAt, now);
+
+        if (stringRedisTemplate != null && expiresAt > now) {
+            redisCircuitBreaker.execute(() -> {
+                stringRedisTemplate.opsForValue()
+                        .set(REDIS_KEY_PREFIX + digest.hex(), Long.toString(expiresAt), Duration.ofMillis(expiresAt - now));
+                stringRedisTemplate.convertAndSend(REVOCATION_CHANNEL, digest.hex() + FIELD_SEPARATOR + expiresAt);
+                return null;
+            }, null);
         }
-        
-        // フォールバック：メモリベース
-        String tokenHash = Integer.toString(token.hashCode());
-        blacklistedTokens.put(tokenHash, new TokenInfo(LocalDateTime.now(), expiration));
-        log.debug("Token added to memory blacklist: {}, Expires: {}", maskedToken, expiration);
-        cleanupExpiredTokens();
+        log.debug("Token blacklisted: {} (expires at {})", digest.hex(), expiration);
     }
     
     /**
-     * トークンがブラックリストに登録されているかチェック（Redis対応）
+     * トークンがブラックリストに登録されているかチェック
+     * Bloomフィルターが陰性ならI/Oなしで false を返す
      */
     public boolean isBlacklisted(String token) {
         if (token == null || token.isEmpty()) {
             return false;
         }
-        
-        String tokenHash = Integer.toString(token.hashCode());
-        
-        try {
-            // Redisをチェック
-            if (stringRedisTemplate != null && isRedisAvailable()) {
-                String key = REDIS_KEY_PREFIX + tokenHash;
-                Boolean exists = stringRedisTemplate.hasKey(key);
-                if (Boolean.TRUE.equals(exists)) {
-                    return true;
-                }
+
+        TokenDigest digest = TokenDigest.of(token);
+        if (!bloomFilter.mightContain(digest.h1(), digest.h2())) {
+            bloomNegativeCounter.increment();
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        Long expiresAt = revokedUntil.get(digest.hex());
+        if (expiresAt != null) {
+            if (expiresAt > now) {
+                return true;
             }
-        } catch (Exception e) {
-            log.debug("Redis check failed, checking memory storage: {}", e.getMessage());
+            revokedUntil.remove(digest.hex(), expiresAt);
+            return false;
         }
-        
-        // フォールバック：メモリベース
-        TokenInfo info = blacklistedTokens.get(tokenHash);
-        if (info == null) {
+
+        // 偽陽性か、このノードが配信を取りこぼした失効。Redisで確定させる（利用できない場合は失効していない扱い）
+        if (stringRedisTemplate == null) {
             return false;
         }
-        
-        // 期限切れの場合は削除
-        if (info.expiration != null && info.expiration.isBefore(LocalDateTime.now())) {
-            blacklistedTokens.remove(tokenHash);
+        redisLookupCounter.increment();
+        Long ttlMillis = redisCircuitBreaker.execute(
+                () -> stringRedisTemplate.getExpire(REDIS_KEY_PREFIX + digest.hex(), TimeUnit.MILLISECONDS), null);
+        if (ttlMillis == null || ttlMillis == -2) {
             return false;
         }
-        
+        addLocal(digest, ttlMillis > 0 ? now + ttlMillis : now + DEFAULT_TTL.toMillis(), now);
         return true;
     }
-    
+
     /**
-     * 期限切れトークンのクリーンアップ
+     * 他ノードからの失効通知を反映（Pub/Subのメッセージ: ダイジェスト|有効期限）
      */
-    private void cleanupExpiredTokens() {
-        LocalDateTime now = LocalDateTime.now();
-        int initialSize = blacklistedTokens.size();
-        
-        blacklistedTokens.entrySet().removeIf(entry -> 
-            entry.getValue().expiration.isBefore(now)
-        );
-        
-        int removedCount = initialSize - blacklistedTokens.size();
-        if (removedCount > 0) {
-            log.debug("Cleaned up {} expired tokens from blacklist", removedCount);
+    public void applyRevocation(String message) {
+        int separator = message.indexOf(FIELD_SEPARATOR);
+        if (separator <= 0) {
+            log.warn("Ignoring malformed revocation message");
+            return;
+        }
+        try {
+            String hex = message.substring(0, separator);
+            long expiresAt = Long.parseLong(message.substring(separator + 1));
+            addLocal(TokenDigest.ofHex(hex), expiresAt, System.currentTimeMillis());
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed revocation message: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Redisとの再同期
+     * 起動時と定期的に失効済みトークンを読み込み、Pub/Subの取りこぼしや起動前の失効を反映する
+     */
+    @Scheduled(fixedDelayString = "${spring.security.jwt.blacklist.resync-interval-ms:300000}")
+    public void resync() {
+        if (stringRedisTemplate == null || !redisCircuitBreaker.allowRequest()) {
+            return;
+        }
+
+        try {
+            int loaded = 0;
+            List<String> keys = new ArrayList<>(RESYNC_BATCH_SIZE);
+            ScanOptions options = ScanOptions.scanOptions().match(REDIS_KEY_PREFIX + "*").count(RESYNC_BATCH_SIZE).build();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                    if (keys.size() == RESYNC_BATCH_SIZE) {
+                        loaded += loadBatch(keys);
+                        keys.clear();
+                    }
+                }
+            }
+            loaded += loadBatch(keys);
+            redisCircuitBreaker.recordSuccess();
+            log.debug("Token blacklist resynchronized: {} entries", loaded);
+        } catch (RuntimeException e) {
+            redisCircuitBreaker.recordFailure(e);
+            log.warn("Failed to resynchronize token blacklist: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 期限切れのエントリとBloomフィルターの世代を破棄
+     */
+    @Scheduled(fixedDelayString = "${spring.security.jwt.blacklist.rotate-interval-ms:60000}")
+    public void cleanupExpiredTokens() {
+        long now = System.currentTimeMillis();
+        int initialSize = revokedUntil.size();
+        revokedUntil.values().removeIf(expiresAt -> expiresAt <= now);
+        int dropped = bloomFilter.expire(now);
+
+        int removedCount = initialSize - revokedUntil.size();
+        if (removedCount > 0 || dropped > 0) {
+            log.debug("Cleaned up {} expired tokens and {} Bloom filter generations", removedCount, dropped);
         }
     }
     
@@ -121,40 +221,80 @@ public class TokenBlacklistService {
      */
     public BlacklistStats getStats() {
         cleanupExpiredTokens();
-        return new BlacklistStats(blacklistedTokens.size());
+        return new BlacklistStats(revokedUntil.size(), stringRedisTemplate != null && redisCircuitBreaker.isAvailable());
     }
     
     /**
      * 手動でブラックリストをクリア（テスト用）
      */
     public void clearBlacklist() {
-        int size = blacklistedTokens.size();
-        blacklistedTokens.clear();
+        int size = revokedUntil.size();
+        revokedUntil.clear();
+        bloomFilter.clear();
         log.info("Manually cleared blacklist. Removed {} tokens", size);
     }
-    
-    private static class TokenInfo {
-        final LocalDateTime blacklistedAt;
-        final LocalDateTime expiration;
-        
-        TokenInfo(LocalDateTime blacklistedAt, LocalDateTime expiration) {
-            this.blacklistedAt = blacklistedAt;
-            this.expiration = expiration;
+
+    // プライベートメソッド
+
+    private void addLocal(TokenDigest digest, long expiresAt, long now) {
+        if (expiresAt <= now) {
+            return;
         }
+        revokedUntil.merge(digest.hex(), expiresAt, Math::max);
+        bloomFilter.put(digest.h1(), digest.h2(), expiresAt, now);
     }
-    
+
+    private int loadBatch(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            try {
+                addLocal(TokenDigest.ofHex(keys.get(i).substring(REDIS_KEY_PREFIX.length())), Long.parseLong(value), now);
+                loaded++;
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping unreadable blacklist entry {}", keys.get(i));
+            }
+        }
+        return loaded;
+    }
+
     /**
-     * Redisが利用可能かチェック
+     * トークンの128ビットダイジェスト（SHA-256の先頭16バイト）
      */
-    private boolean isRedisAvailable() {
-        try {
-            if (stringRedisTemplate == null) {
-                return false;
+    private record TokenDigest(long h1, long h2, String hex) {
+
+        static TokenDigest of(String token) {
+            try {
+                byte[] sha256 = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                return fromBytes(Arrays.copyOf(sha256, 16));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("トークンのハッシュ計算に失敗しました", e);
             }
-            stringRedisTemplate.getConnectionFactory().getConnection().ping();
-            return true;
-        } catch (Exception e) {
-            return false;
+        }
+
+        static TokenDigest ofHex(String hex) {
+            byte[] bytes = HexFormat.of().parseHex(hex);
+            if (bytes.length != 16) {
+                throw new IllegalArgumentException("Invalid token digest length: " + bytes.length);
+            }
+            return fromBytes(bytes);
+        }
+
+        private static TokenDigest fromBytes(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new TokenDigest(buffer.getLong(), buffer.getLong(), HexFormat.of().formatHex(bytes));
         }
     }
 
@@ -179,4 +319,4 @@ public class TokenBlacklistService {
             return redisAvailable;
         }
     }
-}
\ No newline at end of file
+}
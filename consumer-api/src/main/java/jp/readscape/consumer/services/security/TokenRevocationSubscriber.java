@@ -0,0 +1,34 @@
+package jp.readscape.consumer.services.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * トークン失効通知の購読
+ * 他ノードで失効したトークンをこのノードのブラックリスト（Bloomフィルター）に反映する
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.data.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class TokenRevocationSubscriber {
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final TokenBlacklistService tokenBlacklistService;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> tokenBlacklistService.applyRevocation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenBlacklistService.REVOCATION_CHANNEL));
+        log.info("Subscribed to token revocations on {}", TokenBlacklistService.REVOCATION_CHANNEL);
+    }
+}
@@ -0,0 +1,115 @@
+package jp.readscape.consumer.services.security;
+
+import jp.readscape.consumer.domain.users.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ユーザー状態キャッシュ
+ * ステートレス認証でのロック・無効化チェック用に、ユーザー名ごとの状態を短いTTLで保持する（上限を超えた場合はLRUで破棄）
+ * TTL内の認証済みリクエストはusersテーブルに触れない。ミス時のみ状態列だけを読み込む
+ * 同一ノードでのロック・プロフィール更新・無効化は AccountStatusChangedEvent で即座に破棄し、
+ * 他ノードや在庫管理APIからの変更はTTLの経過で反映する
+ */
+@Slf4j
+@Service
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final LoginAttemptService loginAttemptService;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+
+    public UserStatusCache(UserRepository userRepository,
+                           LoginAttemptService loginAttemptService,
+                           @Value("${spring.security.jwt.user-status-cache.ttl:PT30S}") Duration ttl,
+                           @Value("${spring.security.jwt.user-status-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.loginAttemptService = loginAttemptService;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserStatusCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 認証を許可してよい状態か（存在し、有効で、ロックされていない）
+     */
+    public boolean isAllowed(String username) {
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(username);
+        }
+        if (entry == null || now - entry.loadedAtNanos > ttlNanos) {
+            entry = load(username, now);
+            synchronized (entries) {
+                entries.put(username, entry);
+            }
+        }
+        return entry.allowed;
+    }
+
+    /**
+     * アカウント状態の変更時にキャッシュを破棄
+     * トランザクション内で発行された場合はコミット後に破棄する（コミット前の状態を再キャッシュしないため）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountStatusChanged(AccountStatusChangedEvent event) {
+        String identifier = event.getIdentifier();
+        int removed;
+        synchronized (entries) {
+            int before = entries.size();
+            entries.entrySet().removeIf(entry ->
+                    entry.getKey().equals(identifier) || identifier.equals(entry.getValue().email));
+            removed = before - entries.size();
+        }
+        log.debug("User status cache invalidated ({}): {} entries", event.getReason(), removed);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // プライベートメソッド
+
+    private Entry load(String username, long now) {
+        List<Object[]> rows = userRepository.findStatusByUsername(username);
+        if (rows.isEmpty()) {
+            return new Entry(null, false, now);
+        }
+
+        Object[] row = rows.get(0);
+        String email = (String) row[0];
+        boolean active = Boolean.TRUE.equals(row[1]);
+        boolean locked = loginAttemptService.isBlocked(username)
+                || (email != null && loginAttemptService.isBlocked(email));
+        return new Entry(email, active && !locked, now);
+    }
+
+    private static class Entry {
+        private final String email;
+        private final boolean allowed;
+        private final long loadedAtNanos;
+
+        Entry(String email, boolean allowed, long loadedAtNanos) {
+            this.email = email;
+            this.allowed = allowed;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
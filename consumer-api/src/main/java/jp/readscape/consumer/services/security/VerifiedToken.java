@@ -0,0 +1,32 @@
+package jp.readscape.consumer.services.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 署名検証済みのJWT
+ * 署名と有効期限の検証を通過したクレームを保持する（ブラックリストの判定は含まない）
+ */
+@Value
+@Builder
+public class VerifiedToken {
+
+    String subject;
+    Long userId;
+    List<String> roles;
+    String type;
+    Instant expiresAt;
+    Claims claims;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+}
@@ -0,0 +1,82 @@
+package jp.readscape.consumer.services.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 検証済みトークンのLRUキャッシュ
+ * トークンのSHA-256ダイジェストをキーに、有効期限まで検証結果を保持する（トークン本体は保持しない）
+ * 上限を超えた場合は最も長く参照されていないエントリから破棄する
+ */
+public class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Map<String, VerifiedToken> entries;
+
+    public VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 検証結果を取得（未登録または期限切れの場合は null）
+     */
+    public VerifiedToken get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        String key = digest(token);
+        synchronized (entries) {
+            VerifiedToken verified = entries.get(key);
+            if (verified != null && verified.isExpired(Instant.now())) {
+                entries.remove(key);
+                return null;
+            }
+            return verified;
+        }
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (maxSize <= 0) {
+            return;
+        }
+        String key = digest(token);
+        synchronized (entries) {
+            entries.put(key, verified);
+        }
+    }
+
+    public void invalidate(String token) {
+        String key = digest(token);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // プライベートメソッド
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("トークンのハッシュ計算に失敗しました", e);
+        }
+    }
+}
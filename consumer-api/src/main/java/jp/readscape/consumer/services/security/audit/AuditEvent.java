@@ -0,0 +1,28 @@
+package jp.readscape.consumer.services.security.audit;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 監査イベント
+ * リクエストスレッドでは値を詰めるだけにし、整形・マスキング・書き込みは書き込みスレッドで行う
+ */
+@Value
+@Builder
+public class AuditEvent {
+
+    AuditEventType type;
+
+    /** 発生時刻（エポックミリ秒） */
+    long occurredAtMillis;
+
+    /** ユーザー名またはメールアドレス（不明な場合は null） */
+    String username;
+
+    String ipAddress;
+
+    String userAgent;
+
+    /** 対象リソース・変更内容・失敗理由などの補足 */
+    String detail;
+}
@@ -0,0 +1,219 @@
+package jp.readscape.consumer.services.security.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.readscape.consumer.utils.BoundedRingBuffer;
+import jp.readscape.consumer.utils.SecurityUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 監査イベントの非同期書き込み
+ * リクエストスレッドは有界のロックフリーなリングバッファにイベントを積むだけで、
+ * 専用の書き込みスレッドがまとめて取り出し、アプリケーションログへの出力とDBへのバッチ挿入を行う
+ * バッファが満杯の場合は overflow-policy に従う（リクエストスレッドを待たせない）
+ * DBへの書き込みに失敗したバッチは再試行せず破棄する（アプリケーションログには出力済み）
+ */
+@Slf4j
+@Component
+public class AuditEventPipeline {
+
+    private static final String AUDIT_LOG_PREFIX = "SECURITY_AUDIT";
+
+    private final AuditLogWriter writer;
+    private final BoundedRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final boolean persist;
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter auditLogsWrittenCounter;
+    private final Counter loginAttemptsWrittenCounter;
+    private final Counter failedCounter;
+    private final Timer batchWriteTimer;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditEventPipeline(AuditLogWriter writer,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.audit.buffer-capacity:8192}") int bufferCapacity,
+                              @Value("${security.audit.batch-size:500}") int batchSize,
+                              @Value("${security.audit.flush-interval-ms:200}") long flushIntervalMillis,
+                              @Value("${security.audit.overflow-policy:DROP_NEWEST}") AuditOverflowPolicy overflowPolicy,
+                              @Value("${security.audit.persist:false}") boolean persist) {
+        this.writer = writer;
+        this.buffer = new BoundedRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.persist = persist;
+
+        this.enqueuedCounter = Counter.builder("readscape.audit.events.enqueued")
+                .description("Audit events accepted into the buffer")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("readscape.audit.events.dropped")
+                .description("Audit events not persisted because the buffer was full")
+                .tag("policy", overflowPolicy.name())
+                .register(meterRegistry);
+        this.auditLogsWrittenCounter = Counter.builder("readscape.audit.events.written")
+                .description("Audit events inserted into the database")
+                .tag("table", "audit_logs")
+                .register(meterRegistry);
+        this.loginAttemptsWrittenCounter = Counter.builder("readscape.audit.events.written")
+                .description("Audit events inserted into the database")
+                .tag("table", "login_attempts")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("readscape.audit.events.failed")
+                .description("Audit events lost because the batch insert failed")
+                .register(meterRegistry);
+        this.batchWriteTimer = Timer.builder("readscape.audit.batch.write")
+                .description("Time to insert one batch of audit events")
+                .register(meterRegistry);
+        Gauge.builder("readscape.audit.queue.depth", buffer, BoundedRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        log.info("Audit pipeline started: capacity={}, batchSize={}, overflowPolicy={}, persist={}",
+                buffer.capacity(), batchSize, overflowPolicy, persist);
+    }
+
+    /**
+     * 書き込みスレッドを止め、バッファに残ったイベントを書き込む
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * イベントをバッファに積む（待たない）
+     */
+    public void publish(AuditEvent event) {
+        if (buffer.offer(event)) {
+            enqueuedCounter.increment();
+            wakeWriterIfBatchReady();
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                buffer.poll();
+                droppedCounter.increment();
+                if (buffer.offer(event)) {
+                    enqueuedCounter.increment();
+                } else {
+                    droppedCounter.increment();
+                }
+            }
+            case LOG_ONLY -> {
+                droppedCounter.increment();
+                logEvent(event);
+            }
+            default -> droppedCounter.increment();
+        }
+        wakeWriterIfBatchReady();
+    }
+
+    /**
+     * バッファに溜まっているイベントをすべて書き込む
+     */
+    public synchronized void flush() {
+        while (!buffer.isEmpty()) {
+            List<AuditEvent> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+            if (buffer.drain(batch::add, batchSize) == 0) {
+                break;
+            }
+            writeBatch(batch);
+        }
+    }
+
+    public int pendingEvents() {
+        return buffer.size();
+    }
+
+    // プライベートメソッド
+
+    private void runWriter() {
+        while (running) {
+            try {
+                if (buffer.size() < batchSize) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void wakeWriterIfBatchReady() {
+        Thread thread = writerThread;
+        if (thread != null && buffer.size() >= batchSize) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void writeBatch(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            logEvent(event);
+        }
+        if (!persist) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            AuditLogWriter.WriteResult result = writer.write(batch);
+            auditLogsWrittenCounter.increment(result.auditLogs());
+            loginAttemptsWrittenCounter.increment(result.loginAttempts());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to persist {} audit events: {}", batch.size(), e.getMessage());
+        } finally {
+            batchWriteTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void logEvent(AuditEvent event) {
+        String username = SecurityUtils.maskUserIdentifier(event.getUsername());
+        String ipAddress = SecurityUtils.maskIpAddress(event.getIpAddress());
+        if (event.getType().isSuccess()) {
+            log.info("{} - {}: user={}, ip={}, detail={}",
+                    AUDIT_LOG_PREFIX, event.getType(), username, ipAddress, event.getDetail());
+        } else {
+            log.warn("{} - {}: user={}, ip={}, detail={}",
+                    AUDIT_LOG_PREFIX, event.getType(), username, ipAddress, event.getDetail());
+        }
+    }
+}
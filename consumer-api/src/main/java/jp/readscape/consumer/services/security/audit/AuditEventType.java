@@ -0,0 +1,54 @@
+package jp.readscape.consumer.services.security.audit;
+
+/**
+ * 監査イベントの種類
+ * ログイン試行は login_attempts、それ以外は audit_logs に書き込む
+ */
+public enum AuditEventType {
+
+    SUCCESSFUL_LOGIN("LOGIN", "USER", true),
+    FAILED_LOGIN("LOGIN", "USER", false),
+    LOGOUT("LOGOUT", "USER", true),
+    UNAUTHORIZED_ACCESS("UNAUTHORIZED_ACCESS", "RESOURCE", false),
+    SUSPICIOUS_ACTIVITY("SUSPICIOUS_ACTIVITY", "USER", false),
+    ACCOUNT_LOCKED("LOCK", "USER", false),
+    ACCOUNT_UNLOCKED("UNLOCK", "USER", true),
+    PASSWORD_CHANGED("PASSWORD_CHANGE", "USER", true),
+    PRIVILEGE_ESCALATION("ROLE_CHANGE", "USER", true),
+    DATA_ACCESS("DATA_ACCESS", "RESOURCE", true),
+    RATE_LIMIT_VIOLATION("RATE_LIMIT", "API", false),
+    CONFIGURATION_CHANGE("CONFIGURATION_CHANGE", "SYSTEM", true),
+    SECURITY_EXCEPTION("SECURITY_EXCEPTION", "SYSTEM", false),
+    TOKEN_EVENT("TOKEN", "TOKEN", true),
+    USER_REGISTRATION("CREATE", "USER", true),
+    USER_DELETION("DELETE", "USER", true);
+
+    private final String action;
+    private final String resourceType;
+    private final boolean success;
+
+    AuditEventType(String action, String resourceType, boolean success) {
+        this.action = action;
+        this.resourceType = resourceType;
+        this.success = success;
+    }
+
+    /** audit_logs.action */
+    public String getAction() {
+        return action;
+    }
+
+    /** audit_logs.resource_type */
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    /** 成功を表すイベントか（失敗・拒否は WARN でログ出力し、success = false で保存） */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public boolean isLoginAttempt() {
+        return this == SUCCESSFUL_LOGIN || this == FAILED_LOGIN;
+    }
+}
@@ -0,0 +1,146 @@
+package jp.readscape.consumer.services.security.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 監査イベントのDB書き込み
+ * ログイン試行は login_attempts、それ以外は audit_logs にJDBCバッチで一括挿入する
+ * ip_address は INET 型のため、IPアドレスとして解釈できない値は保存しない（login_attempts は NOT NULL のため 0.0.0.0）
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditLogWriter {
+
+    private static final String INSERT_AUDIT_LOG =
+            "INSERT INTO audit_logs (username, action, resource_type, new_values, ip_address, user_agent, " +
+            "success, error_message, created_at) " +
+            "VALUES (?, ?, ?, CAST(? AS JSONB), CAST(? AS INET), ?, ?, ?, ?)";
+
+    private static final String INSERT_LOGIN_ATTEMPT =
+            "INSERT INTO login_attempts (username, ip_address, success, failure_reason, user_agent, attempted_at) " +
+            "VALUES (?, CAST(? AS INET), ?, ?, ?, ?)";
+
+    private static final String UNKNOWN_IP = "0.0.0.0";
+    private static final String UNKNOWN_USERNAME = "unknown";
+    private static final int MAX_USER_AGENT_LENGTH = 512;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * イベントをテーブルごとにまとめて挿入し、書き込んだ件数を返す
+     */
+    public WriteResult write(List<AuditEvent> events) {
+        List<Object[]> auditLogs = new ArrayList<>();
+        List<Object[]> loginAttempts = new ArrayList<>();
+        for (AuditEvent event : events) {
+            if (event.getType().isLoginAttempt()) {
+                loginAttempts.add(toLoginAttemptRow(event));
+            } else {
+                auditLogs.add(toAuditLogRow(event));
+            }
+        }
+
+        if (!auditLogs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, auditLogs);
+        }
+        if (!loginAttempts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LOGIN_ATTEMPT, loginAttempts);
+        }
+        return new WriteResult(auditLogs.size(), loginAttempts.size());
+    }
+
+    /**
+     * 書き込んだ件数
+     */
+    public record WriteResult(int auditLogs, int loginAttempts) {
+    }
+
+    // プライベートメソッド
+
+    private Object[] toAuditLogRow(AuditEvent event) {
+        AuditEventType type = event.getType();
+        boolean success = type.isSuccess();
+        return new Object[] {
+                event.getUsername(),
+                type.getAction(),
+                type.getResourceType(),
+                success ? toJson(type, event.getDetail()) : toJson(type, null),
+                toInet(event.getIpAddress()),
+                truncate(event.getUserAgent()),
+                success,
+                success ? null : event.getDetail(),
+                new Timestamp(event.getOccurredAtMillis())
+        };
+    }
+
+    private Object[] toLoginAttemptRow(AuditEvent event) {
+        String ip = toInet(event.getIpAddress());
+        return new Object[] {
+                event.getUsername() != null ? event.getUsername() : UNKNOWN_USERNAME,
+                ip != null ? ip : UNKNOWN_IP,
+                event.getType().isSuccess(),
+                event.getType().isSuccess() ? null : event.getDetail(),
+                truncate(event.getUserAgent()),
+                new Timestamp(event.getOccurredAtMillis())
+        };
+    }
+
+    private String toJson(AuditEventType type, String detail) {
+        try {
+            return detail == null
+                    ? objectMapper.writeValueAsString(Map.of("event", type.name()))
+                    : objectMapper.writeValueAsString(Map.of("event", type.name(), "detail", detail));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("監査イベントのJSON変換に失敗しました", e);
+        }
+    }
+
+    /**
+     * INET として解釈できる値のみ通す（"unknown" などは null）
+     * 1件でもキャストに失敗するとバッチ全体が失敗するため、書き込み前に検証する
+     */
+    static String toInet(String ipAddress) {
+        if (ipAddress == null || ipAddress.isEmpty() || ipAddress.length() > 45) {
+            return null;
+        }
+        if (ipAddress.indexOf(':') >= 0) {
+            // ':' を含む文字列はIPv6リテラルとして解釈され、名前解決は行われない
+            try {
+                return InetAddress.getByName(ipAddress) instanceof Inet6Address ? ipAddress : null;
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+
+        String[] octets = ipAddress.split("\\.", -1);
+        if (octets.length != 4) {
+            return null;
+        }
+        for (String octet : octets) {
+            if (octet.isEmpty() || octet.length() > 3 || !octet.chars().allMatch(Character::isDigit)
+                    || Integer.parseInt(octet) > 255) {
+                return null;
+            }
+        }
+        return ipAddress;
+    }
+
+    private String truncate(String userAgent) {
+        return userAgent == null || userAgent.length() <= MAX_USER_AGENT_LENGTH
+                ? userAgent
+                : userAgent.substring(0, MAX_USER_AGENT_LENGTH);
+    }
+}
@@ -0,0 +1,14 @@
+package jp.readscape.consumer.services.security.audit;
+
+/**
+ * 監査イベントのバッファが満杯の場合の扱い
+ */
+public enum AuditOverflowPolicy {
+
+    /** 新しいイベントを破棄する（既にバッファにあるイベントを優先） */
+    DROP_NEWEST,
+    /** 最も古いイベントを破棄して新しいイベントを追加する */
+    DROP_OLDEST,
+    /** DBには書かず、呼び出し元のスレッドでアプリケーションログにだけ出力する */
+    LOG_ONLY
+}
@@ -0,0 +1,79 @@
+package jp.readscape.consumer.tools;
+
+import jp.readscape.consumer.utils.MappedBloomFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 漏洩パスワードのBloomフィルター作成ツール（ビルド時に実行）
+ * 1行1パスワードのテキストファイルから MappedBloomFilter 形式のファイルを作成する
+ * 件数を数える1回目と追加する2回目の2回読み込み、ビット配列はヒープではなく出力ファイルに直接書き込む
+ * 出力は同じディレクトリの一時ファイルに作成してから置き換えるため、稼働中のサービスが参照するファイルを壊さない
+ *
+ * 使い方: ./gradlew buildBreachedPasswordFilter -PpasswordList=passwords.txt -PfilterFile=breached-passwords.bloom
+ */
+public final class BreachedPasswordFilterBuilder {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private BreachedPasswordFilterBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BreachedPasswordFilterBuilder <password-list> <output-file> [false-positive-rate]");
+            System.exit(1);
+        }
+        double falsePositiveRate = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+
+        MappedBloomFilter filter = build(Path.of(args[0]), Path.of(args[1]), falsePositiveRate);
+        System.out.printf("Wrote %s: %,d passwords, %,d bytes, %d hashes%n",
+                args[1], filter.getEntryCount(), filter.sizeBytes(), filter.getHashCount());
+    }
+
+    /**
+     * パスワード一覧からBloomフィルターのファイルを作成
+     */
+    public static MappedBloomFilter build(Path passwordList, Path output, double falsePositiveRate) throws IOException {
+        long count = 0;
+        try (BufferedReader reader = open(passwordList)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) {
+                    count++;
+                }
+            }
+        }
+
+        Path directory = output.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, output.getFileName().toString(), ".tmp");
+        try {
+            MappedBloomFilter filter = MappedBloomFilter.create(temporary, Math.max(1, count), falsePositiveRate);
+            try (BufferedReader reader = open(passwordList)) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (!line.isEmpty()) {
+                        filter.put(line);
+                    }
+                }
+            }
+            filter.flush();
+            Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return filter;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * 漏洩データには不正なUTF-8が含まれるため、例外にせず置換文字で読み込む
+     */
+    private static BufferedReader open(Path passwordList) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(passwordList), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,143 @@
+package jp.readscape.consumer.utils;
+
+import java.util.Arrays;
+
+/**
+ * long → int のプリミティブハッシュマップ（オープンアドレス法・線形探索）
+ * Long/Integer のボクシングとエントリオブジェクトを持たないため、書籍数が多くてもメモリとGC負荷が小さい
+ * スレッドセーフではない。共有する場合は copy() で複製して更新し、参照を差し替えること
+ */
+public final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeThreshold;
+
+    public LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private LongIntHashMap(LongIntHashMap source) {
+        this.keys = source.keys.clone();
+        this.values = source.values.clone();
+        this.size = source.size;
+        this.resizeThreshold = source.resizeThreshold;
+    }
+
+    /**
+     * 値を取得（キーが存在しない場合は defaultValue）
+     */
+    public int get(long key, int defaultValue) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        for (int index = mix(key) & mask; ; index = (index + 1) & mask) {
+            long current = keys[index];
+            if (current == key) {
+                return values[index];
+            }
+            if (current == EMPTY) {
+                return defaultValue;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        for (int index = mix(key) & mask; ; index = (index + 1) & mask) {
+            long current = keys[index];
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 値を設定（既存の値は上書き）
+     */
+    public void put(long key, int value) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        for (int index = mix(key) & mask; ; index = (index + 1) & mask) {
+            long current = keys[index];
+            if (current == key) {
+                values[index] = value;
+                return;
+            }
+            if (current == EMPTY) {
+                keys[index] = key;
+                values[index] = value;
+                if (++size > resizeThreshold) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 複製（Copy-on-Write 用）
+     */
+    public LongIntHashMap copy() {
+        return new LongIntHashMap(this);
+    }
+
+    // プライベートメソッド
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * 連番IDが隣接スロットに集中しないようにビットを拡散
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE はキーとして使用できません");
+        }
+    }
+}
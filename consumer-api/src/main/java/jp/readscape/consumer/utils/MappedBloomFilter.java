@@ -0,0 +1,187 @@
+package jp.readscape.consumer.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * ファイルにマップしたBloomフィルター
+ * ビット配列をヒープに持たず、メモリマップしたファイルを直接参照するため、数億件規模でもヒープを消費しない
+ * （ページはOSのページキャッシュに載り、参照されたページだけが常駐する）
+ * 2GBを超えるファイルも扱えるよう、1GBずつのセグメントに分けてマップする
+ * ハッシュは要素のSHA-256の先頭128ビット（h1, h2）から二重ハッシュ法で k 個の位置を求める
+ *
+ * ファイル形式（ビッグエンディアン）:
+ * マジック(4) バージョン(4) ハッシュ数(4) 予約(4) ビット数(8) 要素数(8) の32バイトのヘッダーに続けてビット配列
+ */
+public final class MappedBloomFilter {
+
+    static final int MAGIC = 0x52534246;   // "RSBF"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+    private static final int MAX_HASHES = 16;
+
+    private final MappedByteBuffer[] segments;
+    private final long bitCount;
+    private final int hashCount;
+    private final boolean writable;
+    private long entryCount;
+
+    private MappedBloomFilter(MappedByteBuffer[] segments, long bitCount, int hashCount, long entryCount,
+                              boolean writable) {
+        this.segments = segments;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.entryCount = entryCount;
+        this.writable = writable;
+    }
+
+    /**
+     * 読み取り専用で開く
+     */
+    public static MappedBloomFilter open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Bloomフィルターのファイルが短すぎます: " + path);
+            }
+
+            MappedByteBuffer[] segments = map(channel, FileChannel.MapMode.READ_ONLY, size);
+            ByteBuffer header = segments[0];
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Bloomフィルターのファイル形式が不正です: " + path);
+            }
+            int hashCount = header.getInt(8);
+            long bitCount = header.getLong(16);
+            long entryCount = header.getLong(24);
+            if (hashCount < 1 || hashCount > MAX_HASHES || bitCount <= 0 || HEADER_BYTES + bitCount / 8 > size) {
+                throw new IOException("Bloomフィルターのヘッダーが不正です: " + path);
+            }
+            return new MappedBloomFilter(segments, bitCount, hashCount, entryCount, false);
+        }
+    }
+
+    /**
+     * 想定要素数と偽陽性率からサイズを決めて新しいファイルを作成する（書き込み可能）
+     */
+    public static MappedBloomFilter create(Path path, long expectedEntries, double falsePositiveRate) throws IOException {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloomフィルターの設定が不正です");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long bitCount = (Math.max(64, bits) + 7) / 8 * 8;
+        int hashCount = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) bitCount / expectedEntries * ln2)));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = HEADER_BYTES + bitCount / 8;
+            MappedByteBuffer[] segments = map(channel, FileChannel.MapMode.READ_WRITE, size);
+            ByteBuffer header = segments[0];
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, hashCount);
+            header.putLong(16, bitCount);
+            header.putLong(24, 0);
+            return new MappedBloomFilter(segments, bitCount, hashCount, 0, true);
+        }
+    }
+
+    /**
+     * 要素を追加（create で作成したフィルターのみ）
+     */
+    public void put(String value) {
+        if (!writable) {
+            throw new IllegalStateException("読み取り専用のBloomフィルターです");
+        }
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hash[0], hash[1], i);
+            long offset = HEADER_BYTES + (bit >>> 3);
+            MappedByteBuffer segment = segments[(int) (offset >>> SEGMENT_SHIFT)];
+            int position = (int) (offset & (SEGMENT_BYTES - 1));
+            segment.put(position, (byte) (segment.get(position) | (1 << (bit & 7))));
+        }
+        entryCount++;
+    }
+
+    /**
+     * 含まれている可能性があるか（false の場合は確実に含まれていない）
+     */
+    public boolean mightContain(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hash[0], hash[1], i);
+            long offset = HEADER_BYTES + (bit >>> 3);
+            int position = (int) (offset & (SEGMENT_BYTES - 1));
+            if ((segments[(int) (offset >>> SEGMENT_SHIFT)].get(position) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 要素数をヘッダーに書き込み、ディスクに反映する（create で作成したフィルターのみ）
+     */
+    public void flush() {
+        if (!writable) {
+            throw new IllegalStateException("読み取り専用のBloomフィルターです");
+        }
+        segments[0].putLong(24, entryCount);
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long sizeBytes() {
+        return HEADER_BYTES + bitCount / 8;
+    }
+
+    // プライベートメソッド
+
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        int count = (int) ((size + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long position = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(mode, position, Math.min(SEGMENT_BYTES, size - position));
+        }
+        return segments;
+    }
+
+    private long index(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+
+    private static long[] hash(String value) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+            return new long[] {digest.getLong(), digest.getLong()};
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package jp.readscape.consumer.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有効期限つきの要素を扱うBloomフィルター
+ * 要素の有効期限ごとに世代（スロット）を分け、期限を過ぎた世代はまとめて破棄する
+ * 「含まれていない」の判定は確実で、「含まれている可能性がある」場合のみ呼び出し側で確定させる
+ * ハッシュは呼び出し側で計算した128ビット値（h1, h2）から二重ハッシュ法で k 個の位置を求める
+ * 追加・判定ともにロックを取らない
+ */
+public final class RotatingBloomFilter {
+
+    private final long slotMillis;
+    private final int bitCount;
+    private final int hashCount;
+    private final Map<Long, AtomicLongArray> generations = new ConcurrentHashMap<>();
+
+    /**
+     * @param slotMillis        1世代が受け持つ有効期限の幅（ミリ秒）
+     * @param expectedPerSlot   1世代あたりの想定要素数
+     * @param falsePositiveRate 想定要素数での偽陽性率
+     */
+    public RotatingBloomFilter(long slotMillis, int expectedPerSlot, double falsePositiveRate) {
+        if (slotMillis <= 0 || expectedPerSlot <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloomフィルターの設定が不正です");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedPerSlot * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.slotMillis = slotMillis;
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedPerSlot * ln2));
+    }
+
+    /**
+     * 要素を追加（有効期限を過ぎた要素は追加しない）
+     */
+    public void put(long h1, long h2, long expiresAtMillis, long nowMillis) {
+        if (expiresAtMillis <= nowMillis) {
+            return;
+        }
+        // 有効期限を含むスロットの終端で世代ごと破棄できるよう、スロットは切り上げで決める
+        long slot = Math.floorDiv(expiresAtMillis + slotMillis - 1, slotMillis);
+        AtomicLongArray bits = generations.computeIfAbsent(slot, key -> new AtomicLongArray((bitCount + 63) >>> 6));
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1, h2, i);
+            long mask = 1L << index;
+            int word = index >>> 6;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * 含まれている可能性があるか（false の場合は確実に含まれていない）
+     */
+    public boolean mightContain(long h1, long h2) {
+        for (AtomicLongArray bits : generations.values()) {
+            if (contains(bits, h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 期限を過ぎた世代を破棄し、破棄した世代数を返す
+     */
+    public int expire(long nowMillis) {
+        long currentSlot = Math.floorDiv(nowMillis, slotMillis);
+        int before = generations.size();
+        generations.keySet().removeIf(slot -> slot <= currentSlot);
+        return before - generations.size();
+    }
+
+    public void clear() {
+        generations.clear();
+    }
+
+    public int generationCount() {
+        return generations.size();
+    }
+
+    public long memoryBytes() {
+        return (long) generations.size() * ((bitCount + 63) >>> 6) * Long.BYTES;
+    }
+
+    // プライベートメソッド
+
+    private boolean contains(AtomicLongArray bits, long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1, h2, i);
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+    }
+}
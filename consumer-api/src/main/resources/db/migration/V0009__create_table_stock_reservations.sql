@@ -0,0 +1,15 @@
+-- カート在庫仮押さえテーブルの作成
+CREATE TABLE readscape.stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES readscape.users(id) ON DELETE CASCADE,
+    book_id BIGINT NOT NULL REFERENCES readscape.books(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(user_id, book_id)
+);
+
+-- インデックス作成
+CREATE INDEX idx_stock_reservations_book_expires ON readscape.stock_reservations(book_id, expires_at);
+CREATE INDEX idx_stock_reservations_expires_at ON readscape.stock_reservations(expires_at);
@@ -0,0 +1,13 @@
+-- 人気書籍（ホットSKU）向け在庫ストライプ
+-- stock_stripe_count > 0 の書籍は在庫をストライプ行に分散し、books.stock_quantity は集計値のスナップショットとして扱う
+ALTER TABLE readscape.books
+    ADD COLUMN stock_stripe_count INTEGER NOT NULL DEFAULT 0 CHECK (stock_stripe_count >= 0);
+
+CREATE TABLE readscape.book_stock_stripes (
+    id BIGSERIAL PRIMARY KEY,
+    book_id BIGINT NOT NULL REFERENCES readscape.books(id) ON DELETE CASCADE,
+    stripe_no INTEGER NOT NULL CHECK (stripe_no >= 0),
+    quantity INTEGER NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(book_id, stripe_no)
+) WITH (fillfactor = 70);
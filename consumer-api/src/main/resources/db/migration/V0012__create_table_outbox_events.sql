@@ -0,0 +1,19 @@
+-- トランザクショナルアウトボックステーブルの作成
+-- 注文の作成・キャンセルと同一トランザクションで書き込み、在庫管理APIのリレーが配信する
+CREATE TABLE readscape.outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL, -- 'ORDER'
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL, -- 'ORDER_CREATED', 'ORDER_CANCELLED'
+    payload TEXT NOT NULL, -- イベント内容（JSON形式）
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- インデックス作成
+-- 未配信イベントのみを対象とする部分インデックス（リレーのポーリング用）
+CREATE INDEX idx_outbox_events_pending ON readscape.outbox_events(id) WHERE processed_at IS NULL;
+CREATE INDEX idx_outbox_events_processed_at ON readscape.outbox_events(processed_at) WHERE processed_at IS NOT NULL;
+CREATE INDEX idx_outbox_events_aggregate ON readscape.outbox_events(aggregate_type, aggregate_id);
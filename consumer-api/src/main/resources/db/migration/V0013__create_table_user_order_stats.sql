@@ -0,0 +1,25 @@
+-- ユーザー別注文統計テーブルの作成
+-- 注文の作成・キャンセル時に同一トランザクションで更新し、プロフィール表示や顧客分析で集計クエリを不要にする
+CREATE TABLE readscape.user_order_stats (
+    user_id BIGINT PRIMARY KEY REFERENCES readscape.users(id) ON DELETE CASCADE,
+    order_count INTEGER NOT NULL DEFAULT 0 CHECK (order_count >= 0), -- 注文数（V0016 以降はキャンセルを含む）
+    total_amount NUMERIC(14, 2) NOT NULL DEFAULT 0 CHECK (total_amount >= 0), -- 注文総額（V0016 以降はキャンセルを含む）
+    first_order_date TIMESTAMP,
+    last_order_date TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- インデックス作成
+CREATE INDEX idx_user_order_stats_total_amount ON readscape.user_order_stats(total_amount DESC);
+CREATE INDEX idx_user_order_stats_last_order_date ON readscape.user_order_stats(last_order_date);
+CREATE INDEX idx_user_order_stats_first_order_date ON readscape.user_order_stats(first_order_date);
+
+-- 既存の注文から初期データを作成
+INSERT INTO readscape.user_order_stats (user_id, order_count, total_amount, first_order_date, last_order_date)
+SELECT user_id,
+       COUNT(*) FILTER (WHERE status <> 'CANCELLED'),
+       COALESCE(SUM(total_amount) FILTER (WHERE status <> 'CANCELLED'), 0),
+       MIN(order_date),
+       MAX(order_date)
+FROM readscape.orders
+GROUP BY user_id;
@@ -0,0 +1,2 @@
+-- 在庫一覧（更新日時順のページング）とエクスポート（更新日時順のストリーミング・差分取得）用
+CREATE INDEX idx_books_updated_at_id ON readscape.books(updated_at, id);
@@ -0,0 +1,9 @@
+-- 低在庫一覧（inventory-management-api の findLowStockBooks）用の部分インデックス
+-- 在庫管理APIの Book エンティティが参照する列がない環境向けに、エンティティの既定値で列を補う
+ALTER TABLE readscape.books
+    ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    ADD COLUMN IF NOT EXISTS low_stock_threshold INTEGER NOT NULL DEFAULT 10;
+
+-- 販売中かつ低在庫の書籍のみを含むため小さく、在庫の少ない順の一覧をインデックス順に返せる
+CREATE INDEX idx_books_low_stock ON readscape.books(stock_quantity, id)
+    WHERE status = 'ACTIVE' AND stock_quantity <= low_stock_threshold;
@@ -0,0 +1,36 @@
+-- ユーザー別注文統計を全注文（キャンセル分を含む）の集計に戻す（プロフィール表示の注文数・総額）
+UPDATE readscape.user_order_stats s SET
+    order_count = o.order_count,
+    total_amount = o.total_amount,
+    updated_at = CURRENT_TIMESTAMP
+FROM (
+    SELECT user_id, COUNT(*) AS order_count, COALESCE(SUM(total_amount), 0) AS total_amount
+    FROM readscape.orders
+    GROUP BY user_id
+) o
+WHERE s.user_id = o.user_id;
+
+-- ユーザー別・注文日別の注文統計テーブルの作成
+-- 顧客分析の期間指定（上位顧客・顧客数・平均注文数）を注文テーブルの集計なしで求める
+-- 注文数・総額はキャンセル分を除き、キャンセル時は注文日の行を減算する
+CREATE TABLE readscape.user_order_daily_stats (
+    user_id BIGINT NOT NULL REFERENCES readscape.users(id) ON DELETE CASCADE,
+    order_date DATE NOT NULL,
+    order_count INTEGER NOT NULL DEFAULT 0 CHECK (order_count >= 0), -- キャンセルを除く注文数
+    total_amount NUMERIC(14, 2) NOT NULL DEFAULT 0 CHECK (total_amount >= 0), -- キャンセルを除く注文総額
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, order_date)
+);
+
+-- インデックス作成
+CREATE INDEX idx_user_order_daily_stats_order_date ON readscape.user_order_daily_stats(order_date);
+
+-- 既存の注文から初期データを作成
+INSERT INTO readscape.user_order_daily_stats (user_id, order_date, order_count, total_amount)
+SELECT user_id,
+       CAST(order_date AS DATE),
+       COUNT(*),
+       COALESCE(SUM(total_amount), 0)
+FROM readscape.orders
+WHERE status <> 'CANCELLED'
+GROUP BY user_id, CAST(order_date AS DATE);
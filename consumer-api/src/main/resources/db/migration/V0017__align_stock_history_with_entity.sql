@@ -0,0 +1,19 @@
+-- 在庫履歴テーブルを在庫管理APIの StockHistory エンティティの列に揃える
+-- （画面からの在庫更新と一括登録（注文イベント・一括在庫調整）が同じ列に書き込むようにする）
+ALTER TABLE readscape.stock_history RENAME COLUMN change_type TO type;
+ALTER TABLE readscape.stock_history RENAME COLUMN quantity_changed TO quantity_change;
+ALTER TABLE readscape.stock_history RENAME COLUMN created_by TO user_id;
+ALTER TABLE readscape.stock_history ADD COLUMN reference_number TEXT; -- 注文番号、入荷番号等
+
+-- 変動種別を StockHistory.StockChangeType の値に揃える
+ALTER TABLE readscape.stock_history DROP CONSTRAINT stock_history_change_type_check;
+UPDATE readscape.stock_history SET type = 'RETURN_FROM_CUSTOMER' WHERE type = 'RETURN';
+UPDATE readscape.stock_history
+SET type = CASE WHEN quantity_change >= 0 THEN 'ADJUSTMENT_INCREASE' ELSE 'ADJUSTMENT_DECREASE' END
+WHERE type = 'ADJUSTMENT';
+ALTER TABLE readscape.stock_history ADD CONSTRAINT stock_history_type_check CHECK (type IN (
+    'INBOUND', 'OUTBOUND', 'RETURN_FROM_CUSTOMER', 'DAMAGED',
+    'ADJUSTMENT_INCREASE', 'ADJUSTMENT_DECREASE', 'TRANSFER_IN', 'TRANSFER_OUT'
+));
+
+ALTER INDEX readscape.idx_stock_history_change_type RENAME TO idx_stock_history_type;
@@ -3,6 +3,10 @@ package jp.readscape.consumer.controllers.carts;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jp.readscape.consumer.dto.ApiResponse;
 import jp.readscape.consumer.dto.carts.AddToCartRequest;
+import jp.readscape.consumer.dto.carts.BatchCartRequest;
+import jp.readscape.consumer.dto.carts.BatchCartResponse;
+import jp.readscape.consumer.dto.carts.CartOperation;
+import jp.readscape.consumer.dto.carts.CartOperationResult;
 import jp.readscape.consumer.dto.carts.CartResponse;
 import jp.readscape.consumer.dto.carts.UpdateCartQuantityRequest;
 import jp.readscape.consumer.services.CartService;
@@ -16,6 +20,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -397,4 +402,55 @@ class CartsControllerTest {
 
         verify(cartService, never()).removeFromCart(any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "CONSUMER")
+    void applyCartOperations_WithValidRequest_ShouldReturnCartAndResults() throws Exception {
+        // Given
+        CartOperation operation = CartOperation.builder()
+                .type(CartOperation.OperationType.ADD)
+                .bookId(1L)
+                .quantity(2)
+                .build();
+        BatchCartRequest request = BatchCartRequest.builder()
+                .operations(List.of(operation))
+                .build();
+        BatchCartResponse mockResponse = BatchCartResponse.builder()
+                .cart(CartResponse.builder()
+                        .cartId(1L)
+                        .items(Collections.emptyList())
+                        .totalAmount(BigDecimal.ZERO)
+                        .build())
+                .results(List.of(CartOperationResult.success(0, operation)))
+                .succeededCount(1)
+                .failedCount(0)
+                .build();
+
+        when(cartService.applyCartOperations(eq("user"), anyList())).thenReturn(mockResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/cart/batch")
+                .with(user("user"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cart.cartId").value(1))
+                .andExpect(jsonPath("$.results[0].success").value(true))
+                .andExpect(jsonPath("$.succeededCount").value(1));
+
+        verify(cartService).applyCartOperations(eq("user"), anyList());
+    }
+
+    @Test
+    @WithMockUser(roles = "CONSUMER")
+    void applyCartOperations_WithEmptyOperations_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/cart/batch")
+                .with(user("user"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(cartService, never()).applyCartOperations(any(), any());
+    }
+}
@@ -0,0 +1,123 @@
+package jp.readscape.consumer.controllers.orders;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.readscape.consumer.domain.users.model.User;
+import jp.readscape.consumer.dto.orders.CreateOrderRequest;
+import jp.readscape.consumer.dto.orders.CreateOrderResponse;
+import jp.readscape.consumer.services.OrderService;
+import jp.readscape.consumer.services.StockAvailabilityService;
+import jp.readscape.consumer.services.checkout.CheckoutQueueService;
+import jp.readscape.consumer.services.idempotency.DatabaseIdempotencyStore;
+import jp.readscape.consumer.services.idempotency.IdempotencyEntry;
+import jp.readscape.consumer.services.idempotency.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrdersController Test")
+class OrdersControllerTest {
+
+    private static final String KEY = "7f1c2d9e-checkout";
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CheckoutQueueService checkoutQueueService;
+
+    @Mock
+    private StockAvailabilityService stockAvailabilityService;
+
+    @Mock
+    private DatabaseIdempotencyStore databaseStore;
+
+    private OrdersController ordersController;
+    private Authentication auth;
+
+    private final CreateOrderRequest request = CreateOrderRequest.builder()
+            .shippingAddress("東京都千代田区千代田1-1")
+            .paymentMethod("credit_card")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        IdempotencyService idempotencyService = new IdempotencyService(databaseStore, objectMapper,
+                Duration.ofHours(24), Duration.ofSeconds(60), Duration.ofMillis(200));
+        ordersController = new OrdersController(orderService, idempotencyService, checkoutQueueService,
+                stockAvailabilityService);
+
+        User user = User.builder().id(1L).username("consumer").build();
+        auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    @DisplayName("注文作成 - 注文完了後の同じ冪等キーでの再送は、カートが空でも保存済みの201を返す")
+    void replaysCompletedOrderAfterCartWasEmptied() {
+        // 冪等キーの保存状態を再現する
+        AtomicReference<IdempotencyEntry> stored = new AtomicReference<>();
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any())).thenAnswer(invocation ->
+                Optional.ofNullable(stored.compareAndExchange(null,
+                        IdempotencyEntry.inProgress(invocation.getArgument(2)))));
+        doAnswer(invocation -> {
+            stored.set(IdempotencyEntry.completed(invocation.getArgument(2), invocation.getArgument(3)));
+            return null;
+        }).when(databaseStore).complete(eq(1L), eq(KEY), anyString(), anyString(), any());
+
+        when(orderService.createOrderFromCart(1L, request)).thenReturn(CreateOrderResponse.builder()
+                .orderId(100L)
+                .orderNumber("ORD-20261018-0A3FZ-K9M2Q")
+                .status("PENDING")
+                .totalAmount(new BigDecimal("3000"))
+                .build());
+
+        ResponseEntity<?> first = ordersController.createOrder(request, KEY, null, auth);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        // 注文によりカートが空になった状態
+        doThrow(new IllegalArgumentException("カートが空です"))
+                .when(stockAvailabilityService).precheckCheckout(1L);
+
+        ResponseEntity<?> replay = ordersController.createOrder(request, KEY, null, auth);
+
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(((CreateOrderResponse) replay.getBody()).getOrderNumber()).isEqualTo("ORD-20261018-0A3FZ-K9M2Q");
+        verify(stockAvailabilityService, times(1)).precheckCheckout(1L);
+        verify(orderService, times(1)).createOrderFromCart(1L, request);
+    }
+
+    @Test
+    @DisplayName("注文作成 - 初回の実行では事前チェックでカートが空の注文を拒否")
+    void rejectsEmptyCartOnFirstExecution() {
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any())).thenReturn(Optional.empty());
+        doThrow(new IllegalArgumentException("カートが空です"))
+                .when(stockAvailabilityService).precheckCheckout(1L);
+
+        ResponseEntity<?> response = ordersController.createOrder(request, KEY, null, auth);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(databaseStore).remove(1L, KEY);
+        verifyNoInteractions(orderService);
+    }
+}
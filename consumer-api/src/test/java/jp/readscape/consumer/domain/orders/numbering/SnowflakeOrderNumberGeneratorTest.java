@@ -0,0 +1,173 @@
+package jp.readscape.consumer.domain.orders.numbering;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SnowflakeOrderNumberGenerator Test")
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final String ORDER_NUMBER_PATTERN = "ORD-\\d{8}-[0-9A-HJKMNP-TV-Z]{5}-[0-9A-HJKMNP-TV-Z]{5}";
+
+    private static final long FIXED_MILLIS = LocalDateTime.of(2026, 10, 18, 10, 30)
+            .toInstant(ZoneOffset.ofHours(9))
+            .toEpochMilli();
+
+    @Test
+    @DisplayName("マルチスレッド採番 - 数百万件のIDが重複せず、スレッド内で単調増加する")
+    void concurrentIdsAreUnique() throws Exception {
+        int threadCount = 16;
+        int idsPerThread = 200_000;
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7);
+
+        long[][] generated = new long[threadCount][idsPerThread];
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        for (int t = 0; t < threadCount; t++) {
+            long[] ids = generated[t];
+            executor.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return null;
+            });
+        }
+
+        startSignal.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        long total = (long) threadCount * idsPerThread;
+
+        long[] all = new long[(int) total];
+        for (int t = 0; t < threadCount; t++) {
+            long[] ids = generated[t];
+            for (int i = 1; i < idsPerThread; i++) {
+                assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+            }
+            System.arraycopy(ids, 0, all, t * idsPerThread, idsPerThread);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                fail("Duplicate id generated: " + all[i]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("マルチスレッド採番 - 注文番号が重複せず、所定の書式になる")
+    void concurrentOrderNumbersAreUniqueAndFormatted() throws Exception {
+        int threadCount = 8;
+        int numbersPerThread = 20_000;
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < numbersPerThread; i++) {
+                    numbers.add(generator.nextOrderNumber());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(numbers).hasSize(threadCount * numbersPerThread);
+        assertThat(numbers).allMatch(number -> number.matches(ORDER_NUMBER_PATTERN));
+    }
+
+    @Test
+    @DisplayName("同一ミリ秒でシーケンスが溢れても論理時刻を進めて一意性を保つ")
+    void sequenceOverflowBorrowsNextMillisecond() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, () -> FIXED_MILLIS);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("時計が巻き戻っても採番順は単調増加する")
+    void clockRollbackKeepsIdsMonotonic() {
+        AtomicLong clock = new AtomicLong(FIXED_MILLIS);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, clock::get);
+
+        long beforeRollback = generator.nextId();
+        clock.addAndGet(-5_000);
+        long afterRollback = generator.nextId();
+
+        assertThat(afterRollback).isGreaterThan(beforeRollback);
+    }
+
+    @Test
+    @DisplayName("注文番号 - JSTの日付を含み、文字列順が採番順と一致する")
+    void orderNumbersAreHumanReadableAndSortable() {
+        AtomicLong clock = new AtomicLong(FIXED_MILLIS);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(42, clock::get);
+
+        String first = generator.nextOrderNumber();
+        String second = generator.nextOrderNumber();
+        clock.addAndGet(TimeUnit.HOURS.toMillis(1));
+        String third = generator.nextOrderNumber();
+
+        assertThat(first).startsWith("ORD-20261018-").matches(ORDER_NUMBER_PATTERN);
+        assertThat(first).isLessThan(second);
+        assertThat(second).isLessThan(third);
+    }
+
+    @Test
+    @DisplayName("異なるノードは同一ミリ秒でも異なる注文番号を生成する")
+    void differentNodesDoNotCollide() {
+        SnowflakeOrderNumberGenerator nodeA = new SnowflakeOrderNumberGenerator(1, () -> FIXED_MILLIS);
+        SnowflakeOrderNumberGenerator nodeB = new SnowflakeOrderNumberGenerator(2, () -> FIXED_MILLIS);
+
+        assertThat(nodeA.nextOrderNumber()).isNotEqualTo(nodeB.nextOrderNumber());
+    }
+
+    @Test
+    @DisplayName("範囲外のノードIDは拒否する")
+    void rejectsOutOfRangeNodeId() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("設定 - ノードID未設定でホスト名からの導出が許可されていない場合は起動を失敗させる")
+    void configureRequiresNodeIdWhenDerivationIsDisallowed() {
+        assertThatThrownBy(() -> SnowflakeOrderNumberGenerator.configure(-1, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ORDER_NODE_ID");
+    }
+
+    @Test
+    @DisplayName("設定 - 指定したノードIDをプロセス共通のインスタンスにも使う")
+    void configureUsesExplicitNodeIdForSharedInstance() {
+        SnowflakeOrderNumberGenerator generator = SnowflakeOrderNumberGenerator.configure(3, false);
+
+        assertThat(generator.getNodeId()).isEqualTo(3);
+        assertThat(SnowflakeOrderNumberGenerator.shared()).isSameAs(generator);
+        // 開発環境ではホスト名から導出したノードIDで動作する
+        assertThat(SnowflakeOrderNumberGenerator.configure(-1, true)).isSameAs(generator);
+    }
+}
@@ -9,6 +9,10 @@ import jp.readscape.consumer.domain.orders.model.PaymentMethod;
 import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.domain.users.model.UserRole;
 import jp.readscape.consumer.domain.users.repository.UserRepository;
+import jp.readscape.consumer.dto.orders.OrderDetail;
+import jp.readscape.consumer.dto.users.OrderSummary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -415,7 +419,64 @@ class OrderRepositoryTest {
         assertThat(remainingOrderItemCount).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("注文詳細 - 明細を含めて1回のSQLで取得")
+    void findByIdAndUserIdFetchesItemsInSingleStatement() {
+        entityManager.clear();
+        Statistics statistics = startStatementCounting();
+
+        OrderDetail detail = orderRepository.findByIdAndUserId(testOrder.getId(), testUser.getId())
+            .map(OrderDetail::from)
+            .orElseThrow();
+
+        assertThat(detail.getItems()).hasSize(2);
+        assertThat(detail.getItems()).extracting("bookId")
+            .containsExactlyInAnyOrder(testBook1.getId(), testBook2.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("注文履歴（ページング） - 件数に関わらず内容と件数の2回のSQLで取得")
+    void findByUserIdPageUsesFixedStatementCount() {
+        createAdditionalOrders();
+        entityManager.clear();
+        Statistics statistics = startStatementCounting();
+
+        Page<OrderSummary> history = orderRepository.findByUserId(
+                testUser.getId(), PageRequest.of(0, 2, Sort.by("orderDate").descending()))
+            .map(OrderSummary::from);
+
+        assertThat(history.getContent()).hasSize(2);
+        assertThat(history.getTotalElements()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("最近の注文 - 件数に関わらず1回のSQLで取得")
+    void findRecentOrdersByUserIdUsesSingleStatement() {
+        createAdditionalOrders();
+        entityManager.clear();
+        Statistics statistics = startStatementCounting();
+
+        List<OrderSummary> recent = orderRepository.findRecentOrdersByUserId(testUser.getId(), PageRequest.of(0, 5))
+            .stream()
+            .map(OrderSummary::from)
+            .toList();
+
+        assertThat(recent).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     // Helper methods
+    private Statistics startStatementCounting() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
     private void createAdditionalOrders() {
         Order order2 = Order.builder()
             .orderNumber("ORD-TEST-002")
@@ -1,8 +1,14 @@
 package jp.readscape.consumer.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jp.readscape.consumer.domain.books.model.Book;
 import jp.readscape.consumer.domain.books.repository.BookRepository;
+import jp.readscape.consumer.domain.orders.model.UserOrderDailyStats;
+import jp.readscape.consumer.domain.orders.model.UserOrderStats;
+import jp.readscape.consumer.domain.orders.repository.UserOrderDailyStatsRepository;
+import jp.readscape.consumer.domain.orders.repository.UserOrderStatsRepository;
 import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.domain.users.model.UserRole;
 import jp.readscape.consumer.domain.users.repository.UserRepository;
@@ -30,6 +36,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -74,6 +81,15 @@ class CartToOrderE2ETest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserOrderStatsRepository userOrderStatsRepository;
+
+    @Autowired
+    private UserOrderDailyStatsRepository userOrderDailyStatsRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private String authToken;
     private User testUser;
     private Book testBook;
@@ -161,6 +177,27 @@ class CartToOrderE2ETest {
                 .andExpect(jsonPath("$.items", hasSize(0)));
     }
 
+    @Test
+    @DisplayName("注文統計: 2回の注文で累計・注文日別の統計行を作成してから加算する")
+    void checkoutTwice_RecordsUserOrderStats() throws Exception {
+        checkout(1);
+        checkout(3);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        UserOrderStats stats = userOrderStatsRepository.findById(testUser.getId()).orElseThrow();
+        assertThat(stats.getOrderCount()).isEqualTo(2);
+        assertThat(stats.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(2500L * 4));
+        assertThat(stats.getFirstOrderDate()).isNotNull();
+        assertThat(stats.getLastOrderDate()).isAfterOrEqualTo(stats.getFirstOrderDate());
+
+        UserOrderDailyStats daily = userOrderDailyStatsRepository.findById(
+                new UserOrderDailyStats.Key(testUser.getId(), stats.getLastOrderDate().toLocalDate())).orElseThrow();
+        assertThat(daily.getOrderCount()).isEqualTo(2);
+        assertThat(daily.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(2500L * 4));
+    }
+
     @Test
     @DisplayName("在庫不足時の注文エラーテスト")
     void orderWithInsufficientStock_ShouldFail() throws Exception {
@@ -246,6 +283,29 @@ class CartToOrderE2ETest {
                 .andExpect(jsonPath("$.items[0].quantity").value(3));
     }
 
+    private void checkout(int quantity) throws Exception {
+        AddToCartRequest addToCartRequest = AddToCartRequest.builder()
+                .bookId(testBook.getId())
+                .quantity(quantity)
+                .build();
+        mockMvc.perform(post("/api/cart/items")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addToCartRequest)))
+                .andExpect(status().isOk());
+
+        CreateOrderRequest orderRequest = CreateOrderRequest.builder()
+                .shippingAddress("東京都渋谷区テスト1-1-1")
+                .shippingPhone("090-1234-5678")
+                .paymentMethod("CREDIT_CARD")
+                .build();
+        mockMvc.perform(post("/api/orders")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isCreated());
+    }
+
     private void createTestData() {
         // テストユーザー作成
         testUser = new User();
@@ -0,0 +1,177 @@
+package jp.readscape.consumer.integration;
+
+import jp.readscape.consumer.domain.books.model.Book;
+import jp.readscape.consumer.domain.books.repository.BookRepository;
+import jp.readscape.consumer.domain.cart.model.Cart;
+import jp.readscape.consumer.domain.cart.model.CartItem;
+import jp.readscape.consumer.domain.cart.repository.CartRepository;
+import jp.readscape.consumer.domain.orders.repository.OrderRepository;
+import jp.readscape.consumer.domain.reservations.repository.StockReservationRepository;
+import jp.readscape.consumer.domain.users.model.User;
+import jp.readscape.consumer.domain.users.model.UserRole;
+import jp.readscape.consumer.domain.users.repository.UserRepository;
+import jp.readscape.consumer.dto.orders.CreateOrderRequest;
+import jp.readscape.consumer.services.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 同時購入ベンチマーク
+ * 10冊の書籍に対して500人が同時にチェックアウトし、売り越し・デッドロック・在庫不整合が起きないことを確認する
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@DisplayName("Checkout Concurrency Benchmark")
+@Tag("benchmark")
+class CheckoutConcurrencyBenchmarkTest {
+
+    private static final int BUYER_COUNT = 500;
+    private static final int BOOK_COUNT = 10;
+    private static final int STOCK_PER_BOOK = 30;
+    private static final int UNITS_PER_BUYER = 2;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    private final List<Long> buyerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanup();
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            books.add(bookRepository.save(Book.builder()
+                    .title("ベンチマーク書籍" + i)
+                    .author("ベンチマーク著者")
+                    .isbn(String.format("97840099%05d", i))
+                    .price(1000 + i * 100)
+                    .stockQuantity(STOCK_PER_BOOK)
+                    .build()));
+        }
+
+        // 各購入者は2冊を購入する。書籍ID昇順・降順の両方の並びを混在させる
+        for (int i = 0; i < BUYER_COUNT; i++) {
+            User buyer = userRepository.save(User.builder()
+                    .username("buyer" + i)
+                    .email("buyer" + i + "@example.com")
+                    .password("$2a$10$benchmarkPassword")
+                    .role(UserRole.CONSUMER)
+                    .build());
+            buyerIds.add(buyer.getId());
+
+            Book first = books.get(i % BOOK_COUNT);
+            Book second = books.get((i + 1 + i % 3) % BOOK_COUNT);
+            Cart cart = Cart.builder().user(buyer).build();
+            for (Book book : (i % 2 == 0) ? List.of(first, second) : List.of(second, first)) {
+                cart.addItem(CartItem.builder()
+                        .book(book)
+                        .quantity(1)
+                        .unitPrice(book.getPrice())
+                        .build());
+            }
+            cartRepository.save(cart);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanup();
+    }
+
+    @Test
+    @DisplayName("500人同時購入でも売り越さず、在庫と販売数の合計が保存される")
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .shippingAddress("東京都千代田区千代田1-1")
+                .shippingPhone("090-0000-0000")
+                .paymentMethod("CREDIT_CARD")
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYER_COUNT);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        for (Long buyerId : buyerIds) {
+            executor.submit(() -> {
+                try {
+                    startSignal.await();
+                    orderService.createOrderFromCart(buyerId, request);
+                    succeeded.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // 在庫不足による正常な拒否
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        startSignal.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        System.out.printf("Checkout benchmark: %d buyers, %d books -> %d succeeded, %d rejected, %d failed in %d ms (%.1f checkouts/s)%n",
+                BUYER_COUNT, BOOK_COUNT, succeeded.get(), rejected.get(), failures.size(), elapsedMillis,
+                BUYER_COUNT * 1000.0 / Math.max(1, elapsedMillis));
+
+        int remainingStock = bookRepository.findAll().stream()
+                .mapToInt(Book::getStockQuantity)
+                .peek(stock -> assertThat(stock).isGreaterThanOrEqualTo(0))
+                .sum();
+        int soldUnits = succeeded.get() * UNITS_PER_BUYER;
+
+        assertThat(failures).isEmpty();
+        assertThat(succeeded.get() + rejected.get()).isEqualTo(BUYER_COUNT);
+        assertThat(orderRepository.count()).isEqualTo(succeeded.get());
+        assertThat(remainingStock + soldUnits).isEqualTo(BOOK_COUNT * STOCK_PER_BOOK);
+        assertThat(succeeded.get()).isGreaterThan(0);
+    }
+
+    private void cleanup() {
+        orderRepository.deleteAll();
+        stockReservationRepository.deleteAll();
+        cartRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+        buyerIds.clear();
+    }
+}
@@ -0,0 +1,131 @@
+package jp.readscape.consumer.integration;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jp.readscape.consumer.configurations.JwtAuthenticationFilter;
+import jp.readscape.consumer.services.JwtService;
+import jp.readscape.consumer.services.security.TokenBlacklistService;
+import jp.readscape.consumer.services.security.UserStatusCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JWT認証フィルターのオーバーヘッドのベンチマーク
+ * 従来の経路（リクエストごとに署名鍵を生成し、同じトークンを3回解析・検証）と、
+ * 一度だけ解析して検証済みクレームをキャッシュする現在のフィルターの1リクエストあたりの処理時間を比較する
+ */
+@DisplayName("JWT Filter Overhead Benchmark")
+@Tag("benchmark")
+class JwtFilterOverheadBenchmarkTest {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsAtLeast32CharactersLongForHs256";
+    private static final int WARMUP_ITERATIONS = 5_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+
+    private final UserDetails user = User.builder()
+            .username("benchmark@example.com")
+            .password("password")
+            .authorities(List.of(new SimpleGrantedAuthority("ROLE_CONSUMER")))
+            .build();
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        TokenBlacklistService tokenBlacklistService = mock(TokenBlacklistService.class);
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(user.getUsername())).thenReturn(user);
+
+        jwtService = new JwtService(tokenBlacklistService);
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 2592000000L);
+        jwtService.validateConfiguration();
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, mock(UserStatusCache.class), false);
+        token = jwtService.generateToken(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("単一解析＋検証済みキャッシュのフィルターは従来の多重解析より速い")
+    void singleParseFilterIsFasterThanLegacyPath() throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            legacyFilterWork(token);
+            currentFilterWork();
+        }
+
+        long legacyNanos = measure(() -> legacyFilterWork(token));
+        long currentNanos = measure(this::currentFilterWork);
+
+        System.out.printf("JWT filter benchmark: legacy %.0f ns/op, current %.0f ns/op (%.1fx)%n",
+                (double) legacyNanos / MEASURED_ITERATIONS, (double) currentNanos / MEASURED_ITERATIONS,
+                (double) legacyNanos / Math.max(1, currentNanos));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(currentNanos).isLessThan(legacyNanos);
+    }
+
+    private long measure(ThrowingRunnable operation) throws Exception {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    private void currentFilterWork() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    /**
+     * 従来のフィルターの処理（extractUsername → isTokenValid 内の extractUsername・isTokenExpired）
+     */
+    private void legacyFilterWork(String jwt) {
+        String username = legacyParse(jwt).getSubject();
+        boolean valid = legacyParse(jwt).getSubject().equals(username)
+                && !legacyParse(jwt).getExpiration().before(new Date());
+        assertThat(valid).isTrue();
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
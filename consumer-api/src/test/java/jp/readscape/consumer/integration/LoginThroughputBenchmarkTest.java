@@ -0,0 +1,121 @@
+package jp.readscape.consumer.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.exceptions.PasswordHashingOverloadedException;
+import jp.readscape.consumer.services.security.BreachedPasswordFilter;
+import jp.readscape.consumer.services.security.PasswordHashingExecutor;
+import jp.readscape.consumer.services.security.PasswordSecurityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ログイン集中時のベンチマーク
+ * リクエストスレッド数（CPUコア数の8倍）からパスワード照合を一斉に行い、ログインのスループット、
+ * 同時に実行されたハッシュ計算の最大数、混雑で拒否（503）された件数を出力する
+ * ハッシュ専用の実行基盤は本番の既定設定（スレッド数はCPUコア数、待ち行列64、待ち時間上限5秒）で構築し、
+ * ハッシュ計算の同時実行数がハッシュ専用スレッド数に収まることを確認する
+ */
+@DisplayName("Login Throughput Benchmark")
+@Tag("benchmark")
+class LoginThroughputBenchmarkTest {
+
+    private static final int BCRYPT_STRENGTH = 8;
+    private static final int LOGINS = 400;
+
+    // security.password.hashing.threads の既定値 0 はCPUコア数
+    private final int hashingThreads = Runtime.getRuntime().availableProcessors();
+    private final int requestThreads = Runtime.getRuntime().availableProcessors() * 8;
+    private final AtomicInteger concurrentHashes = new AtomicInteger();
+    private final AtomicInteger peakConcurrentHashes = new AtomicInteger();
+
+    private PasswordHashingExecutor hashingExecutor;
+    private PasswordSecurityService passwordSecurityService;
+    private ExecutorService requestPool;
+    private String encodedPassword;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+        encodedPassword = bcrypt.encode("Secret123!");
+
+        hashingExecutor = new PasswordHashingExecutor(new SimpleMeterRegistry(),
+                0, 64, Duration.ofSeconds(5), 2);
+        passwordSecurityService = new PasswordSecurityService(countingEncoder(bcrypt), hashingExecutor,
+                new BreachedPasswordFilter(new SimpleMeterRegistry(), ""));
+        requestPool = Executors.newFixedThreadPool(requestThreads);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestPool.shutdownNow();
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("ログイン集中時もハッシュ計算の同時実行数は専用スレッド数に収まる")
+    void hashingConcurrencyIsBoundedUnderLoginBurst() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        List<Future<?>> logins = new ArrayList<>();
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < LOGINS; i++) {
+            logins.add(requestPool.submit(() -> {
+                try {
+                    if (passwordSecurityService.matches("Secret123!", encodedPassword)) {
+                        succeeded.incrementAndGet();
+                    }
+                } catch (PasswordHashingOverloadedException e) {
+                    shed.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> login : logins) {
+            login.get(60, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        System.out.printf("Login benchmark: %d request threads, %d hashing threads, %.0f logins/s, "
+                        + "peak concurrent hashes %d, shed %d%n",
+                requestThreads, hashingThreads, succeeded.get() / seconds, peakConcurrentHashes.get(), shed.get());
+
+        assertThat(succeeded.get() + shed.get()).isEqualTo(LOGINS);
+        assertThat(succeeded.get()).isPositive();
+        assertThat(peakConcurrentHashes.get()).isLessThanOrEqualTo(hashingThreads);
+    }
+
+    private PasswordEncoder countingEncoder(PasswordEncoder delegate) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return delegate.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                peakConcurrentHashes.accumulateAndGet(concurrentHashes.incrementAndGet(), Math::max);
+                try {
+                    return delegate.matches(rawPassword, encodedPassword);
+                } finally {
+                    concurrentHashes.decrementAndGet();
+                }
+            }
+        };
+    }
+}
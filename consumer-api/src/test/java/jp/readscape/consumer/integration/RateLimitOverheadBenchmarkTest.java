@@ -0,0 +1,70 @@
+package jp.readscape.consumer.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.config.RateLimitInterceptor;
+import jp.readscape.consumer.services.ratelimit.RateLimitService;
+import jp.readscape.consumer.services.redis.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * レート制限インターセプターのオーバーヘッドのベンチマーク
+ * 1,024クライアントのリクエストを順に処理し、許可されるリクエスト1件あたりの処理時間（バケットの検索・消費・ヘッダー設定）を測る
+ */
+@DisplayName("Rate Limit Overhead Benchmark")
+@Tag("benchmark")
+class RateLimitOverheadBenchmarkTest {
+
+    private static final int CLIENTS = 1_024;
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+    private static final long MAX_NANOS_PER_REQUEST = 5_000;
+
+    private final MockHttpServletRequest[] requests = new MockHttpServletRequest[CLIENTS];
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitService rateLimitService = new RateLimitService(
+                new RedisCircuitBreaker(meterRegistry, 3, Duration.ofSeconds(30)), meterRegistry,
+                1_000_000_000L, 1_000_000_000L, 3600, 100_000, 1, 5, 10, 1);
+        interceptor = new RateLimitInterceptor(rateLimitService);
+
+        for (int i = 0; i < CLIENTS; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/search");
+            request.setRemoteAddr("10.0." + (i / 256) + "." + (i % 256));
+            requests[i] = request;
+        }
+    }
+
+    @Test
+    @DisplayName("1リクエストあたりのオーバーヘッドは5µs未満")
+    void overheadPerRequestIsBelowFiveMicroseconds() {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertThat(interceptor.preHandle(requests[i % CLIENTS], response, null)).isTrue();
+        }
+
+        boolean allAllowed = true;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            allAllowed &= interceptor.preHandle(requests[i % CLIENTS], response, null);
+        }
+        double nanosPerRequest = (double) (System.nanoTime() - startedAt) / MEASURED_ITERATIONS;
+
+        System.out.printf("Rate limit benchmark: %.0f ns/op over %d clients%n", nanosPerRequest, CLIENTS);
+
+        assertThat(allAllowed).isTrue();
+        assertThat(response.getHeader("X-RateLimit-Limit")).isEqualTo("1000000000");
+        assertThat(nanosPerRequest).isLessThan(MAX_NANOS_PER_REQUEST);
+    }
+}
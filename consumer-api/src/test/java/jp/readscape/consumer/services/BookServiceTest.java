@@ -38,6 +38,9 @@ class BookServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
     @InjectMocks
     private BookService bookService;
 
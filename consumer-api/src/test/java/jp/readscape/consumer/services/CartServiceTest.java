@@ -5,9 +5,13 @@ import jp.readscape.consumer.domain.books.repository.BookRepository;
 import jp.readscape.consumer.domain.cart.model.Cart;
 import jp.readscape.consumer.domain.cart.model.CartItem;
 import jp.readscape.consumer.domain.cart.repository.CartRepository;
+import jp.readscape.consumer.domain.reservations.model.StockReservation;
+import jp.readscape.consumer.domain.reservations.repository.StockReservationRepository;
 import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.domain.users.model.UserRole;
 import jp.readscape.consumer.domain.users.repository.UserRepository;
+import jp.readscape.consumer.dto.carts.BatchCartResponse;
+import jp.readscape.consumer.dto.carts.CartOperation;
 import jp.readscape.consumer.dto.carts.CartResponse;
 import jp.readscape.consumer.exceptions.BookNotFoundException;
 import jp.readscape.consumer.exceptions.CartNotFoundException;
@@ -16,17 +20,30 @@ import jp.readscape.consumer.exceptions.UserNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,6 +62,18 @@ class CartServiceTest {
     @Mock
     private BookRepository bookRepository;
     
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private StockAvailabilityService stockAvailabilityService;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private StripedStockService stripedStockService;
+
     @InjectMocks
     private CartService cartService;
 
@@ -148,6 +177,19 @@ class CartServiceTest {
         verify(cartRepository).save(any(Cart.class));
     }
 
+    @Test
+    @DisplayName("カートに商品追加 - 在庫スナップショットで明らかな在庫切れはDBに触れずに拒否")
+    void addToCartRejectedBySnapshot() {
+        // Arrange
+        doThrow(new InsufficientStockException("在庫が不足しています。要求数量: 2, 購入可能数: 0"))
+            .when(stockAvailabilityService).precheck(1L, 2);
+
+        // Act & Assert
+        assertThatThrownBy(() -> cartService.addToCart("test@example.com", 1L, 2))
+            .isInstanceOf(InsufficientStockException.class);
+        verifyNoInteractions(userRepository, bookRepository, cartRepository, stockReservationService);
+    }
+
     @Test
     @DisplayName("カートに商品追加 - 既存商品の数量増加")
     void addToCartExistingItem() {
@@ -218,6 +260,8 @@ class CartServiceTest {
         when(userRepository.findByUsernameOrEmail(username)).thenReturn(Optional.of(user));
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
         when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
+        when(stockReservationService.hold(user.getId(), book, quantity))
+            .thenThrow(new InsufficientStockException("Insufficient stock"));
         
         // Act & Assert
         assertThatThrownBy(() -> cartService.addToCart(username, bookId, quantity))
@@ -322,6 +366,208 @@ class CartServiceTest {
     */
 
     // Helper methods
+    @Test
+    @DisplayName("カート一括更新 - 操作ごとの結果を記録し1回で保存")
+    void applyCartOperationsRecordsPerItemResults() {
+        // Arrange
+        String username = "test@example.com";
+        User user = createSampleUser();
+        Book book = createSampleBook();
+        Book lowStockBook = Book.builder()
+            .id(2L)
+            .title("在庫僅少本")
+            .author("著者")
+            .price(1000)
+            .stockQuantity(1)
+            .build();
+        Cart cart = Cart.builder()
+            .id(1L)
+            .user(user)
+            .items(new ArrayList<>())
+            .build();
+
+        List<CartOperation> operations = Arrays.asList(
+            CartOperation.builder().type(CartOperation.OperationType.ADD).bookId(1L).quantity(2).build(),
+            CartOperation.builder().type(CartOperation.OperationType.ADD).bookId(2L).quantity(3).build(),
+            CartOperation.builder().type(CartOperation.OperationType.REMOVE).bookId(99L).build(),
+            CartOperation.builder().type(CartOperation.OperationType.UPDATE).bookId(1L).quantity(4).build()
+        );
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
+        when(stockReservationService.lockStockQuantities(anyCollection()))
+            .thenReturn(Map.of(1L, book.getStockQuantity(), 2L, lowStockBook.getStockQuantity()));
+        when(bookRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(book, lowStockBook));
+        when(stockReservationService.getReservedQuantitiesByOthers(eq(user.getId()), anyCollection()))
+            .thenReturn(Map.of());
+
+        // Act
+        BatchCartResponse result = cartService.applyCartOperations(username, operations);
+
+        // Assert
+        assertThat(result.getSucceededCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getResults().get(1).getErrorMessage()).contains("在庫が不足しています");
+        assertThat(result.getResults().get(2).getErrorMessage()).contains("カートに存在しません");
+        assertThat(cart.getItemQuantity(1L)).isEqualTo(4);
+        assertThat(cart.containsBook(2L)).isFalse();
+
+        verify(bookRepository, times(1)).findAllById(anyIterable());
+        verify(cartRepository, times(1)).save(cart);
+        verify(stockReservationService).syncHolds(user.getId(), Map.of(1L, 4));
+    }
+
+    @Test
+    @DisplayName("カート一括更新 - 書籍行をロックしてから他ユーザーの仮押さえを取得して判定")
+    void applyCartOperationsLocksBooksBeforeReadingReservations() {
+        // Arrange
+        String username = "test@example.com";
+        User user = createSampleUser();
+        Book book = createSampleBook();
+        Cart cart = Cart.builder()
+            .id(1L)
+            .user(user)
+            .items(new ArrayList<>())
+            .build();
+
+        List<CartOperation> operations = List.of(
+            CartOperation.builder().type(CartOperation.OperationType.ADD).bookId(1L).quantity(2).build()
+        );
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
+        // エンティティの在庫は古い値のまま、ロック取得時点の在庫は残り1冊
+        when(stockReservationService.lockStockQuantities(anyCollection())).thenReturn(Map.of(1L, 1));
+        when(bookRepository.findAllById(anyIterable())).thenReturn(List.of(book));
+        when(stockReservationService.getReservedQuantitiesByOthers(eq(user.getId()), anyCollection()))
+            .thenReturn(Map.of());
+
+        // Act
+        BatchCartResponse result = cartService.applyCartOperations(username, operations);
+
+        // Assert
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getErrorMessage()).contains("購入可能数: 1");
+
+        InOrder inOrder = inOrder(stockReservationService);
+        inOrder.verify(stockReservationService).lockStockQuantities(anyCollection());
+        inOrder.verify(stockReservationService).getReservedQuantitiesByOthers(eq(user.getId()), anyCollection());
+        inOrder.verify(stockReservationService).syncHolds(user.getId(), Map.of());
+    }
+
+    @Test
+    @DisplayName("カート一括更新 - 同じ書籍を逆順に含む同時の一括更新でも在庫を超えて仮押さえしない")
+    void concurrentCartOperationsDoNotOverReserve() throws Exception {
+        // Arrange
+        // 書籍行のロックはトランザクション終了まで保持されるため、一括更新の完了時にまとめて解放する
+        Map<Long, ReentrantLock> bookRowLocks = Map.of(1L, new ReentrantLock(), 2L, new ReentrantLock());
+        Map<Long, Map<Long, Integer>> heldByUser = new ConcurrentHashMap<>();
+        List<Long> lockOrder = Collections.synchronizedList(new ArrayList<>());
+        StockReservationService reservationService =
+            new StockReservationService(stockReservationRepository, bookRepository, stripedStockService,
+                Duration.ofMinutes(15));
+        CartService concurrentCartService = new CartService(
+            cartRepository, userRepository, bookRepository, reservationService, stockAvailabilityService);
+
+        Book first = createSampleBook();
+        Book second = Book.builder()
+            .id(2L)
+            .title("人気本")
+            .author("著者")
+            .price(1000)
+            .stockQuantity(10)
+            .build();
+        first.setStockQuantity(10);
+        User buyer = createSampleUser();
+        User otherBuyer = createSampleUser();
+        otherBuyer.setId(2L);
+        otherBuyer.setEmail("other@example.com");
+
+        when(userRepository.findByUsername(buyer.getEmail())).thenReturn(Optional.of(buyer));
+        when(userRepository.findByUsername(otherBuyer.getEmail())).thenReturn(Optional.of(otherBuyer));
+        when(cartRepository.findByUserId(anyLong())).thenAnswer(invocation -> Optional.of(Cart.builder()
+            .user((Long) invocation.getArgument(0) == 1L ? buyer : otherBuyer)
+            .items(new ArrayList<>())
+            .build()));
+        when(bookRepository.lockStockQuantity(anyLong())).thenAnswer(invocation -> {
+            Long bookId = invocation.getArgument(0);
+            bookRowLocks.get(bookId).lock();
+            lockOrder.add(bookId);
+            return Optional.of(10);
+        });
+        when(bookRepository.findAllById(anyIterable())).thenReturn(List.of(first, second));
+        when(stockReservationRepository.sumActiveQuantitiesByBookIdsExcludingUser(
+                anyCollection(), anyLong(), any(LocalDateTime.class)))
+            .thenAnswer(invocation -> {
+                Long userId = invocation.getArgument(1);
+                Map<Long, Long> reserved = new HashMap<>();
+                heldByUser.forEach((holder, holds) -> {
+                    if (!holder.equals(userId)) {
+                        holds.forEach((bookId, quantity) -> reserved.merge(bookId, (long) quantity, Long::sum));
+                    }
+                });
+                return reserved.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                    .collect(Collectors.toList());
+            });
+        when(stockReservationRepository.findByUserId(anyLong())).thenReturn(Collections.emptyList());
+        when(stockReservationRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<StockReservation> reservations = invocation.getArgument(0);
+            reservations.forEach(reservation -> heldByUser
+                .computeIfAbsent(reservation.getUserId(), userId -> new ConcurrentHashMap<>())
+                .put(reservation.getBookId(), reservation.getQuantity()));
+            return reservations;
+        });
+
+        List<CartOperation> ascending = List.of(
+            CartOperation.builder().type(CartOperation.OperationType.ADD).bookId(1L).quantity(6).build(),
+            CartOperation.builder().type(CartOperation.OperationType.ADD).bookId(2L).quantity(6).build()
+        );
+        List<CartOperation> descending = List.of(ascending.get(1), ascending.get(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<BatchCartResponse> results = new ArrayList<>();
+        try {
+            List<Future<BatchCartResponse>> batches = List.of(
+                executor.submit(() -> applyInTransaction(concurrentCartService, buyer.getEmail(), ascending,
+                    bookRowLocks, start)),
+                executor.submit(() -> applyInTransaction(concurrentCartService, otherBuyer.getEmail(), descending,
+                    bookRowLocks, start)));
+            start.countDown();
+
+            // Act
+            for (Future<BatchCartResponse> batch : batches) {
+                results.add(batch.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(results.stream().mapToInt(BatchCartResponse::getSucceededCount).sum()).isEqualTo(2);
+        for (Long bookId : List.of(1L, 2L)) {
+            int held = heldByUser.values().stream()
+                .mapToInt(holds -> holds.getOrDefault(bookId, 0))
+                .sum();
+            assertThat(held).isLessThanOrEqualTo(10);
+        }
+        assertThat(lockOrder).containsExactly(1L, 2L, 1L, 2L);
+    }
+
+    private BatchCartResponse applyInTransaction(CartService service, String username, List<CartOperation> operations,
+                                                 Map<Long, ReentrantLock> bookRowLocks, CountDownLatch start)
+            throws InterruptedException {
+        start.await();
+        try {
+            return service.applyCartOperations(username, operations);
+        } finally {
+            bookRowLocks.values().stream()
+                .filter(ReentrantLock::isHeldByCurrentThread)
+                .forEach(ReentrantLock::unlock);
+        }
+    }
+
     private User createSampleUser() {
         return User.builder()
             .id(1L)
@@ -3,6 +3,7 @@ package jp.readscape.consumer.services;
 import jp.readscape.consumer.constants.SecurityConstants;
 import jp.readscape.consumer.exceptions.JwtException;
 import jp.readscape.consumer.services.security.TokenBlacklistService;
+import jp.readscape.consumer.services.security.VerifiedToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -394,4 +395,70 @@ class JwtServiceTest {
         // Then
         assertThat(isValid).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void verify_WithSameToken_ShouldReuseVerifiedClaims() {
+        // Given
+        jwtService.validateConfiguration();
+        String token = jwtService.generateToken(testUser);
+
+        // When
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo(testUser.getUsername());
+        assertThat(first.getRoles()).containsExactlyInAnyOrder("USER", "CUSTOMER");
+        assertThat(first.isRefreshToken()).isFalse();
+    }
+
+    @Test
+    void verify_WithCacheDisabled_ShouldParseEveryTime() {
+        // Given
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", 0);
+        jwtService.validateConfiguration();
+        String token = jwtService.generateToken(testUser);
+
+        // When
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getSubject()).isEqualTo(first.getSubject());
+    }
+
+    @Test
+    void isTokenValid_WithCachedTokenBlacklistedLater_ShouldReturnFalse() {
+        // Given
+        jwtService.validateConfiguration();
+        String token = jwtService.generateToken(testUser);
+        VerifiedToken verified = jwtService.verify(token);
+        when(tokenBlacklistService.isBlacklisted(token)).thenReturn(false, true);
+
+        // When & Then - ブラックリストはキャッシュせず毎回確認する
+        assertThat(jwtService.isTokenValid(token, verified, testUser)).isTrue();
+        assertThat(jwtService.isTokenValid(token, verified, testUser)).isFalse();
+    }
+
+    @Test
+    void verify_WithDomainUser_ShouldIncludeUserId() {
+        // Given
+        jwtService.validateConfiguration();
+        jp.readscape.consumer.domain.users.model.User domainUser = jp.readscape.consumer.domain.users.model.User.builder()
+                .id(42L)
+                .username("reader")
+                .email("reader@example.com")
+                .password("password")
+                .build();
+
+        // When
+        VerifiedToken verified = jwtService.verify(jwtService.generateToken(domainUser));
+
+        // Then
+        assertThat(verified.getUserId()).isEqualTo(42L);
+        assertThat(verified.getSubject()).isEqualTo("reader");
+        assertThat(verified.getRoles()).containsExactly("CONSUMER");
+    }
+}
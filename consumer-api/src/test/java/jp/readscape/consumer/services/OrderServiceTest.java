@@ -7,15 +7,21 @@ import jp.readscape.consumer.domain.cart.model.CartItem;
 import jp.readscape.consumer.domain.cart.repository.CartRepository;
 import jp.readscape.consumer.domain.orders.model.Order;
 import jp.readscape.consumer.domain.orders.model.OrderItem;
+import jp.readscape.consumer.domain.orders.model.UserOrderStats;
+import jp.readscape.consumer.domain.orders.numbering.OrderNumberGenerator;
 import jp.readscape.consumer.domain.orders.repository.OrderRepository;
+import jp.readscape.consumer.domain.orders.repository.UserOrderDailyStatsRepository;
+import jp.readscape.consumer.domain.orders.repository.UserOrderStatsRepository;
 import jp.readscape.consumer.domain.users.model.User;
 import jp.readscape.consumer.dto.orders.CreateOrderRequest;
 import jp.readscape.consumer.dto.orders.CreateOrderResponse;
 import jp.readscape.consumer.dto.orders.OrderDetail;
 import jp.readscape.consumer.dto.users.OrderSummary;
+import jp.readscape.consumer.services.outbox.OrderEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -24,9 +30,11 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -45,6 +53,24 @@ class OrderServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Mock
+    private StripedStockService stripedStockService;
+
+    @Mock
+    private OrderEventPublisher orderEventPublisher;
+
+    @Mock
+    private UserOrderStatsRepository userOrderStatsRepository;
+
+    @Mock
+    private UserOrderDailyStatsRepository userOrderDailyStatsRepository;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -109,8 +135,9 @@ class OrderServiceTest {
     void createOrderFromCart_WithValidCart_ShouldCreateOrderSuccessfully() {
         // Given
         when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(bookRepository.decrementStock(1L, 2)).thenReturn(1);
+        when(orderNumberGenerator.nextOrderNumber()).thenReturn("ORD-20231201-0001");
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(bookRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBook));
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
 
         // When
@@ -122,9 +149,68 @@ class OrderServiceTest {
         assertThat(response.getOrderNumber()).isEqualTo("ORD-20231201-0001");
         
         verify(cartRepository).findByUserId(1L);
-        verify(orderRepository).save(any(Order.class));
-        verify(bookRepository).saveAll(anyList());
+        verify(orderRepository).save(argThat(order -> "ORD-20231201-0001".equals(order.getOrderNumber())));
+        verify(bookRepository).decrementStock(1L, 2);
+        verify(bookRepository, never()).saveAll(anyList());
         verify(cartRepository).save(any(Cart.class));
+        verify(orderEventPublisher).publishOrderCreated(eq(testOrder), anyMap());
+        // 初回注文のため統計行を作成する
+        verify(userOrderStatsRepository).incrementOrder(eq(1L), eq(BigDecimal.valueOf(3000)),
+                eq(testOrder.getOrderDate()), any(LocalDateTime.class));
+        verify(userOrderStatsRepository).save(argThat(stats ->
+                stats.getOrderCount() == 1 && stats.getTotalAmount().compareTo(BigDecimal.valueOf(3000)) == 0));
+        verify(userOrderDailyStatsRepository).save(argThat(stats ->
+                stats.getOrderDate().equals(testOrder.getOrderDate().toLocalDate()) && stats.getOrderCount() == 1));
+    }
+
+    @Test
+    void createOrderFromCart_WithExistingStats_ShouldIncrementWithoutInsert() {
+        // Given
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(bookRepository.decrementStock(1L, 2)).thenReturn(1);
+        when(orderNumberGenerator.nextOrderNumber()).thenReturn("ORD-20231201-0001");
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(userOrderStatsRepository.incrementOrder(eq(1L), any(), any(), any())).thenReturn(1);
+        when(userOrderDailyStatsRepository.incrementOrder(eq(1L), any(), any(), any())).thenReturn(1);
+
+        // When
+        orderService.createOrderFromCart(1L, createOrderRequest);
+
+        // Then
+        verify(userOrderDailyStatsRepository).incrementOrder(eq(1L), eq(testOrder.getOrderDate().toLocalDate()),
+                eq(BigDecimal.valueOf(3000)), any(LocalDateTime.class));
+        verify(userOrderStatsRepository, never()).save(any());
+        verify(userOrderDailyStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void createOrderFromCart_ShouldPublishStockLevelsAfterDecrement() {
+        // Given
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(bookRepository.decrementStock(1L, 2)).thenReturn(1);
+        when(bookRepository.findStockQuantitiesByIds(List.of(1L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 8}));
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+
+        // When
+        orderService.createOrderFromCart(1L, createOrderRequest);
+
+        // Then
+        InOrder inOrder = inOrder(bookRepository, orderEventPublisher);
+        inOrder.verify(bookRepository).decrementStock(1L, 2);
+        inOrder.verify(orderEventPublisher).publishOrderCreated(testOrder, Map.of(1L, 8));
+    }
+
+    @Test
+    void createOrderFromCart_WhenStockInsufficient_ShouldNotPublishEvent() {
+        // Given
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(bookRepository.decrementStock(1L, 2)).thenReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.createOrderFromCart(1L, createOrderRequest))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(orderEventPublisher);
     }
 
     @Test
@@ -182,6 +268,7 @@ class OrderServiceTest {
     void createOrderFromCart_WithOrderSaveFailure_ShouldThrowException() {
         // Given
         when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(bookRepository.decrementStock(1L, 2)).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenThrow(new RuntimeException("Database error"));
 
         // When & Then
@@ -280,17 +367,24 @@ class OrderServiceTest {
                 .build();
         testOrder.setItems(Arrays.asList(orderItem));
 
-        when(orderRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdAndUserIdForUpdate(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.sumItemQuantitiesByBook(List.of(1L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 2L}));
+        when(bookRepository.incrementStock(1L, 2)).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
         // When
         orderService.cancelOrder(1L, 1L);
 
         // Then
-        verify(orderRepository).findByIdAndUserId(1L, 1L);
+        verify(orderRepository).findByIdAndUserIdForUpdate(1L, 1L);
         verify(orderRepository).save(testOrder);
-        verify(bookRepository).save(testBook);
+        verify(bookRepository).incrementStock(1L, 2);
+        verify(orderEventPublisher).publishOrderCancelled(eq(testOrder), anyMap());
+        // 累計の注文統計はキャンセルされた注文も含むため、注文日別の統計のみ減算する
+        verify(userOrderDailyStatsRepository).decrementOrder(eq(1L), eq(testOrder.getOrderDate().toLocalDate()),
+                eq(BigDecimal.valueOf(3000)), any(LocalDateTime.class));
+        verifyNoInteractions(userOrderStatsRepository);
         assertThat(testOrder.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED);
     }
 
@@ -298,7 +392,7 @@ class OrderServiceTest {
     void cancelOrder_WithNonCancellableOrder_ShouldThrowException() {
         // Given
         testOrder.setStatus(Order.OrderStatus.DELIVERED); // Non-cancellable status
-        when(orderRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdAndUserIdForUpdate(1L, 1L)).thenReturn(Optional.of(testOrder));
 
         // When & Then
         assertThatThrownBy(() -> orderService.cancelOrder(1L, 1L))
@@ -309,7 +403,7 @@ class OrderServiceTest {
     @Test
     void cancelOrder_WithNonExistentOrder_ShouldThrowException() {
         // Given
-        when(orderRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdAndUserIdForUpdate(1L, 1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> orderService.cancelOrder(1L, 1L))
@@ -320,8 +414,15 @@ class OrderServiceTest {
     @Test
     void getOrderStatistics_WithValidUser_ShouldReturnStatistics() {
         // Given
-        when(orderRepository.countOrdersByUserId(1L)).thenReturn(5L);
-        when(orderRepository.getTotalAmountByUserId(1L)).thenReturn(15000.0);
+        LocalDateTime firstOrderDate = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime lastOrderDate = LocalDateTime.of(2026, 10, 18, 10, 30);
+        when(userOrderStatsRepository.findById(1L)).thenReturn(Optional.of(UserOrderStats.builder()
+                .userId(1L)
+                .orderCount(5)
+                .totalAmount(BigDecimal.valueOf(15000))
+                .firstOrderDate(firstOrderDate)
+                .lastOrderDate(lastOrderDate)
+                .build()));
 
         // When
         OrderService.OrderStatistics statistics = orderService.getOrderStatistics(1L);
@@ -330,13 +431,16 @@ class OrderServiceTest {
         assertThat(statistics.getOrderCount()).isEqualTo(5L);
         assertThat(statistics.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(15000.0));
         assertThat(statistics.getFormattedTotalAmount()).isEqualTo("¥15,000");
+        assertThat(statistics.getFirstOrderDate()).isEqualTo(firstOrderDate);
+        assertThat(statistics.getLastOrderDate()).isEqualTo(lastOrderDate);
+        verify(orderRepository, never()).countOrdersByUserId(anyLong());
+        verify(orderRepository, never()).getTotalAmountByUserId(anyLong());
     }
 
     @Test
     void getOrderStatistics_WithNoOrders_ShouldReturnZeroStatistics() {
         // Given
-        when(orderRepository.countOrdersByUserId(1L)).thenReturn(0L);
-        when(orderRepository.getTotalAmountByUserId(1L)).thenReturn(null);
+        when(userOrderStatsRepository.findById(1L)).thenReturn(Optional.empty());
 
         // When
         OrderService.OrderStatistics statistics = orderService.getOrderStatistics(1L);
@@ -355,20 +459,57 @@ class OrderServiceTest {
         testBook.setStockQuantity(originalStock);
         
         when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(bookRepository.decrementStock(1L, orderQuantity)).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(bookRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBook));
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
 
         // When
         orderService.createOrderFromCart(1L, createOrderRequest);
 
-        // Then
-        verify(bookRepository).saveAll(anyList());
-        assertThat(testBook.getStockQuantity()).isEqualTo(originalStock - orderQuantity);
+        // Then - 在庫はエンティティではなく条件付きUPDATEで減算される
+        verify(bookRepository).decrementStock(1L, orderQuantity);
+        assertThat(testBook.getStockQuantity()).isEqualTo(originalStock);
     }
 
     @Test
-    void cancelOrder_ShouldRestoreBookStockCorrectly() {
+    void createOrderFromCart_WithStripedBook_ShouldDecrementStripeInsteadOfBookRow() {
+        // Given
+        testBook.setStockStripeCount(4);
+        testBook.setStockQuantity(0);
+
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(stripedStockService.getStripedStockQuantities(anyCollection())).thenReturn(Map.of(1L, 12));
+        when(stripedStockService.tryDecrement(testBook, 2)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+
+        // When
+        orderService.createOrderFromCart(1L, createOrderRequest);
+
+        // Then - 書籍行のスナップショット在庫ではなくストライプ合計で判定し、ストライプから減算する
+        verify(stripedStockService).tryDecrement(testBook, 2);
+        verify(bookRepository, never()).decrementStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void createOrderFromCart_WhenAllStripesDrained_ShouldFailWithoutCreatingOrder() {
+        // Given
+        testBook.setStockStripeCount(4);
+
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(stripedStockService.getStripedStockQuantities(anyCollection())).thenReturn(Map.of(1L, 2));
+        when(stripedStockService.tryDecrement(testBook, 2)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.createOrderFromCart(1L, createOrderRequest))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("在庫が不足しています");
+
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void cancelOrder_ShouldRestoreBookStockWithAtomicIncrement() {
         // Given
         Integer currentStock = 8;
         Integer orderQuantity = 2;
@@ -383,16 +524,61 @@ class OrderServiceTest {
                 .build();
         testOrder.setItems(Arrays.asList(orderItem));
 
-        when(orderRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdAndUserIdForUpdate(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.sumItemQuantitiesByBook(List.of(1L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, (long) orderQuantity}));
+        when(bookRepository.incrementStock(1L, orderQuantity)).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+
+        // When
+        orderService.cancelOrder(1L, 1L);
+
+        // Then - 読み込んだエンティティの値を書き戻さず、UPDATE文で加算する
+        verify(bookRepository).incrementStock(1L, orderQuantity);
+        verify(bookRepository, never()).save(any(Book.class));
+        assertThat(testBook.getStockQuantity()).isEqualTo(currentStock);
+    }
+
+    @Test
+    void cancelOrder_WithMultipleBooks_ShouldRestoreInAscendingBookIdOrder() {
+        // Given
+        testOrder.setStatus(Order.OrderStatus.PENDING);
+        when(orderRepository.findByIdAndUserIdForUpdate(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.sumItemQuantitiesByBook(List.of(1L)))
+                .thenReturn(Arrays.asList(new Object[]{2L, 1L}, new Object[]{5L, 3L}, new Object[]{9L, 2L}));
+        when(bookRepository.incrementStock(anyLong(), anyInt())).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+
+        // When
+        orderService.cancelOrder(1L, 1L);
+
+        // Then
+        InOrder inOrder = inOrder(bookRepository);
+        inOrder.verify(bookRepository).incrementStock(2L, 1);
+        inOrder.verify(bookRepository).incrementStock(5L, 3);
+        inOrder.verify(bookRepository).incrementStock(9L, 2);
+        verify(bookRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void cancelOrder_WithStripedBook_ShouldRestoreToStripe() {
+        // Given
+        testBook.setStockStripeCount(4);
+        testOrder.setStatus(Order.OrderStatus.PENDING);
+        when(orderRepository.findByIdAndUserIdForUpdate(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.sumItemQuantitiesByBook(List.of(1L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 2L}));
+        when(bookRepository.incrementStock(1L, 2)).thenReturn(0);
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
+        when(stripedStockService.restore(testBook, 2)).thenReturn(true);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
         // When
         orderService.cancelOrder(1L, 1L);
 
         // Then
-        verify(bookRepository).save(testBook);
-        assertThat(testBook.getStockQuantity()).isEqualTo(currentStock + orderQuantity);
+        verify(stripedStockService).restore(testBook, 2);
+        verify(bookRepository, times(1)).incrementStock(1L, 2);
     }
 
     @Test
@@ -407,7 +593,8 @@ class OrderServiceTest {
                 .build();
         testOrder.setItems(Arrays.asList(orderItem));
 
-        when(orderRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdAndUserIdForUpdate(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.sumItemQuantitiesByBook(List.of(1L))).thenReturn(Collections.emptyList());
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
         // When & Then - should not throw exception
@@ -415,7 +602,7 @@ class OrderServiceTest {
                 .doesNotThrowAnyException();
         
         verify(orderRepository).save(testOrder);
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).incrementStock(anyLong(), anyInt());
     }
 
     @Test
@@ -437,42 +624,36 @@ class OrderServiceTest {
                 .unitPrice(2000)
                 .build();
 
-        testCart.getItems().add(secondCartItem);
+        // 書籍ID降順でカートに入っていても、減算は書籍ID昇順で行われる
+        testCart.setItems(new ArrayList<>(Arrays.asList(secondCartItem, testCartItem)));
         secondCartItem.setCart(testCart);
 
         when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(bookRepository.decrementStock(anyLong(), anyInt())).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(bookRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBook, secondBook));
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
 
         // When
         orderService.createOrderFromCart(1L, createOrderRequest);
 
         // Then
-        verify(bookRepository).saveAll(argThat(books -> {
-            List<Book> bookList = (List<Book>) books;
-            return bookList.size() == 2 &&
-                   bookList.get(0).getStockQuantity() == 8 && // 10 - 2
-                   bookList.get(1).getStockQuantity() == 4;   // 5 - 1
-        }));
+        InOrder inOrder = inOrder(bookRepository);
+        inOrder.verify(bookRepository).decrementStock(1L, 2);
+        inOrder.verify(bookRepository).decrementStock(2L, 1);
     }
 
     @Test
-    void createOrderFromCart_WithZeroStockAfterOrder_ShouldSetToZero() {
-        // Given
-        testBook.setStockQuantity(2);
-        testCartItem.setQuantity(3); // More than available
-        
+    void createOrderFromCart_WhenConcurrentPurchaseDrainsStock_ShouldFailWithoutCreatingOrder() {
+        // Given - 事前チェック時点では在庫があるが、条件付きUPDATEの時点で他の購入に取られている
         when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(bookRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBook));
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        when(bookRepository.decrementStock(1L, 2)).thenReturn(0);
 
-        // When
-        orderService.createOrderFromCart(1L, createOrderRequest);
+        // When & Then
+        assertThatThrownBy(() -> orderService.createOrderFromCart(1L, createOrderRequest))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("在庫が不足しています");
 
-        // Then
-        // Should not reduce stock below zero
-        assertThat(testBook.getStockQuantity()).isZero();
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 }
\ No newline at end of file
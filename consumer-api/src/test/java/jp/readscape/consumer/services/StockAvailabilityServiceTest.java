@@ -0,0 +1,116 @@
+package jp.readscape.consumer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.domain.books.repository.BookRepository;
+import jp.readscape.consumer.domain.cart.repository.CartRepository;
+import jp.readscape.consumer.exceptions.InsufficientStockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockAvailabilityService Test")
+class StockAvailabilityServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockAvailabilityService stockAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stockAvailabilityService = new StockAvailabilityService(bookRepository, cartRepository, meterRegistry,
+                Duration.ofSeconds(30), Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("全件読み込み後 - スナップショット上の在庫が要求数量に満たない場合のみ拒否")
+    void rejectsOnlyWhenSnapshotStockIsBelowRequest() {
+        when(bookRepository.findAllStockLevels()).thenReturn(Arrays.asList(
+                new Object[]{1L, 0, 0},
+                new Object[]{2L, 5, 0},
+                new Object[]{3L, 0, 4}));   // ストライプ有効
+        stockAvailabilityService.refresh();
+
+        assertThat(stockAvailabilityService.isClearlyUnavailable(1L, 1)).isTrue();
+        assertThat(stockAvailabilityService.isClearlyUnavailable(2L, 5)).isFalse();
+        assertThat(stockAvailabilityService.isClearlyUnavailable(2L, 6)).isTrue();
+        assertThat(stockAvailabilityService.isClearlyUnavailable(3L, 1)).isFalse();
+        assertThat(stockAvailabilityService.isClearlyUnavailable(99L, 1)).isFalse();
+
+        assertThatThrownBy(() -> stockAvailabilityService.precheck(1L, 1))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(meterRegistry.counter("readscape.stock.snapshot.rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("読み込み前 - スナップショットがない場合は判定しない")
+    void doesNotRejectBeforeFirstLoad() {
+        assertThat(stockAvailabilityService.isClearlyUnavailable(1L, 1)).isFalse();
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("差分読み込み - 前回の読み込みから遡って更新分のみ反映")
+    void refreshAppliesDeltaWithOverlap() {
+        when(bookRepository.findAllStockLevels()).thenReturn(Collections.singletonList(new Object[]{1L, 0, 0}));
+        stockAvailabilityService.refresh();
+        LocalDateTime beforeDelta = LocalDateTime.now();
+
+        when(bookRepository.findStockLevelsUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 10, 0}));
+        stockAvailabilityService.refresh();
+
+        verify(bookRepository).findStockLevelsUpdatedSince(argThat(since -> since.isBefore(beforeDelta.minusSeconds(29))));
+        assertThat(stockAvailabilityService.isClearlyUnavailable(1L, 3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("注文確定前チェック - 空のカートと在庫切れの商品を拒否")
+    void precheckCheckoutRejectsEmptyCartAndSoldOutItems() {
+        when(bookRepository.findAllStockLevels()).thenReturn(Collections.singletonList(new Object[]{1L, 1, 0}));
+        stockAvailabilityService.refresh();
+
+        when(cartRepository.findItemQuantitiesByUserId(10L)).thenReturn(List.of());
+        assertThatThrownBy(() -> stockAvailabilityService.precheckCheckout(10L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("カートが空です");
+
+        when(cartRepository.findItemQuantitiesByUserId(11L))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 2}));
+        assertThatThrownBy(() -> stockAvailabilityService.precheckCheckout(11L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("書籍ID: 1");
+
+        when(cartRepository.findItemQuantitiesByUserId(12L))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 1}));
+        assertThatCode(() -> stockAvailabilityService.precheckCheckout(12L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("読み込み失敗 - 例外を外に出さず、判定しない状態を保つ")
+    void failedLoadKeepsSnapshotUnjudged() {
+        when(bookRepository.findAllStockLevels()).thenThrow(new RuntimeException("connection refused"));
+
+        assertThatCode(() -> stockAvailabilityService.refresh()).doesNotThrowAnyException();
+        assertThat(stockAvailabilityService.isClearlyUnavailable(1L, 1)).isFalse();
+    }
+}
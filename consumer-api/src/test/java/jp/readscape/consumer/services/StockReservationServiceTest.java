@@ -0,0 +1,248 @@
+package jp.readscape.consumer.services;
+
+import jp.readscape.consumer.domain.books.model.Book;
+import jp.readscape.consumer.domain.books.repository.BookRepository;
+import jp.readscape.consumer.domain.reservations.model.StockReservation;
+import jp.readscape.consumer.domain.reservations.repository.StockReservationRepository;
+import jp.readscape.consumer.exceptions.InsufficientStockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockReservationService Test")
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private StripedStockService stripedStockService;
+
+    private StockReservationService stockReservationService;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationService(reservationRepository, bookRepository,
+                stripedStockService, Duration.ofMinutes(15));
+
+        book = Book.builder()
+                .id(1L)
+                .title("Test Book")
+                .author("Test Author")
+                .price(1500)
+                .stockQuantity(10)
+                .build();
+    }
+
+    @Test
+    @DisplayName("仮押さえ - 他ユーザーの仮押さえを除いた在庫内なら確保できる")
+    void holdWithinAvailableStock() {
+        when(reservationRepository.sumActiveQuantityByBookIdExcludingUser(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(6L);
+        when(reservationRepository.findByUserIdAndBookId(1L, 1L)).thenReturn(Optional.empty());
+        when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StockReservation reservation = stockReservationService.hold(1L, book, 4);
+
+        assertThat(reservation.getQuantity()).isEqualTo(4);
+        assertThat(reservation.getBookId()).isEqualTo(1L);
+        assertThat(reservation.getExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(14));
+    }
+
+    @Test
+    @DisplayName("仮押さえ - 他ユーザーの仮押さえで購入可能数が不足する場合は例外")
+    void holdExceedingAvailableStock() {
+        when(reservationRepository.sumActiveQuantityByBookIdExcludingUser(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(8L);
+
+        assertThatThrownBy(() -> stockReservationService.hold(1L, book, 3))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("購入可能数: 2");
+
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("仮押さえ - 既存の仮押さえは数量を上書きして期限を延長")
+    void holdUpdatesExistingReservation() {
+        StockReservation existing = StockReservation.builder()
+                .id(5L)
+                .userId(1L)
+                .bookId(1L)
+                .quantity(1)
+                .expiresAt(LocalDateTime.now().plusMinutes(1))
+                .build();
+        when(reservationRepository.sumActiveQuantityByBookIdExcludingUser(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(0L);
+        when(reservationRepository.findByUserIdAndBookId(1L, 1L)).thenReturn(Optional.of(existing));
+        when(reservationRepository.save(existing)).thenReturn(existing);
+
+        stockReservationService.hold(1L, book, 3);
+
+        assertThat(existing.getQuantity()).isEqualTo(3);
+        assertThat(existing.getExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(14));
+    }
+
+    @Test
+    @DisplayName("仮押さえ - 同じ書籍への同時の仮押さえは書籍行のロックで直列化し、在庫を超えて確保しない")
+    void concurrentHoldsDoNotOverReserve() throws Exception {
+        // 書籍行のロックはトランザクション終了（仮押さえの保存）まで保持される
+        Semaphore bookRowLock = new Semaphore(1);
+        ConcurrentMap<Long, Integer> heldByUser = new ConcurrentHashMap<>();
+        when(bookRepository.lockStockQuantity(1L)).thenAnswer(invocation -> {
+            bookRowLock.acquire();
+            return Optional.of(10);
+        });
+        when(reservationRepository.sumActiveQuantityByBookIdExcludingUser(eq(1L), anyLong(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    Long userId = invocation.getArgument(1);
+                    return heldByUser.entrySet().stream()
+                            .filter(entry -> !entry.getKey().equals(userId))
+                            .mapToLong(entry -> entry.getValue())
+                            .sum();
+                });
+        when(reservationRepository.findByUserIdAndBookId(anyLong(), eq(1L))).thenReturn(Optional.empty());
+        when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> {
+            StockReservation reservation = invocation.getArgument(0);
+            heldByUser.put(reservation.getUserId(), reservation.getQuantity());
+            bookRowLock.release();
+            return reservation;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        int succeeded = 0;
+        try {
+            List<Future<StockReservation>> holds = List.of(
+                    executor.submit(() -> {
+                        start.await();
+                        return stockReservationService.hold(1L, book, 6);
+                    }),
+                    executor.submit(() -> {
+                        start.await();
+                        return stockReservationService.hold(2L, book, 6);
+                    }));
+            start.countDown();
+
+            for (Future<StockReservation> hold : holds) {
+                try {
+                    hold.get(5, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(InsufficientStockException.class);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(heldByUser.values().stream().mapToInt(Integer::intValue).sum()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("仮押さえ - ストライプ有効な書籍は書籍行をロックせず、ストライプ合計で判定する")
+    void holdStripedBookAgainstStripeSum() {
+        Book striped = Book.builder()
+                .id(2L)
+                .title("Hot Book")
+                .author("Test Author")
+                .price(1500)
+                .stockQuantity(100)  // ストライプ有効化前の値のまま
+                .stockStripeCount(4)
+                .build();
+        when(stripedStockService.getStripedStockQuantities(List.of(striped))).thenReturn(Map.of(2L, 5));
+        when(reservationRepository.sumActiveQuantityByBookIdExcludingUser(eq(2L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(3L);
+
+        assertThatThrownBy(() -> stockReservationService.hold(1L, striped, 3))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("購入可能数: 2");
+
+        verify(bookRepository, never()).lockStockQuantity(anyLong());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("在庫ロック - 書籍行を書籍ID昇順でロックして在庫数を返す")
+    void lockStockQuantitiesInAscendingOrder() {
+        when(bookRepository.lockStockQuantity(anyLong())).thenAnswer(invocation -> Optional.of(
+                ((Long) invocation.getArgument(0)).intValue() * 10));
+
+        Map<Long, Integer> onHand = stockReservationService.lockStockQuantities(Arrays.asList(
+                Book.builder().id(3L).build(), Book.builder().id(1L).build(), Book.builder().id(2L).build()));
+
+        assertThat(onHand).containsEntry(1L, 10).containsEntry(2L, 20).containsEntry(3L, 30);
+        InOrder inOrder = inOrder(bookRepository);
+        inOrder.verify(bookRepository).lockStockQuantity(1L);
+        inOrder.verify(bookRepository).lockStockQuantity(2L);
+        inOrder.verify(bookRepository).lockStockQuantity(3L);
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("購入可能数 - 在庫数から仮押さえ合計を差し引く")
+    void getAvailableQuantity() {
+        when(reservationRepository.sumActiveQuantityByBookId(eq(1L), any(LocalDateTime.class))).thenReturn(7L);
+
+        assertThat(stockReservationService.getAvailableQuantity(book)).isEqualTo(3);
+
+        when(reservationRepository.sumActiveQuantityByBookId(eq(1L), any(LocalDateTime.class))).thenReturn(12L);
+
+        assertThat(stockReservationService.getAvailableQuantity(book)).isZero();
+    }
+
+    @Test
+    @DisplayName("他ユーザーの仮押さえ数量 - 書籍ID別に集計")
+    void getReservedQuantitiesByOthers() {
+        List<Object[]> rows = Arrays.asList(new Object[]{1L, 3L}, new Object[]{2L, 5L});
+        when(reservationRepository.sumActiveQuantitiesByBookIdsExcludingUser(anyCollection(), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(rows);
+
+        Map<Long, Integer> reserved = stockReservationService.getReservedQuantitiesByOthers(1L, Arrays.asList(1L, 2L));
+
+        assertThat(reserved).containsEntry(1L, 3).containsEntry(2L, 5);
+        assertThat(stockReservationService.getReservedQuantitiesByOthers(1L, Collections.emptyList())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("期限切れ仮押さえの回収")
+    void purgeExpiredReservations() {
+        when(reservationRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(2);
+
+        stockReservationService.purgeExpiredReservations();
+
+        verify(reservationRepository).deleteExpired(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,120 @@
+package jp.readscape.consumer.services;
+
+import jp.readscape.consumer.domain.books.model.Book;
+import jp.readscape.consumer.domain.books.model.BookStockStripe;
+import jp.readscape.consumer.domain.books.repository.BookStockStripeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StripedStockService Test")
+class StripedStockServiceTest {
+
+    @Mock
+    private BookStockStripeRepository stripeRepository;
+
+    @InjectMocks
+    private StripedStockService stripedStockService;
+
+    private Book hotBook;
+
+    @BeforeEach
+    void setUp() {
+        hotBook = Book.builder()
+                .id(1L)
+                .title("Hot Book")
+                .author("Test Author")
+                .price(1500)
+                .stockStripeCount(4)
+                .build();
+    }
+
+    @Test
+    @DisplayName("ストライプ減算 - 選んだストライプで足りれば1回のUPDATEで完了")
+    void decrementFromSingleStripe() {
+        when(stripeRepository.decrementStripe(eq(1L), anyInt(), eq(2))).thenReturn(1);
+
+        assertThat(stripedStockService.tryDecrement(hotBook, 2)).isTrue();
+
+        verify(stripeRepository, times(1)).decrementStripe(eq(1L), anyInt(), eq(2));
+        verify(stripeRepository, never()).findByBookIdForUpdate(anyLong());
+    }
+
+    @Test
+    @DisplayName("ストライプ減算 - 空のストライプは他のストライプにフォールバック")
+    void fallbackToOtherStripes() {
+        when(stripeRepository.decrementStripe(eq(1L), anyInt(), eq(2)))
+                .thenReturn(0)
+                .thenReturn(0)
+                .thenReturn(1);
+
+        assertThat(stripedStockService.tryDecrement(hotBook, 2)).isTrue();
+
+        verify(stripeRepository, times(3)).decrementStripe(eq(1L), anyInt(), eq(2));
+        verify(stripeRepository, never()).findByBookIdForUpdate(anyLong());
+    }
+
+    @Test
+    @DisplayName("ストライプ減算 - 単独で足りない場合は全ストライプから振り分ける")
+    void drainAcrossStripesWhenNoSingleStripeSuffices() {
+        List<BookStockStripe> stripes = new ArrayList<>(Arrays.asList(
+                stripe(0, 1), stripe(1, 2), stripe(2, 0), stripe(3, 2)));
+        when(stripeRepository.decrementStripe(eq(1L), anyInt(), eq(4))).thenReturn(0);
+        when(stripeRepository.findByBookIdForUpdate(1L)).thenReturn(stripes);
+
+        assertThat(stripedStockService.tryDecrement(hotBook, 4)).isTrue();
+
+        verify(stripeRepository, times(4)).decrementStripe(eq(1L), anyInt(), eq(4));
+        verify(stripeRepository).saveAll(stripes);
+        assertThat(stripes).extracting(BookStockStripe::getQuantity).containsOnly(0, 1);
+        assertThat(stripes.stream().mapToInt(BookStockStripe::getQuantity).sum()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ストライプ減算 - 合計でも足りない場合は失敗")
+    void failWhenTotalIsInsufficient() {
+        when(stripeRepository.decrementStripe(eq(1L), anyInt(), eq(5))).thenReturn(0);
+        when(stripeRepository.findByBookIdForUpdate(1L))
+                .thenReturn(new ArrayList<>(Arrays.asList(stripe(0, 1), stripe(1, 1), stripe(2, 1), stripe(3, 1))));
+
+        assertThat(stripedStockService.tryDecrement(hotBook, 5)).isFalse();
+
+        verify(stripeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("ストライプ在庫合計 - ストライプ有効な書籍のみ集計")
+    void getStripedStockQuantities() {
+        Book normalBook = Book.builder().id(2L).title("Normal").author("Author").price(1000).stockQuantity(5).build();
+        List<Object[]> rows = Collections.singletonList(new Object[]{1L, 40L});
+        when(stripeRepository.sumQuantitiesByBookIds(List.of(1L))).thenReturn(rows);
+
+        Map<Long, Integer> quantities = stripedStockService.getStripedStockQuantities(List.of(hotBook, normalBook));
+
+        assertThat(quantities).containsExactly(Map.entry(1L, 40));
+        assertThat(stripedStockService.getStripedStockQuantities(List.of(normalBook))).isEmpty();
+    }
+
+    private BookStockStripe stripe(int stripeNo, int quantity) {
+        return BookStockStripe.builder()
+                .bookId(1L)
+                .stripeNo(stripeNo)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package jp.readscape.consumer.services.checkout;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.dto.orders.CreateOrderRequest;
+import jp.readscape.consumer.dto.orders.CreateOrderResponse;
+import jp.readscape.consumer.dto.orders.OrderTicket;
+import jp.readscape.consumer.exceptions.CheckoutQueueFullException;
+import jp.readscape.consumer.exceptions.InsufficientStockException;
+import jp.readscape.consumer.services.OrderService;
+import jp.readscape.consumer.services.StockAvailabilityService;
+import jp.readscape.consumer.services.idempotency.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CheckoutQueueService Test")
+class CheckoutQueueServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private StockAvailabilityService stockAvailabilityService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CreateOrderRequest request = CreateOrderRequest.builder()
+            .paymentMethod("credit_card")
+            .shippingAddress("東京都渋谷区1-2-3")
+            .build();
+
+    private CheckoutQueueService checkoutQueueService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (checkoutQueueService != null) {
+            checkoutQueueService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("注文受付 - ワーカーが注文を作成してチケットを完了にする")
+    void submitCompletesTicket() throws Exception {
+        checkoutQueueService = newService(2, 10);
+        when(orderService.createOrderFromCart(USER_ID, request)).thenReturn(CreateOrderResponse.builder()
+                .orderId(100L)
+                .orderNumber("ORD-20261018-0A3FZ-K9M2Q")
+                .status("PENDING")
+                .build());
+
+        OrderTicket accepted = checkoutQueueService.submit(USER_ID, request, null);
+        assertThat(accepted.getStatus()).isEqualTo(OrderTicket.Status.QUEUED);
+
+        OrderTicket completed = awaitTerminal(accepted.getTicketId());
+        assertThat(completed.getStatus()).isEqualTo(OrderTicket.Status.COMPLETED);
+        assertThat(completed.getOrder().getOrderId()).isEqualTo(100L);
+        assertThat(meterRegistry.counter("readscape.checkout.accepted").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("注文受付 - カートが空の場合はキューに積まずに拒否")
+    void submitRejectsEmptyCart() {
+        checkoutQueueService = newService(1, 10);
+        doThrow(new IllegalArgumentException("カートが空です")).when(stockAvailabilityService).precheckCheckout(USER_ID);
+
+        assertThatThrownBy(() -> checkoutQueueService.submit(USER_ID, request, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("カートが空です");
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("注文受付 - キューが満杯の場合は即座に拒否し、再試行までの秒数を返す")
+    void submitFailsFastWhenQueueIsFull() throws Exception {
+        checkoutQueueService = newService(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrderFromCart(eq(USER_ID), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return CreateOrderResponse.builder().orderId(1L).build();
+        });
+
+        checkoutQueueService.submit(USER_ID, request, null);   // ワーカーが処理中
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        checkoutQueueService.submit(USER_ID, request, null);   // キューで待機
+
+        assertThatThrownBy(() -> checkoutQueueService.submit(USER_ID, request, null))
+                .isInstanceOf(CheckoutQueueFullException.class)
+                .satisfies(e -> assertThat(((CheckoutQueueFullException) e).getRetryAfterSeconds()).isBetween(1L, 30L));
+        assertThat(meterRegistry.counter("readscape.checkout.rejected").count()).isEqualTo(1.0);
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("注文失敗 - 在庫不足は409相当の失敗としてチケットに記録")
+    void failedOrderIsRecordedOnTicket() throws Exception {
+        checkoutQueueService = newService(1, 10);
+        when(orderService.createOrderFromCart(USER_ID, request))
+                .thenThrow(new InsufficientStockException("在庫が不足しています"));
+
+        OrderTicket accepted = checkoutQueueService.submit(USER_ID, request, null);
+
+        OrderTicket failed = awaitTerminal(accepted.getTicketId());
+        assertThat(failed.getStatus()).isEqualTo(OrderTicket.Status.FAILED);
+        assertThat(failed.getErrorStatus()).isEqualTo(409);
+        assertThat(failed.getErrorMessage()).isEqualTo("在庫が不足しています");
+    }
+
+    @Test
+    @DisplayName("チケット取得 - 他のユーザーのチケットは参照できない")
+    void ticketIsVisibleOnlyToOwner() {
+        checkoutQueueService = newService(1, 10);
+
+        OrderTicket accepted = checkoutQueueService.submit(USER_ID, request, null);
+
+        assertThat(checkoutQueueService.getTicket(accepted.getTicketId(), 2L)).isEmpty();
+        assertThat(checkoutQueueService.subscribe(accepted.getTicketId(), 2L)).isEmpty();
+        assertThat(checkoutQueueService.getTicket(accepted.getTicketId(), USER_ID)).isPresent();
+    }
+
+    @Test
+    @DisplayName("非同期受付の判定 - Prefer: respond-async ヘッダー")
+    void asyncIsRequestedByPreferHeader() {
+        checkoutQueueService = newService(1, 10);
+
+        assertThat(checkoutQueueService.isAsyncRequested("respond-async, wait=5")).isTrue();
+        assertThat(checkoutQueueService.isAsyncRequested(null)).isFalse();
+        assertThat(checkoutQueueService.isAsyncRequested("return=minimal")).isFalse();
+    }
+
+    private CheckoutQueueService newService(int workers, int capacity) {
+        return new CheckoutQueueService(orderService, idempotencyService, stockAvailabilityService, meterRegistry,
+                capacity, workers, false, Duration.ofMinutes(15), Duration.ofSeconds(60), 1, 30);
+    }
+
+    private OrderTicket awaitTerminal(String ticketId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            OrderTicket ticket = checkoutQueueService.getTicket(ticketId, USER_ID).orElseThrow();
+            if (ticket.isTerminal()) {
+                return ticket;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("チケットが完了しませんでした: " + ticketId);
+    }
+}
@@ -0,0 +1,234 @@
+package jp.readscape.consumer.services.idempotency;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.readscape.consumer.dto.orders.CreateOrderRequest;
+import jp.readscape.consumer.dto.orders.CreateOrderResponse;
+import jp.readscape.consumer.exceptions.IdempotencyKeyReuseException;
+import jp.readscape.consumer.exceptions.IdempotentRequestInProgressException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Test")
+class IdempotencyServiceTest {
+
+    private static final String KEY = "7f1c2d9e-checkout";
+
+    @Mock
+    private DatabaseIdempotencyStore databaseStore;
+
+    @Mock
+    private RedisIdempotencyStore redisStore;
+
+    private ObjectMapper objectMapper;
+    private IdempotencyService idempotencyService;
+
+    private CreateOrderRequest request;
+    private CreateOrderResponse response;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        idempotencyService = new IdempotencyService(databaseStore, objectMapper,
+                Duration.ofHours(24), Duration.ofSeconds(60), Duration.ofMillis(200));
+
+        request = CreateOrderRequest.builder()
+                .shippingAddress("東京都千代田区千代田1-1")
+                .shippingPhone("090-0000-0000")
+                .paymentMethod("CREDIT_CARD")
+                .build();
+        response = CreateOrderResponse.builder()
+                .orderId(1L)
+                .orderNumber("ORD-20261018-0A3FZ-K9M2Q")
+                .status("PENDING")
+                .totalAmount(new BigDecimal("3000"))
+                .itemCount(2)
+                .orderDate(LocalDateTime.of(2026, 10, 18, 10, 30))
+                .build();
+    }
+
+    @Test
+    @DisplayName("初回リクエスト - 処理を実行してレスポンスを記録")
+    void executeFirstRequest() {
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class))).thenReturn(Optional.empty());
+
+        IdempotentResult<CreateOrderResponse> result = idempotencyService.execute(
+                1L, KEY, request, CreateOrderResponse.class, () -> response);
+
+        assertThat(result.isReplayed()).isFalse();
+        assertThat(result.getResponse()).isSameAs(response);
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(databaseStore).complete(eq(1L), eq(KEY), anyString(), body.capture(), eq(Duration.ofHours(24)));
+        assertThat(body.getValue()).contains("ORD-20261018-0A3FZ-K9M2Q");
+    }
+
+    @Test
+    @DisplayName("再送リクエスト - 保存済みレスポンスをリプレイし、処理は再実行しない")
+    void replayCompletedRequest() throws Exception {
+        String requestHash = captureRequestHash();
+        String storedBody = objectMapper.writeValueAsString(response);
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class)))
+                .thenReturn(Optional.of(IdempotencyEntry.completed(requestHash, storedBody)));
+
+        AtomicInteger executions = new AtomicInteger();
+        IdempotentResult<CreateOrderResponse> result = idempotencyService.execute(
+                1L, KEY, request, CreateOrderResponse.class, () -> {
+                    executions.incrementAndGet();
+                    return response;
+                });
+
+        assertThat(result.isReplayed()).isTrue();
+        assertThat(result.getResponse()).isEqualTo(response);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("異なる内容で同じキーを使用した場合は例外")
+    void rejectKeyReuseWithDifferentPayload() {
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class)))
+                .thenReturn(Optional.of(IdempotencyEntry.completed("another-request-hash", "{}")));
+
+        assertThatThrownBy(() -> idempotencyService.execute(
+                1L, KEY, request, CreateOrderResponse.class, () -> response))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+    }
+
+    @Test
+    @DisplayName("処理失敗時はキーを解放して例外を再送出")
+    void releaseKeyOnFailure() {
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class))).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> idempotencyService.execute(1L, KEY, request, CreateOrderResponse.class, () -> {
+            throw new IllegalStateException("在庫が不足しています");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(databaseStore).remove(1L, KEY);
+        verify(databaseStore, never()).complete(anyLong(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("他インスタンスで処理中のまま待機時間を超えた場合は例外")
+    void inProgressElsewhereTimesOut() {
+        String requestHash = captureRequestHash();
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class)))
+                .thenReturn(Optional.of(IdempotencyEntry.inProgress(requestHash)));
+
+        assertThatThrownBy(() -> idempotencyService.execute(
+                1L, KEY, request, CreateOrderResponse.class, () -> response))
+                .isInstanceOf(IdempotentRequestInProgressException.class);
+    }
+
+    @Test
+    @DisplayName("同時に届いた重複リクエストは先行リクエストの結果を共有する")
+    void concurrentDuplicatesJoinFirstExecution() throws Exception {
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class))).thenReturn(Optional.empty());
+
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotentResult<CreateOrderResponse>> first = executor.submit(() ->
+                    idempotencyService.execute(1L, KEY, request, CreateOrderResponse.class, () -> {
+                        executions.incrementAndGet();
+                        firstStarted.countDown();
+                        awaitQuietly(releaseFirst);
+                        return response;
+                    }));
+            assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<IdempotentResult<CreateOrderResponse>> duplicate = executor.submit(() ->
+                    idempotencyService.execute(1L, KEY, request, CreateOrderResponse.class, () -> {
+                        executions.incrementAndGet();
+                        return response;
+                    }));
+            Thread.sleep(100);
+            releaseFirst.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).isReplayed()).isFalse();
+            IdempotentResult<CreateOrderResponse> joined = duplicate.get(5, TimeUnit.SECONDS);
+            assertThat(joined.isReplayed()).isTrue();
+            assertThat(joined.getResponse().getOrderNumber()).isEqualTo("ORD-20261018-0A3FZ-K9M2Q");
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Redis障害時はデータベースにフォールバック")
+    void fallbackToDatabaseWhenRedisUnavailable() {
+        ReflectionTestUtils.setField(idempotencyService, "redisStore", redisStore);
+        when(redisStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class)))
+                .thenThrow(new QueryTimeoutException("Redis command timed out"));
+        doThrow(new QueryTimeoutException("Redis command timed out"))
+                .when(redisStore).complete(anyLong(), anyString(), anyString(), anyString(), any(Duration.class));
+        when(databaseStore.putIfAbsent(eq(1L), eq(KEY), anyString(), any(Duration.class))).thenReturn(Optional.empty());
+
+        IdempotentResult<CreateOrderResponse> result = idempotencyService.execute(
+                1L, KEY, request, CreateOrderResponse.class, () -> response);
+
+        assertThat(result.isReplayed()).isFalse();
+        verify(databaseStore).complete(eq(1L), eq(KEY), anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("不正なキーは拒否")
+    void rejectInvalidKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(
+                1L, " ", request, CreateOrderResponse.class, () -> response))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> idempotencyService.execute(
+                1L, "k".repeat(256), request, CreateOrderResponse.class, () -> response))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 初回実行時にストアへ渡されたリクエストハッシュを取得
+     */
+    private String captureRequestHash() {
+        DatabaseIdempotencyStore probeStore = mock(DatabaseIdempotencyStore.class);
+        when(probeStore.putIfAbsent(anyLong(), anyString(), anyString(), any(Duration.class))).thenReturn(Optional.empty());
+        new IdempotencyService(probeStore, objectMapper, Duration.ofHours(24), Duration.ofSeconds(60), Duration.ofMillis(200))
+                .execute(1L, KEY, request, CreateOrderResponse.class, () -> response);
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(probeStore).putIfAbsent(eq(1L), eq(KEY), hash.capture(), any(Duration.class));
+        return hash.getValue();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package jp.readscape.consumer.services.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.services.redis.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitService Test")
+class RateLimitServiceTest {
+
+    private static final long ANONYMOUS_LIMIT = 10;
+    private static final long AUTHENTICATED_LIMIT = 100;
+
+    @Mock
+    private RedisRateLimitStore redisStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = newService(1000);
+    }
+
+    @Test
+    @DisplayName("グループ判定 - 書籍の参照は検索、ログインと注文確定は重いグループ")
+    void resolvesEndpointGroups() {
+        // コンテキストパス /api 配下の実際のリクエストURI
+        assertThat(RateLimitGroup.resolve(request("GET", "/api/books/search"))).isEqualTo(RateLimitGroup.SEARCH);
+        assertThat(RateLimitGroup.resolve(request("GET", "/api/books"))).isEqualTo(RateLimitGroup.SEARCH);
+        assertThat(RateLimitGroup.resolve(request("POST", "/api/api/auth/login"))).isEqualTo(RateLimitGroup.AUTH);
+        assertThat(RateLimitGroup.resolve(request("POST", "/api/api/auth/refresh"))).isEqualTo(RateLimitGroup.AUTH);
+        assertThat(RateLimitGroup.resolve(request("POST", "/api/api/users/login"))).isEqualTo(RateLimitGroup.AUTH);
+        assertThat(RateLimitGroup.resolve(request("POST", "/api/api/users/register"))).isEqualTo(RateLimitGroup.AUTH);
+        assertThat(RateLimitGroup.resolve(request("POST", "/api/api/orders"))).isEqualTo(RateLimitGroup.CHECKOUT);
+        assertThat(RateLimitGroup.resolve(request("GET", "/api/api/orders"))).isEqualTo(RateLimitGroup.DEFAULT);
+        assertThat(RateLimitGroup.resolve(request("GET", "/api/bookshelf"))).isEqualTo(RateLimitGroup.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("グループ判定 - ハンドラーのマッピングパターンがあればそれで判定")
+    void resolvesEndpointGroupsFromHandlerPattern() {
+        MockHttpServletRequest bookDetail = request("GET", "/api/books/42");
+        bookDetail.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/books/{id}");
+        MockHttpServletRequest checkout = request("POST", "/api/api/orders");
+        checkout.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders");
+        MockHttpServletRequest ticket = request("POST", "/api/api/orders/tickets/abc");
+        ticket.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/tickets/{ticketId}");
+
+        assertThat(RateLimitGroup.resolve(bookDetail)).isEqualTo(RateLimitGroup.SEARCH);
+        assertThat(RateLimitGroup.resolve(checkout)).isEqualTo(RateLimitGroup.CHECKOUT);
+        assertThat(RateLimitGroup.resolve(ticket)).isEqualTo(RateLimitGroup.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("トークン消費 - 上限までは許可し、残量が減っていく")
+    void allowsUpToLimitAndReportsRemaining() {
+        RateLimitDecision first = rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.SEARCH);
+
+        assertThat(first.isAllowed()).isTrue();
+        assertThat(first.getLimit()).isEqualTo(ANONYMOUS_LIMIT);
+        assertThat(first.getRemaining()).isEqualTo(ANONYMOUS_LIMIT - 1);
+        assertThat(first.getResetSeconds()).isPositive();
+
+        for (int i = 1; i < ANONYMOUS_LIMIT; i++) {
+            assertThat(rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.SEARCH).isAllowed()).isTrue();
+        }
+        RateLimitDecision rejected = rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.SEARCH);
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getRemaining()).isZero();
+        assertThat(rejected.getRetryAfterSeconds()).isPositive();
+        assertThat(meterRegistry.counter("readscape.ratelimit.rejected", "group", "search").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("トークン消費 - 重いグループは1リクエストで複数トークンを消費する")
+    void expensiveGroupsConsumeMoreTokens() {
+        assertThat(rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.AUTH).getRemaining()).isEqualTo(5);
+        assertThat(rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.AUTH).isAllowed()).isTrue();
+
+        assertThat(rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.AUTH).isAllowed()).isFalse();
+        assertThat(rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.CHECKOUT).isAllowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("トークン消費 - 認証済みユーザーは別の上限、クライアントごとに独立")
+    void authenticatedClientsHaveTheirOwnLimit() {
+        RateLimitDecision decision = rateLimitService.tryConsume("u:1", true, RateLimitGroup.DEFAULT);
+
+        assertThat(decision.getLimit()).isEqualTo(AUTHENTICATED_LIMIT);
+        assertThat(rateLimitService.tryConsume("u:2", true, RateLimitGroup.DEFAULT).getRemaining())
+                .isEqualTo(AUTHENTICATED_LIMIT - 1);
+    }
+
+    @Test
+    @DisplayName("バケットの上限 - 上限を超えたクライアントは破棄され、件数が増え続けない")
+    void boundsTrackedClients() {
+        rateLimitService = newService(100);
+
+        for (int i = 0; i < 1000; i++) {
+            rateLimitService.tryConsume("ip:10.0." + (i / 256) + "." + (i % 256), false, RateLimitGroup.SEARCH);
+        }
+
+        assertThat(rateLimitService.trackedKeys()).isLessThanOrEqualTo(100);
+        assertThat(meterRegistry.counter("readscape.ratelimit.evicted", "reason", "size").count()).isEqualTo(900.0);
+    }
+
+    @Test
+    @DisplayName("共有バケット - 消費分をまとめて反映し、クラスタ全体で使い切ったクライアントを拒否")
+    void rejectsClientsExhaustedAcrossCluster() {
+        ReflectionTestUtils.setField(rateLimitService, "redisStore", redisStore);
+        when(redisStore.consume(eq("ip:192.0.2.1"), eq(3L), eq(ANONYMOUS_LIMIT), eq(3_600_000L), anyLong()))
+                .thenReturn(new RedisRateLimitStore.SharedBucketState(-2, 1_000));
+
+        for (int i = 0; i < 3; i++) {
+            rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.SEARCH);
+        }
+        rateLimitService.syncSharedBuckets();
+        rateLimitService.syncSharedBuckets();   // 未反映分がなければRedisに触れない
+
+        RateLimitDecision decision = rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.SEARCH);
+        assertThat(decision.isAllowed()).isFalse();
+        assertThat(decision.getRetryAfterSeconds()).isEqualTo(1);
+        verify(redisStore, times(1)).consume(anyString(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("共有バケット - Redis障害時はノード内のバケットだけで判定")
+    void fallsBackToLocalBucketsWhenRedisFails() {
+        ReflectionTestUtils.setField(rateLimitService, "redisStore", redisStore);
+        when(redisStore.consume(anyString(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.SEARCH);
+        assertThatCode(() -> rateLimitService.syncSharedBuckets()).doesNotThrowAnyException();
+
+        assertThat(rateLimitService.tryConsume("ip:192.0.2.1", false, RateLimitGroup.SEARCH).isAllowed()).isTrue();
+    }
+
+    private MockHttpServletRequest request(String method, String requestUri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, requestUri);
+        request.setContextPath("/api");
+        return request;
+    }
+
+    private RateLimitService newService(int maxTrackedKeys) {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(meterRegistry, 3, Duration.ofSeconds(30));
+        return new RateLimitService(circuitBreaker, meterRegistry, ANONYMOUS_LIMIT, AUTHENTICATED_LIMIT, 3600,
+                maxTrackedKeys, 1, 5, 10, 1);
+    }
+}
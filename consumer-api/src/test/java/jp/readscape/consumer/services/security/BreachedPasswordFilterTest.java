@@ -0,0 +1,104 @@
+package jp.readscape.consumer.services.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.tools.BreachedPasswordFilterBuilder;
+import jp.readscape.consumer.utils.MappedBloomFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BreachedPasswordFilter Test")
+class BreachedPasswordFilterTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("作成ツール - 一覧の全パスワードを含み、含まないパスワードの偽陽性は設定値程度")
+    void builtFilterContainsEveryListedPassword() throws IOException {
+        List<String> passwords = passwords("leaked-", 10_000);
+        Path list = write("passwords.txt", passwords);
+        Path output = directory.resolve("breached.bloom");
+
+        MappedBloomFilter built = BreachedPasswordFilterBuilder.build(list, output, 0.01);
+        MappedBloomFilter mapped = MappedBloomFilter.open(output);
+
+        assertThat(built.getEntryCount()).isEqualTo(10_000);
+        assertThat(mapped.getEntryCount()).isEqualTo(10_000);
+        assertThat(mapped.getHashCount()).isEqualTo(built.getHashCount());
+        assertThat(passwords).allMatch(mapped::mightContain);
+
+        long falsePositives = passwords("unseen-", 10_000).stream().filter(mapped::mightContain).count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    @DisplayName("読み込み - パス未設定の場合は判定しない")
+    void disabledWithoutPath() {
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(meterRegistry, "");
+        filter.load();
+
+        assertThat(filter.isLoaded()).isFalse();
+        assertThat(filter.mightContain("password")).isFalse();
+    }
+
+    @Test
+    @DisplayName("再読み込み - ファイルが置き換えられた場合のみ再マップ")
+    void remapsOnlyWhenFileIsReplaced() throws IOException {
+        Path output = directory.resolve("breached.bloom");
+        BreachedPasswordFilterBuilder.build(write("v1.txt", List.of("hunter2")), output, 0.001);
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(meterRegistry, output.toString());
+        filter.load();
+
+        assertThat(filter.mightContain("hunter2")).isTrue();
+        assertThat(filter.mightContain("letmein!")).isFalse();
+
+        filter.reloadIfChanged();
+        assertThat(meterRegistry.counter("readscape.password.breached.filter.reloads").count()).isEqualTo(1.0);
+
+        BreachedPasswordFilterBuilder.build(write("v2.txt", List.of("hunter2", "letmein!")), output, 0.001);
+        Files.setLastModifiedTime(output, FileTime.from(Instant.now().plusSeconds(5)));
+        filter.reloadIfChanged();
+
+        assertThat(filter.mightContain("letmein!")).isTrue();
+        assertThat(meterRegistry.counter("readscape.password.breached.filter.reloads").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("読み込み - 形式が不正なファイルは無視して現在のフィルターを使い続ける")
+    void keepsCurrentFilterWhenReplacementIsInvalid() throws IOException {
+        Path output = directory.resolve("breached.bloom");
+        BreachedPasswordFilterBuilder.build(write("v1.txt", List.of("hunter2")), output, 0.001);
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(meterRegistry, output.toString());
+        filter.load();
+
+        // 稼働中と同じく rename で置き換える（マップ中のファイルは上書きしない）
+        Path invalid = Files.write(directory.resolve("invalid.bloom"), new byte[64]);
+        Files.move(invalid, output, StandardCopyOption.REPLACE_EXISTING);
+        filter.reloadIfChanged();
+
+        assertThat(filter.mightContain("hunter2")).isTrue();
+    }
+
+    private List<String> passwords(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i).collect(Collectors.toList());
+    }
+
+    private Path write(String name, List<String> lines) throws IOException {
+        return Files.write(directory.resolve(name), lines);
+    }
+}
@@ -1,27 +1,50 @@
 package jp.readscape.consumer.services.security;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jp.readscape.consumer.constants.SecurityConstants;
+import jp.readscape.consumer.services.redis.RedisCircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.lang.reflect.Field;
-import java.time.LocalDateTime;
-import java.util.concurrent.ConcurrentMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class LoginAttemptServiceTest {
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RedisLoginAttemptStore redisStore;
+
+    private static final String TEST_IP = "203.0.113.10";
+    private static final int IP_MAX_ATTEMPTS = 10;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // ウィンドウの境界から1秒後に固定（テスト中にウィンドウが切り替わらないように）
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(
+            Duration.ofMinutes(SecurityConstants.LOGIN_ATTEMPT_RESET_MINUTES).toMillis() * 2_000_000L + 1_000));
+
     private LoginAttemptService loginAttemptService;
     private final String testIdentifier = "test@example.com";
 
     @BeforeEach
     void setUp() {
-        loginAttemptService = new LoginAttemptService();
+        loginAttemptService = newService(1000);
     }
 
     @Test
@@ -87,14 +110,27 @@ class LoginAttemptServiceTest {
         }
         assertThat(loginAttemptService.isBlocked(testIdentifier)).isTrue();
 
-        // Simulate time passing by manipulating the internal state
-        manipulateLastAttemptTime(testIdentifier, 
-            LocalDateTime.now().minusMinutes(SecurityConstants.LOGIN_LOCK_DURATION_MINUTES + 1));
+        // Simulate time passing
+        clock.advance(Duration.ofMinutes(SecurityConstants.LOGIN_LOCK_DURATION_MINUTES + 1));
 
         // When & Then
         assertThat(loginAttemptService.isBlocked(testIdentifier)).isFalse();
     }
 
+    @Test
+    void recordFailedLogin_WhenLimitReached_ShouldPublishLockedEventOnce() {
+        // When - exceed the limit
+        for (int i = 0; i < SecurityConstants.MAX_LOGIN_ATTEMPTS + 2; i++) {
+            loginAttemptService.recordFailedLogin(testIdentifier);
+        }
+
+        // Then
+        ArgumentCaptor<AccountStatusChangedEvent> captor = ArgumentCaptor.forClass(AccountStatusChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertThat(captor.getValue().getIdentifier()).isEqualTo(testIdentifier);
+        assertThat(captor.getValue().getReason()).isEqualTo(AccountStatusChangedEvent.Reason.LOCKED);
+    }
+
     @Test
     void getRemainingLockTime_WithNoAttempts_ShouldReturnZero() {
         // When & Then
@@ -264,9 +300,8 @@ class LoginAttemptServiceTest {
         loginAttemptService.recordFailedLogin(testIdentifier);
         assertThat(loginAttemptService.getAttempts(testIdentifier)).isEqualTo(2);
 
-        // Simulate time passing beyond reset time
-        manipulateFirstAttemptTime(testIdentifier, 
-            LocalDateTime.now().minusMinutes(SecurityConstants.LOGIN_ATTEMPT_RESET_MINUTES + 1));
+        // Simulate time passing beyond the sliding window (current and previous windows)
+        clock.advance(Duration.ofMinutes(SecurityConstants.LOGIN_ATTEMPT_RESET_MINUTES * 2));
 
         // When
         boolean blocked = loginAttemptService.isBlocked(testIdentifier);
@@ -290,57 +325,143 @@ class LoginAttemptServiceTest {
     }
 
     @Test
-    void recordFailedLogin_ShouldSetFirstAttemptTimeOnlyOnce() throws Exception {
+    void recordFailedLogin_AfterOneWindow_ShouldWeightPreviousWindow() {
+        // Given - 4 attempts in the current window
+        for (int i = 0; i < 4; i++) {
+            loginAttemptService.recordFailedLogin(testIdentifier);
+        }
+
+        // When - move to the middle of the next window
+        clock.advance(Duration.ofMinutes(SecurityConstants.LOGIN_ATTEMPT_RESET_MINUTES)
+                .plusMinutes(SecurityConstants.LOGIN_ATTEMPT_RESET_MINUTES / 2).minusSeconds(1));
+
+        // Then - the previous window is counted in proportion to the remaining overlap
+        assertThat(loginAttemptService.getAttempts(testIdentifier)).isBetween(1, 3);
+    }
+
+    @Test
+    void recordFailedLogin_WithManyIdentifiersFromSameIp_ShouldBlockIp() {
+        // When - credential stuffing: one attempt per identifier
+        for (int i = 0; i < IP_MAX_ATTEMPTS; i++) {
+            loginAttemptService.recordFailedLogin("victim" + i + "@example.com", TEST_IP);
+        }
+
+        // Then
+        assertThat(loginAttemptService.isBlocked("another@example.com", TEST_IP)).isTrue();
+        assertThat(loginAttemptService.isBlocked("another@example.com", "198.51.100.1")).isFalse();
+        assertThat(loginAttemptService.isBlocked("victim0@example.com")).isFalse();
+    }
+
+    @Test
+    void recordSuccessfulLogin_ShouldNotResetIpWindow() {
+        // Given
+        for (int i = 0; i < IP_MAX_ATTEMPTS; i++) {
+            loginAttemptService.recordFailedLogin("victim" + i + "@example.com", TEST_IP);
+        }
+
         // When
-        loginAttemptService.recordFailedLogin(testIdentifier);
-        LocalDateTime firstTime = getFirstAttemptTime(testIdentifier);
-        
-        // Add small delay and record another attempt
-        Thread.sleep(10);
-        loginAttemptService.recordFailedLogin(testIdentifier);
-        LocalDateTime secondTime = getFirstAttemptTime(testIdentifier);
+        loginAttemptService.recordSuccessfulLogin("victim0@example.com");
 
         // Then
-        assertThat(firstTime).isEqualTo(secondTime);
+        assertThat(loginAttemptService.isBlocked("victim0@example.com", TEST_IP)).isTrue();
     }
 
-    // Helper methods to manipulate internal state for testing
+    @Test
+    void localTier_ShouldStayBoundedAndReportEvictions() {
+        // Given
+        meterRegistry = new SimpleMeterRegistry();
+        loginAttemptService = newService(100);
 
-    private void manipulateLastAttemptTime(String identifier, LocalDateTime newTime) throws Exception {
-        ConcurrentMap<String, Object> attemptCache = getAttemptCache();
-        Object attemptInfo = attemptCache.get(identifier);
-        if (attemptInfo != null) {
-            Field lastAttemptField = attemptInfo.getClass().getDeclaredField("lastAttempt");
-            lastAttemptField.setAccessible(true);
-            lastAttemptField.set(attemptInfo, newTime);
+        // When
+        for (int i = 0; i < 1000; i++) {
+            loginAttemptService.recordFailedLogin("user" + i + "@example.com");
         }
+
+        // Then
+        assertThat(meterRegistry.get("readscape.login.attempts.tracked").tag("scope", "identifier").gauge().value())
+                .isEqualTo(100.0);
+        assertThat(meterRegistry.get("readscape.login.attempts.evicted")
+                .tag("scope", "identifier").tag("reason", "size").counter().count()).isEqualTo(900.0);
     }
 
-    private void manipulateFirstAttemptTime(String identifier, LocalDateTime newTime) throws Exception {
-        ConcurrentMap<String, Object> attemptCache = getAttemptCache();
-        Object attemptInfo = attemptCache.get(identifier);
-        if (attemptInfo != null) {
-            Field firstAttemptField = attemptInfo.getClass().getDeclaredField("firstAttempt");
-            firstAttemptField.setAccessible(true);
-            firstAttemptField.set(attemptInfo, newTime);
-        }
+    @Test
+    void sweepExpired_ShouldDropWindowsOutsideSlidingWindow() {
+        // Given
+        loginAttemptService.recordFailedLogin(testIdentifier, TEST_IP);
+
+        // When
+        clock.advance(Duration.ofMinutes(SecurityConstants.LOGIN_ATTEMPT_RESET_MINUTES * 3));
+        loginAttemptService.sweepExpired();
+
+        // Then
+        assertThat(meterRegistry.get("readscape.login.attempts.tracked").tag("scope", "identifier").gauge().value())
+                .isZero();
+        assertThat(meterRegistry.get("readscape.login.attempts.tracked").tag("scope", "ip").gauge().value())
+                .isZero();
     }
 
-    private LocalDateTime getFirstAttemptTime(String identifier) throws Exception {
-        ConcurrentMap<String, Object> attemptCache = getAttemptCache();
-        Object attemptInfo = attemptCache.get(identifier);
-        if (attemptInfo != null) {
-            Field firstAttemptField = attemptInfo.getClass().getDeclaredField("firstAttempt");
-            firstAttemptField.setAccessible(true);
-            return (LocalDateTime) firstAttemptField.get(attemptInfo);
-        }
-        return null;
+    @Test
+    void isBlocked_WithLockFromOtherNode_ShouldUseSharedTierAndCacheLock() {
+        // Given - another node has already locked the identifier
+        ReflectionTestUtils.setField(loginAttemptService, "redisStore", redisStore);
+        long lockedUntil = clock.millis() + Duration.ofMinutes(10).toMillis();
+        when(redisStore.get(eq("identifier"), anyString(), anyLong(), anyLong()))
+                .thenReturn(new AttemptWindow(SecurityConstants.MAX_LOGIN_ATTEMPTS, lockedUntil, false));
+
+        // When & Then - the second check is answered locally
+        assertThat(loginAttemptService.isBlocked(testIdentifier)).isTrue();
+        assertThat(loginAttemptService.isBlocked(testIdentifier)).isTrue();
+        verify(redisStore, times(1)).get(eq("identifier"), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void recordFailedLogin_WithSharedTierAlreadyLocked_ShouldNotPublishAgain() {
+        // Given
+        ReflectionTestUtils.setField(loginAttemptService, "redisStore", redisStore);
+        long lockedUntil = clock.millis() + Duration.ofMinutes(10).toMillis();
+        when(redisStore.recordFailure(eq("identifier"), anyString(), anyLong(), anyLong(), anyInt(), anyLong()))
+                .thenReturn(new AttemptWindow(SecurityConstants.MAX_LOGIN_ATTEMPTS + 1, lockedUntil, false));
+
+        // When
+        loginAttemptService.recordFailedLogin(testIdentifier);
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+        assertThat(loginAttemptService.isBlocked(testIdentifier)).isTrue();
     }
 
-    @SuppressWarnings("unchecked")
-    private ConcurrentMap<String, Object> getAttemptCache() throws Exception {
-        Field cacheField = LoginAttemptService.class.getDeclaredField("attemptCache");
-        cacheField.setAccessible(true);
-        return (ConcurrentMap<String, Object>) cacheField.get(loginAttemptService);
+    private LoginAttemptService newService(int maxTrackedKeys) {
+        LoginAttemptService service = new LoginAttemptService(eventPublisher,
+                new RedisCircuitBreaker(meterRegistry, 3, Duration.ofSeconds(30)), meterRegistry,
+                maxTrackedKeys, IP_MAX_ATTEMPTS, Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(service, "clock", clock);
+        return service;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package jp.readscape.consumer.services.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.exceptions.PasswordHashingOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PasswordHashingExecutor Test")
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor hashingExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (hashingExecutor != null) {
+            hashingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("ハッシュ処理 - 専用スレッドで実行し、処理時間と待ち時間を記録")
+    void runsOnDedicatedThreads() {
+        hashingExecutor = newExecutor(2, 4, Duration.ofSeconds(5));
+
+        String threadName = hashingExecutor.encode(() -> Thread.currentThread().getName());
+        boolean matched = hashingExecutor.matches(() -> true);
+
+        assertThat(threadName).startsWith("password-hashing-");
+        assertThat(matched).isTrue();
+        assertThat(meterRegistry.timer("readscape.password.hash.duration", "operation", "encode").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("readscape.password.hash.duration", "operation", "matches").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("readscape.password.hash.queue.time").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("受付制御 - 待ち行列が満杯の場合は待たせずに拒否")
+    void shedsWhenQueueIsFull() throws Exception {
+        hashingExecutor = newExecutor(1, 1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hashingExecutor.encode(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hashingExecutor.encode(() -> "second"));
+        awaitQueueDepth(1);
+
+        assertThatThrownBy(() -> hashingExecutor.encode(() -> "third"))
+                .isInstanceOf(PasswordHashingOverloadedException.class)
+                .satisfies(e -> assertThat(((PasswordHashingOverloadedException) e).getRetryAfterSeconds()).isEqualTo(2));
+        assertThat(meterRegistry.counter("readscape.password.hash.rejected").count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    @DisplayName("受付制御 - 待ち時間の上限を超えた場合は拒否")
+    void shedsWhenWaitLimitIsExceeded() {
+        hashingExecutor = newExecutor(1, 4, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> hashingExecutor.matches(() -> {
+            await(release);
+            return true;
+        })).isInstanceOf(PasswordHashingOverloadedException.class);
+        assertThat(meterRegistry.counter("readscape.password.hash.rejected").count()).isEqualTo(1.0);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("ハッシュ処理 - 処理中の例外は呼び出し元にそのまま伝える")
+    void propagatesRuntimeExceptions() {
+        hashingExecutor = newExecutor(1, 4, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> hashingExecutor.encode(() -> {
+            throw new IllegalArgumentException("rawPassword cannot be null");
+        })).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("rawPassword cannot be null");
+    }
+
+    private PasswordHashingExecutor newExecutor(int threads, int queueCapacity, Duration maxWait) {
+        return new PasswordHashingExecutor(meterRegistry, threads, queueCapacity, maxWait, 2);
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("readscape.password.hash.queue.depth").gauge().value() < depth) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("待ち行列に積まれませんでした");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
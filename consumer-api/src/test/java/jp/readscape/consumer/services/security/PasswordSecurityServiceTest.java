@@ -0,0 +1,70 @@
+package jp.readscape.consumer.services.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PasswordSecurityService Test")
+class PasswordSecurityServiceTest {
+
+    @Mock
+    private BreachedPasswordFilter breachedPasswordFilter;
+
+    private PasswordHashingExecutor hashingExecutor;
+    private PasswordSecurityService passwordSecurityService;
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new PasswordHashingExecutor(new SimpleMeterRegistry(), 2, 16, Duration.ofSeconds(5), 2);
+        passwordSecurityService = new PasswordSecurityService(new BCryptPasswordEncoder(5), hashingExecutor,
+                breachedPasswordFilter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("暗号化と照合 - ハッシュ専用スレッド経由でも結果は変わらない")
+    void encodesAndMatches() {
+        String encoded = passwordSecurityService.encodePassword("Secret123!");
+
+        assertThat(passwordSecurityService.matches("Secret123!", encoded)).isTrue();
+        assertThat(passwordSecurityService.matches("wrong", encoded)).isFalse();
+    }
+
+    @Test
+    @DisplayName("再ハッシュ判定 - 現在のコスト係数より弱いハッシュのみ対象")
+    void needsRehashOnlyForWeakerCostFactor() {
+        String weaker = new BCryptPasswordEncoder(4).encode("Secret123!");
+        String current = passwordSecurityService.encodePassword("Secret123!");
+
+        assertThat(passwordSecurityService.needsRehash(weaker)).isTrue();
+        assertThat(passwordSecurityService.needsRehash(current)).isFalse();
+        assertThat(passwordSecurityService.needsRehash(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("よくあるパスワード - 代表的なパスワードに加えて漏洩パスワードのフィルターも参照")
+    void commonPasswordChecksBreachedFilter() {
+        when(breachedPasswordFilter.mightContain("Tr0ub4dor&3")).thenReturn(true);
+
+        assertThat(passwordSecurityService.isCommonPassword("Password")).isTrue();
+        assertThat(passwordSecurityService.isCommonPassword("Tr0ub4dor&3")).isTrue();
+        assertThat(passwordSecurityService.isCommonPassword("correct-horse-battery")).isFalse();
+        verify(breachedPasswordFilter, never()).mightContain("Password");
+    }
+}
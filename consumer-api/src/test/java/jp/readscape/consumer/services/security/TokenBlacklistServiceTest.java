@@ -0,0 +1,124 @@
+package jp.readscape.consumer.services.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.consumer.services.redis.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenBlacklistService Test")
+class TokenBlacklistServiceTest {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJyZWFkZXIifQ.signature";
+
+    @Mock
+    private ObjectProvider<RedisTemplate<String, String>> redisTemplateProvider;
+
+    @Mock
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        redisCircuitBreaker = new RedisCircuitBreaker(meterRegistry, 1, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("未失効のトークン - Bloomフィルターだけで判定しRedisに触れない")
+    void notRevokedTokenIsAnsweredWithoutIo() {
+        TokenBlacklistService service = newService(stringRedisTemplate);
+
+        assertThat(service.isBlacklisted(TOKEN)).isFalse();
+
+        verifyNoInteractions(stringRedisTemplate);
+        assertThat(meterRegistry.counter("readscape.blacklist.bloom.negative").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("失効 - ダイジェストをキーにRedisへ保存し、他ノードへ配信する")
+    void blacklistStoresDigestAndPublishes() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        TokenBlacklistService service = newService(stringRedisTemplate);
+
+        service.blacklistToken(TOKEN, LocalDateTime.now().plusHours(1));
+
+        ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(key.capture(), anyString(), any(Duration.class));
+        assertThat(key.getValue()).startsWith("blacklist:token:").hasSize("blacklist:token:".length() + 32);
+        assertThat(key.getValue()).doesNotContain(TOKEN);
+        verify(stringRedisTemplate).convertAndSend(eq(TokenBlacklistService.REVOCATION_CHANNEL), anyString());
+        assertThat(service.isBlacklisted(TOKEN)).isTrue();
+    }
+
+    @Test
+    @DisplayName("失効通知 - 他ノードで失効したトークンを反映")
+    void revocationMessageFromOtherNodeIsApplied() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        TokenBlacklistService publisher = newService(stringRedisTemplate);
+        TokenBlacklistService subscriber = newService(null);
+
+        publisher.blacklistToken(TOKEN, LocalDateTime.now().plusHours(1));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(TokenBlacklistService.REVOCATION_CHANNEL), message.capture());
+
+        assertThat(subscriber.isBlacklisted(TOKEN)).isFalse();
+        subscriber.applyRevocation(message.getValue());
+        assertThat(subscriber.isBlacklisted(TOKEN)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Redis障害 - サーキットが開いている間はRedisを呼ばずにローカルで動作")
+    void openCircuitSkipsRedis() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        TokenBlacklistService service = newService(stringRedisTemplate);
+
+        service.blacklistToken(TOKEN, LocalDateTime.now().plusHours(1));
+        service.blacklistToken(TOKEN + "2", LocalDateTime.now().plusHours(1));
+
+        assertThat(redisCircuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        verify(valueOperations, times(1)).set(anyString(), anyString(), any(Duration.class));
+        assertThat(service.isBlacklisted(TOKEN)).isTrue();
+        assertThat(service.isBlacklisted(TOKEN + "2")).isTrue();
+        assertThat(service.getStats().isRedisAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("有効期限切れ - 期限を過ぎたトークンは失効扱いにしない")
+    void expiredRevocationAgesOut() {
+        TokenBlacklistService service = newService(null);
+
+        service.blacklistToken(TOKEN, LocalDateTime.now().minusSeconds(1));
+
+        assertThat(service.isBlacklisted(TOKEN)).isFalse();
+        assertThat(service.getStats().getActiveTokens()).isZero();
+    }
+
+    private TokenBlacklistService newService(RedisTemplate<String, String> template) {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(template);
+        return new TokenBlacklistService(redisTemplateProvider, redisCircuitBreaker, meterRegistry,
+                Duration.ofHours(6), 1000, 0.001);
+    }
+}
@@ -0,0 +1,97 @@
+package jp.readscape.consumer.services.security;
+
+import jp.readscape.consumer.domain.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserStatusCache Test")
+class UserStatusCacheTest {
+
+    private static final String USERNAME = "reader";
+    private static final String EMAIL = "reader@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LoginAttemptService loginAttemptService;
+
+    private UserStatusCache userStatusCache;
+
+    @BeforeEach
+    void setUp() {
+        userStatusCache = new UserStatusCache(userRepository, loginAttemptService, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    @DisplayName("TTL内 - 2回目以降はusersテーブルを参照しない")
+    void cachedStatusDoesNotHitRepository() {
+        when(userRepository.findStatusByUsername(USERNAME)).thenReturn(statusRow(true));
+
+        assertThat(userStatusCache.isAllowed(USERNAME)).isTrue();
+        assertThat(userStatusCache.isAllowed(USERNAME)).isTrue();
+        assertThat(userStatusCache.isAllowed(USERNAME)).isTrue();
+
+        verify(userRepository, times(1)).findStatusByUsername(USERNAME);
+    }
+
+    @Test
+    @DisplayName("無効化されたユーザー・存在しないユーザーは拒否")
+    void inactiveOrMissingUserIsRejected() {
+        when(userRepository.findStatusByUsername(USERNAME)).thenReturn(statusRow(false));
+        when(userRepository.findStatusByUsername("ghost")).thenReturn(Collections.emptyList());
+
+        assertThat(userStatusCache.isAllowed(USERNAME)).isFalse();
+        assertThat(userStatusCache.isAllowed("ghost")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ロックイベント - メールアドレスでロックされた場合もキャッシュを破棄して再判定")
+    void lockedEventByEmailInvalidatesEntry() {
+        when(userRepository.findStatusByUsername(USERNAME)).thenReturn(statusRow(true));
+        assertThat(userStatusCache.isAllowed(USERNAME)).isTrue();
+
+        when(loginAttemptService.isBlocked(EMAIL)).thenReturn(true);
+        userStatusCache.onAccountStatusChanged(
+                new AccountStatusChangedEvent(EMAIL, AccountStatusChangedEvent.Reason.LOCKED));
+
+        assertThat(userStatusCache.size()).isZero();
+        assertThat(userStatusCache.isAllowed(USERNAME)).isFalse();
+        verify(userRepository, times(2)).findStatusByUsername(USERNAME);
+    }
+
+    @Test
+    @DisplayName("上限超過 - 最も長く参照されていないユーザーから破棄")
+    void evictsLeastRecentlyUsedEntry() {
+        userStatusCache = new UserStatusCache(userRepository, loginAttemptService, Duration.ofMinutes(1), 2);
+        when(userRepository.findStatusByUsername(anyString())).thenReturn(statusRow(true));
+
+        userStatusCache.isAllowed("a");
+        userStatusCache.isAllowed("b");
+        userStatusCache.isAllowed("a");
+        userStatusCache.isAllowed("c");
+        userStatusCache.isAllowed("a");
+
+        assertThat(userStatusCache.size()).isEqualTo(2);
+        verify(userRepository, times(1)).findStatusByUsername("a");
+    }
+
+    private List<Object[]> statusRow(boolean active) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{EMAIL, active});
+        return rows;
+    }
+}
@@ -0,0 +1,61 @@
+package jp.readscape.consumer.services.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("VerifiedTokenCache Test")
+class VerifiedTokenCacheTest {
+
+    @Test
+    @DisplayName("上限超過 - 最も長く参照されていないトークンから破棄")
+    void evictsLeastRecentlyUsedEntry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("token-a", verifiedUntil(Instant.now().plusSeconds(60)));
+        cache.put("token-b", verifiedUntil(Instant.now().plusSeconds(60)));
+        cache.get("token-a");
+
+        cache.put("token-c", verifiedUntil(Instant.now().plusSeconds(60)));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("token-a")).isNotNull();
+        assertThat(cache.get("token-b")).isNull();
+        assertThat(cache.get("token-c")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("有効期限切れ - キャッシュから返さずに削除")
+    void doesNotReturnExpiredEntry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-a", verifiedUntil(Instant.now().minusSeconds(1)));
+
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("無効化 - 指定したトークンのみ削除")
+    void invalidateRemovesEntry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-a", verifiedUntil(Instant.now().plusSeconds(60)));
+        cache.put("token-b", verifiedUntil(Instant.now().plusSeconds(60)));
+
+        cache.invalidate("token-a");
+
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.get("token-b")).isNotNull();
+    }
+
+    private VerifiedToken verifiedUntil(Instant expiresAt) {
+        return VerifiedToken.builder()
+                .subject("user@example.com")
+                .roles(List.of("CONSUMER"))
+                .type("access")
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package jp.readscape.consumer.services.security.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditEventPipeline Test")
+class AuditEventPipelineTest {
+
+    @Mock
+    private AuditLogWriter writer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("書き込み - バッチサイズごとにまとめて書き込み、件数をテーブル別に記録")
+    void writesInBatches() {
+        AuditEventPipeline pipeline = newPipeline(16, 4, AuditOverflowPolicy.DROP_NEWEST);
+        when(writer.write(anyList())).thenAnswer(invocation -> {
+            List<AuditEvent> batch = invocation.getArgument(0);
+            int logins = (int) batch.stream().filter(event -> event.getType().isLoginAttempt()).count();
+            return new AuditLogWriter.WriteResult(batch.size() - logins, logins);
+        });
+
+        for (int i = 0; i < 10; i++) {
+            pipeline.publish(event(i % 2 == 0 ? AuditEventType.FAILED_LOGIN : AuditEventType.TOKEN_EVENT, "user" + i));
+        }
+        pipeline.flush();
+
+        ArgumentCaptor<List<AuditEvent>> batches = batchCaptor();
+        verify(writer, times(3)).write(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(4, 4, 2);
+        assertThat(pipeline.pendingEvents()).isZero();
+        assertThat(meterRegistry.counter("readscape.audit.events.enqueued").count()).isEqualTo(10);
+        assertThat(meterRegistry.counter("readscape.audit.events.written", "table", "login_attempts").count()).isEqualTo(5);
+        assertThat(meterRegistry.counter("readscape.audit.events.written", "table", "audit_logs").count()).isEqualTo(5);
+        assertThat(meterRegistry.timer("readscape.audit.batch.write").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("満杯時 - DROP_NEWEST は新しいイベントを破棄")
+    void dropNewestKeepsBufferedEvents() {
+        AuditEventPipeline pipeline = newPipeline(4, 100, AuditOverflowPolicy.DROP_NEWEST);
+        when(writer.write(anyList())).thenReturn(new AuditLogWriter.WriteResult(4, 0));
+
+        for (int i = 0; i < 6; i++) {
+            pipeline.publish(event(AuditEventType.DATA_ACCESS, "user" + i));
+        }
+        pipeline.flush();
+
+        assertThat(writtenUsernames()).containsExactly("user0", "user1", "user2", "user3");
+        assertThat(meterRegistry.counter("readscape.audit.events.dropped", "policy", "DROP_NEWEST").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("満杯時 - DROP_OLDEST は古いイベントを破棄して新しいイベントを残す")
+    void dropOldestKeepsLatestEvents() {
+        AuditEventPipeline pipeline = newPipeline(4, 100, AuditOverflowPolicy.DROP_OLDEST);
+        when(writer.write(anyList())).thenReturn(new AuditLogWriter.WriteResult(4, 0));
+
+        for (int i = 0; i < 6; i++) {
+            pipeline.publish(event(AuditEventType.DATA_ACCESS, "user" + i));
+        }
+        pipeline.flush();
+
+        assertThat(writtenUsernames()).containsExactly("user2", "user3", "user4", "user5");
+        assertThat(meterRegistry.counter("readscape.audit.events.dropped", "policy", "DROP_OLDEST").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("満杯時 - LOG_ONLY はログ出力のみでDBには書かない")
+    void logOnlyDoesNotPersistOverflow() {
+        AuditEventPipeline pipeline = newPipeline(2, 100, AuditOverflowPolicy.LOG_ONLY);
+        when(writer.write(anyList())).thenReturn(new AuditLogWriter.WriteResult(2, 0));
+
+        for (int i = 0; i < 3; i++) {
+            pipeline.publish(event(AuditEventType.DATA_ACCESS, "user" + i));
+        }
+        pipeline.flush();
+
+        assertThat(writtenUsernames()).containsExactly("user0", "user1");
+        assertThat(meterRegistry.counter("readscape.audit.events.dropped", "policy", "LOG_ONLY").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("書き込み失敗 - バッチを破棄して件数を記録し、後続のイベントは書き込む")
+    void countsFailedBatches() {
+        AuditEventPipeline pipeline = newPipeline(16, 100, AuditOverflowPolicy.DROP_NEWEST);
+        when(writer.write(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(new AuditLogWriter.WriteResult(1, 0));
+
+        pipeline.publish(event(AuditEventType.DATA_ACCESS, "user0"));
+        pipeline.publish(event(AuditEventType.DATA_ACCESS, "user1"));
+        pipeline.flush();
+        pipeline.publish(event(AuditEventType.DATA_ACCESS, "user2"));
+        pipeline.flush();
+
+        assertThat(meterRegistry.counter("readscape.audit.events.failed").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("readscape.audit.events.written", "table", "audit_logs").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("並行書き込み - 複数スレッドから同時に積んでも取りこぼし・重複がない")
+    void concurrentPublishersLoseNothing() throws Exception {
+        int producers = 8;
+        int eventsPerProducer = 5_000;
+        AuditEventPipeline pipeline = newPipeline(producers * eventsPerProducer, 1_000, AuditOverflowPolicy.DROP_NEWEST);
+        List<String> written = new ArrayList<>();
+        when(writer.write(anyList())).thenAnswer(invocation -> {
+            List<AuditEvent> batch = invocation.getArgument(0);
+            batch.forEach(event -> written.add(event.getUsername()));
+            return new AuditLogWriter.WriteResult(batch.size(), 0);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        pipeline.publish(event(AuditEventType.DATA_ACCESS, producer + "-" + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        pipeline.flush();
+
+        Set<String> unique = new HashSet<>(written);
+        assertThat(written).hasSize(producers * eventsPerProducer);
+        assertThat(unique).hasSize(producers * eventsPerProducer);
+        assertThat(meterRegistry.counter("readscape.audit.events.dropped", "policy", "DROP_NEWEST").count()).isZero();
+    }
+
+    private AuditEventPipeline newPipeline(int capacity, int batchSize, AuditOverflowPolicy policy) {
+        return new AuditEventPipeline(writer, meterRegistry, capacity, batchSize, 200, policy, true);
+    }
+
+    private AuditEvent event(AuditEventType type, String username) {
+        return AuditEvent.builder()
+                .type(type)
+                .occurredAtMillis(System.currentTimeMillis())
+                .username(username)
+                .ipAddress("192.168.1.10")
+                .build();
+    }
+
+    private List<String> writtenUsernames() {
+        ArgumentCaptor<List<AuditEvent>> batches = batchCaptor();
+        verify(writer, atLeastOnce()).write(batches.capture());
+        return batches.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(AuditEvent::getUsername)
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<AuditEvent>> batchCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -2,8 +2,10 @@ package jp.readscape.inventory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class InventoryManagementApiApplication {
 
     public static void main(String[] args) {
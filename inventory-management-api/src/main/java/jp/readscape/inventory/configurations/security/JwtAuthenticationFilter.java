@@ -16,6 +16,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -40,13 +41,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String token = extractTokenFromRequest(request);
-            
-            if (token != null && jwtTokenProvider.validateToken(token)) {
+            Optional<VerifiedToken> verified = token != null ? jwtTokenProvider.verifyToken(token) : Optional.empty();
+
+            if (verified.isPresent()) {
                 // トークンタイプを確認（アクセストークンのみ有効）
-                String tokenType = jwtTokenProvider.getTokenType(token);
-                if ("access".equals(tokenType)) {
-                    String email = jwtTokenProvider.getEmailFromToken(token);
-                    List<String> roles = jwtTokenProvider.getRolesFromToken(token);
+                VerifiedToken claims = verified.get();
+                if (claims.isAccessToken()) {
+                    String email = claims.getEmail();
+                    List<String> roles = claims.getRoles();
 
                     if (email != null && roles != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                         // ロールを権限に変換
@@ -65,7 +67,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         log.debug("Successfully authenticated user: {} with roles: {}", email, roles);
                     }
                 } else {
-                    log.warn("Invalid token type: {}. Expected: access", tokenType);
+                    log.warn("Invalid token type: {}. Expected: access", claims.getType());
                 }
             } else if (token != null) {
                 log.warn("Invalid JWT token");
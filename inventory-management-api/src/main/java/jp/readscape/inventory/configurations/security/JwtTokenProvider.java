@@ -12,23 +12,33 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT トークンの生成・検証を行うプロバイダークラス
+ * 検証は verifyToken で一度だけ行い、検証済みクレームを有効期限まで上限付きでキャッシュする
  */
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
+    // 署名鍵・パーサーは生成時に一度だけ構築する（スレッドセーフ）
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final Duration accessTokenExpiration;
     private final Duration refreshTokenExpiration;
 
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-expiration:PT30M}") Duration accessTokenExpiration,
-            @Value("${jwt.refresh-token-expiration:P7D}") Duration refreshTokenExpiration) {
+            @Value("${jwt.refresh-token-expiration:P7D}") Duration refreshTokenExpiration,
+            @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.verifiedTokenCache = new VerifiedTokenCache(verifiedCacheSize);
         this.accessTokenExpiration = accessTokenExpiration;
         this.refreshTokenExpiration = refreshTokenExpiration;
     }
@@ -74,28 +84,37 @@ public class JwtTokenProvider {
     }
 
     /**
-     * トークンの有効性を検証する
+     * トークンを一度だけ解析・署名検証し、検証済みクレームを返す
+     * 検証済みキャッシュにあれば解析しない
      *
      * @param token JWT トークン
-     * @return 有効な場合 true
+     * @return 検証済みクレーム（無効な場合は空）
      */
-    public boolean validateToken(String token) {
+    public Optional<VerifiedToken> verifyToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException | MalformedJwtException e) {
+            return Optional.of(verify(token));
+        } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("JWT token is invalid: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    /**
+     * トークンの有効性を検証する
+     *
+     * @param token JWT トークン
+     * @return 有効な場合 true
+     */
+    public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
     }
 
     /**
@@ -105,13 +124,7 @@ public class JwtTokenProvider {
      * @return メールアドレス
      */
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getSubject();
+        return verify(token).getEmail();
     }
 
     /**
@@ -120,15 +133,8 @@ public class JwtTokenProvider {
      * @param token JWT トークン
      * @return ロール一覧
      */
-    @SuppressWarnings("unchecked")
     public List<String> getRolesFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("roles", List.class);
+        return verify(token).getRoles();
     }
 
     /**
@@ -138,13 +144,7 @@ public class JwtTokenProvider {
      * @return トークンタイプ (access/refresh)
      */
     public String getTokenType(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("type", String.class);
+        return verify(token).getType();
     }
 
     /**
@@ -154,13 +154,8 @@ public class JwtTokenProvider {
      * @return 有効期限
      */
     public Date getExpirationFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getExpiration();
+        Instant expiresAt = verify(token).getExpiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     /**
@@ -173,4 +168,32 @@ public class JwtTokenProvider {
         Date expiration = getExpirationFromToken(token);
         return expiration.before(new Date());
     }
-}
\ No newline at end of file
+
+    /**
+     * 検証済みキャッシュを参照し、なければ解析・署名検証してキャッシュする
+     * 無効なトークンの場合は jjwt の例外をそのまま送出する
+     */
+    private VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        VerifiedToken verified = toVerifiedToken(claims);
+        verifiedTokenCache.put(token, verified);
+        return verified;
+    }
+
+    @SuppressWarnings("unchecked")
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Object roles = claims.get("roles");
+        Date expiration = claims.getExpiration();
+        return VerifiedToken.builder()
+                .email(claims.getSubject())
+                .roles(roles instanceof List ? List.copyOf((List<String>) roles) : null)
+                .type(claims.get("type", String.class))
+                .expiresAt(expiration != null ? expiration.toInstant() : null)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package jp.readscape.inventory.configurations.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 署名検証済みのJWT
+ * 署名と有効期限の検証を通過したクレームを保持する
+ */
+@Value
+@Builder
+public class VerifiedToken {
+
+    String email;
+    List<String> roles;
+    String type;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public boolean isAccessToken() {
+        return "access".equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+}
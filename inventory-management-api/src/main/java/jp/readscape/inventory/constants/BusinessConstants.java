@@ -35,8 +35,6 @@ public final class BusinessConstants {
     
     // 統計計算関連定数
     public static final int ALERT_LEVEL_DIVISOR = 2;
-    public static final int EXPECTED_STATS_COUNT = 3;
-    public static final int AVERAGE_STOCK_INDEX = 2;
     
     // プライベートコンストラクタでインスタンス化を防ぐ
     private BusinessConstants() {
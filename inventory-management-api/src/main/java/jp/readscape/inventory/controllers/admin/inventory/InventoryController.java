@@ -9,19 +9,29 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jp.readscape.inventory.domain.books.model.Book;
 import jp.readscape.inventory.domain.users.model.User;
 import jp.readscape.inventory.dto.inventory.*;
 import jp.readscape.inventory.exceptions.BookNotFoundException;
 import jp.readscape.inventory.exceptions.InsufficientStockException;
+import jp.readscape.inventory.services.BulkStockAdjustmentService;
+import jp.readscape.inventory.services.InventoryExportService;
 import jp.readscape.inventory.services.InventoryService;
+import jp.readscape.inventory.services.StockStripingService;
+import jp.readscape.inventory.services.alerts.LowStockAlertBroadcaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -37,10 +47,14 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryExportService inventoryExportService;
+    private final BulkStockAdjustmentService bulkStockAdjustmentService;
+    private final LowStockAlertBroadcaster lowStockAlertBroadcaster;
+    private final StockStripingService stockStripingService;
 
     @Operation(
         summary = "在庫一覧取得",
-        description = "全書籍の在庫情報を取得します。"
+        description = "書籍の在庫情報を更新日時の新しい順にページングして取得します。キーワード・カテゴリ・ステータス・低在庫・更新日時で絞り込めます。"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "在庫一覧取得成功"),
@@ -48,13 +62,79 @@ public class InventoryController {
         @ApiResponse(responseCode = "403", description = "管理者権限が必要です")
     })
     @GetMapping
-    public ResponseEntity<List<InventoryItem>> getInventory() {
-        log.info("GET /api/admin/inventory");
+    public ResponseEntity<Page<InventoryItem>> getInventory(
+            @Parameter(description = "キーワード（タイトル・著者・ISBNの部分一致）", example = "Spring")
+            @RequestParam(required = false) String keyword,
 
-        List<InventoryItem> inventory = inventoryService.getInventory();
+            @Parameter(description = "カテゴリ", example = "プログラミング")
+            @RequestParam(required = false) String category,
+
+            @Parameter(description = "書籍ステータス", example = "ACTIVE")
+            @RequestParam(required = false) Book.BookStatus status,
+
+            @Parameter(description = "低在庫のみ", example = "false")
+            @RequestParam(defaultValue = "false") boolean lowStockOnly,
+
+            @Parameter(description = "この日時以降に更新された書籍のみ", example = "2024-01-20T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+
+            @Parameter(description = "ページ番号（0から開始）", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "ページサイズ（最大100）", example = "20")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        log.info("GET /api/admin/inventory - keyword: {}, category: {}, status: {}, lowStockOnly: {}, page: {}, size: {}",
+                 keyword, category, status, lowStockOnly, page, size);
+
+        InventoryFilter filter = buildFilter(keyword, category, status, lowStockOnly, updatedSince);
+        Page<InventoryItem> inventory = inventoryService.getInventory(filter, page, size);
         return ResponseEntity.ok(inventory);
     }
 
+    @Operation(
+        summary = "在庫エクスポート",
+        description = "倉庫システム連携用に在庫情報をNDJSONまたはCSVでストリーミング出力します。" +
+                      "更新日時の古い順に出力するため、最後の更新日時を次回の updatedSince に指定すると差分を取得できます。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "在庫エクスポート成功"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "403", description = "管理者権限が必要です")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInventory(
+            @Parameter(description = "出力形式", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") InventoryExportFormat format,
+
+            @Parameter(description = "キーワード（タイトル・著者・ISBNの部分一致）", example = "Spring")
+            @RequestParam(required = false) String keyword,
+
+            @Parameter(description = "カテゴリ", example = "プログラミング")
+            @RequestParam(required = false) String category,
+
+            @Parameter(description = "書籍ステータス", example = "ACTIVE")
+            @RequestParam(required = false) Book.BookStatus status,
+
+            @Parameter(description = "低在庫のみ", example = "false")
+            @RequestParam(defaultValue = "false") boolean lowStockOnly,
+
+            @Parameter(description = "この日時以降に更新された書籍のみ", example = "2024-01-20T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince
+    ) {
+        log.info("GET /api/admin/inventory/export - format: {}, updatedSince: {}", format, updatedSince);
+
+        InventoryFilter filter = buildFilter(keyword, category, status, lowStockOnly, updatedSince);
+        StreamingResponseBody body = output -> inventoryExportService.export(filter, format, output);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, format.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inventory." + format.getExtension() + "\"")
+                .body(body);
+    }
+
     @Operation(
         summary = "在庫更新",
         description = "指定された書籍の在庫を更新します。入荷、出荷、調整などの操作が可能です。"
@@ -125,7 +205,7 @@ public class InventoryController {
 
     @Operation(
         summary = "低在庫商品一覧取得",
-        description = "在庫が閾値以下の商品一覧を取得します。緊急度も含まれます。"
+        description = "在庫が閾値以下の商品一覧を在庫の少ない順に取得します。緊急度も含まれます。継続的な監視には低在庫アラートの購読を利用してください。"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "低在庫商品一覧取得成功"),
@@ -140,6 +220,25 @@ public class InventoryController {
         return ResponseEntity.ok(lowStockItems);
     }
 
+    @Operation(
+        summary = "低在庫アラート購読",
+        description = "在庫が閾値以下・在庫切れになった時点と、低在庫が解消した時点の通知をServer-Sent Eventsで受信します。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "購読開始"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "403", description = "管理者権限が必要です"),
+        @ApiResponse(responseCode = "503", description = "購読数が上限に達しています")
+    })
+    @GetMapping(value = "/low-stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeLowStockAlerts() {
+        log.info("GET /api/admin/inventory/low-stock/events");
+
+        return lowStockAlertBroadcaster.subscribe()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
     @Operation(
         summary = "在庫変動履歴取得",
         description = "在庫変動の履歴を取得します。書籍や期間での絞り込みが可能です。"
@@ -228,11 +327,12 @@ public class InventoryController {
 
     @Operation(
         summary = "一括在庫調整",
-        description = "複数の書籍の在庫を一括で調整します。"
+        description = "複数の書籍の在庫を一括で調整します。明細ごとの反映結果（反映・却下理由・調整前後の在庫数）を返します。"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "一括在庫調整成功"),
-        @ApiResponse(responseCode = "400", description = "バリデーションエラー",
+        @ApiResponse(responseCode = "200", description = "一括在庫調整成功",
+            content = @Content(schema = @Schema(implementation = BulkStockAdjustmentReport.class))),
+        @ApiResponse(responseCode = "400", description = "バリデーションエラー・明細数が上限超過",
             content = @Content(schema = @Schema(implementation = jp.readscape.inventory.dto.ApiResponse.class))),
         @ApiResponse(responseCode = "401", description = "認証が必要です"),
         @ApiResponse(responseCode = "403", description = "管理者権限が必要です")
@@ -246,9 +346,141 @@ public class InventoryController {
         log.info("POST /api/admin/inventory/bulk-update - {} items", requests.size());
 
         User user = (User) auth.getPrincipal();
-        inventoryService.bulkStockAdjustment(requests, user.getId());
-        
-        log.info("Bulk stock adjustment completed by user: {}", user.getUsername());
-        return ResponseEntity.ok(jp.readscape.inventory.dto.ApiResponse.success("一括在庫調整を完了しました"));
+        try {
+            BulkStockAdjustmentReport report = bulkStockAdjustmentService.adjust(requests, user.getId());
+            log.info("Bulk stock adjustment completed by user: {} ({} applied, {} rejected)",
+                    user.getUsername(), report.getApplied(), report.getRejected());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(jp.readscape.inventory.dto.ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "在庫ストライプ状態取得",
+        description = "指定された書籍の在庫ストライプ（ホットSKU向けの在庫分散）の状態を取得します。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ストライプ状態取得成功"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "403", description = "管理者権限が必要です"),
+        @ApiResponse(responseCode = "404", description = "書籍が見つかりません")
+    })
+    @GetMapping("/{bookId}/striping")
+    public ResponseEntity<?> getStripingStatus(
+            @Parameter(description = "書籍ID", example = "1", required = true)
+            @PathVariable Long bookId
+    ) {
+        log.info("GET /api/admin/inventory/{}/striping", bookId);
+
+        try {
+            return ResponseEntity.ok(stockStripingService.getStripingStatus(bookId));
+        } catch (BookNotFoundException e) {
+            log.warn("Book not found: {}", bookId);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Operation(
+        summary = "在庫ストライプ有効化",
+        description = "購入が集中する書籍の在庫を複数のストライプに分散します。有効な場合はストライプ数を変更します。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ストライプ設定成功"),
+        @ApiResponse(responseCode = "400", description = "バリデーションエラー",
+            content = @Content(schema = @Schema(implementation = jp.readscape.inventory.dto.ApiResponse.class))),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "403", description = "管理者権限が必要です"),
+        @ApiResponse(responseCode = "404", description = "書籍が見つかりません")
+    })
+    @PutMapping("/{bookId}/striping")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> configureStriping(
+            @Parameter(description = "書籍ID", example = "1", required = true)
+            @PathVariable Long bookId,
+            @Valid @RequestBody StockStripingRequest request
+    ) {
+        log.info("PUT /api/admin/inventory/{}/striping - stripeCount: {}", bookId, request.getStripeCount());
+
+        try {
+            return ResponseEntity.ok(stockStripingService.configureStriping(bookId, request.getStripeCount()));
+        } catch (BookNotFoundException e) {
+            log.warn("Book not found: {}", bookId);
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(jp.readscape.inventory.dto.ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "在庫ストライプ無効化",
+        description = "ストライプ在庫の合計を書籍の在庫に戻し、ストライプを削除します。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ストライプ無効化成功"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "403", description = "管理者権限が必要です"),
+        @ApiResponse(responseCode = "404", description = "書籍が見つかりません"),
+        @ApiResponse(responseCode = "409", description = "ストライプが有効ではありません")
+    })
+    @DeleteMapping("/{bookId}/striping")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> disableStriping(
+            @Parameter(description = "書籍ID", example = "1", required = true)
+            @PathVariable Long bookId
+    ) {
+        log.info("DELETE /api/admin/inventory/{}/striping", bookId);
+
+        try {
+            return ResponseEntity.ok(stockStripingService.disableStriping(bookId));
+        } catch (BookNotFoundException e) {
+            log.warn("Book not found: {}", bookId);
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409)
+                    .body(jp.readscape.inventory.dto.ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "在庫ストライプ再分配",
+        description = "ストライプ間で偏った在庫を均等に再分配します。"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "再分配成功"),
+        @ApiResponse(responseCode = "401", description = "認証が必要です"),
+        @ApiResponse(responseCode = "403", description = "管理者権限が必要です"),
+        @ApiResponse(responseCode = "404", description = "書籍が見つかりません"),
+        @ApiResponse(responseCode = "409", description = "ストライプが有効ではありません")
+    })
+    @PostMapping("/{bookId}/striping/rebalance")
+    public ResponseEntity<?> rebalanceStripes(
+            @Parameter(description = "書籍ID", example = "1", required = true)
+            @PathVariable Long bookId
+    ) {
+        log.info("POST /api/admin/inventory/{}/striping/rebalance", bookId);
+
+        try {
+            return ResponseEntity.ok(stockStripingService.rebalance(bookId));
+        } catch (BookNotFoundException e) {
+            log.warn("Book not found: {}", bookId);
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409)
+                    .body(jp.readscape.inventory.dto.ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private InventoryFilter buildFilter(String keyword, String category, Book.BookStatus status,
+                                        boolean lowStockOnly, LocalDateTime updatedSince) {
+        return InventoryFilter.builder()
+                .keyword(keyword)
+                .category(category)
+                .status(status)
+                .lowStockOnly(lowStockOnly)
+                .updatedSince(updatedSince)
+                .build();
     }
-}
\ No newline at end of file
+}
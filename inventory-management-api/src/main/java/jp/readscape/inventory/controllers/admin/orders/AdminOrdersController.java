@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jp.readscape.inventory.dto.admin.AdminOrderDetail;
 import jp.readscape.inventory.dto.admin.AdminOrderView;
+import jp.readscape.inventory.dto.admin.BulkCancelOrdersRequest;
 import jp.readscape.inventory.dto.admin.PendingOrder;
 import jp.readscape.inventory.dto.admin.UpdateOrderStatusRequest;
 import jp.readscape.inventory.services.AdminOrderService;
@@ -183,6 +184,30 @@ public class AdminOrdersController {
         );
     }
 
+    @Operation(
+        summary = "注文一括キャンセル",
+        description = "指定された注文をまとめてキャンセルし、在庫を復元します。1件でもキャンセルできない注文があれば全体を中止します"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "一括キャンセル成功"),
+        @ApiResponse(responseCode = "400", description = "キャンセルできない状態の注文を含む"),
+        @ApiResponse(responseCode = "404", description = "存在しない注文を含む"),
+        @ApiResponse(responseCode = "403", description = "権限エラー")
+    })
+    @PostMapping("/bulk-cancel")
+    public ResponseEntity<jp.readscape.inventory.dto.ApiResponse> cancelOrders(
+            @Valid @RequestBody BulkCancelOrdersRequest request
+    ) {
+        log.info("POST /admin/orders/bulk-cancel - orders: {}, reason: {}",
+                request.getOrderIds().size(), request.getReason());
+
+        int cancelled = adminOrderService.cancelOrders(request.getOrderIds(), request.getReason());
+
+        return ResponseEntity.ok(
+            jp.readscape.inventory.dto.ApiResponse.success(cancelled + "件の注文をキャンセルしました")
+        );
+    }
+
     @Operation(
         summary = "注文統計取得",
         description = "注文の統計情報を取得します"
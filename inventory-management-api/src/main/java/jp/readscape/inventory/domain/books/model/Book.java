@@ -36,6 +36,13 @@ public class Book {
     @Column(name = "stock_quantity")
     private Integer stockQuantity;
 
+    /**
+     * 在庫ストライプ数（0の場合はストライプ無効、有効時の stockQuantity はストライプ合計のスナップショット）
+     */
+    @Column(name = "stock_stripe_count", nullable = false)
+    @Builder.Default
+    private Integer stockStripeCount = 0;
+
     @Column(name = "low_stock_threshold", nullable = false)
     @Builder.Default
     private Integer lowStockThreshold = 10;
@@ -96,6 +103,13 @@ public class Book {
         return stockQuantity == null || stockQuantity <= 0;
     }
 
+    /**
+     * 在庫ストライプが有効かチェック
+     */
+    public boolean isStockStriped() {
+        return stockStripeCount != null && stockStripeCount > 0;
+    }
+
     /**
      * 在庫を増加
      */
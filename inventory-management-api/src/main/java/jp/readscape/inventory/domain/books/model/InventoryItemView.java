@@ -0,0 +1,28 @@
+package jp.readscape.inventory.domain.books.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 在庫一覧用の射影
+ * 一覧・エクスポートに必要な列だけを取得し、Book エンティティを生成しない
+ */
+public interface InventoryItemView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getIsbn();
+
+    String getCategory();
+
+    Integer getStockQuantity();
+
+    Integer getLowStockThreshold();
+
+    Book.BookStatus getStatus();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,15 @@
+package jp.readscape.inventory.domain.books.model;
+
+/**
+ * 販売中書籍の在庫集計の射影（在庫統計の照合用）
+ */
+public interface InventoryStockTotals {
+
+    Long getTotalBooks();
+
+    Long getTotalStock();
+
+    Long getLowStockCount();
+
+    Long getOutOfStockCount();
+}
@@ -1,25 +1,111 @@
 package jp.readscape.inventory.domain.books.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.model.InventoryItemView;
+import jp.readscape.inventory.domain.books.model.InventoryStockTotals;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    String INVENTORY_VIEW_SELECT =
+            "SELECT b.id AS id, b.title AS title, b.author AS author, b.isbn AS isbn, b.category AS category, " +
+            "b.stockQuantity AS stockQuantity, b.lowStockThreshold AS lowStockThreshold, b.status AS status, " +
+            "b.updatedAt AS updatedAt FROM Book b ";
+
+    // キーワードは呼び出し側で ILIKE のパターンに変換して渡す
+    String INVENTORY_FILTER =
+            "WHERE (:keyword IS NULL OR b.title ILIKE :keyword OR b.author ILIKE :keyword OR b.isbn ILIKE :keyword) " +
+            "AND (:category IS NULL OR b.category = :category) " +
+            "AND (:status IS NULL OR b.status = :status) " +
+            "AND (:lowStockOnly = FALSE OR b.stockQuantity <= b.lowStockThreshold) " +
+            "AND (:updatedSince IS NULL OR b.updatedAt >= :updatedSince) ";
+
     /**
      * ISBNで書籍を検索
      */
     Optional<Book> findByIsbn(String isbn);
 
+    /**
+     * 書籍を行ロックして取得
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 在庫ストライプ有効な書籍ID一覧
+     */
+    @Query("SELECT b.id FROM Book b WHERE b.stockStripeCount > 0 ORDER BY b.id")
+    List<Long> findStockStripedBookIds();
+
+    /**
+     * 書籍ID別の在庫数を取得（[書籍ID, 在庫数]の配列）
+     */
+    @Query("SELECT b.id, b.stockQuantity FROM Book b WHERE b.id IN :bookIds")
+    List<Object[]> findStockQuantitiesByIds(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * 販売中の書籍のタイトル・低在庫閾値を一括取得（[書籍ID, タイトル, 低在庫閾値]の配列、低在庫アラートの判定用）
+     */
+    @Query("SELECT b.id, b.title, b.lowStockThreshold FROM Book b WHERE b.id IN :bookIds AND b.status = 'ACTIVE'")
+    List<Object[]> findAlertTargetsByIds(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * 在庫をアトミックに加算（注文キャンセル時の在庫復元）
+     * 更新件数が0の場合はストライプ有効な書籍（StockStripingService で加算する）または存在しない書籍
+     */
+    @Modifying
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity + :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :bookId AND b.stockStripeCount = 0")
+    int incrementStock(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+
+    /**
+     * 在庫一覧（射影・ページング）
+     * 更新日時の新しい順（idx_books_updated_at_id を使用）
+     */
+    @Query(value = INVENTORY_VIEW_SELECT + INVENTORY_FILTER + "ORDER BY b.updatedAt DESC, b.id DESC",
+           countQuery = "SELECT COUNT(b) FROM Book b " + INVENTORY_FILTER)
+    Page<InventoryItemView> findInventory(@Param("keyword") String keyword,
+                                          @Param("category") String category,
+                                          @Param("status") Book.BookStatus status,
+                                          @Param("lowStockOnly") boolean lowStockOnly,
+                                          @Param("updatedSince") LocalDateTime updatedSince,
+                                          Pageable pageable);
+
+    /**
+     * 在庫一覧のストリーミング（エクスポート用）
+     * DBカーソルから fetch size 件ずつ読み出すため、トランザクション内で消費し、使用後に close すること
+     * 更新日時の古い順に返すため、最後に受け取った更新日時を次回の updatedSince に使える
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(INVENTORY_VIEW_SELECT + INVENTORY_FILTER + "ORDER BY b.updatedAt ASC, b.id ASC")
+    Stream<InventoryItemView> streamInventory(@Param("keyword") String keyword,
+                                              @Param("category") String category,
+                                              @Param("status") Book.BookStatus status,
+                                              @Param("lowStockOnly") boolean lowStockOnly,
+                                              @Param("updatedSince") LocalDateTime updatedSince);
+
     /**
      * タイトルで部分検索
      */
@@ -34,7 +120,8 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     /**
      * 低在庫商品検索
      */
-    @Query("SELECT b FROM Book b WHERE b.stockQuantity <= b.lowStockThreshold AND b.status = 'ACTIVE'")
+    @Query("SELECT b FROM Book b WHERE b.stockQuantity <= b.lowStockThreshold AND b.status = 'ACTIVE' " +
+           "ORDER BY b.stockQuantity ASC, b.id ASC")
     List<Book> findLowStockBooks();
 
     /**
@@ -79,10 +166,14 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     boolean existsByIsbn(String isbn);
 
     /**
-     * 在庫統計
+     * 在庫統計（販売中書籍の書籍数・在庫合計・低在庫数・在庫切れ数を1回の集計で取得）
      */
-    @Query("SELECT COUNT(b), SUM(b.stockQuantity), AVG(b.stockQuantity) FROM Book b WHERE b.status = 'ACTIVE'")
-    Object[] getStockStatistics();
+    @Query("SELECT COUNT(b) AS totalBooks, " +
+           "COALESCE(SUM(b.stockQuantity), 0) AS totalStock, " +
+           "COALESCE(SUM(CASE WHEN b.stockQuantity <= b.lowStockThreshold THEN 1 ELSE 0 END), 0) AS lowStockCount, " +
+           "COALESCE(SUM(CASE WHEN b.stockQuantity <= 0 THEN 1 ELSE 0 END), 0) AS outOfStockCount " +
+           "FROM Book b WHERE b.status = 'ACTIVE'")
+    InventoryStockTotals getStockTotals();
 
     /**
      * カテゴリ一覧
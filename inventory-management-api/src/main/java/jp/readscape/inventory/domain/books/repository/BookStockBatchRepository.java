@@ -0,0 +1,78 @@
+package jp.readscape.inventory.domain.books.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 書籍在庫の一括ロック・一括更新リポジトリ
+ * 一括在庫調整で対象の書籍行を1文でロックし、計算済みの在庫数を1文で反映する
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookStockBatchRepository {
+
+    // ID順にロックし、同じ書籍を含む一括調整・注文処理とのデッドロックを避ける
+    private static final String LOCK_STOCKS_SQL =
+            "SELECT id, title, stock_quantity, stock_stripe_count, low_stock_threshold, status = 'ACTIVE' AS active " +
+            "FROM books " +
+            "WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    private static final String UPDATE_STOCKS_SQL =
+            "UPDATE books AS b SET stock_quantity = v.stock_quantity, updated_at = CURRENT_TIMESTAMP " +
+            "FROM unnest(?::bigint[], ?::int[]) AS v(id, stock_quantity) " +
+            "WHERE b.id = v.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 書籍行をID順に行ロックして在庫数を取得（存在しない書籍は含まれない）
+     */
+    public List<LockedStock> lockStocks(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(LOCK_STOCKS_SQL);
+                    statement.setArray(1, connection.createArrayOf("bigint", bookIds.toArray()));
+                    return statement;
+                },
+                (rs, rowNum) -> new LockedStock(rs.getLong("id"), rs.getInt("stock_quantity"),
+                        rs.getInt("stock_stripe_count"), rs.getInt("low_stock_threshold"),
+                        rs.getBoolean("active"), rs.getString("title")));
+    }
+
+    /**
+     * 在庫数を一括で設定
+     * @return 更新件数
+     */
+    public int updateStocks(Long[] bookIds, Integer[] quantities) {
+        if (bookIds.length == 0) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(UPDATE_STOCKS_SQL);
+            Array ids = connection.createArrayOf("bigint", bookIds);
+            Array stocks = connection.createArrayOf("integer", quantities);
+            statement.setArray(1, ids);
+            statement.setArray(2, stocks);
+            return statement;
+        });
+    }
+
+    /**
+     * ロック済みの書籍在庫
+     */
+    public record LockedStock(long bookId, int stockQuantity, int stockStripeCount,
+                              int lowStockThreshold, boolean active, String title) {
+
+        public boolean isStriped() {
+            return stockStripeCount > 0;
+        }
+    }
+}
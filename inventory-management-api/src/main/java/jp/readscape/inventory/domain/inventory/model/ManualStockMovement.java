@@ -0,0 +1,24 @@
+package jp.readscape.inventory.domain.inventory.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 管理者による在庫調整（在庫履歴の一括登録用）
+ */
+@Value
+@Builder
+public class ManualStockMovement {
+
+    Long bookId;
+    StockHistory.StockChangeType changeType;
+    int quantityBefore;
+    int quantityAfter;
+    int quantityChanged;
+    String reason;
+    String referenceNumber;
+    Long userId;
+    LocalDateTime occurredAt;
+}
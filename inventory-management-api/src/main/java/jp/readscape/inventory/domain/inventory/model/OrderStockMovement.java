@@ -0,0 +1,24 @@
+package jp.readscape.inventory.domain.inventory.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 注文に伴う在庫変動（在庫履歴の一括登録用）
+ */
+@Value
+@Builder
+public class OrderStockMovement {
+
+    Long bookId;
+    StockHistory.StockChangeType changeType;    // OUTBOUND（注文）, RETURN_FROM_CUSTOMER（キャンセル）
+    int quantityBefore;
+    int quantityAfter;
+    int quantityChanged;
+    String reason;
+    Long orderId;
+    Long userId;
+    LocalDateTime occurredAt;
+}
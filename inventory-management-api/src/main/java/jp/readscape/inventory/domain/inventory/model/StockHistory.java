@@ -27,8 +27,8 @@ public class StockHistory {
     private Book book;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user;
+    @JoinColumn(name = "user_id")
+    private User user; // 操作ユーザー（システムによるキャンセル処理等はnull）
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -48,6 +48,12 @@ public class StockHistory {
     @Column(name = "reference_number")
     private String referenceNumber; // 注文番号、入荷番号等
 
+    @Column(name = "reference_type")
+    private String referenceType; // 'ORDER'（注文イベント）, 'MANUAL'（一括在庫調整）
+
+    @Column(name = "reference_id")
+    private Long referenceId; // 関連する注文ID
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,51 @@
+package jp.readscape.inventory.domain.inventory.repository;
+
+import jakarta.persistence.LockModeType;
+import jp.readscape.inventory.domain.inventory.model.BookStockStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookStockStripeRepository extends JpaRepository<BookStockStripe, Long> {
+
+    /**
+     * 書籍のストライプ一覧（ストライプ番号順）
+     */
+    List<BookStockStripe> findByBookIdOrderByStripeNo(Long bookId);
+
+    /**
+     * 書籍のストライプ別在庫数（ストライプ番号順、エンティティを読み込まない軽量版）
+     */
+    @Query("SELECT s.quantity FROM BookStockStripe s WHERE s.bookId = :bookId ORDER BY s.stripeNo")
+    List<Integer> findQuantitiesByBookId(@Param("bookId") Long bookId);
+
+    /**
+     * 書籍の全ストライプをロックして取得（ストライプ番号順）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookStockStripe s WHERE s.bookId = :bookId ORDER BY s.stripeNo")
+    List<BookStockStripe> findByBookIdForUpdate(@Param("bookId") Long bookId);
+
+    /**
+     * 書籍のストライプをすべて削除
+     */
+    @Modifying
+    @Query("DELETE FROM BookStockStripe s WHERE s.bookId = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    /**
+     * ストライプ在庫を加算
+     */
+    @Modifying
+    @Query("UPDATE BookStockStripe s SET s.quantity = s.quantity + :quantity, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.bookId = :bookId AND s.stripeNo = :stripeNo")
+    int incrementStripe(@Param("bookId") Long bookId,
+                        @Param("stripeNo") int stripeNo,
+                        @Param("quantity") int quantity);
+}
@@ -0,0 +1,106 @@
+package jp.readscape.inventory.domain.inventory.repository;
+
+import jp.readscape.inventory.domain.inventory.model.ManualStockMovement;
+import jp.readscape.inventory.domain.inventory.model.OrderStockMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 在庫履歴の一括登録リポジトリ
+ * 大量の注文イベント・一括在庫調整をJDBCバッチで登録する
+ * 列は StockHistory エンティティのマッピングに合わせる
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockHistoryBatchRepository {
+
+    public static final String REFERENCE_TYPE_ORDER = "ORDER";
+    public static final String REFERENCE_TYPE_MANUAL = "MANUAL";
+
+    // 同じ注文・書籍・変動種別の履歴が既にあれば登録しない（イベントの再配信に備える）
+    private static final String INSERT_ORDER_MOVEMENT_SQL =
+            "INSERT INTO stock_history (book_id, type, quantity_before, quantity_after, quantity_change, " +
+            "reason, reference_type, reference_id, user_id, created_at) " +
+            "SELECT ?, ?, ?, ?, ?, ?, '" + REFERENCE_TYPE_ORDER + "', ?, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM stock_history " +
+            "WHERE reference_type = '" + REFERENCE_TYPE_ORDER + "' AND reference_id = ? AND book_id = ? AND type = ?)";
+
+    private static final String INSERT_MANUAL_MOVEMENT_SQL =
+            "INSERT INTO stock_history (book_id, type, quantity_before, quantity_after, quantity_change, " +
+            "reason, reference_number, reference_type, user_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, '" + REFERENCE_TYPE_MANUAL + "', ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 注文に伴う在庫変動を一括登録
+     * @return 登録件数（重複によりスキップした分は含まない）
+     */
+    public int insertOrderMovements(List<OrderStockMovement> movements, int batchSize) {
+        if (movements.isEmpty()) {
+            return 0;
+        }
+
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_ORDER_MOVEMENT_SQL, movements, batchSize, (ps, movement) -> {
+            ps.setLong(1, movement.getBookId());
+            ps.setString(2, movement.getChangeType().name());
+            ps.setInt(3, movement.getQuantityBefore());
+            ps.setInt(4, movement.getQuantityAfter());
+            ps.setInt(5, movement.getQuantityChanged());
+            ps.setString(6, movement.getReason());
+            ps.setLong(7, movement.getOrderId());
+            if (movement.getUserId() != null) {
+                ps.setLong(8, movement.getUserId());
+            } else {
+                ps.setNull(8, Types.BIGINT);
+            }
+            ps.setTimestamp(9, Timestamp.valueOf(movement.getOccurredAt()));
+            ps.setLong(10, movement.getOrderId());
+            ps.setLong(11, movement.getBookId());
+            ps.setString(12, movement.getChangeType().name());
+        });
+
+        return Arrays.stream(results)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> Math.max(count, 0))
+                .sum();
+    }
+
+    /**
+     * 管理者による在庫調整を一括登録
+     * @return 登録件数
+     */
+    public int insertManualMovements(List<ManualStockMovement> movements, int batchSize) {
+        if (movements.isEmpty()) {
+            return 0;
+        }
+
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_MANUAL_MOVEMENT_SQL, movements, batchSize, (ps, movement) -> {
+            ps.setLong(1, movement.getBookId());
+            ps.setString(2, movement.getChangeType().name());
+            ps.setInt(3, movement.getQuantityBefore());
+            ps.setInt(4, movement.getQuantityAfter());
+            ps.setInt(5, movement.getQuantityChanged());
+            ps.setString(6, movement.getReason());
+            ps.setString(7, movement.getReferenceNumber());
+            if (movement.getUserId() != null) {
+                ps.setLong(8, movement.getUserId());
+            } else {
+                ps.setNull(8, Types.BIGINT);
+            }
+            ps.setTimestamp(9, Timestamp.valueOf(movement.getOccurredAt()));
+        });
+
+        return Arrays.stream(results)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0))
+                .sum();
+    }
+}
@@ -1,14 +1,17 @@
 package jp.readscape.inventory.domain.orders.repository;
 
+import jakarta.persistence.LockModeType;
 import jp.readscape.inventory.domain.orders.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +33,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    /**
+     * 注文をID昇順に行ロックして取得（キャンセル処理用）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 注文・書籍別の数量を書籍ID、注文ID昇順で取得（[注文ID, 書籍ID, 数量]の配列、書籍エンティティは読み込まない）
+     */
+    @Query("SELECT i.order.id, i.book.id, SUM(i.quantity) FROM OrderItem i " +
+           "WHERE i.order.id IN :orderIds AND i.book IS NOT NULL " +
+           "GROUP BY i.order.id, i.book.id ORDER BY i.book.id, i.order.id")
+    List<Object[]> sumItemQuantitiesByOrderAndBook(@Param("orderIds") Collection<Long> orderIds);
+
     /**
      * 期間別注文検索
      */
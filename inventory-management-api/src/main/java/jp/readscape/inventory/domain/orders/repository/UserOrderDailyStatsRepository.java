@@ -0,0 +1,50 @@
+package jp.readscape.inventory.domain.orders.repository;
+
+import jp.readscape.inventory.domain.orders.model.UserOrderDailyStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserOrderDailyStatsRepository extends JpaRepository<UserOrderDailyStats, UserOrderDailyStats.Key> {
+
+    /**
+     * 上位顧客（期間内の購入額順、[ユーザーID, ユーザー名, メール, 購入総額, 注文数]、キャンセル分を除く）
+     * 注文日別の統計を集計するため、注文テーブルの集計を必要としない
+     */
+    @Query("SELECT d.userId, u.username, u.email, SUM(d.totalAmount), SUM(d.orderCount) " +
+           "FROM UserOrderDailyStats d, User u " +
+           "WHERE u.id = d.userId AND d.orderDate >= :since AND d.orderCount > 0 " +
+           "GROUP BY d.userId, u.username, u.email " +
+           "ORDER BY SUM(d.totalAmount) DESC")
+    List<Object[]> findTopCustomers(@Param("since") LocalDate since, Pageable pageable);
+
+    /**
+     * 期間内に注文のある顧客数と、その期間内の注文数（[顧客数, 注文数]の1行、キャンセル分を除く）
+     */
+    @Query("SELECT COUNT(DISTINCT d.userId), SUM(d.orderCount) FROM UserOrderDailyStats d " +
+           "WHERE d.orderDate >= :since AND d.orderCount > 0")
+    List<Object[]> summarizeActiveCustomers(@Param("since") LocalDate since);
+
+    /**
+     * 注文キャンセルを注文日の統計から減算（累計の統計はキャンセル分も含むため減算しない）
+     */
+    @Modifying
+    @Query("UPDATE UserOrderDailyStats d SET " +
+           "d.orderCount = greatest(d.orderCount - 1, 0), " +
+           "d.totalAmount = greatest(d.totalAmount - :amount, 0), " +
+           "d.updatedAt = :now " +
+           "WHERE d.userId = :userId AND d.orderDate = :orderDate")
+    int decrementOrder(@Param("userId") Long userId,
+                       @Param("orderDate") LocalDate orderDate,
+                       @Param("amount") BigDecimal amount,
+                       @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,19 @@
+package jp.readscape.inventory.domain.orders.repository;
+
+import jp.readscape.inventory.domain.orders.model.UserOrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserOrderStatsRepository extends JpaRepository<UserOrderStats, Long> {
+
+    /**
+     * 期間内に初回注文した顧客数
+     */
+    @Query("SELECT COUNT(s) FROM UserOrderStats s WHERE s.firstOrderDate >= :since")
+    Long countNewCustomers(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,23 @@
+package jp.readscape.inventory.domain.outbox.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * リレーが取得したアウトボックスイベント
+ * イベントは消費者APIが注文と同一トランザクションで outbox_events に記録する
+ */
+@Value
+public class OutboxMessage {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+    public static final String ORDER_CANCELLED = "ORDER_CANCELLED";
+
+    Long id;
+    String eventType;
+    Long aggregateId;
+    String payload;
+    int attempts;
+    LocalDateTime createdAt;
+}
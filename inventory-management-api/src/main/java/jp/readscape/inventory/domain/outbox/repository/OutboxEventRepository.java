@@ -0,0 +1,100 @@
+package jp.readscape.inventory.domain.outbox.repository;
+
+import jp.readscape.inventory.domain.outbox.model.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * アウトボックスイベントのリポジトリ
+ * FOR UPDATE SKIP LOCKED で複数インスタンスのリレーが同じイベントを取り合わないようにするため、JDBCで直接操作する
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxEventRepository {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("event_type"),
+            rs.getLong("aggregate_id"),
+            rs.getString("payload"),
+            rs.getInt("attempts"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 未配信イベントを発行順にロックして取得（他のリレーがロック中の行はスキップ）
+     * 試行回数が上限に達したイベントは対象外とする
+     */
+    public List<OutboxMessage> claimBatch(int batchSize, int maxAttempts) {
+        return jdbcTemplate.query(
+                "SELECT id, event_type, aggregate_id, payload, attempts, created_at FROM outbox_events " +
+                "WHERE processed_at IS NULL AND attempts < ? " +
+                "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                ROW_MAPPER, maxAttempts, batchSize);
+    }
+
+    /**
+     * イベントを配信済みにする
+     */
+    public int markProcessed(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "UPDATE outbox_events SET processed_at = ?, attempts = attempts + 1, last_error = NULL " +
+                "WHERE id = ANY(?)",
+                Timestamp.valueOf(LocalDateTime.now()), toArray(ids));
+    }
+
+    /**
+     * 配信失敗を記録
+     */
+    public void recordFailure(Long id, String error) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        jdbcTemplate.update("UPDATE outbox_events SET attempts = attempts + 1, last_error = ? WHERE id = ?", message, id);
+    }
+
+    /**
+     * 最も古い未配信イベントの記録日時
+     */
+    public Optional<LocalDateTime> findOldestPendingCreatedAt(int maxAttempts) {
+        List<Timestamp> rows = jdbcTemplate.queryForList(
+                "SELECT created_at FROM outbox_events WHERE processed_at IS NULL AND attempts < ? ORDER BY id LIMIT 1",
+                Timestamp.class, maxAttempts);
+        return rows.stream().findFirst().map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * 未配信イベント数（[配信待ち, 試行上限到達]）
+     */
+    public long[] countPending(int maxAttempts) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FILTER (WHERE attempts < ?), COUNT(*) FILTER (WHERE attempts >= ?) " +
+                "FROM outbox_events WHERE processed_at IS NULL",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                maxAttempts, maxAttempts);
+    }
+
+    /**
+     * 保持期間を過ぎた配信済みイベントを削除
+     */
+    public int deleteProcessedBefore(LocalDateTime threshold) {
+        return jdbcTemplate.update("DELETE FROM outbox_events WHERE processed_at < ?", Timestamp.valueOf(threshold));
+    }
+
+    // プライベートメソッド
+
+    private Long[] toArray(List<Long> ids) {
+        return ids.toArray(new Long[0]);
+    }
+}
@@ -0,0 +1,27 @@
+package jp.readscape.inventory.dto.admin;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "注文一括キャンセルリクエスト")
+public class BulkCancelOrdersRequest {
+
+    @NotEmpty(message = "注文IDは必須です")
+    @Size(max = 500, message = "一度にキャンセルできる注文は500件までです")
+    @Schema(description = "キャンセルする注文ID", example = "[101, 102, 103]")
+    private List<Long> orderIds;
+
+    @Schema(description = "キャンセル理由", example = "決済エラーによる一括キャンセル")
+    private String reason;
+}
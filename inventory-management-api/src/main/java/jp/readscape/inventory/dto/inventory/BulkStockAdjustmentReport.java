@@ -0,0 +1,65 @@
+package jp.readscape.inventory.dto.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "一括在庫調整の結果")
+public class BulkStockAdjustmentReport {
+
+    @Schema(description = "リクエスト件数", example = "3")
+    private Integer requested;
+
+    @Schema(description = "反映件数", example = "2")
+    private Integer applied;
+
+    @Schema(description = "却下件数", example = "1")
+    private Integer rejected;
+
+    @Schema(description = "処理時間（ミリ秒）", example = "120")
+    private Long elapsedMillis;
+
+    @Schema(description = "リクエスト順の結果")
+    private List<ItemResult> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "一括在庫調整の明細結果")
+    public static class ItemResult {
+
+        @Schema(description = "リクエスト内の位置（0から開始）", example = "0")
+        private Integer index;
+
+        @Schema(description = "書籍ID", example = "1")
+        private Long bookId;
+
+        @Schema(description = "結果", example = "APPLIED")
+        private Status status;
+
+        @Schema(description = "調整前の在庫数", example = "25")
+        private Integer quantityBefore;
+
+        @Schema(description = "調整後の在庫数", example = "75")
+        private Integer quantityAfter;
+
+        @Schema(description = "却下理由", example = "在庫が不足しています")
+        private String message;
+    }
+
+    public enum Status {
+        APPLIED,            // 反映
+        INVALID,            // リクエスト不正
+        NOT_FOUND,          // 書籍が存在しない
+        INSUFFICIENT_STOCK  // 在庫不足
+    }
+}
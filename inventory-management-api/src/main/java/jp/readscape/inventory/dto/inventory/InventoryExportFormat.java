@@ -0,0 +1,28 @@
+package jp.readscape.inventory.dto.inventory;
+
+/**
+ * 在庫エクスポートの形式
+ */
+public enum InventoryExportFormat {
+
+    /** 1行1書籍のJSON（改行区切り） */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** ヘッダー付きCSV（UTF-8） */
+    CSV("text/csv; charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    InventoryExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,33 @@
+package jp.readscape.inventory.dto.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jp.readscape.inventory.domain.books.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "在庫一覧の絞り込み条件")
+public class InventoryFilter {
+
+    @Schema(description = "キーワード（タイトル・著者・ISBNの部分一致）", example = "Spring")
+    private String keyword;
+
+    @Schema(description = "カテゴリ", example = "プログラミング")
+    private String category;
+
+    @Schema(description = "書籍ステータス", example = "ACTIVE")
+    private Book.BookStatus status;
+
+    @Schema(description = "低在庫のみ", example = "false")
+    private boolean lowStockOnly;
+
+    @Schema(description = "この日時以降に更新された書籍のみ", example = "2024-01-20T00:00:00")
+    private LocalDateTime updatedSince;
+}
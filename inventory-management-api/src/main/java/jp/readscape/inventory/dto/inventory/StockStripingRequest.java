@@ -0,0 +1,24 @@
+package jp.readscape.inventory.dto.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "在庫ストライプ設定リクエスト")
+public class StockStripingRequest {
+
+    @NotNull(message = "ストライプ数は必須です")
+    @Min(value = 2, message = "ストライプ数は2以上で指定してください")
+    @Max(value = 64, message = "ストライプ数は64以下で指定してください")
+    @Schema(description = "在庫を分散するストライプ数", example = "8")
+    private Integer stripeCount;
+}
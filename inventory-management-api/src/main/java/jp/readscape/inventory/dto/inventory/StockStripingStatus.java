@@ -0,0 +1,35 @@
+package jp.readscape.inventory.dto.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "在庫ストライプ状態")
+public class StockStripingStatus {
+
+    @Schema(description = "書籍ID", example = "1")
+    private Long bookId;
+
+    @Schema(description = "タイトル", example = "Spring Boot実践ガイド")
+    private String title;
+
+    @Schema(description = "ストライプ有効フラグ", example = "true")
+    private Boolean enabled;
+
+    @Schema(description = "ストライプ数", example = "8")
+    private Integer stripeCount;
+
+    @Schema(description = "在庫合計", example = "400")
+    private Integer totalStock;
+
+    @Schema(description = "ストライプ別在庫数（ストライプ番号順）")
+    private List<Integer> stripeQuantities;
+}
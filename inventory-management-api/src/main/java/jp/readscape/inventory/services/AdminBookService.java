@@ -29,6 +29,7 @@ public class AdminBookService {
     private final BookRepository bookRepository;
     private final StockHistoryRepository stockHistoryRepository;
     private final DtoMappingService dtoMappingService;
+    private final InventoryStatsTracker inventoryStatsTracker;
 
     /**
      * 管理者向け書籍一覧取得
@@ -83,6 +84,7 @@ public class AdminBookService {
                 .build();
 
         Book savedBook = bookRepository.save(book);
+        inventoryStatsTracker.recordChange(null, InventoryStatsTracker.BookStock.of(savedBook));
 
         // 初期在庫履歴を記録
         if (request.getStockQuantity() > 0) {
@@ -111,6 +113,7 @@ public class AdminBookService {
                 throw new DuplicateIsbnException("ISBNが既に存在します: " + request.getIsbn());
             }
         }
+        InventoryStatsTracker.BookStock before = InventoryStatsTracker.BookStock.of(book);
 
         // フィールドを更新（nullでない場合のみ）
         if (request.hasTitle()) {
@@ -148,6 +151,7 @@ public class AdminBookService {
         }
 
         bookRepository.save(book);
+        inventoryStatsTracker.recordChange(before, InventoryStatsTracker.BookStock.of(book));
         log.info("Book updated successfully: {} (ID: {})", book.getTitle(), book.getId());
     }
 
@@ -160,6 +164,7 @@ public class AdminBookService {
 
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません: " + bookId));
+        InventoryStatsTracker.BookStock before = InventoryStatsTracker.BookStock.of(book);
 
         // 在庫がある場合は削除前に在庫を0にする
         if (book.getStockQuantity() > 0) {
@@ -171,6 +176,7 @@ public class AdminBookService {
         }
 
         bookRepository.delete(book);
+        inventoryStatsTracker.recordChange(before, null);
         log.info("Book deleted successfully: {} (ID: {})", book.getTitle(), book.getId());
     }
 
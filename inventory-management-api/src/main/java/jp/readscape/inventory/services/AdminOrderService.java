@@ -1,9 +1,16 @@
 package jp.readscape.inventory.services;
 
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.inventory.model.OrderStockMovement;
+import jp.readscape.inventory.domain.inventory.model.StockHistory;
+import jp.readscape.inventory.domain.inventory.repository.StockHistoryBatchRepository;
 import jp.readscape.inventory.domain.orders.model.Order;
 import jp.readscape.inventory.domain.orders.repository.OrderRepository;
+import jp.readscape.inventory.domain.orders.repository.UserOrderDailyStatsRepository;
 import jp.readscape.inventory.dto.admin.*;
 import jp.readscape.inventory.exceptions.OrderNotFoundException;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -14,7 +21,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,8 +36,16 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class AdminOrderService {
 
+    private static final int HISTORY_BATCH_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final DtoMappingService dtoMappingService;
+    private final UserOrderDailyStatsRepository userOrderDailyStatsRepository;
+    private final BookRepository bookRepository;
+    private final StockStripingService stockStripingService;
+    private final StockHistoryBatchRepository stockHistoryBatchRepository;
+    private final LowStockDetector lowStockDetector;
+    private final InventoryStatsTracker inventoryStatsTracker;
 
     /**
      * 注文一覧取得（管理者向け）- ソート対応
@@ -80,12 +101,14 @@ public class AdminOrderService {
 
     /**
      * 注文ステータス更新（UpdateOrderStatusRequest使用）
+     * 注文行をロックしてから現在のステータスを判定するため、同時キャンセルで在庫・統計が二重に戻ることはない
      */
     @Transactional
     public void updateOrderStatus(Long orderId, UpdateOrderStatusRequest request) {
         log.debug("Updating order status: {} -> {}", orderId, request.getNewStatus());
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findAllByIdForUpdate(List.of(orderId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new OrderNotFoundException("注文が見つかりません: " + orderId));
 
         Order.OrderStatus oldStatus = order.getStatus();
@@ -103,6 +126,11 @@ public class AdminOrderService {
         }
 
         orderRepository.save(order);
+
+        if (newStatus == Order.OrderStatus.CANCELLED && oldStatus != Order.OrderStatus.CANCELLED) {
+            restoreStock(List.of(order));
+            recordCancellation(order);
+        }
         
         log.info("Order status updated: {} ({} -> {})", orderId, oldStatus, newStatus);
     }
@@ -210,27 +238,55 @@ public class AdminOrderService {
     public void cancelOrder(Long orderId, String reason) {
         log.debug("Cancelling order: {} with reason: {}", orderId, reason);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("注文が見つかりません: " + orderId));
+        cancelOrders(List.of(orderId), reason);
+        log.info("Order cancelled: {}", orderId);
+    }
+
+    /**
+     * 注文一括キャンセル
+     * 1件でも存在しない、またはキャンセルできない注文があれば全体を中止する
+     * 注文行はID昇順にロックし、在庫は書籍ID昇順に復元するため、重なる書籍を含む同時キャンセルでもデッドロックしない
+     * @return キャンセルした注文数
+     */
+    @Transactional
+    public int cancelOrders(List<Long> orderIds, String reason) {
+        List<Long> ids = orderIds.stream().distinct().sorted().collect(Collectors.toList());
+        log.debug("Cancelling {} orders with reason: {}", ids.size(), reason);
+
+        List<Order> orders = orderRepository.findAllByIdForUpdate(ids);
+        if (orders.size() != ids.size()) {
+            List<Long> foundIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+            List<Long> missingIds = ids.stream().filter(id -> !foundIds.contains(id)).collect(Collectors.toList());
+            throw new OrderNotFoundException("注文が見つかりません: " + missingIds);
+        }
 
         // キャンセル可能な状態かチェック
-        if (order.getStatus() == Order.OrderStatus.SHIPPED || 
-            order.getStatus() == Order.OrderStatus.DELIVERED ||
-            order.getStatus() == Order.OrderStatus.CANCELLED) {
-            throw new IllegalStateException("この注文はキャンセルできません。現在のステータス: " + order.getStatus());
+        for (Order order : orders) {
+            if (order.getStatus() == Order.OrderStatus.SHIPPED ||
+                order.getStatus() == Order.OrderStatus.DELIVERED ||
+                order.getStatus() == Order.OrderStatus.CANCELLED) {
+                throw new IllegalStateException(
+                    "この注文はキャンセルできません。注文ID: " + order.getId() + "、現在のステータス: " + order.getStatus());
+            }
         }
 
-        // ステータス更新
-        order.updateStatus(Order.OrderStatus.CANCELLED);
-        
-        // キャンセル理由を記録
-        if (reason != null && !reason.trim().isEmpty()) {
-            String currentNotes = order.getNotes() != null ? order.getNotes() : "";
-            order.setNotes(currentNotes + "\n[キャンセル理由] " + reason);
+        for (Order order : orders) {
+            // ステータス更新
+            order.updateStatus(Order.OrderStatus.CANCELLED);
+
+            // キャンセル理由を記録
+            if (reason != null && !reason.trim().isEmpty()) {
+                String currentNotes = order.getNotes() != null ? order.getNotes() : "";
+                order.setNotes(currentNotes + "\n[キャンセル理由] " + reason);
+            }
         }
+        orderRepository.saveAll(orders);
 
-        orderRepository.save(order);
-        log.info("Order cancelled: {}", orderId);
+        restoreStock(orders);
+        orders.forEach(this::recordCancellation);
+
+        log.info("Cancelled {} orders", orders.size());
+        return orders.size();
     }
 
     /**
@@ -332,6 +388,127 @@ public class AdminOrderService {
 
     // プライベートメソッド
 
+    /**
+     * キャンセルされた注文の在庫を復元し、在庫履歴を一括登録
+     * 書籍ごとに数量を合算して書籍ID昇順にアトミックな加算UPDATEを1回ずつ発行する
+     * 加算できなかった書籍（ストライプ有効）はストライプに戻す
+     * 書籍ごとの復元前後の在庫は在庫統計カウンターと低在庫検出に渡す（在庫切れからの回復を反映・通知する）
+     */
+    private void restoreStock(List<Order> orders) {
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        List<Object[]> rows = orderRepository.sumItemQuantitiesByOrderAndBook(orderIds);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> quantitiesByBook = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            quantitiesByBook.merge((Long) row[1], ((Number) row[2]).intValue(), Integer::sum);
+        }
+
+        List<Long> unmatchedBookIds = new ArrayList<>();
+        quantitiesByBook.forEach((bookId, quantity) -> {
+            if (bookRepository.incrementStock(bookId, quantity) == 0) {
+                unmatchedBookIds.add(bookId);
+            }
+        });
+
+        // 書籍行の在庫は自トランザクションの加算直後の値（行ロック保持中）
+        Map<Long, Integer> stockAfter = new HashMap<>();
+        for (Object[] row : bookRepository.findStockQuantitiesByIds(quantitiesByBook.keySet())) {
+            stockAfter.put((Long) row[0], (Integer) row[1]);
+        }
+        stockAfter.putAll(restoreStripedStock(unmatchedBookIds, quantitiesByBook));
+
+        stockHistoryBatchRepository.insertOrderMovements(
+                toReturnMovements(orders, rows, quantitiesByBook, stockAfter), HISTORY_BATCH_SIZE);
+
+        List<LowStockDetector.StockLevelChange> changes = new ArrayList<>(quantitiesByBook.size());
+        quantitiesByBook.forEach((bookId, quantity) -> {
+            Integer after = stockAfter.get(bookId);
+            if (after != null) {
+                changes.add(new LowStockDetector.StockLevelChange(bookId, Math.max(0, after - quantity), after));
+            }
+        });
+        List<LowStockDetector.BookStockChange> resolved = lowStockDetector.resolve(changes);
+        inventoryStatsTracker.recordChanges(resolved);
+        lowStockDetector.onStockChanges(resolved);
+    }
+
+    /**
+     * ストライプ有効な書籍の在庫を書籍ID昇順にストライプへ戻す
+     * @return 書籍ID別の復元後のストライプ合計
+     */
+    private Map<Long, Integer> restoreStripedStock(List<Long> bookIds, Map<Long, Integer> quantitiesByBook) {
+        Map<Long, Integer> levels = new HashMap<>();
+        if (bookIds.isEmpty()) {
+            return levels;
+        }
+
+        List<Book> books = new ArrayList<>(bookRepository.findAllById(bookIds));
+        books.sort(Comparator.comparing(Book::getId));
+        for (Book book : books) {
+            int quantity = quantitiesByBook.get(book.getId());
+            Optional<Integer> restored = book.isStockStriped()
+                    ? stockStripingService.restoreStripedStock(book, quantity)
+                    : Optional.empty();
+            // ストライプが無効化された直後の場合は書籍行に加算する
+            if (restored.isPresent()) {
+                levels.put(book.getId(), restored.get());
+            } else if (bookRepository.incrementStock(book.getId(), quantity) == 0) {
+                log.warn("Failed to restore stock for book {} (quantity: {})", book.getId(), quantity);
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * 注文・書籍ごとの返品（RETURN）履歴を構築
+     * 同じ書籍を含む注文が複数ある場合は注文ID順に変動を積み上げ、最後の注文の変動後在庫が現在の在庫と一致するようにする
+     */
+    private List<OrderStockMovement> toReturnMovements(List<Order> orders, List<Object[]> rows,
+                                                       Map<Long, Integer> quantitiesByBook,
+                                                       Map<Long, Integer> stockAfter) {
+        Map<Long, Order> ordersById = orders.stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
+        Map<Long, Integer> runningStock = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<OrderStockMovement> movements = new ArrayList<>();
+        for (Object[] row : rows) {
+            Order order = ordersById.get((Long) row[0]);
+            Long bookId = (Long) row[1];
+            int quantity = ((Number) row[2]).intValue();
+
+            int before = runningStock.computeIfAbsent(bookId,
+                    id -> stockAfter.getOrDefault(id, 0) - quantitiesByBook.get(id));
+            int after = before + quantity;
+            runningStock.put(bookId, after);
+
+            movements.add(OrderStockMovement.builder()
+                    .bookId(bookId)
+                    .changeType(StockHistory.StockChangeType.RETURN_FROM_CUSTOMER)
+                    .quantityBefore(Math.max(0, before))
+                    .quantityAfter(Math.max(0, after))
+                    .quantityChanged(quantity)
+                    .reason("注文キャンセル: " + order.getOrderNumber())
+                    .orderId(order.getId())
+                    .occurredAt(now)
+                    .build());
+        }
+        return movements;
+    }
+
+    /**
+     * キャンセルを注文日別の注文統計に反映（累計の注文統計はキャンセルされた注文も含むため更新しない）
+     */
+    private void recordCancellation(Order order) {
+        if (order.getUser() != null && order.getTotalAmount() != null && order.getOrderDate() != null) {
+            userOrderDailyStatsRepository.decrementOrder(order.getUser().getId(), order.getOrderDate().toLocalDate(),
+                    order.getTotalAmount(), LocalDateTime.now());
+        }
+    }
+
     /**
      * ステータス遷移の妥当性をチェック
      */
@@ -1,7 +1,8 @@
 package jp.readscape.inventory.services;
 
-import jp.readscape.inventory.domain.books.repository.BookRepository;
 import jp.readscape.inventory.domain.orders.repository.OrderRepository;
+import jp.readscape.inventory.domain.orders.repository.UserOrderDailyStatsRepository;
+import jp.readscape.inventory.domain.orders.repository.UserOrderStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -11,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -24,7 +26,9 @@ import java.util.stream.Collectors;
 public class AnalyticsService {
 
     private final OrderRepository orderRepository;
-    private final BookRepository bookRepository;
+    private final UserOrderStatsRepository userOrderStatsRepository;
+    private final UserOrderDailyStatsRepository userOrderDailyStatsRepository;
+    private final InventoryStatsTracker inventoryStatsTracker;
 
     /**
      * 売上分析データ取得
@@ -130,9 +134,10 @@ public class AnalyticsService {
         Long monthlyOrders = orderRepository.countByOrderDateBetween(monthAgo, LocalDateTime.now());
         BigDecimal monthlyRevenue = orderRepository.sumRevenueByOrderDateBetween(monthAgo, LocalDateTime.now());
         
-        // 在庫統計
-        Long totalBooks = bookRepository.count();
-        Long lowStockBooks = bookRepository.countByStockQuantityLessThanEqual(10);
+        // 在庫統計（販売中の書籍、低在庫は書籍ごとの閾値で判定）
+        InventoryService.InventoryStatistics inventoryStatistics = inventoryStatsTracker.getStatistics();
+        Long totalBooks = inventoryStatistics.getTotalBooks();
+        Long lowStockBooks = inventoryStatistics.getLowStockCount().longValue();
         
         return DashboardInfo.builder()
                 .todayOrders(todayOrders != null ? todayOrders : 0L)
@@ -175,15 +180,18 @@ public class AnalyticsService {
 
     /**
      * 顧客分析取得
+     * 注文の作成・キャンセル時に更新されるユーザー別注文統計から取得する
+     * 上位顧客・顧客数・平均注文数は注文日別の統計を期間で集計する（期間は開始日の0時から）
      */
     public CustomerAnalytics getCustomerAnalytics(int days, int topCustomerLimit) {
         log.debug("Getting customer analytics - days: {}, limit: {}", days, topCustomerLimit);
 
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        LocalDate startDay = startDate.toLocalDate();
         
         // トップ顧客データ
         Pageable pageable = PageRequest.of(0, topCustomerLimit);
-        List<Object[]> topCustomersData = orderRepository.findTopCustomers(startDate, pageable);
+        List<Object[]> topCustomersData = userOrderDailyStatsRepository.findTopCustomers(startDay, pageable);
         
         List<TopCustomer> topCustomers = topCustomersData.stream()
                 .map(row -> TopCustomer.builder()
@@ -196,9 +204,13 @@ public class AnalyticsService {
                 .collect(Collectors.toList());
 
         // 顧客統計
-        Long totalCustomers = orderRepository.countDistinctCustomers(startDate);
-        Long newCustomers = orderRepository.countNewCustomers(startDate);
-        Double averageOrdersPerCustomer = orderRepository.calculateAverageOrdersPerCustomer(startDate);
+        Object[] activeCustomers = userOrderDailyStatsRepository.summarizeActiveCustomers(startDay).stream()
+                .findFirst()
+                .orElse(new Object[]{0L, 0L});
+        Long totalCustomers = activeCustomers[0] != null ? ((Number) activeCustomers[0]).longValue() : 0L;
+        long periodOrders = activeCustomers[1] != null ? ((Number) activeCustomers[1]).longValue() : 0L;
+        Long newCustomers = userOrderStatsRepository.countNewCustomers(startDate);
+        Double averageOrdersPerCustomer = totalCustomers > 0 ? (double) periodOrders / totalCustomers : 0.0;
 
         return CustomerAnalytics.builder()
                 .totalCustomers(totalCustomers != null ? totalCustomers : 0L)
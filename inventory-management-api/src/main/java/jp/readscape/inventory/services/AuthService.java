@@ -1,6 +1,7 @@
 package jp.readscape.inventory.services;
 
 import jp.readscape.inventory.configurations.security.JwtTokenProvider;
+import jp.readscape.inventory.configurations.security.VerifiedToken;
 import jp.readscape.inventory.domain.users.model.User;
 import jp.readscape.inventory.domain.users.repository.UserRepository;
 import jp.readscape.inventory.dto.auth.LoginRequest;
@@ -86,20 +87,21 @@ public class AuthService {
     public RefreshTokenResponse refreshToken(RefreshTokenRequest request) {
         String refreshToken = request.getRefreshToken();
         
-        // リフレッシュトークンの検証
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        // リフレッシュトークンの検証（一度だけ解析する）
+        VerifiedToken verified = jwtTokenProvider.verifyToken(refreshToken).orElse(null);
+        if (verified == null) {
             log.warn("Invalid refresh token");
             throw new BadCredentialsException("無効なリフレッシュトークンです");
         }
 
         // トークンタイプの確認
-        if (!"refresh".equals(jwtTokenProvider.getTokenType(refreshToken))) {
+        if (!verified.isRefreshToken()) {
             log.warn("Token type is not refresh");
             throw new BadCredentialsException("リフレッシュトークンではありません");
         }
 
         // ユーザー情報を取得
-        String email = jwtTokenProvider.getEmailFromToken(refreshToken);
+        String email = verified.getEmail();
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("ユーザーが見つかりません: " + email));
 
@@ -0,0 +1,226 @@
+package jp.readscape.inventory.services;
+
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.books.repository.BookStockBatchRepository;
+import jp.readscape.inventory.domain.books.repository.BookStockBatchRepository.LockedStock;
+import jp.readscape.inventory.domain.inventory.model.ManualStockMovement;
+import jp.readscape.inventory.domain.inventory.repository.StockHistoryBatchRepository;
+import jp.readscape.inventory.dto.inventory.BulkStockAdjustmentReport;
+import jp.readscape.inventory.dto.inventory.BulkStockAdjustmentReport.ItemResult;
+import jp.readscape.inventory.dto.inventory.BulkStockAdjustmentReport.Status;
+import jp.readscape.inventory.dto.inventory.StockUpdateRequest;
+import jp.readscape.inventory.exceptions.BookNotFoundException;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 一括在庫調整
+ * 対象の書籍行をID順に1文でロックし、リクエスト順に在庫数をメモリ上で計算してから、
+ * 在庫数を1文の UPDATE、在庫履歴を1回のJDBCバッチで反映する（書籍ごとの読み込み・保存を行わない）
+ * 書籍が存在しない・在庫不足などの明細は却下して結果に理由を返し、残りの明細は反映する
+ * ストライプ有効な書籍は StockStripingService でストライプに反映する
+ */
+@Slf4j
+@Service
+public class BulkStockAdjustmentService {
+
+    private final BookRepository bookRepository;
+    private final BookStockBatchRepository bookStockBatchRepository;
+    private final StockHistoryBatchRepository stockHistoryBatchRepository;
+    private final StockStripingService stockStripingService;
+    private final InventoryStatsTracker inventoryStatsTracker;
+    private final LowStockDetector lowStockDetector;
+    private final int maxItems;
+    private final int historyBatchSize;
+
+    public BulkStockAdjustmentService(BookRepository bookRepository,
+                                      BookStockBatchRepository bookStockBatchRepository,
+                                      StockHistoryBatchRepository stockHistoryBatchRepository,
+                                      StockStripingService stockStripingService,
+                                      InventoryStatsTracker inventoryStatsTracker,
+                                      LowStockDetector lowStockDetector,
+                                      @Value("${inventory.bulk-adjustment.max-items:10000}") int maxItems,
+                                      @Value("${inventory.bulk-adjustment.history-batch-size:1000}") int historyBatchSize) {
+        this.bookRepository = bookRepository;
+        this.bookStockBatchRepository = bookStockBatchRepository;
+        this.stockHistoryBatchRepository = stockHistoryBatchRepository;
+        this.stockStripingService = stockStripingService;
+        this.inventoryStatsTracker = inventoryStatsTracker;
+        this.lowStockDetector = lowStockDetector;
+        this.maxItems = maxItems;
+        this.historyBatchSize = historyBatchSize;
+    }
+
+    /**
+     * 一括在庫調整
+     * 同じ書籍を複数回含む場合はリクエスト順に適用する
+     *
+     * @throws IllegalArgumentException 明細数が上限を超える場合
+     */
+    @Transactional
+    public BulkStockAdjustmentReport adjust(List<InventoryService.BulkStockUpdateRequest> requests, Long userId) {
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("一括在庫調整の明細数が上限を超えています（上限: " + maxItems + "件）");
+        }
+        long startedAt = System.currentTimeMillis();
+
+        TreeSet<Long> bookIds = new TreeSet<>();
+        for (InventoryService.BulkStockUpdateRequest request : requests) {
+            if (request.getBookId() != null) {
+                bookIds.add(request.getBookId());
+            }
+        }
+        Map<Long, LockedStock> locked = new HashMap<>();
+        for (LockedStock stock : bookStockBatchRepository.lockStocks(bookIds)) {
+            locked.put(stock.bookId(), stock);
+        }
+
+        // 書籍ごとの現在在庫（明細を適用するたびに更新）
+        Map<Long, Integer> currentStocks = new TreeMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemResult> results = new ArrayList<>(requests.size());
+        List<ManualStockMovement> movements = new ArrayList<>(requests.size());
+
+        for (int index = 0; index < requests.size(); index++) {
+            InventoryService.BulkStockUpdateRequest request = requests.get(index);
+            String invalidReason = validate(request);
+            if (invalidReason != null) {
+                results.add(rejected(index, request.getBookId(), Status.INVALID, invalidReason));
+                continue;
+            }
+
+            LockedStock stock = locked.get(request.getBookId());
+            if (stock == null) {
+                results.add(rejected(index, request.getBookId(), Status.NOT_FOUND,
+                        "書籍が見つかりません: " + request.getBookId()));
+                continue;
+            }
+
+            StockUpdateRequest update = toStockUpdate(request);
+            int before = currentStocks.computeIfAbsent(stock.bookId(), bookId -> stock.isStriped()
+                    ? stockStripingService.lockStripedStock(bookId)
+                    : stock.stockQuantity());
+            int change = update.getNormalizedQuantity();
+            int after = before + change;
+            if (update.isOutboundOperation() && after < 0) {
+                results.add(rejected(index, request.getBookId(), Status.INSUFFICIENT_STOCK,
+                        String.format("在庫が不足しています。現在在庫: %d, 要求数量: %d", before, Math.abs(change))));
+                continue;
+            }
+            after = Math.max(0, after);
+
+            currentStocks.put(stock.bookId(), after);
+            movements.add(ManualStockMovement.builder()
+                    .bookId(stock.bookId())
+                    .changeType(request.getType())
+                    .quantityBefore(before)
+                    .quantityAfter(after)
+                    .quantityChanged(after - before)
+                    .reason(request.getReason())
+                    .referenceNumber(blankToNull(request.getReferenceNumber()))
+                    .userId(userId)
+                    .occurredAt(now)
+                    .build());
+            results.add(ItemResult.builder()
+                    .index(index)
+                    .bookId(stock.bookId())
+                    .status(Status.APPLIED)
+                    .quantityBefore(before)
+                    .quantityAfter(after)
+                    .build());
+        }
+
+        applyStocks(currentStocks, locked);
+        int recorded = stockHistoryBatchRepository.insertManualMovements(movements, historyBatchSize);
+
+        int applied = movements.size();
+        long elapsed = System.currentTimeMillis() - startedAt;
+        log.info("Bulk stock adjustment by user {}: {} requested, {} applied, {} history rows, {} ms",
+                userId, requests.size(), applied, recorded, elapsed);
+
+        return BulkStockAdjustmentReport.builder()
+                .requested(requests.size())
+                .applied(applied)
+                .rejected(requests.size() - applied)
+                .elapsedMillis(elapsed)
+                .items(results)
+                .build();
+    }
+
+    // プライベートメソッド
+
+    /**
+     * 計算済みの在庫数を反映（通常の書籍は1文で一括更新、ストライプ有効な書籍はストライプに再分配）
+     * 在庫統計カウンター・低在庫検出には書籍行の在庫数の変化を通知する
+     */
+    private void applyStocks(Map<Long, Integer> currentStocks, Map<Long, LockedStock> locked) {
+        List<Long> ids = new ArrayList<>(currentStocks.size());
+        List<Integer> quantities = new ArrayList<>(currentStocks.size());
+        for (Map.Entry<Long, Integer> entry : currentStocks.entrySet()) {
+            LockedStock stock = locked.get(entry.getKey());
+            InventoryStatsTracker.BookStock before =
+                    new InventoryStatsTracker.BookStock(stock.active(), stock.stockQuantity(), stock.lowStockThreshold());
+            InventoryStatsTracker.BookStock after =
+                    new InventoryStatsTracker.BookStock(stock.active(), entry.getValue(), stock.lowStockThreshold());
+            inventoryStatsTracker.recordChange(before, after);
+            lowStockDetector.onStockChange(stock.bookId(), stock.title(), before, after);
+            if (stock.isStriped()) {
+                Book book = bookRepository.findById(entry.getKey())
+                        .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません: " + entry.getKey()));
+                stockStripingService.setStripedStock(book, entry.getValue());
+                bookRepository.save(book);
+            } else {
+                ids.add(entry.getKey());
+                quantities.add(entry.getValue());
+            }
+        }
+        bookStockBatchRepository.updateStocks(ids.toArray(Long[]::new), quantities.toArray(Integer[]::new));
+    }
+
+    private String validate(InventoryService.BulkStockUpdateRequest request) {
+        if (request.getBookId() == null) {
+            return "書籍IDは必須です";
+        }
+        if (request.getType() == null) {
+            return "更新タイプは必須です";
+        }
+        if (request.getQuantity() == null) {
+            return "数量は必須です";
+        }
+        return null;
+    }
+
+    private StockUpdateRequest toStockUpdate(InventoryService.BulkStockUpdateRequest request) {
+        return StockUpdateRequest.builder()
+                .type(request.getType())
+                .quantity(request.getQuantity())
+                .reason(request.getReason())
+                .referenceNumber(request.getReferenceNumber())
+                .build();
+    }
+
+    private ItemResult rejected(int index, Long bookId, Status status, String message) {
+        return ItemResult.builder()
+                .index(index)
+                .bookId(bookId)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
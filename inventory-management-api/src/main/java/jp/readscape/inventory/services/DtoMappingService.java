@@ -2,6 +2,7 @@ package jp.readscape.inventory.services;
 
 import jp.readscape.inventory.constants.BusinessConstants;
 import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.model.InventoryItemView;
 import jp.readscape.inventory.domain.inventory.model.StockHistory;
 import jp.readscape.inventory.domain.orders.model.Order;
 import jp.readscape.inventory.domain.orders.model.OrderItem;
@@ -90,6 +91,35 @@ public class DtoMappingService {
         return item;
     }
 
+    /**
+     * 在庫一覧の射影からInventoryItemへの変換
+     */
+    public InventoryItem mapToInventoryItem(InventoryItemView view) {
+        if (view == null) {
+            return null;
+        }
+
+        Integer stock = view.getStockQuantity();
+        Integer threshold = view.getLowStockThreshold();
+        boolean outOfStock = stock == null || stock <= 0;
+        boolean lowStock = stock != null && threshold != null && stock <= threshold;
+
+        return InventoryItem.builder()
+                .bookId(view.getId())
+                .title(view.getTitle())
+                .author(view.getAuthor())
+                .isbn(view.getIsbn())
+                .category(view.getCategory())
+                .stockQuantity(stock)
+                .lowStockThreshold(threshold)
+                .isLowStock(lowStock)
+                .isOutOfStock(outOfStock)
+                .stockStatus(determineStockStatus(outOfStock, lowStock))
+                .status(view.getStatus())
+                .lastUpdatedAt(view.getUpdatedAt())
+                .build();
+    }
+
     /**
      * BookからLowStockItemへの変換
      */
@@ -303,9 +333,13 @@ public class DtoMappingService {
     // プライベートヘルパーメソッド
 
     private String determineStockStatus(Book book) {
-        if (book.isOutOfStock()) {
+        return determineStockStatus(book.isOutOfStock(), book.isLowStock());
+    }
+
+    private String determineStockStatus(boolean outOfStock, boolean lowStock) {
+        if (outOfStock) {
             return "在庫切れ";
-        } else if (book.isLowStock()) {
+        } else if (lowStock) {
             return "低在庫";
         } else {
             return "正常";
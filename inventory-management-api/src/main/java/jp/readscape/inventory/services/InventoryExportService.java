@@ -0,0 +1,121 @@
+package jp.readscape.inventory.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.readscape.inventory.dto.inventory.InventoryExportFormat;
+import jp.readscape.inventory.dto.inventory.InventoryFilter;
+import jp.readscape.inventory.dto.inventory.InventoryItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 在庫エクスポート（倉庫システム連携用）
+ * InventoryService.streamInventory から1件ずつ受け取り、そのままレスポンスに書き出す（全件をメモリに載せない）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryExportService {
+
+    private static final String CSV_HEADER =
+            "bookId,title,author,isbn,category,stockQuantity,lowStockThreshold,stockStatus,status,lastUpdatedAt";
+
+    private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 在庫一覧を指定形式で出力する
+     *
+     * @return 出力件数
+     */
+    public long export(InventoryFilter filter, InventoryExportFormat format, OutputStream output) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        long count = switch (format) {
+            case NDJSON -> writeNdjson(filter, output);
+            case CSV -> writeCsv(filter, output);
+        };
+        log.info("Inventory exported as {}: {} items in {} ms", format, count, System.currentTimeMillis() - startedAt);
+        return count;
+    }
+
+    // プライベートメソッド
+
+    private long writeNdjson(InventoryFilter filter, OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return streamItems(filter, item -> {
+                objectMapper.writeValue(generator, item);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private long writeCsv(InventoryFilter filter, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long count = streamItems(filter, item -> {
+            writer.write(csvRow(item));
+            writer.write("\r\n");
+        });
+        writer.flush();
+        return count;
+    }
+
+    private long streamItems(InventoryFilter filter, ItemWriter itemWriter) throws IOException {
+        try {
+            return inventoryService.streamInventory(filter, item -> {
+                try {
+                    itemWriter.write(item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // クライアントの切断など（カーソルは streamInventory 側で閉じる）
+            throw e.getCause();
+        }
+    }
+
+    static String csvRow(InventoryItem item) {
+        return String.join(",",
+                csv(item.getBookId()),
+                csv(item.getTitle()),
+                csv(item.getAuthor()),
+                csv(item.getIsbn()),
+                csv(item.getCategory()),
+                csv(item.getStockQuantity()),
+                csv(item.getLowStockThreshold()),
+                csv(item.getStockStatus()),
+                csv(item.getStatus()),
+                csv(item.getLastUpdatedAt()));
+    }
+
+    /**
+     * RFC 4180 の形式で値を出力（区切り文字・引用符・改行を含む場合は引用符で囲む）
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface ItemWriter {
+        void write(InventoryItem item) throws IOException;
+    }
+}
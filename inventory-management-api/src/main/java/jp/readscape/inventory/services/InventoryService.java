@@ -2,6 +2,7 @@ package jp.readscape.inventory.services;
 
 import jp.readscape.inventory.constants.BusinessConstants;
 import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.model.InventoryItemView;
 import jp.readscape.inventory.domain.books.repository.BookRepository;
 import jp.readscape.inventory.domain.inventory.model.StockHistory;
 import jp.readscape.inventory.domain.inventory.repository.StockHistoryRepository;
@@ -9,6 +10,7 @@ import jp.readscape.inventory.domain.users.model.User;
 import jp.readscape.inventory.dto.inventory.*;
 import jp.readscape.inventory.exceptions.BookNotFoundException;
 import jp.readscape.inventory.exceptions.InsufficientStockException;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,8 +21,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -31,17 +36,53 @@ public class InventoryService {
     private final BookRepository bookRepository;
     private final StockHistoryRepository stockHistoryRepository;
     private final DtoMappingService dtoMappingService;
+    private final StockStripingService stockStripingService;
+    private final InventoryStatsTracker inventoryStatsTracker;
+    private final LowStockDetector lowStockDetector;
 
     /**
-     * 在庫一覧取得
+     * 在庫一覧取得（絞り込み・ページング）
+     * 一覧に必要な列だけを射影で取得する
      */
-    public List<InventoryItem> getInventory() {
-        log.debug("Getting inventory list");
+    public Page<InventoryItem> getInventory(InventoryFilter filter, int page, int size) {
+        log.debug("Getting inventory list - filter: {}, page: {}, size: {}", filter, page, size);
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0),
+                Math.min(Math.max(size, 1), BusinessConstants.MAX_PAGE_SIZE));
+        return bookRepository.findInventory(
+                        toKeywordPattern(filter.getKeyword()),
+                        blankToNull(filter.getCategory()),
+                        filter.getStatus(),
+                        filter.isLowStockOnly(),
+                        filter.getUpdatedSince(),
+                        pageable)
+                .map(dtoMappingService::mapToInventoryItem);
+    }
 
-        List<Book> books = bookRepository.findAll(Sort.by("updatedAt").descending());
-        return books.stream()
-                .map(dtoMappingService::mapToInventoryItem)
-                .collect(Collectors.toList());
+    /**
+     * 在庫一覧をストリーミングで出力（倉庫システム連携用）
+     * DBカーソルから一定件数ずつ読み出して1件ずつ consumer に渡すため、件数によらずメモリ使用量は一定
+     * 呼び出し元のスレッドでトランザクションを開始し、出力が終わるまでカーソルを保持する
+     *
+     * @return 出力件数
+     */
+    public long streamInventory(InventoryFilter filter, Consumer<InventoryItem> consumer) {
+        log.debug("Streaming inventory - filter: {}", filter);
+
+        long count = 0;
+        try (Stream<InventoryItemView> views = bookRepository.streamInventory(
+                toKeywordPattern(filter.getKeyword()),
+                blankToNull(filter.getCategory()),
+                filter.getStatus(),
+                filter.isLowStockOnly(),
+                filter.getUpdatedSince())) {
+            Iterator<InventoryItemView> iterator = views.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(dtoMappingService.mapToInventoryItem(iterator.next()));
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -51,10 +92,15 @@ public class InventoryService {
     public void updateStock(Long bookId, StockUpdateRequest request, Long userId) {
         log.debug("Updating stock for book: {}, type: {}, quantity: {}", bookId, request.getType(), request.getQuantity());
 
-        Book book = bookRepository.findById(bookId)
+        // 行ロックを取得してから変更前の在庫を読み、同時に走る注文の減算を上書きしないようにする
+        Book book = bookRepository.findByIdForUpdate(bookId)
                 .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません: " + bookId));
+        InventoryStatsTracker.BookStock before = InventoryStatsTracker.BookStock.of(book);
 
-        Integer currentStock = book.getStockQuantity() != null ? book.getStockQuantity() : 0;
+        // ストライプ有効な書籍はストライプをロックして合計を現在在庫とする
+        Integer currentStock = book.isStockStriped()
+                ? stockStripingService.lockStripedStock(bookId)
+                : (book.getStockQuantity() != null ? book.getStockQuantity() : 0);
         Integer changeAmount = request.getNormalizedQuantity();
         Integer newStock = currentStock + changeAmount;
 
@@ -67,8 +113,15 @@ public class InventoryService {
         }
 
         // 在庫を更新
-        book.setStock(Math.max(0, newStock));
+        if (book.isStockStriped()) {
+            stockStripingService.setStripedStock(book, Math.max(0, newStock));
+        } else {
+            book.setStock(Math.max(0, newStock));
+        }
         bookRepository.save(book);
+        InventoryStatsTracker.BookStock after = InventoryStatsTracker.BookStock.of(book);
+        inventoryStatsTracker.recordChange(before, after);
+        lowStockDetector.onStockChange(bookId, book.getTitle(), before, after);
 
         // 在庫履歴を記録
         recordStockHistory(book, userId, request.getType(), changeAmount, 
@@ -128,30 +181,11 @@ public class InventoryService {
     }
 
     /**
-     * 在庫統計取得
+     * 在庫統計取得（InventoryStatsTracker のカウンターから返す）
      */
     public InventoryStatistics getInventoryStatistics() {
         log.debug("Getting inventory statistics");
-
-        Object[] stats = bookRepository.getStockStatistics();
-        if (stats == null || stats.length < BusinessConstants.EXPECTED_STATS_COUNT) {
-            return InventoryStatistics.empty();
-        }
-
-        Long totalBooks = ((Number) stats[0]).longValue();
-        Long totalStock = stats[1] != null ? ((Number) stats[1]).longValue() : 0L;
-        Double averageStock = stats[BusinessConstants.AVERAGE_STOCK_INDEX] != null ? ((Number) stats[BusinessConstants.AVERAGE_STOCK_INDEX]).doubleValue() : 0.0;
-
-        List<Book> lowStockBooks = bookRepository.findLowStockBooks();
-        List<Book> outOfStockBooks = bookRepository.findOutOfStockBooks();
-
-        return InventoryStatistics.builder()
-                .totalBooks(totalBooks)
-                .totalStock(totalStock)
-                .averageStock(averageStock)
-                .lowStockCount(lowStockBooks.size())
-                .outOfStockCount(outOfStockBooks.size())
-                .build();
+        return inventoryStatsTracker.getStatistics();
     }
 
     /**
@@ -172,33 +206,25 @@ public class InventoryService {
                 .build();
     }
 
+    // プライベートメソッド
+
     /**
-     * 一括在庫調整
+     * キーワードを ILIKE の部分一致パターンに変換（ワイルドカード文字はエスケープ）
      */
-    @Transactional
-    public void bulkStockAdjustment(List<BulkStockUpdateRequest> requests, Long userId) {
-        log.debug("Processing bulk stock adjustment for {} items", requests.size());
-
-        for (BulkStockUpdateRequest request : requests) {
-            try {
-                StockUpdateRequest stockUpdate = StockUpdateRequest.builder()
-                        .type(request.getType())
-                        .quantity(request.getQuantity())
-                        .reason(request.getReason())
-                        .referenceNumber(request.getReferenceNumber())
-                        .build();
-                
-                updateStock(request.getBookId(), stockUpdate, userId);
-            } catch (Exception e) {
-                log.error("Failed to update stock for book {}: {}", request.getBookId(), e.getMessage());
-                // 個別エラーは記録するが処理は継続
-            }
+    private String toKeywordPattern(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
         }
-
-        log.info("Bulk stock adjustment completed for user: {}", userId);
+        String escaped = keyword.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
-    // プライベートメソッド
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
 
     /**
      * 在庫履歴を記録
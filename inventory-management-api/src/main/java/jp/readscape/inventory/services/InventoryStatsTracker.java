@@ -0,0 +1,185 @@
+package jp.readscape.inventory.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.model.InventoryStockTotals;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.services.alerts.LowStockDetector.BookStockChange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 在庫統計カウンター
+ * 販売中書籍の書籍数・在庫合計・低在庫数・在庫切れ数をメモリ上に保持し、統計APIは集計クエリを発行せずに返す
+ * このプロセスでの在庫変更と、注文イベント（consumer-api の注文による減算・キャンセルによる在庫戻し）の在庫変動はコミット後に差分で反映し、
+ * ストライプのスナップショット更新など差分を通知しない変更は、定期的な集計クエリとの照合で反映する
+ */
+@Slf4j
+@Service
+public class InventoryStatsTracker {
+
+    private final BookRepository bookRepository;
+    private final AtomicReference<Counters> counters = new AtomicReference<>();
+    private final Counter driftCounter;
+
+    public InventoryStatsTracker(BookRepository bookRepository, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.driftCounter = Counter.builder("readscape.inventory.stats.reconcile.drift")
+                .description("Reconciliations that corrected the in-memory inventory statistics")
+                .register(meterRegistry);
+        Gauge.builder("readscape.inventory.stats.total.stock", this, tracker -> tracker.current().totalStock())
+                .description("Total stock of active books")
+                .register(meterRegistry);
+        Gauge.builder("readscape.inventory.stats.low.stock", this, tracker -> tracker.current().lowStockCount())
+                .description("Active books at or below their low stock threshold")
+                .register(meterRegistry);
+        Gauge.builder("readscape.inventory.stats.out.of.stock", this, tracker -> tracker.current().outOfStockCount())
+                .description("Active books out of stock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 在庫統計を取得（初回のみ集計クエリで初期化する）
+     */
+    public InventoryService.InventoryStatistics getStatistics() {
+        Counters snapshot = counters.get();
+        if (snapshot == null) {
+            snapshot = refresh();
+        }
+        return InventoryService.InventoryStatistics.builder()
+                .totalBooks(snapshot.totalBooks())
+                .totalStock(snapshot.totalStock())
+                .averageStock(snapshot.totalBooks() > 0 ? (double) snapshot.totalStock() / snapshot.totalBooks() : 0.0)
+                .lowStockCount(Math.toIntExact(snapshot.lowStockCount()))
+                .outOfStockCount(Math.toIntExact(snapshot.outOfStockCount()))
+                .build();
+    }
+
+    /**
+     * 書籍の在庫状態の変更を反映（トランザクション内ではコミット後に反映する）
+     *
+     * @param before 変更前の状態（書籍の新規登録時は null）
+     * @param after  変更後の状態（書籍の削除時は null）
+     */
+    public void recordChange(BookStock before, BookStock after) {
+        record(Counters.of(after).minus(Counters.of(before)));
+    }
+
+    /**
+     * 複数書籍の在庫状態の変更をまとめて反映（注文イベント・注文キャンセルなど、LowStockDetector#resolve で閾値を補った変更）
+     */
+    public void recordChanges(Collection<BookStockChange> changes) {
+        Counters delta = Counters.ZERO;
+        for (BookStockChange change : changes) {
+            delta = delta.plus(Counters.of(change.after()).minus(Counters.of(change.before())));
+        }
+        record(delta);
+    }
+
+    /**
+     * 集計クエリとの照合
+     * 照合中に確定した変更との前後関係は保証しないため、ずれは次回の照合で補正される
+     */
+    @Scheduled(fixedDelayString = "${inventory.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        refresh();
+    }
+
+    // プライベートメソッド
+
+    /**
+     * 差分を反映（トランザクション内ではコミット後に反映する）
+     */
+    private void record(Counters delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    private Counters refresh() {
+        InventoryStockTotals totals = bookRepository.getStockTotals();
+        Counters actual = totals != null
+                ? new Counters(totals.getTotalBooks(), totals.getTotalStock(),
+                        totals.getLowStockCount(), totals.getOutOfStockCount())
+                : Counters.ZERO;
+
+        Counters previous = counters.getAndSet(actual);
+        if (previous != null && !previous.equals(actual)) {
+            driftCounter.increment();
+            log.debug("Inventory statistics reconciled: {} -> {}", previous, actual);
+        }
+        return actual;
+    }
+
+    private void apply(Counters delta) {
+        // 初回の照合前は差分を捨てる（照合の結果に含まれる）
+        counters.updateAndGet(current -> current != null ? current.plus(delta) : null);
+    }
+
+    private Counters current() {
+        Counters snapshot = counters.get();
+        return snapshot != null ? snapshot : Counters.ZERO;
+    }
+
+    /**
+     * 統計に影響する書籍の在庫状態
+     */
+    public record BookStock(boolean active, int stockQuantity, int lowStockThreshold) {
+
+        public static BookStock of(Book book) {
+            return new BookStock(
+                    book.getStatus() == Book.BookStatus.ACTIVE,
+                    book.getStockQuantity() != null ? book.getStockQuantity() : 0,
+                    book.getLowStockThreshold() != null ? book.getLowStockThreshold() : 0);
+        }
+    }
+
+    /**
+     * 販売中書籍の集計値
+     */
+    private record Counters(long totalBooks, long totalStock, long lowStockCount, long outOfStockCount) {
+
+        static final Counters ZERO = new Counters(0, 0, 0, 0);
+
+        static Counters of(BookStock stock) {
+            if (stock == null || !stock.active()) {
+                return ZERO;
+            }
+            return new Counters(1, stock.stockQuantity(),
+                    stock.stockQuantity() <= stock.lowStockThreshold() ? 1 : 0,
+                    stock.stockQuantity() <= 0 ? 1 : 0);
+        }
+
+        Counters plus(Counters other) {
+            return new Counters(totalBooks + other.totalBooks, totalStock + other.totalStock,
+                    lowStockCount + other.lowStockCount, outOfStockCount + other.outOfStockCount);
+        }
+
+        Counters minus(Counters other) {
+            return new Counters(totalBooks - other.totalBooks, totalStock - other.totalStock,
+                    lowStockCount - other.lowStockCount, outOfStockCount - other.outOfStockCount);
+        }
+
+        boolean isZero() {
+            return equals(ZERO);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package jp.readscape.inventory.services;
+
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.inventory.model.BookStockStripe;
+import jp.readscape.inventory.domain.inventory.repository.BookStockStripeRepository;
+import jp.readscape.inventory.dto.inventory.StockStripingStatus;
+import jp.readscape.inventory.exceptions.BookNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 在庫ストライプ管理サービス
+ * ホットSKUの在庫を複数のストライプ行に分散し、購入集中時の行ロック競合を緩和する
+ * ストライプ有効時の books.stock_quantity はストライプ合計のスナップショットとして定期的に更新する
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class StockStripingService {
+
+    private static final int MIN_STRIPES = 2;
+
+    private final BookRepository bookRepository;
+    private final BookStockStripeRepository stripeRepository;
+    private final int maxStripes;
+    private final double skewRatio;
+
+    public StockStripingService(BookRepository bookRepository,
+                                BookStockStripeRepository stripeRepository,
+                                @Value("${inventory.striping.max-stripes:64}") int maxStripes,
+                                @Value("${inventory.striping.skew-ratio:0.5}") double skewRatio) {
+        this.bookRepository = bookRepository;
+        this.stripeRepository = stripeRepository;
+        this.maxStripes = maxStripes;
+        this.skewRatio = skewRatio;
+    }
+
+    /**
+     * ストライプ状態を取得
+     */
+    public StockStripingStatus getStripingStatus(Long bookId) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません: " + bookId));
+        return toStatus(book, stripeRepository.findByBookIdOrderByStripeNo(bookId));
+    }
+
+    /**
+     * ストライプを有効化（有効な場合はストライプ数を変更）
+     * 書籍行をロックし、現在の在庫をストライプに均等配分する
+     */
+    @Transactional
+    public StockStripingStatus configureStriping(Long bookId, int stripeCount) {
+        if (stripeCount < MIN_STRIPES || stripeCount > maxStripes) {
+            throw new IllegalArgumentException(
+                String.format("ストライプ数は%d〜%dの範囲で指定してください", MIN_STRIPES, maxStripes));
+        }
+
+        Book book = lockBook(bookId);
+        int total = book.isStockStriped()
+                ? sumQuantities(stripeRepository.findByBookIdForUpdate(bookId))
+                : (book.getStockQuantity() != null ? book.getStockQuantity() : 0);
+
+        stripeRepository.deleteByBookId(bookId);
+        List<BookStockStripe> stripes = new ArrayList<>();
+        for (int stripeNo = 0; stripeNo < stripeCount; stripeNo++) {
+            stripes.add(BookStockStripe.builder()
+                    .bookId(bookId)
+                    .stripeNo(stripeNo)
+                    .build());
+        }
+        distribute(stripes, total);
+        stripeRepository.saveAll(stripes);
+
+        book.setStockStripeCount(stripeCount);
+        book.setStock(total);
+        bookRepository.save(book);
+
+        log.info("Stock striping configured for book {}: {} stripes, total stock {}", bookId, stripeCount, total);
+        return toStatus(book, stripes);
+    }
+
+    /**
+     * ストライプを無効化
+     * ストライプ合計を書籍行の在庫に戻してストライプを削除する
+     */
+    @Transactional
+    public StockStripingStatus disableStriping(Long bookId) {
+        Book book = lockBook(bookId);
+        if (!book.isStockStriped()) {
+            throw new IllegalStateException("この書籍の在庫ストライプは有効ではありません");
+        }
+
+        int total = sumQuantities(stripeRepository.findByBookIdForUpdate(bookId));
+        stripeRepository.deleteByBookId(bookId);
+
+        book.setStockStripeCount(0);
+        book.setStock(total);
+        bookRepository.save(book);
+
+        log.info("Stock striping disabled for book {}: total stock {}", bookId, total);
+        return toStatus(book, List.of());
+    }
+
+    /**
+     * ストライプ在庫を均等に再分配
+     */
+    @Transactional
+    public StockStripingStatus rebalance(Long bookId) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません: " + bookId));
+        if (!book.isStockStriped()) {
+            throw new IllegalStateException("この書籍の在庫ストライプは有効ではありません");
+        }
+
+        List<BookStockStripe> stripes = stripeRepository.findByBookIdForUpdate(bookId);
+        int total = sumQuantities(stripes);
+        distribute(stripes, total);
+        stripeRepository.saveAll(stripes);
+        refreshSnapshot(book, total);
+
+        log.info("Rebalanced {} stripes of book {}: total stock {}", stripes.size(), bookId, total);
+        return toStatus(book, stripes);
+    }
+
+    /**
+     * ストライプをロックして在庫合計を取得（在庫更新の前処理）
+     */
+    @Transactional
+    public int lockStripedStock(Long bookId) {
+        return sumQuantities(stripeRepository.findByBookIdForUpdate(bookId));
+    }
+
+    /**
+     * ストライプ在庫に加算（注文キャンセル時の在庫復元）
+     * ランダムなストライプに加算し、加算後のストライプ合計を返す（ストライプが存在しない場合は空）
+     */
+    @Transactional
+    public Optional<Integer> restoreStripedStock(Book book, int quantity) {
+        int stripeNo = ThreadLocalRandom.current().nextInt(book.getStockStripeCount());
+        if (stripeRepository.incrementStripe(book.getId(), stripeNo, quantity) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(stripeRepository.findQuantitiesByBookId(book.getId()).stream()
+                .mapToInt(Integer::intValue)
+                .sum());
+    }
+
+    /**
+     * ストライプ在庫の合計を指定値に設定し、均等に再分配
+     * 書籍行のスナップショットも更新する（保存は呼び出し側で行う）
+     */
+    @Transactional
+    public void setStripedStock(Book book, int total) {
+        List<BookStockStripe> stripes = stripeRepository.findByBookIdForUpdate(book.getId());
+        distribute(stripes, total);
+        stripeRepository.saveAll(stripes);
+        book.setStock(total);
+    }
+
+    /**
+     * 偏ったストライプの再分配とスナップショット更新
+     * 一部のストライプが平均の skew-ratio 未満まで減っている書籍のみロックして再分配する
+     */
+    @Scheduled(fixedDelayString = "${inventory.striping.rebalance-interval-ms:30000}")
+    @Transactional
+    public void rebalanceSkewedStripes() {
+        int rebalanced = 0;
+        for (Long bookId : bookRepository.findStockStripedBookIds()) {
+            // 偏りの判定はロックなしで行い、再分配が必要な書籍のみロックする
+            List<Integer> quantities = stripeRepository.findQuantitiesByBookId(bookId);
+            if (quantities.isEmpty()) {
+                continue;
+            }
+
+            int total = quantities.stream().mapToInt(Integer::intValue).sum();
+            if (isSkewed(quantities, total)) {
+                List<BookStockStripe> stripes = stripeRepository.findByBookIdForUpdate(bookId);
+                total = sumQuantities(stripes);
+                distribute(stripes, total);
+                stripeRepository.saveAll(stripes);
+                rebalanced++;
+            }
+
+            int snapshot = total;
+            bookRepository.findById(bookId).ifPresent(book -> refreshSnapshot(book, snapshot));
+        }
+
+        if (rebalanced > 0) {
+            log.info("Rebalanced skewed stock stripes for {} books", rebalanced);
+        }
+    }
+
+    // プライベートメソッド
+
+    private Book lockBook(Long bookId) {
+        return bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません: " + bookId));
+    }
+
+    private boolean isSkewed(List<Integer> quantities, int total) {
+        if (total < quantities.size()) {
+            return false;
+        }
+        double average = (double) total / quantities.size();
+        return quantities.stream().anyMatch(quantity -> quantity < average * skewRatio);
+    }
+
+    /**
+     * 在庫をストライプに均等配分（端数は先頭のストライプから1つずつ）
+     */
+    private void distribute(List<BookStockStripe> stripes, int total) {
+        int base = total / stripes.size();
+        int remainder = total % stripes.size();
+        for (int i = 0; i < stripes.size(); i++) {
+            stripes.get(i).setQuantity(base + (i < remainder ? 1 : 0));
+        }
+    }
+
+    private void refreshSnapshot(Book book, int total) {
+        if (book.getStockQuantity() == null || book.getStockQuantity() != total) {
+            book.setStock(total);
+            bookRepository.save(book);
+        }
+    }
+
+    private int sumQuantities(List<BookStockStripe> stripes) {
+        return stripes.stream().mapToInt(BookStockStripe::getQuantity).sum();
+    }
+
+    private StockStripingStatus toStatus(Book book, List<BookStockStripe> stripes) {
+        return StockStripingStatus.builder()
+                .bookId(book.getId())
+                .title(book.getTitle())
+                .enabled(book.isStockStriped())
+                .stripeCount(book.getStockStripeCount())
+                .totalStock(book.isStockStriped() ? sumQuantities(stripes) : book.getStockQuantity())
+                .stripeQuantities(stripes.stream()
+                        .map(BookStockStripe::getQuantity)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package jp.readscape.inventory.services.alerts;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 低在庫アラート（在庫が閾値をまたいだ時点で管理画面へ通知する）
+ */
+@Value
+@Builder
+public class LowStockAlert {
+
+    Type type;
+    Long bookId;
+    String title;
+    Integer stockQuantity;
+    Integer lowStockThreshold;
+    LocalDateTime occurredAt;
+
+    public enum Type {
+        /** 在庫が閾値以下になった */
+        LOW_STOCK,
+        /** 在庫切れになった */
+        OUT_OF_STOCK,
+        /** 在庫が閾値を上回り低在庫を解消した */
+        RESTOCKED
+    }
+}
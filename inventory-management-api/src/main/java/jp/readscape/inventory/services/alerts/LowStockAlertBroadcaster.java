@@ -0,0 +1,269 @@
+package jp.readscape.inventory.services.alerts;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 低在庫アラートのSSE配信
+ * 管理画面の全接続で1つのインスタンスを共有し、接続ごとに上限付きのバッファを持つ
+ * 配信は少数の送信スレッドで行い、1回の実行で1接続に1件だけ送って実行キューの末尾に回すため、送信の遅い接続が他の接続の配信を待たせない
+ * SSEの送信はブロッキング書き込みのため、書き込みタイムアウトを超えた接続は送信スレッドに割り込んで切断する
+ * 送信の遅い接続はバッファが溢れた分の古いアラートを破棄する（在庫更新は送信を待たない）
+ */
+@Slf4j
+@Component
+public class LowStockAlertBroadcaster {
+
+    static final String EVENT_NAME = "low-stock";
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+    private final int bufferSize;
+    private final int maxClients;
+    private final Duration sseTimeout;
+    private final Duration writeTimeout;
+    private final Counter droppedCounter;
+    private final Counter stalledCounter;
+
+    public LowStockAlertBroadcaster(MeterRegistry meterRegistry,
+                                    @Value("${inventory.low-stock-alerts.buffer-size:256}") int bufferSize,
+                                    @Value("${inventory.low-stock-alerts.max-clients:200}") int maxClients,
+                                    @Value("${inventory.low-stock-alerts.sender-threads:2}") int senderThreads,
+                                    @Value("${inventory.low-stock-alerts.sse-timeout:PT30M}") Duration sseTimeout,
+                                    @Value("${inventory.low-stock-alerts.write-timeout:PT10S}") Duration writeTimeout) {
+        this.bufferSize = bufferSize;
+        this.maxClients = maxClients;
+        this.sseTimeout = sseTimeout;
+        this.writeTimeout = writeTimeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "low-stock-sse-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.droppedCounter = Counter.builder("readscape.inventory.low.stock.alerts.dropped")
+                .description("Low stock alerts dropped because a client buffer was full")
+                .register(meterRegistry);
+        this.stalledCounter = Counter.builder("readscape.inventory.low.stock.alerts.stalled")
+                .description("Low stock alert clients disconnected because a write exceeded the write timeout")
+                .register(meterRegistry);
+        Gauge.builder("readscape.inventory.low.stock.alerts.clients", clients, Set::size)
+                .description("Connected low stock alert clients")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 購読を開始（接続数が上限に達している場合は空）
+     */
+    public Optional<SseEmitter> subscribe() {
+        if (clients.size() >= maxClients) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        register(emitter);
+        return Optional.of(emitter);
+    }
+
+    void register(SseEmitter emitter) {
+        Client client = new Client(emitter);
+        clients.add(client);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(error -> clients.remove(client));
+    }
+
+    /**
+     * 全接続へアラートを配信（呼び出し元は送信を待たない）
+     */
+    public void broadcast(LowStockAlert alert) {
+        Message message = new Message(sequence.incrementAndGet(), alert);
+        for (Client client : clients) {
+            if (!client.offer(message, bufferSize)) {
+                droppedCounter.increment();
+            }
+            schedule(client);
+        }
+    }
+
+    /**
+     * 切断を検出し、プロキシのアイドルタイムアウトを避けるための定期コメント
+     */
+    @Scheduled(fixedDelayString = "${inventory.low-stock-alerts.heartbeat-interval-ms:15000}")
+    public void sendHeartbeat() {
+        for (Client client : clients) {
+            // 送信待ちがある接続はそのアラートの送信で生存確認できる
+            if (!client.hasPending()) {
+                client.offer(Message.HEARTBEAT, bufferSize);
+                schedule(client);
+            }
+        }
+    }
+
+    /**
+     * 書き込みタイムアウトを超えて送信中の接続を切断
+     * 送信中のスレッドはエミッターのロックを保持しているため、ここでは割り込みと配信対象からの除外のみ行い、
+     * エミッターの終了は割り込まれた送信スレッドが行う
+     */
+    @Scheduled(fixedDelayString = "${inventory.low-stock-alerts.write-timeout-check-interval-ms:1000}")
+    public void evictStalledClients() {
+        long now = System.nanoTime();
+        for (Client client : clients) {
+            if (client.interruptIfStalled(now, writeTimeout.toNanos())) {
+                log.warn("Low stock alert client stalled for more than {}, disconnecting", writeTimeout);
+                stalledCounter.increment();
+                clients.remove(client);
+                client.clear();
+            }
+        }
+    }
+
+    public int connectedClients() {
+        return clients.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(client -> client.emitter.complete());
+        clients.clear();
+        executor.shutdownNow();
+    }
+
+    // プライベートメソッド
+
+    private void schedule(Client client) {
+        if (client.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(client));
+        }
+    }
+
+    /**
+     * 接続のバッファから1件送信（1接続につき同時に1スレッドのみ）
+     * 残りがあれば実行キューの末尾に積み直し、他の接続の送信と交互に処理する
+     */
+    private void drain(Client client) {
+        try {
+            Message message = client.poll();
+            if (message != null) {
+                send(client, message);
+            }
+        } finally {
+            client.draining.set(false);
+            // 終了判定とバッファ追加が競合した場合の取りこぼしを防ぐ
+            if (client.hasPending() && clients.contains(client)) {
+                schedule(client);
+            }
+        }
+    }
+
+    private void send(Client client, Message message) {
+        client.beginSend();
+        try {
+            if (message.alert() == null) {
+                client.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                client.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(message.id()))
+                        .name(EVENT_NAME)
+                        .data(message.alert()));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Low stock alert client disconnected: {}", e.getMessage());
+            clients.remove(client);
+            client.clear();
+            client.emitter.completeWithError(e);
+        } finally {
+            client.endSend();
+            // 書き込みタイムアウトによる割り込みを次の送信に持ち越さない
+            Thread.interrupted();
+        }
+    }
+
+    private record Message(long id, LowStockAlert alert) {
+        static final Message HEARTBEAT = new Message(0, null);
+    }
+
+    /**
+     * 接続ごとの上限付きバッファ（溢れた場合は最も古いアラートを破棄する）
+     */
+    private static final class Client {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<Message> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private Thread sender;
+        private long sendStartedAt;
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return 破棄せずに追加できた場合は true
+         */
+        synchronized boolean offer(Message message, int capacity) {
+            boolean accepted = true;
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                accepted = false;
+            }
+            buffer.addLast(message);
+            return accepted;
+        }
+
+        synchronized Message poll() {
+            return buffer.pollFirst();
+        }
+
+        synchronized boolean hasPending() {
+            return !buffer.isEmpty();
+        }
+
+        synchronized void clear() {
+            buffer.clear();
+        }
+
+        synchronized void beginSend() {
+            sender = Thread.currentThread();
+            sendStartedAt = System.nanoTime();
+        }
+
+        synchronized void endSend() {
+            sender = null;
+        }
+
+        /**
+         * 送信がタイムアウトを超えていれば送信スレッドに割り込む（送信完了との競合はロックで防ぐ）
+         */
+        synchronized boolean interruptIfStalled(long now, long timeoutNanos) {
+            if (sender == null || now - sendStartedAt <= timeoutNanos) {
+                return false;
+            }
+            sender.interrupt();
+            sender = null;
+            return true;
+        }
+    }
+}
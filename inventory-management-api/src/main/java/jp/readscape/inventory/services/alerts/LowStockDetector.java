@@ -0,0 +1,154 @@
+package jp.readscape.inventory.services.alerts;
+
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.services.InventoryStatsTracker.BookStock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 低在庫検出
+ * 在庫変更の時点で変更前後の在庫数を閾値と比較し、低在庫・在庫切れ・低在庫解消の境界をまたいだ場合のみアラートを配信する
+ * 全書籍の定期走査は行わず、トランザクション内の変更はコミット後に配信する
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LowStockDetector {
+
+    private final BookRepository bookRepository;
+    private final LowStockAlertBroadcaster lowStockAlertBroadcaster;
+
+    /**
+     * 書籍1件の在庫変更を評価
+     */
+    public void onStockChange(Long bookId, String title, BookStock before, BookStock after) {
+        onStockChanges(List.of(new BookStockChange(bookId, title, before, after)));
+    }
+
+    /**
+     * 複数書籍の在庫変更をまとめて評価
+     */
+    public void onStockChanges(List<BookStockChange> changes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LowStockAlert> alerts = new ArrayList<>();
+        for (BookStockChange change : changes) {
+            evaluate(change.before(), change.after()).ifPresent(type -> alerts.add(LowStockAlert.builder()
+                    .type(type)
+                    .bookId(change.bookId())
+                    .title(change.title())
+                    .stockQuantity(change.after().stockQuantity())
+                    .lowStockThreshold(change.after().lowStockThreshold())
+                    .occurredAt(now)
+                    .build()));
+        }
+        publish(alerts);
+    }
+
+    /**
+     * 注文イベント・注文キャンセルなど閾値を持たない在庫変動に、販売中の書籍のタイトルと閾値を補う（1回のクエリで取得する）
+     * 在庫数が変わらない書籍は除き、販売中でない書籍は active = false として返す
+     */
+    public List<BookStockChange> resolve(Collection<StockLevelChange> changes) {
+        List<StockLevelChange> moved = changes.stream()
+                .filter(change -> change.quantityBefore() != change.quantityAfter())
+                .collect(Collectors.toList());
+        if (moved.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> targets = bookRepository.findAlertTargetsByIds(
+                moved.stream().map(StockLevelChange::bookId).collect(Collectors.toSet()));
+        Map<Long, Object[]> targetsById = targets.stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> row));
+
+        List<BookStockChange> resolved = new ArrayList<>(moved.size());
+        for (StockLevelChange change : moved) {
+            Object[] target = targetsById.get(change.bookId());
+            boolean active = target != null;
+            int threshold = active ? (Integer) target[2] : 0;
+            resolved.add(new BookStockChange(change.bookId(), active ? (String) target[1] : null,
+                    new BookStock(active, change.quantityBefore(), threshold),
+                    new BookStock(active, change.quantityAfter(), threshold)));
+        }
+        return resolved;
+    }
+
+    /**
+     * 変更前後の在庫から通知種別を判定（販売中でない書籍は低在庫として扱わない）
+     */
+    static Optional<LowStockAlert.Type> evaluate(BookStock before, BookStock after) {
+        Level previous = Level.of(before);
+        Level current = Level.of(after);
+        if (current == previous) {
+            return Optional.empty();
+        }
+        return switch (current) {
+            case OUT_OF_STOCK -> Optional.of(LowStockAlert.Type.OUT_OF_STOCK);
+            case LOW_STOCK -> previous == Level.NORMAL ? Optional.of(LowStockAlert.Type.LOW_STOCK) : Optional.empty();
+            case NORMAL -> after != null && after.active() ? Optional.of(LowStockAlert.Type.RESTOCKED) : Optional.empty();
+        };
+    }
+
+    // プライベートメソッド
+
+    private void publish(List<LowStockAlert> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(alerts);
+                }
+            });
+        } else {
+            broadcast(alerts);
+        }
+    }
+
+    private void broadcast(List<LowStockAlert> alerts) {
+        for (LowStockAlert alert : alerts) {
+            log.debug("Low stock alert: {} book={} stock={} threshold={}",
+                    alert.getType(), alert.getBookId(), alert.getStockQuantity(), alert.getLowStockThreshold());
+            lowStockAlertBroadcaster.broadcast(alert);
+        }
+    }
+
+    private enum Level {
+        NORMAL, LOW_STOCK, OUT_OF_STOCK;
+
+        static Level of(BookStock stock) {
+            if (stock == null || !stock.active()) {
+                return NORMAL;
+            }
+            if (stock.stockQuantity() <= 0) {
+                return OUT_OF_STOCK;
+            }
+            return stock.stockQuantity() <= stock.lowStockThreshold() ? LOW_STOCK : NORMAL;
+        }
+    }
+
+    /**
+     * 書籍ごとの在庫数の変化
+     */
+    public record StockLevelChange(Long bookId, int quantityBefore, int quantityAfter) {
+    }
+
+    /**
+     * 閾値・販売状態を含む書籍ごとの在庫状態の変化
+     */
+    public record BookStockChange(Long bookId, String title, BookStock before, BookStock after) {
+    }
+}
@@ -0,0 +1,33 @@
+package jp.readscape.inventory.services.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 注文に伴う在庫変動イベント（消費者APIが発行するアウトボックスのペイロード）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStockEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private LocalDateTime occurredAt;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long bookId;
+        private Integer quantity;
+        // 変動後の在庫数（未設定の場合は処理時点の在庫数で補う）
+        private Integer stockAfter;
+    }
+}
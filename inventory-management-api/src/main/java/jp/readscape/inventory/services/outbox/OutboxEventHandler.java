@@ -0,0 +1,22 @@
+package jp.readscape.inventory.services.outbox;
+
+import jp.readscape.inventory.domain.outbox.model.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * アウトボックスイベントのハンドラー
+ * 同じイベントが再配信されることがあるため、処理は冪等に実装する
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * 処理対象のイベント種別か
+     */
+    boolean supports(String eventType);
+
+    /**
+     * イベントをまとめて処理（リレーのトランザクション内で呼び出される）
+     */
+    void handle(List<OutboxMessage> messages);
+}
@@ -0,0 +1,220 @@
+package jp.readscape.inventory.services.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jp.readscape.inventory.domain.outbox.model.OutboxMessage;
+import jp.readscape.inventory.domain.outbox.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * アウトボックスリレーサービス
+ * 消費者APIが記録した注文イベントをバッチで取得し、ハンドラーに配信する（少なくとも1回の配信）
+ * 取得は FOR UPDATE SKIP LOCKED のため、複数インスタンスで同時に実行しても同じイベントを二重に処理しない
+ * PostgreSQL 専用のSQLを使うため、inventory.outbox.enabled=true のプロファイル（docker / prod）でのみ起動する
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "inventory.outbox.enabled", havingValue = "true", matchIfMissing = false)
+public class OutboxRelayService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLagTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong deadEvents = new AtomicLong();
+
+    public OutboxRelayService(OutboxEventRepository outboxEventRepository,
+                              List<OutboxEventHandler> handlers,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${inventory.outbox.batch-size:200}") int batchSize,
+                              @Value("${inventory.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                              @Value("${inventory.outbox.max-attempts:10}") int maxAttempts,
+                              @Value("${inventory.outbox.retention:P7D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+
+        this.deliveredCounter = Counter.builder("readscape.outbox.relay.delivered")
+                .description("Outbox events delivered to handlers")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("readscape.outbox.relay.failed")
+                .description("Outbox event deliveries that failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("readscape.outbox.relay.batch")
+                .description("Outbox relay batch processing time")
+                .register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("readscape.outbox.relay.delivery.lag")
+                .description("Time from event creation to delivery")
+                .register(meterRegistry);
+        Gauge.builder("readscape.outbox.relay.lag.seconds", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest undelivered outbox event")
+                .register(meterRegistry);
+        Gauge.builder("readscape.outbox.relay.pending", pendingEvents, AtomicLong::get)
+                .description("Undelivered outbox events")
+                .register(meterRegistry);
+        Gauge.builder("readscape.outbox.relay.dead", deadEvents, AtomicLong::get)
+                .description("Outbox events that reached the maximum number of attempts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 未配信イベントを配信
+     * バッチが満杯の間は続けて取得し、1回のポーリングで最大 max-batches-per-poll バッチまで処理する
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval-ms:1000}")
+    public void relayPendingEvents() {
+        int batches = 0;
+        int delivered;
+        do {
+            delivered = relayBatch();
+            batches++;
+        } while (delivered >= batchSize && batches < maxBatchesPerPoll);
+
+        refreshLagMetrics();
+    }
+
+    /**
+     * 1バッチ分のイベントを配信
+     * @return 取得したイベント数
+     */
+    public int relayBatch() {
+        try {
+            Integer claimed = batchTimer.record(() -> transactionTemplate.execute(status -> {
+                List<OutboxMessage> batch = outboxEventRepository.claimBatch(batchSize, maxAttempts);
+                if (batch.isEmpty()) {
+                    return 0;
+                }
+                dispatch(batch);
+                outboxEventRepository.markProcessed(ids(batch));
+                recordDelivered(batch);
+                return batch.size();
+            }));
+            return claimed != null ? claimed : 0;
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch delivery failed, retrying events one by one: {}", e.getMessage());
+            return relayIndividually();
+        }
+    }
+
+    /**
+     * 保持期間を過ぎた配信済みイベントを削除
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.cleanup-interval-ms:3600000}")
+    public void purgeProcessedEvents() {
+        int deleted = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} delivered outbox events", deleted);
+        }
+    }
+
+    // プライベートメソッド
+
+    /**
+     * バッチ処理が失敗した場合、イベントごとにセーブポイントを切って配信し、失敗したイベントのみを隔離する
+     */
+    private int relayIndividually() {
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxEventRepository.claimBatch(batchSize, maxAttempts);
+            List<OutboxMessage> delivered = new ArrayList<>();
+
+            for (OutboxMessage message : batch) {
+                Object savepoint = status.createSavepoint();
+                try {
+                    dispatch(List.of(message));
+                    status.releaseSavepoint(savepoint);
+                    delivered.add(message);
+                } catch (RuntimeException e) {
+                    status.rollbackToSavepoint(savepoint);
+                    outboxEventRepository.recordFailure(message.getId(), e.getMessage());
+                    failedCounter.increment();
+                    log.error("Failed to deliver outbox event {} ({}), attempt {}: {}",
+                            message.getId(), message.getEventType(), message.getAttempts() + 1, e.getMessage());
+                }
+            }
+
+            outboxEventRepository.markProcessed(ids(delivered));
+            recordDelivered(delivered);
+            return batch.size();
+        });
+        return claimed != null ? claimed : 0;
+    }
+
+    /**
+     * イベント種別ごとにまとめてハンドラーへ配信
+     */
+    private void dispatch(List<OutboxMessage> messages) {
+        Map<String, List<OutboxMessage>> byType = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            byType.computeIfAbsent(message.getEventType(), type -> new ArrayList<>()).add(message);
+        }
+
+        byType.forEach((eventType, events) -> {
+            boolean handled = false;
+            for (OutboxEventHandler handler : handlers) {
+                if (handler.supports(eventType)) {
+                    handler.handle(events);
+                    handled = true;
+                }
+            }
+            if (!handled) {
+                log.debug("No handler for outbox event type {}, marking {} events as delivered", eventType, events.size());
+            }
+        });
+    }
+
+    private void recordDelivered(List<OutboxMessage> messages) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMessage message : messages) {
+            deliveryLagTimer.record(Duration.between(message.getCreatedAt(), now));
+        }
+        deliveredCounter.increment(messages.size());
+    }
+
+    private void refreshLagMetrics() {
+        try {
+            lagMillis.set(outboxEventRepository.findOldestPendingCreatedAt(maxAttempts)
+                    .map(createdAt -> Math.max(0, Duration.between(createdAt, LocalDateTime.now()).toMillis()))
+                    .orElse(0L));
+            long[] counts = outboxEventRepository.countPending(maxAttempts);
+            pendingEvents.set(counts[0]);
+            deadEvents.set(counts[1]);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh outbox lag metrics: {}", e.getMessage());
+        }
+    }
+
+    private List<Long> ids(List<OutboxMessage> messages) {
+        return messages.stream().map(OutboxMessage::getId).toList();
+    }
+}
@@ -0,0 +1,150 @@
+package jp.readscape.inventory.services.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.inventory.model.OrderStockMovement;
+import jp.readscape.inventory.domain.inventory.model.StockHistory;
+import jp.readscape.inventory.domain.inventory.repository.StockHistoryBatchRepository;
+import jp.readscape.inventory.domain.outbox.model.OutboxMessage;
+import jp.readscape.inventory.services.InventoryStatsTracker;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 注文イベントから在庫履歴を記録するハンドラー
+ * 注文作成は出庫（OUTBOUND）、キャンセルは返品（RETURN）として記録する
+ * 記録した在庫変動は在庫統計カウンターと低在庫検出にも渡す（注文による在庫切れ・在庫戻しを反映・通知する）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockHistoryEventHandler implements OutboxEventHandler {
+
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private final StockHistoryBatchRepository stockHistoryBatchRepository;
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final LowStockDetector lowStockDetector;
+    private final InventoryStatsTracker inventoryStatsTracker;
+
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxMessage.ORDER_CREATED.equals(eventType) || OutboxMessage.ORDER_CANCELLED.equals(eventType);
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> messages) {
+        Map<OutboxMessage, OrderStockEvent> events = new HashMap<>();
+        for (OutboxMessage message : messages) {
+            events.put(message, parse(message));
+        }
+
+        Map<Long, Integer> currentStock = findCurrentStockForMissingLevels(events.values());
+
+        List<OrderStockMovement> movements = new ArrayList<>();
+        for (OutboxMessage message : messages) {
+            OrderStockEvent event = events.get(message);
+            boolean cancelled = OutboxMessage.ORDER_CANCELLED.equals(message.getEventType());
+            for (OrderStockEvent.Item item : event.getItems()) {
+                movements.add(toMovement(event, item, cancelled, currentStock));
+            }
+        }
+
+        int inserted = stockHistoryBatchRepository.insertOrderMovements(movements, JDBC_BATCH_SIZE);
+        log.debug("Recorded {} stock history rows from {} order events ({} duplicates skipped)",
+                inserted, messages.size(), movements.size() - inserted);
+
+        List<LowStockDetector.BookStockChange> changes = lowStockDetector.resolve(toStockLevelChanges(movements));
+        inventoryStatsTracker.recordChanges(changes);
+        lowStockDetector.onStockChanges(changes);
+    }
+
+    // プライベートメソッド
+
+    private OrderStockEvent parse(OutboxMessage message) {
+        try {
+            OrderStockEvent event = objectMapper.readValue(message.getPayload(), OrderStockEvent.class);
+            if (event.getOrderId() == null || event.getItems() == null) {
+                throw new IllegalStateException("注文イベントの内容が不正です: " + message.getId());
+            }
+            return event;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("注文イベントの解析に失敗しました: " + message.getId(), e);
+        }
+    }
+
+    /**
+     * 変動後の在庫数が含まれない明細について、処理時点の在庫数をまとめて取得
+     */
+    private Map<Long, Integer> findCurrentStockForMissingLevels(Iterable<OrderStockEvent> events) {
+        Set<Long> bookIds = new HashSet<>();
+        for (OrderStockEvent event : events) {
+            event.getItems().stream()
+                    .filter(item -> item.getStockAfter() == null)
+                    .map(OrderStockEvent.Item::getBookId)
+                    .filter(Objects::nonNull)
+                    .forEach(bookIds::add);
+        }
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return bookRepository.findStockQuantitiesByIds(bookIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Integer) row[1]));
+    }
+
+    /**
+     * 書籍ごとに最初の変動前在庫と最後の変動後在庫をまとめる
+     */
+    private List<LowStockDetector.StockLevelChange> toStockLevelChanges(List<OrderStockMovement> movements) {
+        Map<Long, int[]> levels = new LinkedHashMap<>();
+        for (OrderStockMovement movement : movements) {
+            if (movement.getBookId() == null) {
+                continue;
+            }
+            levels.computeIfAbsent(movement.getBookId(), bookId -> new int[]{movement.getQuantityBefore(), 0})[1] =
+                    movement.getQuantityAfter();
+        }
+        List<LowStockDetector.StockLevelChange> changes = new ArrayList<>(levels.size());
+        levels.forEach((bookId, level) -> changes.add(new LowStockDetector.StockLevelChange(bookId, level[0], level[1])));
+        return changes;
+    }
+
+    private OrderStockMovement toMovement(OrderStockEvent event, OrderStockEvent.Item item,
+                                          boolean cancelled, Map<Long, Integer> currentStock) {
+        int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+        int quantityChanged = cancelled ? quantity : -quantity;
+        int quantityAfter = item.getStockAfter() != null
+                ? item.getStockAfter()
+                : currentStock.getOrDefault(item.getBookId(), 0);
+
+        return OrderStockMovement.builder()
+                .bookId(item.getBookId())
+                .changeType(cancelled
+                        ? StockHistory.StockChangeType.RETURN_FROM_CUSTOMER
+                        : StockHistory.StockChangeType.OUTBOUND)
+                .quantityBefore(Math.max(0, quantityAfter - quantityChanged))
+                .quantityAfter(Math.max(0, quantityAfter))
+                .quantityChanged(quantityChanged)
+                .reason((cancelled ? "注文キャンセル: " : "注文: ") + event.getOrderNumber())
+                .orderId(event.getOrderId())
+                .userId(event.getUserId())
+                .occurredAt(event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package jp.readscape.inventory.configurations.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JwtTokenProvider Test")
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "inventoryTestSecretKeyThatIsAtLeast32CharactersLong";
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, Duration.ofMinutes(30), Duration.ofDays(7), 100);
+    }
+
+    @Test
+    @DisplayName("検証 - 一度の解析で全クレームを返す")
+    void verifyTokenReturnsAllClaims() {
+        String token = jwtTokenProvider.createAccessToken("admin@example.com", List.of("ROLE_ADMIN"));
+
+        Optional<VerifiedToken> verified = jwtTokenProvider.verifyToken(token);
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().getEmail()).isEqualTo("admin@example.com");
+        assertThat(verified.get().getRoles()).containsExactly("ROLE_ADMIN");
+        assertThat(verified.get().isAccessToken()).isTrue();
+        assertThat(verified.get().getExpiresAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    @DisplayName("検証 - 検証済みトークンはキャッシュから同じ結果を返す")
+    void verifiedTokenIsCached() {
+        String token = jwtTokenProvider.createRefreshToken("admin@example.com");
+
+        VerifiedToken first = jwtTokenProvider.verifyToken(token).orElseThrow();
+        VerifiedToken second = jwtTokenProvider.verifyToken(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.isRefreshToken()).isTrue();
+        assertThat(jwtTokenProvider.getRolesFromToken(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("検証 - 別の鍵で署名されたトークンは無効")
+    void rejectsTokenSignedWithAnotherKey() {
+        String forged = Jwts.builder()
+                .subject("admin@example.com")
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .claim("type", "access")
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor("anotherSecretKeyThatIsAtLeast32CharactersLong!!"
+                        .getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+
+        assertThat(jwtTokenProvider.verifyToken(forged)).isEmpty();
+        assertThat(jwtTokenProvider.validateToken(forged)).isFalse();
+        assertThat(jwtTokenProvider.validateToken("not-a-jwt")).isFalse();
+    }
+
+    @Test
+    @DisplayName("検証 - 有効期限切れのトークンは無効")
+    void rejectsExpiredToken() {
+        JwtTokenProvider expiring = new JwtTokenProvider(SECRET, Duration.ofSeconds(-1), Duration.ofDays(7), 100);
+        String token = expiring.createAccessToken("admin@example.com", List.of("ROLE_ADMIN"));
+
+        assertThat(jwtTokenProvider.verifyToken(token)).isEmpty();
+    }
+}
@@ -0,0 +1,141 @@
+package jp.readscape.inventory.integration;
+
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.inventory.model.StockHistory.StockChangeType;
+import jp.readscape.inventory.domain.inventory.repository.StockHistoryRepository;
+import jp.readscape.inventory.domain.users.model.User;
+import jp.readscape.inventory.domain.users.model.UserRole;
+import jp.readscape.inventory.domain.users.repository.UserRepository;
+import jp.readscape.inventory.dto.inventory.BulkStockAdjustmentReport;
+import jp.readscape.inventory.services.BulkStockAdjustmentService;
+import jp.readscape.inventory.services.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 一括在庫調整のベンチマーク
+ * Testcontainers の PostgreSQL 上で1万件の明細を調整し、書籍行の一括ロック・unnest による在庫の一括更新・
+ * 在庫履歴のJDBCバッチ登録を含めた処理時間が1秒未満であること、在庫と履歴が明細どおり反映されることを確認する
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@DisplayName("Bulk Stock Adjustment Benchmark")
+@Tag("benchmark")
+class BulkStockAdjustmentBenchmarkTest {
+
+    private static final int ITEM_COUNT = 10_000;
+    private static final int INITIAL_STOCK = 100;
+    private static final int QUANTITY = 5;
+
+    @Autowired
+    private BulkStockAdjustmentService bulkStockAdjustmentService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StockHistoryRepository stockHistoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> bookIds = new ArrayList<>();
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        cleanup();
+
+        adminId = userRepository.save(User.builder()
+                .username("bulk-admin")
+                .email("bulk-admin@example.com")
+                .password("$2a$10$benchmarkPassword")
+                .role(UserRole.ADMIN)
+                .build()).getId();
+
+        List<Book> books = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            books.add(Book.builder()
+                    .title("一括調整書籍" + i)
+                    .author("ベンチマーク著者")
+                    .isbn(String.format("97840098%05d", i))
+                    .price(1000)
+                    .stockQuantity(INITIAL_STOCK)
+                    .build());
+        }
+        bookRepository.saveAll(books).forEach(book -> bookIds.add(book.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanup();
+    }
+
+    @Test
+    @DisplayName("1万件の明細をロック・一括更新・履歴バッチ登録まで含めて1秒未満で反映")
+    void adjustsTenThousandItemsUnderOneSecond() {
+        // ウォームアップ（接続・JIT）は同じ書籍に対する入庫・出庫で在庫を元に戻す
+        bulkStockAdjustmentService.adjust(requests(StockChangeType.INBOUND, StockChangeType.INBOUND), adminId);
+        bulkStockAdjustmentService.adjust(requests(StockChangeType.OUTBOUND, StockChangeType.OUTBOUND), adminId);
+
+        BulkStockAdjustmentReport report = bulkStockAdjustmentService.adjust(
+                requests(StockChangeType.INBOUND, StockChangeType.OUTBOUND), adminId);
+
+        System.out.printf("Bulk stock adjustment benchmark: %d items in %d ms%n",
+                report.getApplied(), report.getElapsedMillis());
+
+        assertThat(report.getApplied()).isEqualTo(ITEM_COUNT);
+        assertThat(report.getElapsedMillis()).isLessThan(1_000);
+
+        // 偶数番目は入庫、奇数番目は出庫
+        assertThat(stockOf(bookIds.get(0))).isEqualTo(INITIAL_STOCK + QUANTITY);
+        assertThat(stockOf(bookIds.get(1))).isEqualTo(INITIAL_STOCK - QUANTITY);
+        assertThat(stockHistoryRepository.count()).isEqualTo(ITEM_COUNT * 3L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_history WHERE reference_number = 'BENCH-001' AND reference_type = 'MANUAL'",
+                Long.class)).isEqualTo(ITEM_COUNT * 3L);
+    }
+
+    private List<InventoryService.BulkStockUpdateRequest> requests(StockChangeType even, StockChangeType odd) {
+        List<InventoryService.BulkStockUpdateRequest> requests = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < bookIds.size(); i++) {
+            requests.add(InventoryService.BulkStockUpdateRequest.builder()
+                    .bookId(bookIds.get(i))
+                    .type(i % 2 == 0 ? even : odd)
+                    .quantity(QUANTITY)
+                    .reason("棚卸")
+                    .referenceNumber("BENCH-001")
+                    .build());
+        }
+        return requests;
+    }
+
+    private int stockOf(Long bookId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM books WHERE id = ?", Integer.class, bookId);
+    }
+
+    private void cleanup() {
+        stockHistoryRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        bookIds.clear();
+    }
+}
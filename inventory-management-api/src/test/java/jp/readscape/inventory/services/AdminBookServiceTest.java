@@ -42,6 +42,9 @@ class AdminBookServiceTest {
     
     @Mock
     private DtoMappingService dtoMappingService;
+
+    @Mock
+    private InventoryStatsTracker inventoryStatsTracker;
     
     @InjectMocks
     private AdminBookService adminBookService;
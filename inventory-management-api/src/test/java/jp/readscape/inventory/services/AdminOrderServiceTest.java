@@ -1,15 +1,23 @@
 package jp.readscape.inventory.services;
 
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.inventory.model.OrderStockMovement;
+import jp.readscape.inventory.domain.inventory.model.StockHistory;
+import jp.readscape.inventory.domain.inventory.repository.StockHistoryBatchRepository;
 import jp.readscape.inventory.domain.orders.model.Order;
 import jp.readscape.inventory.domain.orders.model.OrderItem;
 import jp.readscape.inventory.domain.orders.repository.OrderRepository;
+import jp.readscape.inventory.domain.orders.repository.UserOrderDailyStatsRepository;
 import jp.readscape.inventory.domain.users.model.User;
 import jp.readscape.inventory.domain.books.model.Book;
 import jp.readscape.inventory.dto.admin.*;
 import jp.readscape.inventory.exceptions.OrderNotFoundException;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -22,9 +30,17 @@ import org.springframework.data.domain.Sort;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +55,24 @@ class AdminOrderServiceTest {
     @Mock
     private DtoMappingService dtoMappingService;
 
+    @Mock
+    private UserOrderDailyStatsRepository userOrderDailyStatsRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private StockStripingService stockStripingService;
+
+    @Mock
+    private StockHistoryBatchRepository stockHistoryBatchRepository;
+
+    @Mock
+    private LowStockDetector lowStockDetector;
+
+    @Mock
+    private InventoryStatsTracker inventoryStatsTracker;
+
     @InjectMocks
     private AdminOrderService adminOrderService;
 
@@ -230,7 +264,7 @@ class AdminOrderServiceTest {
         request.setNewStatus("CONFIRMED");
         request.setReason("Order confirmed by admin");
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
         when(orderRepository.save(testOrder)).thenReturn(testOrder);
 
         // When
@@ -249,7 +283,7 @@ class AdminOrderServiceTest {
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
         request.setNewStatus("PENDING");
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
 
         // When & Then
         assertThatThrownBy(() -> adminOrderService.updateOrderStatus(1L, request))
@@ -263,7 +297,7 @@ class AdminOrderServiceTest {
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
         request.setNewStatus("CONFIRMED");
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of());
 
         // When & Then
         assertThatThrownBy(() -> adminOrderService.updateOrderStatus(1L, request))
@@ -406,11 +440,16 @@ class AdminOrderServiceTest {
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void cancelOrder_WithCancellableOrder_ShouldCancelOrder() {
         // Given
         String reason = "Customer requested cancellation";
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(testOrder)).thenReturn(testOrder);
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
+        when(orderRepository.sumItemQuantitiesByOrderAndBook(List.of(1L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 1L, 2L}));
+        when(bookRepository.incrementStock(1L, 2)).thenReturn(1);
+        when(bookRepository.findStockQuantitiesByIds(anyCollection()))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 12}));
 
         // When
         adminOrderService.cancelOrder(1L, reason);
@@ -418,19 +457,182 @@ class AdminOrderServiceTest {
         // Then
         assertThat(testOrder.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED);
         assertThat(testOrder.getNotes()).contains("[キャンセル理由] " + reason);
-        verify(orderRepository).save(testOrder);
+        verify(orderRepository).saveAll(List.of(testOrder));
+        verify(userOrderDailyStatsRepository).decrementOrder(eq(testUser.getId()), eq(testOrder.getOrderDate().toLocalDate()),
+                eq(testOrder.getTotalAmount()), any(LocalDateTime.class));
+
+        ArgumentCaptor<List<OrderStockMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(stockHistoryBatchRepository).insertOrderMovements(captor.capture(), anyInt());
+        assertThat(captor.getValue()).singleElement().satisfies(movement -> {
+            assertThat(movement.getChangeType()).isEqualTo(StockHistory.StockChangeType.RETURN_FROM_CUSTOMER);
+            assertThat(movement.getQuantityBefore()).isEqualTo(10);
+            assertThat(movement.getQuantityAfter()).isEqualTo(12);
+            assertThat(movement.getQuantityChanged()).isEqualTo(2);
+            assertThat(movement.getOrderId()).isEqualTo(1L);
+        });
+        verify(lowStockDetector).resolve(List.of(new LowStockDetector.StockLevelChange(1L, 10, 12)));
+        verify(inventoryStatsTracker).recordChanges(anyList());
+        verifyNoInteractions(stockStripingService);
     }
 
     @Test
     void cancelOrder_WithNonCancellableOrder_ShouldThrowException() {
         // Given
         testOrder.setStatus(Order.OrderStatus.DELIVERED);
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
 
         // When & Then
         assertThatThrownBy(() -> adminOrderService.cancelOrder(1L, "reason"))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("この注文はキャンセルできません");
+        verifyNoInteractions(userOrderDailyStatsRepository, bookRepository, stockHistoryBatchRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cancelOrders_WithOverlappingBooks_ShouldRestoreOncePerBookInAscendingOrder() {
+        // Given
+        Order secondOrder = Order.builder()
+                .id(2L)
+                .orderNumber("ORD-20231201-0002")
+                .user(testUser)
+                .status(Order.OrderStatus.CONFIRMED)
+                .orderDate(LocalDateTime.now().minusDays(3))
+                .totalAmount(BigDecimal.valueOf(4500))
+                .build();
+        when(orderRepository.findAllByIdForUpdate(List.of(1L, 2L))).thenReturn(List.of(testOrder, secondOrder));
+        // [注文ID, 書籍ID, 数量]（書籍ID、注文ID昇順）
+        when(orderRepository.sumItemQuantitiesByOrderAndBook(List.of(1L, 2L))).thenReturn(Arrays.asList(
+                new Object[]{1L, 1L, 2L},
+                new Object[]{2L, 1L, 1L},
+                new Object[]{2L, 5L, 3L}));
+        when(bookRepository.incrementStock(anyLong(), anyInt())).thenReturn(1);
+        when(bookRepository.findStockQuantitiesByIds(anyCollection()))
+                .thenReturn(Arrays.asList(new Object[]{1L, 13}, new Object[]{5L, 8}));
+
+        // When
+        int cancelled = adminOrderService.cancelOrders(List.of(2L, 1L, 2L), "一括キャンセル");
+
+        // Then
+        assertThat(cancelled).isEqualTo(2);
+        assertThat(secondOrder.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED);
+
+        InOrder inOrder = inOrder(bookRepository);
+        inOrder.verify(bookRepository).incrementStock(1L, 3);
+        inOrder.verify(bookRepository).incrementStock(5L, 3);
+        verify(bookRepository, times(2)).incrementStock(anyLong(), anyInt());
+
+        ArgumentCaptor<List<OrderStockMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(stockHistoryBatchRepository).insertOrderMovements(captor.capture(), anyInt());
+        assertThat(captor.getValue())
+                .extracting(OrderStockMovement::getOrderId, OrderStockMovement::getBookId,
+                        OrderStockMovement::getQuantityBefore, OrderStockMovement::getQuantityAfter)
+                .containsExactly(
+                        tuple(1L, 1L, 10, 12),
+                        tuple(2L, 1L, 12, 13),
+                        tuple(2L, 5L, 5, 8));
+        verify(userOrderDailyStatsRepository).decrementOrder(eq(testUser.getId()), eq(testOrder.getOrderDate().toLocalDate()),
+                eq(BigDecimal.valueOf(3000)), any(LocalDateTime.class));
+        verify(userOrderDailyStatsRepository).decrementOrder(eq(testUser.getId()), eq(secondOrder.getOrderDate().toLocalDate()),
+                eq(BigDecimal.valueOf(4500)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void cancelOrders_WithMissingOrder_ShouldCancelNothing() {
+        // Given
+        when(orderRepository.findAllByIdForUpdate(List.of(1L, 99L))).thenReturn(List.of(testOrder));
+
+        // When & Then
+        assertThatThrownBy(() -> adminOrderService.cancelOrders(List.of(1L, 99L), null))
+                .isInstanceOf(OrderNotFoundException.class)
+                .hasMessageContaining("99");
+        assertThat(testOrder.getStatus()).isEqualTo(Order.OrderStatus.PENDING);
+        verify(orderRepository, never()).saveAll(anyList());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void cancelOrders_WithStripedBook_ShouldRestoreToStripe() {
+        // Given
+        testBook.setStockStripeCount(4);
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
+        when(orderRepository.sumItemQuantitiesByOrderAndBook(List.of(1L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 1L, 2L}));
+        when(bookRepository.incrementStock(1L, 2)).thenReturn(0);
+        when(bookRepository.findStockQuantitiesByIds(anyCollection()))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 7}));
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
+        when(stockStripingService.restoreStripedStock(testBook, 2)).thenReturn(Optional.of(20));
+
+        // When
+        adminOrderService.cancelOrders(List.of(1L), null);
+
+        // Then
+        verify(stockStripingService).restoreStripedStock(testBook, 2);
+        verify(bookRepository, times(1)).incrementStock(1L, 2);
+        verify(stockHistoryBatchRepository).insertOrderMovements(
+                argThat(movements -> movements.get(0).getQuantityAfter() == 20), anyInt());
+    }
+
+    @Test
+    void updateOrderStatus_CancelRacingWithCancelOrder_ShouldRestoreStockOnce() throws Exception {
+        // Given - 注文行のロックはトランザクションの最後（キャンセル統計の反映）まで保持される
+        Semaphore orderRowLock = new Semaphore(1);
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenAnswer(invocation -> {
+            orderRowLock.acquire();
+            return List.of(testOrder);
+        });
+        doAnswer(invocation -> {
+            orderRowLock.release();
+            return 1;
+        }).when(userOrderDailyStatsRepository).decrementOrder(anyLong(), any(), any(), any());
+        when(orderRepository.sumItemQuantitiesByOrderAndBook(List.of(1L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 1L, 2L}));
+        when(bookRepository.incrementStock(1L, 2)).thenReturn(1);
+        when(bookRepository.findStockQuantitiesByIds(anyCollection()))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 12}));
+
+        UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
+        request.setNewStatus("CANCELLED");
+
+        // When - ステータス更新によるキャンセルと注文キャンセルを同時に実行
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        int succeeded = 0;
+        try {
+            Future<?> statusUpdate = executor.submit(() -> {
+                start.await();
+                adminOrderService.updateOrderStatus(1L, request);
+                return null;
+            });
+            Future<?> cancel = executor.submit(() -> {
+                start.await();
+                adminOrderService.cancelOrder(1L, "顧客都合");
+                return null;
+            });
+            start.countDown();
+
+            for (Future<?> future : List.of(statusUpdate, cancel)) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    // 後からロックを取得した側はキャンセル済みのステータスを見て拒否する
+                    assertThat(e.getCause()).isInstanceOfAny(IllegalArgumentException.class, IllegalStateException.class);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(testOrder.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED);
+        verify(bookRepository, times(1)).incrementStock(1L, 2);
+        verify(stockHistoryBatchRepository, times(1)).insertOrderMovements(anyList(), anyInt());
+        verify(userOrderDailyStatsRepository, times(1)).decrementOrder(eq(testUser.getId()), eq(testOrder.getOrderDate().toLocalDate()),
+                eq(testOrder.getTotalAmount()), any(LocalDateTime.class));
+        verify(orderRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -533,7 +735,7 @@ class AdminOrderServiceTest {
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
         request.setNewStatus("CONFIRMED");
         
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
         when(orderRepository.save(testOrder)).thenReturn(testOrder);
 
         // When & Then - should not throw exception
@@ -547,7 +749,7 @@ class AdminOrderServiceTest {
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
         request.setNewStatus("SHIPPED");
         
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
 
         // When & Then
         assertThatThrownBy(() -> adminOrderService.updateOrderStatus(1L, request))
@@ -562,7 +764,7 @@ class AdminOrderServiceTest {
         request.setNewStatus("CONFIRMED");
         Long userId = 1L;
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testOrder));
         when(orderRepository.save(testOrder)).thenReturn(testOrder);
 
         // When
@@ -0,0 +1,162 @@
+package jp.readscape.inventory.services;
+
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.books.repository.BookStockBatchRepository;
+import jp.readscape.inventory.domain.books.repository.BookStockBatchRepository.LockedStock;
+import jp.readscape.inventory.domain.inventory.model.ManualStockMovement;
+import jp.readscape.inventory.domain.inventory.model.StockHistory.StockChangeType;
+import jp.readscape.inventory.domain.inventory.repository.StockHistoryBatchRepository;
+import jp.readscape.inventory.dto.inventory.BulkStockAdjustmentReport;
+import jp.readscape.inventory.dto.inventory.BulkStockAdjustmentReport.Status;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkStockAdjustmentService Test")
+class BulkStockAdjustmentServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookStockBatchRepository bookStockBatchRepository;
+
+    @Mock
+    private StockHistoryBatchRepository stockHistoryBatchRepository;
+
+    @Mock
+    private StockStripingService stockStripingService;
+
+    @Mock
+    private InventoryStatsTracker inventoryStatsTracker;
+
+    @Mock
+    private LowStockDetector lowStockDetector;
+
+    private BulkStockAdjustmentService bulkStockAdjustmentService;
+
+    @BeforeEach
+    void setUp() {
+        bulkStockAdjustmentService = new BulkStockAdjustmentService(bookRepository, bookStockBatchRepository,
+                stockHistoryBatchRepository, stockStripingService, inventoryStatsTracker, lowStockDetector,
+                10_000, 1_000);
+    }
+
+    @Test
+    @DisplayName("一括調整 - ID順に1回でロックし、在庫更新と履歴登録をそれぞれ1回で反映")
+    @SuppressWarnings("unchecked")
+    void adjustsWithSingleLockUpdateAndHistoryBatch() {
+        when(bookStockBatchRepository.lockStocks(any())).thenReturn(List.of(
+                locked(1L, 10, 0), locked(2L, 5, 0)));
+        when(stockHistoryBatchRepository.insertManualMovements(anyList(), eq(1_000))).thenReturn(3);
+
+        BulkStockAdjustmentReport report = bulkStockAdjustmentService.adjust(List.of(
+                request(2L, StockChangeType.INBOUND, 3),
+                request(1L, StockChangeType.OUTBOUND, 4),
+                request(2L, StockChangeType.ADJUSTMENT_DECREASE, 2)), USER_ID);
+
+        ArgumentCaptor<Collection<Long>> lockedIds = ArgumentCaptor.forClass(Collection.class);
+        verify(bookStockBatchRepository, times(1)).lockStocks(lockedIds.capture());
+        assertThat(lockedIds.getValue()).containsExactly(1L, 2L);
+        verify(bookStockBatchRepository, times(1))
+                .updateStocks(new Long[]{1L, 2L}, new Integer[]{6, 6});
+
+        ArgumentCaptor<List<ManualStockMovement>> movements = ArgumentCaptor.forClass(List.class);
+        verify(stockHistoryBatchRepository, times(1)).insertManualMovements(movements.capture(), eq(1_000));
+        assertThat(movements.getValue()).extracting(ManualStockMovement::getChangeType)
+                .containsExactly(StockChangeType.INBOUND, StockChangeType.OUTBOUND, StockChangeType.ADJUSTMENT_DECREASE);
+        assertThat(movements.getValue()).extracting(ManualStockMovement::getReferenceNumber)
+                .containsOnly("INV-2024-001");
+        assertThat(movements.getValue()).extracting(ManualStockMovement::getQuantityChanged)
+                .containsExactly(3, -4, -2);
+
+        assertThat(report.getApplied()).isEqualTo(3);
+        assertThat(report.getRejected()).isZero();
+        // 同じ書籍の明細はリクエスト順に積み上げる
+        assertThat(report.getItems().get(2).getQuantityBefore()).isEqualTo(8);
+        assertThat(report.getItems().get(2).getQuantityAfter()).isEqualTo(6);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("一括調整 - 不正・存在しない書籍・在庫不足の明細は却下し、残りを反映")
+    void rejectsInvalidItemsAndAppliesTheRest() {
+        when(bookStockBatchRepository.lockStocks(any())).thenReturn(List.of(locked(1L, 2, 0)));
+
+        BulkStockAdjustmentReport report = bulkStockAdjustmentService.adjust(List.of(
+                request(1L, null, 1),
+                request(99L, StockChangeType.INBOUND, 1),
+                request(1L, StockChangeType.OUTBOUND, 5),
+                request(1L, StockChangeType.OUTBOUND, 2)), USER_ID);
+
+        assertThat(report.getItems()).extracting(BulkStockAdjustmentReport.ItemResult::getStatus)
+                .containsExactly(Status.INVALID, Status.NOT_FOUND, Status.INSUFFICIENT_STOCK, Status.APPLIED);
+        assertThat(report.getApplied()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(3);
+        verify(bookStockBatchRepository).updateStocks(new Long[]{1L}, new Integer[]{0});
+    }
+
+    @Test
+    @DisplayName("一括調整 - ストライプ有効な書籍はストライプの合計から計算して再分配")
+    void adjustsStripedBooksThroughStriping() {
+        Book book = Book.builder().id(1L).stockQuantity(10).build();
+        when(bookStockBatchRepository.lockStocks(any())).thenReturn(List.of(locked(1L, 10, 4)));
+        when(stockStripingService.lockStripedStock(1L)).thenReturn(12);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+        BulkStockAdjustmentReport report = bulkStockAdjustmentService.adjust(List.of(
+                request(1L, StockChangeType.OUTBOUND, 2),
+                request(1L, StockChangeType.OUTBOUND, 3)), USER_ID);
+
+        assertThat(report.getApplied()).isEqualTo(2);
+        verify(stockStripingService, times(1)).lockStripedStock(1L);
+        verify(stockStripingService).setStripedStock(book, 7);
+        verify(bookRepository).save(book);
+        verify(bookStockBatchRepository).updateStocks(new Long[0], new Integer[0]);
+    }
+
+    @Test
+    @DisplayName("一括調整 - 上限を超える明細数は IllegalArgumentException")
+    void rejectsTooManyItems() {
+        BulkStockAdjustmentService limited = new BulkStockAdjustmentService(bookRepository,
+                bookStockBatchRepository, stockHistoryBatchRepository, stockStripingService, inventoryStatsTracker,
+                lowStockDetector, 1, 1_000);
+
+        assertThatThrownBy(() -> limited.adjust(List.of(
+                request(1L, StockChangeType.INBOUND, 1),
+                request(2L, StockChangeType.INBOUND, 1)), USER_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(bookStockBatchRepository);
+    }
+
+    private LockedStock locked(long bookId, int stockQuantity, int stripeCount) {
+        return new LockedStock(bookId, stockQuantity, stripeCount, 5, true, "書籍" + bookId);
+    }
+
+    private InventoryService.BulkStockUpdateRequest request(Long bookId, StockChangeType type, Integer quantity) {
+        return InventoryService.BulkStockUpdateRequest.builder()
+                .bookId(bookId)
+                .type(type)
+                .quantity(quantity)
+                .reason("棚卸")
+                .referenceNumber("INV-2024-001")
+                .build();
+    }
+}
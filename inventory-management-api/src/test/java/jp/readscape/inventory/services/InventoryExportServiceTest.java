@@ -0,0 +1,98 @@
+package jp.readscape.inventory.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.dto.inventory.InventoryExportFormat;
+import jp.readscape.inventory.dto.inventory.InventoryFilter;
+import jp.readscape.inventory.dto.inventory.InventoryItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryExportService Test")
+class InventoryExportServiceTest {
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private InventoryExportService inventoryExportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        inventoryExportService = new InventoryExportService(inventoryService, objectMapper);
+
+        List<InventoryItem> items = List.of(
+                item(1L, "Spring Boot実践ガイド", "田中太郎"),
+                item(2L, "Java, \"Effective\"", "佐藤\n花子"));
+        when(inventoryService.streamInventory(any(InventoryFilter.class), any())).thenAnswer(invocation -> {
+            Consumer<InventoryItem> consumer = invocation.getArgument(1);
+            items.forEach(consumer);
+            return (long) items.size();
+        });
+    }
+
+    @Test
+    @DisplayName("NDJSON - 1行に1書籍のJSONを出力")
+    void exportsNdjson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = inventoryExportService.export(new InventoryFilter(), InventoryExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("bookId").asLong()).isEqualTo(2L);
+        assertThat(second.get("author").asText()).isEqualTo("佐藤\n花子");
+    }
+
+    @Test
+    @DisplayName("CSV - ヘッダー付きで、区切り文字・引用符・改行を含む値は引用符で囲む")
+    void exportsCsvWithEscaping() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = inventoryExportService.export(new InventoryFilter(), InventoryExportFormat.CSV, output);
+
+        String csv = output.toString(StandardCharsets.UTF_8);
+        assertThat(count).isEqualTo(2);
+        assertThat(csv).startsWith("bookId,title,author,isbn,category,stockQuantity,");
+        assertThat(csv).contains("1,Spring Boot実践ガイド,田中太郎,");
+        assertThat(csv).contains("2,\"Java, \"\"Effective\"\"\",\"佐藤\n花子\",");
+    }
+
+    private InventoryItem item(Long id, String title, String author) {
+        return InventoryItem.builder()
+                .bookId(id)
+                .title(title)
+                .author(author)
+                .isbn("978479814247" + id)
+                .stockQuantity(25)
+                .lowStockThreshold(10)
+                .stockStatus("正常")
+                .status(Book.BookStatus.ACTIVE)
+                .lastUpdatedAt(LocalDateTime.of(2024, 1, 20, 15, 30))
+                .build();
+    }
+}
@@ -1,13 +1,16 @@
 package jp.readscape.inventory.services;
 
 import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.model.InventoryItemView;
 import jp.readscape.inventory.domain.books.repository.BookRepository;
 import jp.readscape.inventory.domain.inventory.model.StockHistory;
 import jp.readscape.inventory.domain.inventory.repository.StockHistoryRepository;
+import jp.readscape.inventory.dto.inventory.InventoryFilter;
 import jp.readscape.inventory.dto.inventory.InventoryItem;
 import jp.readscape.inventory.dto.inventory.StockUpdateRequest;
 import jp.readscape.inventory.dto.inventory.StockTransactionResponse;
 import jp.readscape.inventory.exceptions.BookNotFoundException;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,14 +20,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,28 +50,69 @@ class InventoryServiceTest {
     @Mock
     private DtoMappingService dtoMappingService;
     
+    @Mock
+    private StockStripingService stockStripingService;
+
+    @Mock
+    private InventoryStatsTracker inventoryStatsTracker;
+
+    @Mock
+    private LowStockDetector lowStockDetector;
+    
     @InjectMocks
     private InventoryService inventoryService;
 
     @Test
-    @DisplayName("在庫一覧取得 - 正常系")
+    @DisplayName("在庫一覧取得 - 射影をページングで取得し、絞り込み条件を渡す")
     void getInventorySuccess() {
         // Arrange
-        List<Book> books = createSampleBooks();
         List<InventoryItem> expectedItems = createSampleInventoryItems();
-        
-        when(bookRepository.findAll(any(Sort.class))).thenReturn(books);
-        when(dtoMappingService.mapToInventoryItem(any(Book.class)))
-            .thenReturn(expectedItems.get(0))
-            .thenReturn(expectedItems.get(1));
-        
+        InventoryItemView first = mock(InventoryItemView.class);
+        InventoryItemView second = mock(InventoryItemView.class);
+        InventoryFilter filter = InventoryFilter.builder()
+                .keyword("50%_off")
+                .category(" ")
+                .status(Book.BookStatus.ACTIVE)
+                .lowStockOnly(true)
+                .build();
+
+        when(bookRepository.findInventory(any(), any(), any(), anyBoolean(), any(), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(first, second), PageRequest.of(0, 100), 2));
+        when(dtoMappingService.mapToInventoryItem(first)).thenReturn(expectedItems.get(0));
+        when(dtoMappingService.mapToInventoryItem(second)).thenReturn(expectedItems.get(1));
+
         // Act
-        List<InventoryItem> result = inventoryService.getInventory();
-        
+        Page<InventoryItem> result = inventoryService.getInventory(filter, 0, 1000);
+
         // Assert
-        assertThat(result).hasSize(2);
-        verify(bookRepository).findAll(any(Sort.class));
-        verify(dtoMappingService, times(2)).mapToInventoryItem(any(Book.class));
+        assertThat(result.getContent()).containsExactlyElementsOf(expectedItems);
+        verify(bookRepository).findInventory(eq("%50\\%\\_off%"), isNull(), eq(Book.BookStatus.ACTIVE), eq(true),
+                isNull(), eq(PageRequest.of(0, 100)));
+        verify(bookRepository, never()).findAll(any(Sort.class));
+    }
+
+    @Test
+    @DisplayName("在庫一覧ストリーミング - 1件ずつ変換して渡し、カーソルを閉じる")
+    void streamInventoryClosesCursor() {
+        // Arrange
+        List<InventoryItem> expectedItems = createSampleInventoryItems();
+        InventoryItemView first = mock(InventoryItemView.class);
+        InventoryItemView second = mock(InventoryItemView.class);
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(bookRepository.streamInventory(isNull(), isNull(), isNull(), eq(false), isNull()))
+            .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        when(dtoMappingService.mapToInventoryItem(first)).thenReturn(expectedItems.get(0));
+        when(dtoMappingService.mapToInventoryItem(second)).thenReturn(expectedItems.get(1));
+        List<InventoryItem> received = new ArrayList<>();
+
+        // Act
+        long count = inventoryService.streamInventory(new InventoryFilter(), received::add);
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(received).containsExactlyElementsOf(expectedItems);
+        assertThat(closed).isTrue();
     }
 
     @Test
@@ -86,7 +134,7 @@ class InventoryServiceTest {
         StockHistory savedHistory = createSampleStockHistory(bookId, userId);
         StockTransactionResponse expectedResponse = createExpectedTransactionResponse();
         
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
         when(bookRepository.save(any(Book.class))).thenReturn(book);
         when(stockHistoryRepository.save(any(StockHistory.class))).thenReturn(savedHistory);
         when(dtoMappingService.toStockTransactionResponse(savedHistory)).thenReturn(expectedResponse);
@@ -97,7 +145,7 @@ class InventoryServiceTest {
         // Assert
         assertThat(result).isEqualTo(expectedResponse);
         assertThat(book.getStockQuantity()).isEqualTo(80); // 50 + 30
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findByIdForUpdate(bookId);
         verify(bookRepository).save(book);
         verify(stockHistoryRepository).save(any(StockHistory.class));
         verify(dtoMappingService).toStockTransactionResponse(savedHistory);
@@ -122,7 +170,7 @@ class InventoryServiceTest {
         StockHistory savedHistory = createSampleStockHistory(bookId, userId);
         StockTransactionResponse expectedResponse = createExpectedTransactionResponse();
         
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
         when(bookRepository.save(any(Book.class))).thenReturn(book);
         when(stockHistoryRepository.save(any(StockHistory.class))).thenReturn(savedHistory);
         when(dtoMappingService.toStockTransactionResponse(savedHistory)).thenReturn(expectedResponse);
@@ -133,7 +181,7 @@ class InventoryServiceTest {
         // Assert
         assertThat(result).isEqualTo(expectedResponse);
         assertThat(book.getStockQuantity()).isEqualTo(30); // 50 - 20
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findByIdForUpdate(bookId);
         verify(bookRepository).save(book);
         verify(stockHistoryRepository).save(any(StockHistory.class));
     }
@@ -157,7 +205,7 @@ class InventoryServiceTest {
         StockHistory savedHistory = createSampleStockHistory(bookId, userId);
         StockTransactionResponse expectedResponse = createExpectedTransactionResponse();
         
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
         when(bookRepository.save(any(Book.class))).thenReturn(book);
         when(stockHistoryRepository.save(any(StockHistory.class))).thenReturn(savedHistory);
         when(dtoMappingService.toStockTransactionResponse(savedHistory)).thenReturn(expectedResponse);
@@ -168,7 +216,7 @@ class InventoryServiceTest {
         // Assert
         assertThat(result).isEqualTo(expectedResponse);
         assertThat(book.getStockQuantity()).isEqualTo(45); // 調整後の値
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findByIdForUpdate(bookId);
         verify(bookRepository).save(book);
         verify(stockHistoryRepository).save(any(StockHistory.class));
     }
@@ -185,14 +233,14 @@ class InventoryServiceTest {
             .reason("入庫")
             .build();
         
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThatThrownBy(() -> inventoryService.updateStock(bookId, request, userId))
             .isInstanceOf(BookNotFoundException.class)
             .hasMessageContaining("Book not found");
         
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findByIdForUpdate(bookId);
         verifyNoInteractions(stockHistoryRepository);
         verify(bookRepository, never()).save(any());
     }
@@ -211,14 +259,14 @@ class InventoryServiceTest {
             .reason("テスト")
             .build();
         
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
         
         // Act & Assert
         assertThatThrownBy(() -> inventoryService.updateStock(bookId, request, userId))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Invalid transaction type");
         
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findByIdForUpdate(bookId);
         verify(bookRepository, never()).save(any());
         verifyNoInteractions(stockHistoryRepository);
     }
@@ -267,18 +315,6 @@ class InventoryServiceTest {
     }
 
     // Helper methods
-    private List<Book> createSampleBooks() {
-        Book book1 = createSampleBook();
-        Book book2 = Book.builder()
-            .id(2L)
-            .title("Spring Securityガイド")
-            .author("佐藤太郎")
-            .stockQuantity(25)
-            .build();
-        
-        return Arrays.asList(book1, book2);
-    }
-
     private Book createSampleBook() {
         return Book.builder()
             .id(1L)
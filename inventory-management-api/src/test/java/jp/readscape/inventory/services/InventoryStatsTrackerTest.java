@@ -0,0 +1,159 @@
+package jp.readscape.inventory.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.inventory.domain.books.model.InventoryStockTotals;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.services.InventoryStatsTracker.BookStock;
+import jp.readscape.inventory.services.alerts.LowStockDetector.BookStockChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryStatsTracker Test")
+class InventoryStatsTrackerTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryStatsTracker inventoryStatsTracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inventoryStatsTracker = new InventoryStatsTracker(bookRepository, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("統計取得 - 初回のみ集計クエリで初期化し、以降はカウンターから返す")
+    void initializesOnceFromAggregate() {
+        when(bookRepository.getStockTotals()).thenReturn(totals(4, 100, 1, 0));
+
+        InventoryService.InventoryStatistics first = inventoryStatsTracker.getStatistics();
+        InventoryService.InventoryStatistics second = inventoryStatsTracker.getStatistics();
+
+        assertThat(first.getTotalBooks()).isEqualTo(4L);
+        assertThat(first.getAverageStock()).isEqualTo(25.0);
+        assertThat(second).isEqualTo(first);
+        verify(bookRepository, times(1)).getStockTotals();
+    }
+
+    @Test
+    @DisplayName("差分反映 - 低在庫・在庫切れの閾値をまたいだ場合のみ件数を増減")
+    void appliesThresholdCrossings() {
+        when(bookRepository.getStockTotals()).thenReturn(totals(2, 30, 0, 0));
+        inventoryStatsTracker.reconcile();
+
+        inventoryStatsTracker.recordChange(new BookStock(true, 20, 10), new BookStock(true, 0, 10));
+        inventoryStatsTracker.recordChange(new BookStock(true, 10, 10), new BookStock(true, 8, 10));
+
+        InventoryService.InventoryStatistics statistics = inventoryStatsTracker.getStatistics();
+        assertThat(statistics.getTotalStock()).isEqualTo(8L);
+        assertThat(statistics.getLowStockCount()).isEqualTo(1);
+        assertThat(statistics.getOutOfStockCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("readscape.inventory.stats.out.of.stock").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("差分反映 - 書籍の登録・削除・販売停止を書籍数に反映")
+    void appliesBookLifecycle() {
+        when(bookRepository.getStockTotals()).thenReturn(totals(1, 5, 1, 0));
+        inventoryStatsTracker.reconcile();
+
+        inventoryStatsTracker.recordChange(null, new BookStock(true, 50, 10));
+        inventoryStatsTracker.recordChange(new BookStock(true, 5, 10), new BookStock(false, 5, 10));
+
+        InventoryService.InventoryStatistics statistics = inventoryStatsTracker.getStatistics();
+        assertThat(statistics.getTotalBooks()).isEqualTo(1L);
+        assertThat(statistics.getTotalStock()).isEqualTo(50L);
+        assertThat(statistics.getLowStockCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("差分反映 - 注文イベント・キャンセルによる複数書籍の在庫変動をまとめて反映（販売中でない書籍は除く）")
+    void appliesOrderStockChanges() {
+        when(bookRepository.getStockTotals()).thenReturn(totals(3, 40, 1, 0));
+        inventoryStatsTracker.reconcile();
+
+        inventoryStatsTracker.recordChanges(List.of(
+                new BookStockChange(1L, "Spring Boot実践ガイド", new BookStock(true, 12, 10), new BookStock(true, 0, 10)),
+                new BookStockChange(2L, "Java設計パターン", new BookStock(true, 3, 5), new BookStock(true, 8, 5)),
+                new BookStockChange(3L, null, new BookStock(false, 9, 0), new BookStock(false, 4, 0))));
+
+        InventoryService.InventoryStatistics statistics = inventoryStatsTracker.getStatistics();
+        assertThat(statistics.getTotalStock()).isEqualTo(33L);
+        assertThat(statistics.getLowStockCount()).isEqualTo(1);
+        assertThat(statistics.getOutOfStockCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("差分反映 - トランザクション内の変更はコミット後に反映")
+    void appliesAfterCommit() {
+        when(bookRepository.getStockTotals()).thenReturn(totals(1, 20, 0, 0));
+        inventoryStatsTracker.reconcile();
+        TransactionSynchronizationManager.initSynchronization();
+
+        inventoryStatsTracker.recordChange(new BookStock(true, 20, 10), new BookStock(true, 15, 10));
+        assertThat(inventoryStatsTracker.getStatistics().getTotalStock()).isEqualTo(20L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(inventoryStatsTracker.getStatistics().getTotalStock()).isEqualTo(15L);
+    }
+
+    @Test
+    @DisplayName("照合 - 差分を通知しない変更によるずれを集計クエリの値で補正")
+    void reconcileCorrectsDrift() {
+        when(bookRepository.getStockTotals()).thenReturn(totals(3, 60, 0, 0), totals(3, 45, 1, 1));
+        inventoryStatsTracker.reconcile();
+
+        inventoryStatsTracker.reconcile();
+
+        InventoryService.InventoryStatistics statistics = inventoryStatsTracker.getStatistics();
+        assertThat(statistics.getTotalStock()).isEqualTo(45L);
+        assertThat(statistics.getOutOfStockCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("readscape.inventory.stats.reconcile.drift").counter().count()).isEqualTo(1.0);
+    }
+
+    private InventoryStockTotals totals(long totalBooks, long totalStock, long lowStock, long outOfStock) {
+        return new InventoryStockTotals() {
+            @Override
+            public Long getTotalBooks() {
+                return totalBooks;
+            }
+
+            @Override
+            public Long getTotalStock() {
+                return totalStock;
+            }
+
+            @Override
+            public Long getLowStockCount() {
+                return lowStock;
+            }
+
+            @Override
+            public Long getOutOfStockCount() {
+                return outOfStock;
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package jp.readscape.inventory.services;
+
+import jp.readscape.inventory.domain.books.model.Book;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.inventory.model.BookStockStripe;
+import jp.readscape.inventory.domain.inventory.repository.BookStockStripeRepository;
+import jp.readscape.inventory.dto.inventory.StockStripingStatus;
+import jp.readscape.inventory.exceptions.BookNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockStripingService Test")
+class StockStripingServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookStockStripeRepository stripeRepository;
+
+    private StockStripingService stockStripingService;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        stockStripingService = new StockStripingService(bookRepository, stripeRepository, 64, 0.5);
+
+        book = new Book();
+        book.setId(1L);
+        book.setTitle("Hot Book");
+        book.setStockQuantity(50);
+    }
+
+    @Test
+    @DisplayName("ストライプ有効化 - 現在の在庫を均等に配分")
+    @SuppressWarnings("unchecked")
+    void configureStripingDistributesStock() {
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+
+        StockStripingStatus status = stockStripingService.configureStriping(1L, 4);
+
+        ArgumentCaptor<List<BookStockStripe>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stripeRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(BookStockStripe::getQuantity).containsExactly(13, 13, 12, 12);
+        assertThat(saved.getValue()).extracting(BookStockStripe::getStripeNo).containsExactly(0, 1, 2, 3);
+
+        assertThat(book.getStockStripeCount()).isEqualTo(4);
+        assertThat(status.getEnabled()).isTrue();
+        assertThat(status.getTotalStock()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("ストライプ有効化 - 範囲外のストライプ数は拒否")
+    void configureStripingRejectsInvalidCount() {
+        assertThatThrownBy(() -> stockStripingService.configureStriping(1L, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stockStripingService.configureStriping(1L, 65))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        verify(bookRepository, never()).findByIdForUpdate(anyLong());
+    }
+
+    @Test
+    @DisplayName("ストライプ有効化 - 書籍が存在しない場合は例外")
+    void configureStripingBookNotFound() {
+        when(bookRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> stockStripingService.configureStriping(999L, 4))
+            .isInstanceOf(BookNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("ストライプ無効化 - ストライプ合計を書籍の在庫に戻す")
+    void disableStripingRestoresTotal() {
+        book.setStockStripeCount(3);
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+        when(stripeRepository.findByBookIdForUpdate(1L))
+            .thenReturn(new ArrayList<>(Arrays.asList(stripe(0, 4), stripe(1, 0), stripe(2, 7))));
+
+        StockStripingStatus status = stockStripingService.disableStriping(1L);
+
+        verify(stripeRepository).deleteByBookId(1L);
+        assertThat(book.getStockStripeCount()).isZero();
+        assertThat(book.getStockQuantity()).isEqualTo(11);
+        assertThat(status.getEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("ストライプ無効化 - ストライプが無効な場合は例外")
+    void disableStripingWhenNotStriped() {
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+
+        assertThatThrownBy(() -> stockStripingService.disableStriping(1L))
+            .isInstanceOf(IllegalStateException.class);
+
+        verify(stripeRepository, never()).deleteByBookId(anyLong());
+    }
+
+    @Test
+    @DisplayName("定期再分配 - 偏った書籍のみロックして再分配")
+    void rebalanceSkewedStripesOnlyLocksSkewedBooks() {
+        Book balanced = new Book();
+        balanced.setId(2L);
+        balanced.setStockQuantity(40);
+        balanced.setStockStripeCount(4);
+        book.setStockStripeCount(4);
+
+        List<BookStockStripe> skewedStripes = new ArrayList<>(Arrays.asList(
+            stripe(0, 20), stripe(1, 0), stripe(2, 10), stripe(3, 10)));
+        when(bookRepository.findStockStripedBookIds()).thenReturn(List.of(1L, 2L));
+        when(stripeRepository.findQuantitiesByBookId(1L)).thenReturn(List.of(20, 0, 10, 10));
+        when(stripeRepository.findQuantitiesByBookId(2L)).thenReturn(List.of(10, 10, 10, 10));
+        when(stripeRepository.findByBookIdForUpdate(1L)).thenReturn(skewedStripes);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(balanced));
+
+        stockStripingService.rebalanceSkewedStripes();
+
+        assertThat(skewedStripes).extracting(BookStockStripe::getQuantity).containsExactly(10, 10, 10, 10);
+        verify(stripeRepository, never()).findByBookIdForUpdate(2L);
+        // スナップショットが変わらない書籍は保存しない
+        verify(bookRepository, never()).save(balanced);
+        assertThat(book.getStockQuantity()).isEqualTo(40);
+    }
+
+    private BookStockStripe stripe(int stripeNo, int quantity) {
+        return BookStockStripe.builder()
+            .bookId(1L)
+            .stripeNo(stripeNo)
+            .quantity(quantity)
+            .build();
+    }
+}
@@ -0,0 +1,117 @@
+package jp.readscape.inventory.services.alerts;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LowStockAlertBroadcaster Test")
+class LowStockAlertBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LowStockAlertBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new LowStockAlertBroadcaster(meterRegistry, 16, 2, 1, Duration.ofMinutes(1),
+                Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    @DisplayName("購読 - 上限を超える購読は受け付けない")
+    void rejectsSubscribersOverLimit() {
+        assertThat(broadcaster.subscribe()).isPresent();
+        assertThat(broadcaster.subscribe()).isPresent();
+
+        assertThat(broadcaster.subscribe()).isEmpty();
+        assertThat(broadcaster.connectedClients()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("配信 - 送信できなくなった接続は配信対象から外す")
+    void removesClientsThatCannotReceive() throws Exception {
+        SseEmitter closed = broadcaster.subscribe().orElseThrow();
+        broadcaster.subscribe().orElseThrow();
+        closed.complete();
+
+        broadcaster.broadcast(alert(1L));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (broadcaster.connectedClients() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(broadcaster.connectedClients()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("配信 - 書き込みが止まった接続はタイムアウトで切断し、他の接続への配信を続ける")
+    void disconnectsStalledClientsAfterWriteTimeout() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        broadcaster.register(stalled);
+        broadcaster.register(healthy);
+
+        broadcaster.broadcast(alert(1L));
+        broadcaster.broadcast(alert(2L));
+
+        // 送信スレッドは1つのみ。止まった接続の送信中も監視を続ける
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (healthy.sent.get() < 2 && System.currentTimeMillis() < deadline) {
+            broadcaster.evictStalledClients();
+            Thread.sleep(10);
+        }
+        assertThat(healthy.sent.get()).isEqualTo(2);
+        assertThat(broadcaster.connectedClients()).isEqualTo(1);
+        assertThat(meterRegistry.counter("readscape.inventory.low.stock.alerts.stalled").count()).isEqualTo(1.0);
+    }
+
+    private LowStockAlert alert(Long bookId) {
+        return LowStockAlert.builder()
+                .type(LowStockAlert.Type.OUT_OF_STOCK)
+                .bookId(bookId)
+                .title("Spring Boot実践ガイド")
+                .stockQuantity(0)
+                .lowStockThreshold(10)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * 書き込みがブロックしたままの接続（割り込まれると送信失敗になる）
+     */
+    private static final class StalledEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                throw new IOException("write interrupted", e);
+            }
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final AtomicInteger sent = new AtomicInteger();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.incrementAndGet();
+        }
+    }
+}
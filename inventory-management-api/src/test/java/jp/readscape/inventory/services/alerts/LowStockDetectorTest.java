@@ -0,0 +1,100 @@
+package jp.readscape.inventory.services.alerts;
+
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.services.InventoryStatsTracker.BookStock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LowStockDetector Test")
+class LowStockDetectorTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private LowStockAlertBroadcaster lowStockAlertBroadcaster;
+
+    @InjectMocks
+    private LowStockDetector lowStockDetector;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("判定 - 閾値・在庫切れ・低在庫解消の境界をまたいだ場合のみ通知")
+    void evaluatesThresholdCrossings() {
+        assertThat(LowStockDetector.evaluate(stock(11), stock(10))).contains(LowStockAlert.Type.LOW_STOCK);
+        assertThat(LowStockDetector.evaluate(stock(10), stock(9))).isEmpty();
+        assertThat(LowStockDetector.evaluate(stock(3), stock(0))).contains(LowStockAlert.Type.OUT_OF_STOCK);
+        assertThat(LowStockDetector.evaluate(stock(20), stock(0))).contains(LowStockAlert.Type.OUT_OF_STOCK);
+        assertThat(LowStockDetector.evaluate(stock(0), stock(5))).isEmpty();
+        assertThat(LowStockDetector.evaluate(stock(5), stock(30))).contains(LowStockAlert.Type.RESTOCKED);
+        // 販売中でない書籍は通知しない
+        assertThat(LowStockDetector.evaluate(new BookStock(false, 20, 10), new BookStock(false, 0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("在庫更新 - トランザクション内の変更はコミット後に配信")
+    void broadcastsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        lowStockDetector.onStockChange(1L, "Spring Boot実践ガイド", stock(12), stock(4));
+        verifyNoInteractions(lowStockAlertBroadcaster);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        ArgumentCaptor<LowStockAlert> captor = ArgumentCaptor.forClass(LowStockAlert.class);
+        verify(lowStockAlertBroadcaster).broadcast(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(LowStockAlert.Type.LOW_STOCK);
+        assertThat(captor.getValue().getBookId()).isEqualTo(1L);
+        assertThat(captor.getValue().getStockQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("注文イベント - 販売中の書籍の閾値をまとめて取得して判定")
+    void evaluatesOrderChangesWithSingleLookup() {
+        when(bookRepository.findAlertTargetsByIds(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, "Spring Boot実践ガイド", 10},
+                new Object[]{2L, "Java設計パターン", 5}));
+
+        List<LowStockDetector.BookStockChange> changes = lowStockDetector.resolve(List.of(
+                new LowStockDetector.StockLevelChange(1L, 12, 0),
+                new LowStockDetector.StockLevelChange(2L, 20, 18),
+                new LowStockDetector.StockLevelChange(3L, 3, 3),
+                new LowStockDetector.StockLevelChange(4L, 8, 2)));
+        lowStockDetector.onStockChanges(changes);
+
+        // 在庫数が変わらない書籍は除き、販売中でない書籍は対象外として補う
+        assertThat(changes).extracting(LowStockDetector.BookStockChange::bookId).containsExactly(1L, 2L, 4L);
+        assertThat(changes.get(2).after().active()).isFalse();
+
+        ArgumentCaptor<LowStockAlert> captor = ArgumentCaptor.forClass(LowStockAlert.class);
+        verify(bookRepository, times(1)).findAlertTargetsByIds(anyCollection());
+        verify(lowStockAlertBroadcaster, times(1)).broadcast(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(LowStockAlert.Type.OUT_OF_STOCK);
+        assertThat(captor.getValue().getTitle()).isEqualTo("Spring Boot実践ガイド");
+    }
+
+    private BookStock stock(int quantity) {
+        return new BookStock(true, quantity, 10);
+    }
+}
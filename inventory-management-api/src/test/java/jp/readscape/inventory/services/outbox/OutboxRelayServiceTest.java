@@ -0,0 +1,120 @@
+package jp.readscape.inventory.services.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.readscape.inventory.domain.outbox.model.OutboxMessage;
+import jp.readscape.inventory.domain.outbox.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelayService Test")
+class OutboxRelayServiceTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_ATTEMPTS = 10;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxEventHandler handler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelayService relayService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        lenient().when(handler.supports(anyString())).thenReturn(true);
+        relayService = new OutboxRelayService(outboxEventRepository, List.of(handler), transactionManager,
+                meterRegistry, BATCH_SIZE, 3, MAX_ATTEMPTS, Duration.ofDays(7));
+    }
+
+    @Test
+    @DisplayName("バッチ配信 - ハンドラーに配信して配信済みにする")
+    void relayBatchDeliversAndMarksProcessed() {
+        List<OutboxMessage> batch = List.of(message(1L, OutboxMessage.ORDER_CREATED), message(2L, OutboxMessage.ORDER_CANCELLED));
+        when(outboxEventRepository.claimBatch(BATCH_SIZE, MAX_ATTEMPTS)).thenReturn(batch);
+
+        int claimed = relayService.relayBatch();
+
+        assertThat(claimed).isEqualTo(2);
+        verify(handler).handle(List.of(batch.get(0)));
+        verify(handler).handle(List.of(batch.get(1)));
+        verify(outboxEventRepository).markProcessed(List.of(1L, 2L));
+        verify(transactionManager).commit(transactionStatus);
+        assertThat(meterRegistry.counter("readscape.outbox.relay.delivered").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("バッチ配信失敗 - 失敗したイベントのみ隔離し、他は配信済みにする")
+    void failedEventIsIsolated() {
+        OutboxMessage good = message(1L, OutboxMessage.ORDER_CREATED);
+        OutboxMessage poison = message(2L, OutboxMessage.ORDER_CREATED);
+        when(outboxEventRepository.claimBatch(BATCH_SIZE, MAX_ATTEMPTS)).thenReturn(List.of(good, poison));
+        doThrow(new IllegalStateException("注文イベントの解析に失敗しました"))
+                .when(handler).handle(argThat(messages -> messages.contains(poison)));
+
+        relayService.relayBatch();
+
+        verify(transactionStatus).rollbackToSavepoint(any());
+        verify(outboxEventRepository).recordFailure(eq(2L), contains("解析"));
+        verify(outboxEventRepository).markProcessed(List.of(1L));
+        assertThat(meterRegistry.counter("readscape.outbox.relay.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("ポーリング - バッチが満杯の間は続けて取得し、遅延メトリクスを更新する")
+    void pollDrainsFullBatchesAndRefreshesLag() {
+        when(outboxEventRepository.claimBatch(BATCH_SIZE, MAX_ATTEMPTS))
+                .thenReturn(List.of(message(1L, OutboxMessage.ORDER_CREATED), message(2L, OutboxMessage.ORDER_CREATED)))
+                .thenReturn(List.of(message(3L, OutboxMessage.ORDER_CREATED)));
+        when(outboxEventRepository.findOldestPendingCreatedAt(MAX_ATTEMPTS))
+                .thenReturn(Optional.of(LocalDateTime.now().minusSeconds(30)));
+        when(outboxEventRepository.countPending(MAX_ATTEMPTS)).thenReturn(new long[]{5, 1});
+
+        relayService.relayPendingEvents();
+
+        verify(outboxEventRepository, times(2)).claimBatch(BATCH_SIZE, MAX_ATTEMPTS);
+        assertThat(meterRegistry.get("readscape.outbox.relay.lag.seconds").gauge().value()).isGreaterThanOrEqualTo(30.0);
+        assertThat(meterRegistry.get("readscape.outbox.relay.pending").gauge().value()).isEqualTo(5.0);
+        assertThat(meterRegistry.get("readscape.outbox.relay.dead").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("未配信イベントがない場合はハンドラーを呼び出さない")
+    void emptyBatchDoesNothing() {
+        when(outboxEventRepository.claimBatch(BATCH_SIZE, MAX_ATTEMPTS)).thenReturn(List.of());
+
+        assertThat(relayService.relayBatch()).isZero();
+
+        verifyNoInteractions(handler);
+        verify(outboxEventRepository, never()).markProcessed(anyList());
+    }
+
+    private OutboxMessage message(Long id, String eventType) {
+        return new OutboxMessage(id, eventType, 100L + id, "{}", 0, LocalDateTime.now().minusSeconds(1));
+    }
+}
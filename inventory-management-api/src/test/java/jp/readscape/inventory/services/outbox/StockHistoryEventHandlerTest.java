@@ -0,0 +1,116 @@
+package jp.readscape.inventory.services.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jp.readscape.inventory.domain.books.repository.BookRepository;
+import jp.readscape.inventory.domain.inventory.model.OrderStockMovement;
+import jp.readscape.inventory.domain.inventory.model.StockHistory;
+import jp.readscape.inventory.domain.inventory.repository.StockHistoryBatchRepository;
+import jp.readscape.inventory.domain.outbox.model.OutboxMessage;
+import jp.readscape.inventory.services.InventoryStatsTracker;
+import jp.readscape.inventory.services.InventoryStatsTracker.BookStock;
+import jp.readscape.inventory.services.alerts.LowStockDetector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockHistoryEventHandler Test")
+class StockHistoryEventHandlerTest {
+
+    @Mock
+    private StockHistoryBatchRepository stockHistoryBatchRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private LowStockDetector lowStockDetector;
+
+    @Mock
+    private InventoryStatsTracker inventoryStatsTracker;
+
+    private StockHistoryEventHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new StockHistoryEventHandler(stockHistoryBatchRepository, bookRepository,
+                new ObjectMapper().findAndRegisterModules(), lowStockDetector, inventoryStatsTracker);
+    }
+
+    @Test
+    @DisplayName("注文作成・キャンセルイベントから在庫履歴を一括登録")
+    @SuppressWarnings("unchecked")
+    void recordsOutboundAndReturnMovements() {
+        OutboxMessage created = new OutboxMessage(1L, OutboxMessage.ORDER_CREATED, 10L,
+                "{\"orderId\":10,\"orderNumber\":\"ORD-20261018-0A3FZ-K9M2Q\",\"userId\":5," +
+                "\"occurredAt\":\"2026-10-18T10:30:00\",\"items\":[{\"bookId\":1,\"quantity\":2,\"stockAfter\":8}]}",
+                0, LocalDateTime.now());
+        OutboxMessage cancelled = new OutboxMessage(2L, OutboxMessage.ORDER_CANCELLED, 11L,
+                "{\"orderId\":11,\"orderNumber\":\"ORD-20261018-0A3G0-K9M2R\",\"userId\":6," +
+                "\"occurredAt\":\"2026-10-18T10:31:00\",\"items\":[{\"bookId\":2,\"quantity\":3}]}",
+                0, LocalDateTime.now());
+        when(bookRepository.findStockQuantitiesByIds(Set.of(2L)))
+                .thenReturn(Collections.singletonList(new Object[]{2L, 13}));
+        when(stockHistoryBatchRepository.insertOrderMovements(anyList(), anyInt())).thenReturn(2);
+        List<LowStockDetector.BookStockChange> resolved = List.of(new LowStockDetector.BookStockChange(
+                1L, "Spring Boot実践ガイド", new BookStock(true, 10, 10), new BookStock(true, 8, 10)));
+        when(lowStockDetector.resolve(anyCollection())).thenReturn(resolved);
+
+        handler.handle(List.of(created, cancelled));
+
+        ArgumentCaptor<List<OrderStockMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(stockHistoryBatchRepository).insertOrderMovements(captor.capture(), anyInt());
+        List<OrderStockMovement> movements = captor.getValue();
+
+        assertThat(movements).hasSize(2);
+        OrderStockMovement outbound = movements.get(0);
+        assertThat(outbound.getChangeType()).isEqualTo(StockHistory.StockChangeType.OUTBOUND);
+        assertThat(outbound.getQuantityChanged()).isEqualTo(-2);
+        assertThat(outbound.getQuantityBefore()).isEqualTo(10);
+        assertThat(outbound.getQuantityAfter()).isEqualTo(8);
+        assertThat(outbound.getOrderId()).isEqualTo(10L);
+
+        OrderStockMovement returned = movements.get(1);
+        assertThat(returned.getChangeType()).isEqualTo(StockHistory.StockChangeType.RETURN_FROM_CUSTOMER);
+        assertThat(returned.getQuantityChanged()).isEqualTo(3);
+        assertThat(returned.getQuantityBefore()).isEqualTo(10);
+        assertThat(returned.getQuantityAfter()).isEqualTo(13);
+
+        verify(lowStockDetector).resolve(List.of(
+                new LowStockDetector.StockLevelChange(1L, 10, 8),
+                new LowStockDetector.StockLevelChange(2L, 10, 13)));
+        verify(inventoryStatsTracker).recordChanges(resolved);
+        verify(lowStockDetector).onStockChanges(resolved);
+    }
+
+    @Test
+    @DisplayName("不正なペイロードは例外（リレーが隔離する）")
+    void malformedPayloadThrows() {
+        OutboxMessage broken = new OutboxMessage(3L, OutboxMessage.ORDER_CREATED, 12L, "not-json", 0, LocalDateTime.now());
+
+        assertThatThrownBy(() -> handler.handle(List.of(broken)))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(stockHistoryBatchRepository);
+    }
+
+    @Test
+    @DisplayName("対象イベント種別の判定")
+    void supportsOrderEvents() {
+        assertThat(handler.supports(OutboxMessage.ORDER_CREATED)).isTrue();
+        assertThat(handler.supports(OutboxMessage.ORDER_CANCELLED)).isTrue();
+        assertThat(handler.supports("USER_REGISTERED")).isFalse();
+    }
+}